@@ -0,0 +1,85 @@
+package com.wallet_svc.wallet.benchmark;
+
+import org.mockito.Mockito;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import com.wallet_svc.wallet.configuration.DatabaseBulkheadConfig;
+import com.wallet_svc.wallet.configuration.JacksonConfig;
+import com.wallet_svc.wallet.entity.Wallet;
+import com.wallet_svc.wallet.event.producer.WalletEventProducer;
+import com.wallet_svc.wallet.mapper.WalletMapperImpl;
+import com.wallet_svc.wallet.repository.ReturningStatementExecutor;
+import com.wallet_svc.wallet.repository.WalletRepository;
+import com.wallet_svc.wallet.service.HoldExpiryScheduler;
+import com.wallet_svc.wallet.service.OutboxDispatcher;
+import com.wallet_svc.wallet.service.ReadReplicaRouter;
+import com.wallet_svc.wallet.service.SpendSummaryService;
+import com.wallet_svc.wallet.service.WalletSnapshotCache;
+import com.wallet_svc.wallet.service.impl.WalletServiceImpl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Minimal context for the money path: JPA on embedded H2 (PostgreSQL mode), the real
+ * WalletServiceImpl and outbox writes, and no Kafka, Eureka or web server. The outbox
+ * dispatcher and hold expiry wheel are stubbed so nothing runs in the background.
+ */
+@Configuration
+@ImportAutoConfiguration({
+    DataSourceAutoConfiguration.class,
+    DataSourceTransactionManagerAutoConfiguration.class,
+    JdbcTemplateAutoConfiguration.class,
+    HibernateJpaAutoConfiguration.class,
+    TransactionAutoConfiguration.class
+})
+@EnableJpaRepositories(basePackageClasses = WalletRepository.class)
+@EntityScan(basePackageClasses = Wallet.class)
+@Import({
+    WalletServiceImpl.class,
+    WalletMapperImpl.class,
+    WalletEventProducer.class,
+    WalletSnapshotCache.class,
+    ReadReplicaRouter.class,
+    SpendSummaryService.class,
+    ReturningStatementExecutor.class,
+    JacksonConfig.class,
+    DatabaseBulkheadConfig.class
+})
+public class BenchmarkApplication {
+
+    @Bean
+    MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
+    @Bean
+    OutboxDispatcher outboxDispatcher() {
+        return Mockito.mock(OutboxDispatcher.class);
+    }
+
+    @Bean
+    HoldExpiryScheduler holdExpiryScheduler() {
+        return Mockito.mock(HoldExpiryScheduler.class);
+    }
+
+    static ConfigurableApplicationContext start(String... args) {
+        return new SpringApplicationBuilder(BenchmarkApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("jmh")
+                .run(args);
+    }
+}
@@ -0,0 +1,127 @@
+package com.wallet_svc.wallet.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.wallet_svc.wallet.entity.Wallet;
+import com.wallet_svc.wallet.repository.WalletRepository;
+
+/**
+ * A burst of {@code requests} concurrent requests, each holding a connection for
+ * {@code holdMs} of blocking work, against a small pool.
+ *
+ * mode=platform: a 200-thread pool (Tomcat's default max threads) in front of Hikari.
+ * mode=virtual: one virtual thread per request straight into Hikari; the backlog waits in
+ *   Hikari and requests fail once they exceed its connection-timeout.
+ * mode=virtual-bulkhead: one virtual thread per request behind the BulkheadDataSource.
+ *
+ * The timedOut counter reports requests that could not get a connection.
+ *
+ * Run with: ./mvnw -Pjmh test-compile exec:exec -Djmh.args="VirtualThreadBenchmark"
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VirtualThreadBenchmark {
+
+    private static final String USER_ID = "bench-blocking-user";
+    private static final int POOL_SIZE = 16;
+    private static final int PLATFORM_THREADS = 200;
+
+    @Param({"platform", "virtual", "virtual-bulkhead"})
+    String mode;
+
+    @Param({"5000"})
+    int requests;
+
+    @Param({"5"})
+    long holdMs;
+
+    ConfigurableApplicationContext context;
+    DataSource dataSource;
+    ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(
+                "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                "--spring.datasource.hikari.connection-timeout=1000",
+                "--wallet.db.bulkhead.enabled=" + "virtual-bulkhead".equals(mode));
+        dataSource = context.getBean(DataSource.class);
+        context.getBean(WalletRepository.class)
+                .save(Wallet.builder()
+                        .userId(USER_ID)
+                        .balance(new BigDecimal("1000.00"))
+                        .token(0)
+                        .build());
+        executor = "platform".equals(mode)
+                ? Executors.newFixedThreadPool(PLATFORM_THREADS)
+                : Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcome {
+        public long completed;
+        public long timedOut;
+    }
+
+    @Benchmark
+    public void burst(Outcome outcome) throws InterruptedException {
+        List<Future<Boolean>> results = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            results.add(executor.submit(this::blockingRequest));
+        }
+        for (Future<Boolean> result : results) {
+            try {
+                if (result.get()) {
+                    outcome.completed++;
+                } else {
+                    outcome.timedOut++;
+                }
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+
+    private boolean blockingRequest() throws InterruptedException {
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement =
+                        connection.prepareStatement("SELECT balance FROM wallets WHERE user_id = ?")) {
+            statement.setString(1, USER_ID);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+            }
+            // Stands in for a slow query or a remote call made inside the transaction
+            Thread.sleep(holdMs);
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+}
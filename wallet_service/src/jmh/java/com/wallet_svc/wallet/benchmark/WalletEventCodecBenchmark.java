@@ -0,0 +1,167 @@
+package com.wallet_svc.wallet.benchmark;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wallet_svc.wallet.configuration.JacksonConfig;
+import com.wallet_svc.wallet.entity.OutboxEvent;
+import com.wallet_svc.wallet.event.codec.WalletEventCodec;
+import com.wallet_svc.wallet.event.codec.WalletEventDeserializer;
+import com.wallet_svc.wallet.event.payload.CreditsChargedEvent;
+import com.wallet_svc.wallet.event.payload.LedgerEvent;
+
+/**
+ * JSON vs Avro encode/decode of wallet event payloads.
+ *
+ * The encode benchmarks report the encoded size as the bytes counter, next to the timing.
+ * consumeJson/consumeAvro time what a listener call costs per record: the value
+ * deserializer plus the listener reading the payload object. publishJson/publishAvro time
+ * turning a claimed outbox row into the bytes sent to the broker.
+ *
+ * Run with: ./mvnw -Pjmh test-compile exec:exec -Djmh.args="WalletEventCodecBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WalletEventCodecBenchmark {
+
+    @Param({"credits_charged", "ledger"})
+    String event;
+
+    ObjectMapper objectMapper;
+    WalletEventCodec codec;
+    WalletEventCodec jsonCodec;
+    Class<?> type;
+    Object payload;
+    byte[] json;
+    byte[] avro;
+    String topic;
+    RecordHeaders jsonHeaders;
+    RecordHeaders avroHeaders;
+    WalletEventDeserializer deserializer;
+    JsonSerializer<Object> jsonSerializer;
+    OutboxEvent jsonRow;
+    OutboxEvent avroRow;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = new JacksonConfig().objectMapper();
+        codec = new WalletEventCodec(objectMapper, "avro");
+        jsonCodec = new WalletEventCodec(objectMapper, "json");
+        LocalDateTime now = LocalDateTime.of(2026, 10, 18, 12, 30, 15, 123_000_000);
+        if ("ledger".equals(event)) {
+            type = LedgerEvent.class;
+            payload = LedgerEvent.builder()
+                    .userId("bench-user-0001")
+                    .walletId(1L)
+                    .flags(List.of("credits_charged", "balance_updated", "transaction_created"))
+                    .amount(new BigDecimal("4.00"))
+                    .balanceBefore(new BigDecimal("1238.50"))
+                    .balanceAfter(new BigDecimal("1234.50"))
+                    .balanceDelta(new BigDecimal("-4.00"))
+                    .referenceType("SLIDE_GENERATION")
+                    .referenceId("gen-7f3c2a")
+                    .transactionId(123456L)
+                    .timestamp(now)
+                    .build();
+        } else {
+            type = CreditsChargedEvent.class;
+            payload = CreditsChargedEvent.builder()
+                    .userId("bench-user-0001")
+                    .walletId(1L)
+                    .amount(new BigDecimal("4.00"))
+                    .referenceId("gen-7f3c2a")
+                    .referenceType("SLIDE_GENERATION")
+                    .balanceAfter(new BigDecimal("1234.50"))
+                    .holdId(42L)
+                    .timestamp(now)
+                    .build();
+        }
+        json = objectMapper.writeValueAsBytes(payload);
+        avro = codec.encode(type, payload);
+
+        topic = "ledger".equals(event) ? "wallet.ledger" : "wallet.credits_charged";
+        jsonHeaders = new RecordHeaders();
+        avroHeaders = new RecordHeaders();
+        avroHeaders.add(WalletEventCodec.CONTENT_TYPE_HEADER, WalletEventCodec.AVRO.getBytes(StandardCharsets.UTF_8));
+        avroHeaders.add(WalletEventCodec.SCHEMA_VERSION_HEADER, "1".getBytes(StandardCharsets.UTF_8));
+        deserializer = new WalletEventDeserializer(codec);
+        jsonSerializer = new JsonSerializer<>(objectMapper);
+        String jsonText = new String(json, StandardCharsets.UTF_8);
+        jsonRow = OutboxEvent.builder()
+                .eventType(topic)
+                .aggregateId("bench-user-0001")
+                .payload(jsonText)
+                .build();
+        avroRow = OutboxEvent.builder()
+                .eventType(topic)
+                .aggregateId("bench-user-0001")
+                .payload(jsonText)
+                .payloadAvro(avro)
+                .payloadAvroVersion(1)
+                .build();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedSize {
+        public long bytes; // Size of the last payload encoded, not a sum: run single-threaded
+    }
+
+    @Benchmark
+    public byte[] encodeJson(EncodedSize size) throws Exception {
+        byte[] encoded = objectMapper.writeValueAsBytes(payload);
+        size.bytes = encoded.length;
+        return encoded;
+    }
+
+    @Benchmark
+    public byte[] encodeAvro(EncodedSize size) throws Exception {
+        byte[] encoded = codec.encode(type, payload);
+        size.bytes = encoded.length;
+        return encoded;
+    }
+
+    @Benchmark
+    public Object decodeJson() throws Exception {
+        return objectMapper.readValue(json, type);
+    }
+
+    @Benchmark
+    public Object decodeAvro() throws Exception {
+        return codec.decode(type, 1, avro);
+    }
+
+    @Benchmark
+    public Object consumeJson() throws Exception {
+        return codec.read(deserializer.deserialize(topic, jsonHeaders, json), type);
+    }
+
+    @Benchmark
+    public Object consumeAvro() throws Exception {
+        return codec.read(deserializer.deserialize(topic, avroHeaders, avro), type);
+    }
+
+    @Benchmark
+    public byte[] publishJson() throws Exception {
+        ProducerRecord<String, Object> record = jsonCodec.toRecord(jsonRow);
+        return jsonSerializer.serialize(topic, record.headers(), record.value());
+    }
+
+    @Benchmark
+    public byte[] publishAvro() throws Exception {
+        return (byte[]) codec.toRecord(avroRow).value();
+    }
+}
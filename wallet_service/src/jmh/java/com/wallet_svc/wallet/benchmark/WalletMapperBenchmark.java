@@ -0,0 +1,72 @@
+package com.wallet_svc.wallet.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.wallet_svc.wallet.constant.TransactionStatus;
+import com.wallet_svc.wallet.constant.TransactionType;
+import com.wallet_svc.wallet.dto.response.TransactionResponse;
+import com.wallet_svc.wallet.dto.response.WalletResponse;
+import com.wallet_svc.wallet.entity.Wallet;
+import com.wallet_svc.wallet.entity.WalletTransaction;
+import com.wallet_svc.wallet.mapper.WalletMapper;
+import com.wallet_svc.wallet.mapper.WalletMapperImpl;
+
+/**
+ * Entity to DTO mapping cost on every wallet read and mutation response
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WalletMapperBenchmark {
+
+    WalletMapper walletMapper;
+    Wallet wallet;
+    WalletTransaction transaction;
+
+    @Setup
+    public void setUp() {
+        walletMapper = new WalletMapperImpl();
+        LocalDateTime now = LocalDateTime.now();
+        wallet = Wallet.builder()
+                .id(1L)
+                .userId("bench-user")
+                .balance(new BigDecimal("1234.50"))
+                .lockedBalance(new BigDecimal("10.00"))
+                .totalEarned(new BigDecimal("5000.00"))
+                .totalSpent(new BigDecimal("3765.50"))
+                .token(42)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        transaction = WalletTransaction.builder()
+                .id(1L)
+                .walletId(1L)
+                .transactionType(TransactionType.CHARGE)
+                .amount(BigDecimal.ONE)
+                .referenceType("BENCHMARK")
+                .referenceId("charge")
+                .status(TransactionStatus.SUCCESS)
+                .balanceBefore(new BigDecimal("1235.50"))
+                .balanceAfter(new BigDecimal("1234.50"))
+                .metadata("{\"hold_id\":1}")
+                .processedAt(now)
+                .build();
+    }
+
+    @Benchmark
+    public WalletResponse toWalletResponse() {
+        return walletMapper.toWalletResponse(wallet);
+    }
+
+    @Benchmark
+    public TransactionResponse toTransactionResponse() {
+        return walletMapper.toTransactionResponse(transaction);
+    }
+}
@@ -0,0 +1,134 @@
+package com.wallet_svc.wallet.benchmark;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.wallet_svc.wallet.dto.request.ChargeRequest;
+import com.wallet_svc.wallet.dto.request.DeductTokenRequest;
+import com.wallet_svc.wallet.dto.request.HoldRequest;
+import com.wallet_svc.wallet.dto.request.TopUpRequest;
+import com.wallet_svc.wallet.dto.response.BalanceResponse;
+import com.wallet_svc.wallet.dto.response.TokenResponse;
+import com.wallet_svc.wallet.dto.response.TransactionResponse;
+import com.wallet_svc.wallet.entity.Wallet;
+import com.wallet_svc.wallet.repository.WalletRepository;
+import com.wallet_svc.wallet.service.WalletService;
+import com.wallet_svc.wallet.service.impl.WalletServiceImpl;
+
+/**
+ * Throughput and latency of the WalletServiceImpl money path.
+ *
+ * scenario=contended: every thread hits the same wallet (row-lock bound).
+ * scenario=uncontended: each operation picks one of {@code wallets} wallets at random.
+ *
+ * Run with: ./mvnw -Pjmh test-compile exec:exec
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class WalletServiceBenchmark {
+
+    private static final Pattern HOLD_ID = Pattern.compile("\"hold_id\":(\\d+)");
+    private static final BigDecimal AMOUNT = BigDecimal.ONE;
+
+    @Param({"contended", "uncontended"})
+    String scenario;
+
+    @Param({"1024"})
+    int wallets;
+
+    @Param({"true"})
+    boolean cacheEnabled;
+
+    ConfigurableApplicationContext context;
+    WalletService walletService;
+    String[] userIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("--wallet.cache.enabled=" + cacheEnabled);
+        walletService = context.getBean(WalletServiceImpl.class);
+        WalletRepository walletRepository = context.getBean(WalletRepository.class);
+
+        int count = "contended".equals(scenario) ? 1 : wallets;
+        userIds = new String[count];
+        for (int i = 0; i < count; i++) {
+            userIds[i] = "bench-user-" + i;
+            walletRepository.save(Wallet.builder()
+                    .userId(userIds[i])
+                    .balance(new BigDecimal("1000000000000.00"))
+                    .token(1_000_000_000)
+                    .build());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TransactionResponse holdThenCharge() {
+        String userId = nextUser();
+        TransactionResponse hold = walletService.holdCredits(HoldRequest.builder()
+                .userId(userId)
+                .amount(AMOUNT)
+                .referenceType("BENCHMARK")
+                .referenceId("hold")
+                .build());
+
+        return walletService.charge(ChargeRequest.builder()
+                .userId(userId)
+                .amount(AMOUNT)
+                .holdId(holdId(hold))
+                .referenceType("BENCHMARK")
+                .referenceId("charge")
+                .build());
+    }
+
+    @Benchmark
+    public TransactionResponse topUp() {
+        return walletService.topUp(TopUpRequest.builder()
+                .userId(nextUser())
+                .amount(AMOUNT)
+                .referenceType("BENCHMARK")
+                .referenceId("top-up")
+                .build());
+    }
+
+    @Benchmark
+    public TokenResponse deductToken() {
+        return walletService.deductToken(DeductTokenRequest.builder()
+                .userId(nextUser())
+                .tokens(1)
+                .referenceId("deduct")
+                .build());
+    }
+
+    @Benchmark
+    public BalanceResponse getBalance() {
+        return walletService.getBalance(nextUser());
+    }
+
+    private String nextUser() {
+        return userIds.length == 1 ? userIds[0] : userIds[ThreadLocalRandom.current().nextInt(userIds.length)];
+    }
+
+    private static Long holdId(TransactionResponse hold) {
+        Matcher matcher = HOLD_ID.matcher(hold.getMetadata());
+        if (!matcher.find()) {
+            throw new IllegalStateException("Hold response without hold_id: " + hold.getMetadata());
+        }
+        return Long.valueOf(matcher.group(1));
+    }
+}
@@ -0,0 +1,126 @@
+package com.wallet_svc.wallet.configuration;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Connection pool front door that lets at most {@code permits} connections be checked out.
+ *
+ * Callers beyond the limit park on a fair semaphore for up to {@code maxWaitMs} before they
+ * reach Hikari, so with permits equal to the pool size Hikari always has a connection to hand
+ * out and its connection-timeout only covers a broken database. Parking is cheap on virtual
+ * threads, where thousands of requests may want a connection at once. A permit is held until
+ * the connection is closed.
+ *
+ * Metrics:
+ * - wallet.db.bulkhead.waiting: callers parked for a permit
+ * - wallet.db.bulkhead.available: permits left
+ * - wallet.db.bulkhead.wait: time spent waiting for a permit
+ * all tagged with the pool (primary, replica).
+ */
+public class BulkheadDataSource extends DelegatingDataSource implements MeterBinder {
+
+    private final String pool;
+    private final int permits;
+    private final long maxWaitMs;
+    private final Semaphore semaphore;
+
+    private Timer waitTimer;
+
+    public BulkheadDataSource(DataSource target, int permits, long maxWaitMs) {
+        this(target, "primary", permits, maxWaitMs);
+    }
+
+    public BulkheadDataSource(DataSource target, String pool, int permits, long maxWaitMs) {
+        super(target);
+        this.pool = pool;
+        this.permits = permits;
+        this.maxWaitMs = maxWaitMs;
+        this.semaphore = new Semaphore(permits, true);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException e) {
+            semaphore.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            semaphore.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("wallet.db.bulkhead.waiting", semaphore, Semaphore::getQueueLength)
+                .description("Callers waiting for a connection permit")
+                .tag("pool", pool)
+                .register(registry);
+        Gauge.builder("wallet.db.bulkhead.available", semaphore, Semaphore::availablePermits)
+                .description("Connection permits left, out of " + permits)
+                .tag("pool", pool)
+                .register(registry);
+        waitTimer = Timer.builder("wallet.db.bulkhead.wait")
+                .description("Time spent waiting for a connection permit")
+                .tag("pool", pool)
+                .register(registry);
+    }
+
+    private void acquire() throws SQLException {
+        long startedNanos = System.nanoTime();
+        try {
+            if (!semaphore.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "No database connection permit within " + maxWaitMs + " ms (" + permits + " in use)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection permit", e);
+        } finally {
+            if (waitTimer != null) {
+                waitTimer.record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private Connection releasingOnClose(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    } finally {
+                        if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                            semaphore.release();
+                        }
+                    }
+                });
+    }
+}
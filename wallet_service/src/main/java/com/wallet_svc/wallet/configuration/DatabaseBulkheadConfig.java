@@ -0,0 +1,62 @@
+package com.wallet_svc.wallet.configuration;
+
+import java.util.List;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Puts a BulkheadDataSource in front of the Hikari pool when wallet.db.bulkhead.enabled is
+ * set, which it is by default together with spring.threads.virtual.enabled. Permits default
+ * to the pool size.
+ *
+ * With a read replica (ReadReplicaConfig) each pool gets its own bulkhead, the replica's
+ * sized to wallet.db.replica.hikari.maximum-pool-size; the routing DataSource in front of
+ * them is left alone.
+ */
+@Configuration
+@ConditionalOnProperty(name = "wallet.db.bulkhead.enabled", havingValue = "true")
+public class DatabaseBulkheadConfig {
+
+    @Bean
+    static BeanPostProcessor databaseBulkheadPostProcessor(Environment environment) {
+        int permits = environment.getProperty(
+                "wallet.db.bulkhead.permits",
+                Integer.class,
+                environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+        int replicaPermits =
+                environment.getProperty("wallet.db.replica.hikari.maximum-pool-size", Integer.class, permits);
+        long maxWaitMs = environment.getProperty("wallet.db.bulkhead.max-wait-ms", Long.class, 60000L);
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource
+                        && !(bean instanceof DelegatingDataSource)
+                        && !(bean instanceof AbstractRoutingDataSource)) {
+                    return ReadReplicaConfig.REPLICA_DATA_SOURCE.equals(beanName)
+                            ? new BulkheadDataSource(dataSource, "replica", replicaPermits, maxWaitMs)
+                            : new BulkheadDataSource(dataSource, permits, maxWaitMs);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder databaseBulkheadMetrics(List<DataSource> dataSources) {
+        return registry -> dataSources.forEach(dataSource -> {
+            if (dataSource instanceof BulkheadDataSource bulkhead) {
+                bulkhead.bindTo(registry);
+            }
+        });
+    }
+}
@@ -4,30 +4,39 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.util.backoff.FixedBackOff;
 
+import com.wallet_svc.wallet.event.codec.WalletEventCodec;
+import com.wallet_svc.wallet.event.codec.WalletEventDeserializer;
+import com.wallet_svc.wallet.event.consumer.KeyOrderedDispatcher;
+
 /**
  * Kafka Consumer Configuration with Production Best Practices
  *
  * Features:
  * - Dead Letter Queue (DLQ) for failed messages
  * - Retry mechanism with exponential backoff
- * - Error handling deserializer
+ * - Error handling deserializer; values are negotiated JSON or Avro by content-type header
  * - Manual commit for critical operations
  * - Consumer group configuration
+ * - Listener containers on virtual threads when spring.threads.virtual.enabled is set
  */
 @EnableKafka
 @Configuration
@@ -39,11 +48,47 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.consumer.group-id:wallet-service-group}")
     private String groupId;
 
+    @Value("${wallet.kafka.batch.max-poll-records:500}")
+    private int batchMaxPollRecords;
+
+    @Value("${wallet.kafka.key-ordered.max-poll-records:200}")
+    private int keyOrderedMaxPollRecords;
+
+    @Value("${wallet.kafka.listener.concurrency:3}")
+    private int concurrency;
+
+    @Value("${wallet.usage-log.retry-backoff-ms:1000}")
+    private long usageLogRetryBackoffMs;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private final WalletEventCodec eventCodec;
+
+    public KafkaConsumerConfig(WalletEventCodec eventCodec) {
+        this.eventCodec = eventCodec;
+    }
+
     /**
      * Consumer Factory with Error Handling
      */
     @Bean
     public ConsumerFactory<String, Object> consumerFactory() {
+        return consumerFactory(consumerConfig(10)); // Process in small batches
+    }
+
+    /**
+     * Listeners receive JSON values as the raw string and Avro values as the decoded payload
+     * object (WalletEventDeserializer), and read either through WalletEventCodec.read
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private ConsumerFactory<String, Object> consumerFactory(Map<String, Object> config) {
+        Deserializer<Object> valueDeserializer =
+                (Deserializer) new ErrorHandlingDeserializer<>(new WalletEventDeserializer(eventCodec));
+        return new DefaultKafkaConsumerFactory<>(config, new StringDeserializer(), valueDeserializer);
+    }
+
+    private Map<String, Object> consumerConfig(int maxPollRecords) {
         Map<String, Object> config = new HashMap<>();
 
         // Connection
@@ -65,7 +110,7 @@ public class KafkaConsumerConfig {
         config.put(ConsumerConfig.AUTO_COMMIT_INTERVAL_MS_CONFIG, 1000);
 
         // Performance tuning
-        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 10); // Process in small batches
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
         config.put(ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG, 300000); // 5 minutes max processing time
         config.put(ConsumerConfig.SESSION_TIMEOUT_MS_CONFIG, 60000); // 60 seconds
         config.put(ConsumerConfig.HEARTBEAT_INTERVAL_MS_CONFIG, 20000); // 20 seconds
@@ -74,7 +119,7 @@ public class KafkaConsumerConfig {
         config.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, 1);
         config.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, 500);
 
-        return new DefaultKafkaConsumerFactory<>(config);
+        return config;
     }
 
     /**
@@ -84,16 +129,9 @@ public class KafkaConsumerConfig {
      */
     @Bean
     public DefaultErrorHandler errorHandler(KafkaTemplate<String, Object> kafkaTemplate) {
-        // Dead Letter Queue recoverer
-        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate, (record, ex) -> {
-            // Send to topic with .DLT suffix (Dead Letter Topic)
-            String dlqTopic = record.topic() + ".DLT";
-            return new org.apache.kafka.common.TopicPartition(dlqTopic, record.partition());
-        });
-
         // Retry 3 times with 2 second intervals
         DefaultErrorHandler errorHandler = new DefaultErrorHandler(
-                recoverer, new FixedBackOff(2000L, 3L) // 2 seconds interval, 3 retries
+                deadLetterRecoverer(kafkaTemplate), new FixedBackOff(2000L, 3L) // 2 seconds interval, 3 retries
                 );
 
         // Don't retry on specific exceptions (e.g., validation errors)
@@ -117,11 +155,110 @@ public class KafkaConsumerConfig {
         factory.setCommonErrorHandler(errorHandler);
 
         // Concurrency - how many concurrent consumers per listener
-        factory.setConcurrency(3); // 3 threads per listener
+        factory.setConcurrency(concurrency);
+        applyTaskExecutor(factory, "kafka-listener-");
+
+        return factory;
+    }
+
+    /**
+     * Batch Listener Container Factory
+     * Delivers a whole poll (up to wallet.kafka.batch.max-poll-records) to one listener call,
+     * used for high-volume topics such as payment.completed
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> batchKafkaListenerContainerFactory(
+            DefaultErrorHandler errorHandler) {
+
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+
+        factory.setConsumerFactory(consumerFactory(consumerConfig(batchMaxPollRecords)));
+        factory.setCommonErrorHandler(errorHandler);
+        factory.setConcurrency(concurrency);
+        factory.setBatchListener(true);
+        applyTaskExecutor(factory, "kafka-batch-listener-");
+
+        return factory;
+    }
 
-        // Batch processing (optional)
-        // factory.setBatchListener(true);
+    /**
+     * Usage Log Listener Container Factory
+     * Batch listener for usage.logged, whose polls are written before the listener returns.
+     * Offsets are committed by the container after each successful call, never by the
+     * consumer's auto-commit ahead of the database. A failed write is retried every
+     * wallet.usage-log.retry-backoff-ms without limit, the consumer paused and polled between
+     * attempts so it stays in the group; only batches the database rejects as invalid go to
+     * the DLT
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> usageLogKafkaListenerContainerFactory(
+            KafkaTemplate<String, Object> kafkaTemplate) {
+
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+
+        Map<String, Object> config = consumerConfig(batchMaxPollRecords);
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false); // Committed by the container after each poll
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(
+                deadLetterRecoverer(kafkaTemplate),
+                new FixedBackOff(usageLogRetryBackoffMs, FixedBackOff.UNLIMITED_ATTEMPTS));
+        errorHandler.addNotRetryableExceptions(DataIntegrityViolationException.class);
+        factory.setConsumerFactory(consumerFactory(config));
+        factory.setCommonErrorHandler(errorHandler);
+        factory.setConcurrency(concurrency);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        applyTaskExecutor(factory, "kafka-usage-log-");
 
         return factory;
     }
+
+    /**
+     * Key-ordered Listener Container Factory
+     * Listeners hand each record to KeyOrderedDispatcher and return; records are acknowledged
+     * out of order as workers finish them, and the container commits only the contiguous
+     * prefix of handled offsets. Used for all wallet topics when
+     * wallet.kafka.key-ordered.enabled=true
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> keyOrderedKafkaListenerContainerFactory(
+            DefaultErrorHandler errorHandler, KeyOrderedDispatcher dispatcher) {
+
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+
+        Map<String, Object> config = consumerConfig(keyOrderedMaxPollRecords);
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false); // Committed by the container as records are acked
+        factory.setConsumerFactory(consumerFactory(config));
+        factory.setCommonErrorHandler(errorHandler);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setAsyncAcks(true);
+        factory.getContainerProperties().setConsumerRebalanceListener(dispatcher);
+        applyTaskExecutor(factory, "kafka-key-ordered-");
+
+        return factory;
+    }
+
+    /**
+     * Dead Letter Queue recoverer: sends to the topic with a .DLT suffix, same partition
+     */
+    private static DeadLetterPublishingRecoverer deadLetterRecoverer(KafkaTemplate<String, Object> kafkaTemplate) {
+        return new DeadLetterPublishingRecoverer(kafkaTemplate, (record, ex) -> {
+            String dlqTopic = record.topic() + ".DLT";
+            return new org.apache.kafka.common.TopicPartition(dlqTopic, record.partition());
+        });
+    }
+
+    /**
+     * Run each consumer container on its own virtual thread instead of a platform thread
+     */
+    private void applyTaskExecutor(ConcurrentKafkaListenerContainerFactory<String, Object> factory, String prefix) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(prefix);
+            executor.setVirtualThreads(true);
+            factory.getContainerProperties().setListenerTaskExecutor(executor);
+        }
+    }
 }
@@ -1,9 +1,12 @@
 package com.wallet_svc.wallet.configuration;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -11,6 +14,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -18,6 +22,14 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 /**
  * Kafka Producer configuration with properly configured ObjectMapper
  * to ensure LocalDateTime is serialized as ISO-8601 strings
+ *
+ * The producer is idempotent (acks=all, broker-side de-duplication of retries, ordering kept
+ * per partition with up to 5 in-flight requests) and batches with a short linger and
+ * compression. Events are keyed by userId by the outbox publisher, so one user's events stay
+ * on one partition. Tuned with wallet.kafka.producer.*.
+ *
+ * byte[] values (Avro-encoded events, see WalletEventCodec) are written as-is, anything else
+ * as JSON.
  */
 @Configuration
 public class KafkaProducerConfig {
@@ -25,6 +37,24 @@ public class KafkaProducerConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Value("${wallet.kafka.producer.acks:all}")
+    private String acks;
+
+    @Value("${wallet.kafka.producer.enable-idempotence:true}")
+    private boolean enableIdempotence;
+
+    @Value("${wallet.kafka.producer.linger-ms:5}")
+    private int lingerMs;
+
+    @Value("${wallet.kafka.producer.batch-size:65536}")
+    private int batchSize;
+
+    @Value("${wallet.kafka.producer.compression-type:lz4}")
+    private String compressionType;
+
+    @Value("${wallet.kafka.producer.max-in-flight-requests:5}")
+    private int maxInFlightRequests;
+
     private final ObjectMapper objectMapper;
 
     public KafkaProducerConfig(ObjectMapper objectMapper) {
@@ -38,10 +68,23 @@ public class KafkaProducerConfig {
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
 
-        // Create JsonSerializer with custom ObjectMapper
-        JsonSerializer<Object> jsonSerializer = new JsonSerializer<>(objectMapper);
+        // Delivery guarantees
+        configProps.put(ProducerConfig.ACKS_CONFIG, acks);
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, enableIdempotence);
+        configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, maxInFlightRequests);
+
+        // Throughput: wait up to linger-ms to fill batches, compress whole batches
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+
+        // Create JsonSerializer with custom ObjectMapper; exact byte[] match is tried first
+        Map<Class<?>, Serializer<?>> valueSerializers = new LinkedHashMap<>();
+        valueSerializers.put(byte[].class, new ByteArraySerializer());
+        valueSerializers.put(Object.class, new JsonSerializer<>(objectMapper));
+        Serializer<Object> valueSerializer = new DelegatingByTypeSerializer(valueSerializers, true);
 
-        return new DefaultKafkaProducerFactory<>(configProps, new StringSerializer(), jsonSerializer);
+        return new DefaultKafkaProducerFactory<>(configProps, new StringSerializer(), valueSerializer);
     }
 
     @Bean
@@ -0,0 +1,74 @@
+package com.wallet_svc.wallet.configuration;
+
+import java.util.Map;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Two Hikari pools, the primary (spring.datasource.*) and a read replica
+ * (wallet.db.replica.*), behind one routing DataSource when wallet.db.replica.enabled is set.
+ *
+ * Read-only transactions run on the replica, everything else on the primary; which reads
+ * are allowed to open a read-only transaction is decided by ReadReplicaRouter. The routing
+ * DataSource sits behind a LazyConnectionDataSourceProxy so the pool is picked on the first
+ * statement, once the transaction's read-only flag is known.
+ */
+@Configuration
+@ConditionalOnProperty(name = "wallet.db.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    public static final String PRIMARY_DATA_SOURCE = "primaryDataSource";
+    public static final String REPLICA_DATA_SOURCE = "replicaDataSource";
+
+    @Bean(PRIMARY_DATA_SOURCE)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties
+                .initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    @Bean(REPLICA_DATA_SOURCE)
+    @ConfigurationProperties("wallet.db.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            @Value("${wallet.db.replica.url}") String url,
+            @Value("${wallet.db.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${wallet.db.replica.password:${spring.datasource.password:}}") String password,
+            @Value("${wallet.db.replica.driver-class-name:${spring.datasource.driver-class-name:}}")
+                    String driverClassName) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        if (!driverClassName.isEmpty()) {
+            dataSource.setDriverClassName(driverClassName);
+        }
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier(PRIMARY_DATA_SOURCE) DataSource primary, @Qualifier(REPLICA_DATA_SOURCE) DataSource replica) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource();
+        routing.setTargetDataSources(Map.of(
+                ReplicaRoutingDataSource.Target.PRIMARY, primary,
+                ReplicaRoutingDataSource.Target.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -5,6 +5,7 @@ import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -18,6 +19,7 @@ import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
 
 @Configuration
 @EnableWebSecurity
@@ -27,6 +29,10 @@ public class SecurityConfig {
     @Value("${jwt.secret}")
     private String jwtSecret;
 
+    // Separate, internal-only actuator port; unset (-1) means actuator shares the app port
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
     private static final String[] PUBLIC_ENDPOINTS = {
         "/v3/api-docs/**",
         "/swagger-ui/**",
@@ -36,6 +42,10 @@ public class SecurityConfig {
         "/wallet/internal/**"
     };
 
+    // Credit package catalog: sent with Cache-Control: public so a CDN can serve it, which
+    // only works without a token. Matched within the servlet context, so without /wallet.
+    private static final String[] PUBLIC_GET_ENDPOINTS = {"/api/wallets/packages/**"};
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http.csrf(AbstractHttpConfigurer::disable)
@@ -43,6 +53,14 @@ public class SecurityConfig {
                         // Public endpoints
                         .requestMatchers(PUBLIC_ENDPOINTS)
                         .permitAll()
+                        .requestMatchers(HttpMethod.GET, PUBLIC_GET_ENDPOINTS)
+                        .permitAll()
+
+                        // Metrics are scraped without a token only on the internal management port
+                        .requestMatchers(new AndRequestMatcher(
+                                EndpointRequest.to("prometheus"),
+                                request -> managementPort > 0 && request.getLocalPort() == managementPort))
+                        .permitAll()
 
                         // Admin endpoints
                         .requestMatchers("/wallet/admin/**")
@@ -1,15 +1,27 @@
 package com.wallet_svc.wallet.controller;
 
+import java.time.LocalDate;
+import java.util.List;
+
 import jakarta.validation.Valid;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.wallet_svc.wallet.dto.request.AdjustmentRequest;
+import com.wallet_svc.wallet.dto.request.CreditPackageRequest;
 import com.wallet_svc.wallet.dto.response.*;
+import com.wallet_svc.wallet.service.CreditPackageService;
+import com.wallet_svc.wallet.service.SpendSummaryService;
+import com.wallet_svc.wallet.service.TransactionExportService;
 import com.wallet_svc.wallet.service.TransactionService;
 import com.wallet_svc.wallet.service.WalletService;
 
@@ -26,6 +38,34 @@ import lombok.extern.slf4j.Slf4j;
 public class AdminWalletController {
     WalletService walletService;
     TransactionService transactionService;
+    SpendSummaryService spendSummaryService;
+    TransactionExportService transactionExportService;
+    CreditPackageService creditPackageService;
+
+    @GetMapping("/packages")
+    ApiResponse<List<CreditPackageResponse>> getAllPackages() {
+        return ApiResponse.<List<CreditPackageResponse>>builder()
+                .result(creditPackageService.getAllPackages())
+                .build();
+    }
+
+    @PostMapping("/packages")
+    @ResponseStatus(HttpStatus.CREATED)
+    ApiResponse<CreditPackageResponse> createPackage(@RequestBody @Valid CreditPackageRequest request) {
+        log.info("Admin create credit package: {}", request.getCode());
+        return ApiResponse.<CreditPackageResponse>builder()
+                .result(creditPackageService.createPackage(request))
+                .build();
+    }
+
+    @PutMapping("/packages/{id}")
+    ApiResponse<CreditPackageResponse> updatePackage(
+            @PathVariable("id") Long id, @RequestBody @Valid CreditPackageRequest request) {
+        log.info("Admin update credit package: {}", id);
+        return ApiResponse.<CreditPackageResponse>builder()
+                .result(creditPackageService.updatePackage(id, request))
+                .build();
+    }
 
     @GetMapping("/{userId}")
     ApiResponse<WalletResponse> getWalletByUserId(@PathVariable("userId") String userId) {
@@ -35,6 +75,18 @@ public class AdminWalletController {
                 .build();
     }
 
+    @GetMapping("/{userId}/summary")
+    ApiResponse<SpendSummaryResponse> getSummary(
+            @PathVariable("userId") String userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String type) {
+        log.info("Admin get summary for user: {}, from: {}, to: {}, type: {}", userId, from, to, type);
+        return ApiResponse.<SpendSummaryResponse>builder()
+                .result(spendSummaryService.getSummary(userId, from, to, type))
+                .build();
+    }
+
     @PostMapping("/{userId}/adjustment")
     @ResponseStatus(HttpStatus.CREATED)
     ApiResponse<TransactionResponse> createAdjustment(
@@ -54,4 +106,51 @@ public class AdminWalletController {
                 .result(transactionService.getAllTransactions(pageable))
                 .build();
     }
+
+    @GetMapping("/transactions/cursor")
+    ApiResponse<CursorPage<TransactionResponse>> getAllTransactionsByCursor(
+            @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "20") int limit) {
+        return ApiResponse.<CursorPage<TransactionResponse>>builder()
+                .result(transactionService.getAllTransactions(cursor, limit))
+                .build();
+    }
+
+    @GetMapping("/transactions/export")
+    ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        log.info("Admin export transactions, from: {}, to: {}, type: {}, format: {}", from, to, type, format);
+        return export(new TransactionExportService.Filter(null, from, to, type), format, "transactions");
+    }
+
+    @GetMapping("/{userId}/transactions/export")
+    ResponseEntity<StreamingResponseBody> exportWalletTransactions(
+            @PathVariable("userId") String userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        log.info(
+                "Admin export transactions for user: {}, from: {}, to: {}, type: {}, format: {}",
+                userId,
+                from,
+                to,
+                type,
+                format);
+        return export(new TransactionExportService.Filter(userId, from, to, type), format, "transactions-" + userId);
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(
+            TransactionExportService.Filter filter, String format, String fileName) {
+        TransactionExportService.Format exportFormat = TransactionExportService.Format.parse(format);
+        StreamingResponseBody body = transactionExportService.export(filter, exportFormat);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+                .header(
+                        HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + fileName + "." + exportFormat.extension() + "\"")
+                .body(body);
+    }
 }
@@ -1,5 +1,7 @@
 package com.wallet_svc.wallet.controller;
 
+import java.util.List;
+
 import jakarta.validation.Valid;
 
 import org.springframework.http.HttpStatus;
@@ -7,6 +9,9 @@ import org.springframework.web.bind.annotation.*;
 
 import com.wallet_svc.wallet.dto.request.*;
 import com.wallet_svc.wallet.dto.response.*;
+import com.wallet_svc.wallet.service.IdempotencyKeyService;
+import com.wallet_svc.wallet.service.UsageLogIngestService;
+import com.wallet_svc.wallet.service.WalletBatchService;
 import com.wallet_svc.wallet.service.WalletService;
 
 import lombok.AccessLevel;
@@ -20,46 +25,113 @@ import lombok.extern.slf4j.Slf4j;
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 @Slf4j
 public class InternalWalletController {
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     WalletService walletService;
+    WalletBatchService walletBatchService;
+    IdempotencyKeyService idempotencyKeyService;
+    UsageLogIngestService usageLogIngestService;
 
     @PostMapping("/hold")
     @ResponseStatus(HttpStatus.CREATED)
-    ApiResponse<TransactionResponse> holdCredits(@RequestBody @Valid HoldRequest request) {
+    ApiResponse<TransactionResponse> holdCredits(
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @RequestBody @Valid HoldRequest request) {
         log.info("Hold credits request for user: {}", request.getUserId());
         return ApiResponse.<TransactionResponse>builder()
-                .result(walletService.holdCredits(request))
+                .result(idempotencyKeyService.execute(
+                        idempotencyKey, "hold", request.getUserId(), request, () -> walletService.holdCredits(request)))
                 .build();
     }
 
     @PostMapping("/release")
-    ApiResponse<TransactionResponse> releaseHold(@RequestBody @Valid ReleaseHoldRequest request) {
+    ApiResponse<TransactionResponse> releaseHold(
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @RequestBody @Valid ReleaseHoldRequest request) {
         log.info("Release hold request: {}", request.getHoldId());
+        // The owner is only known from the hold; the wallet service picks the stripe itself
         return ApiResponse.<TransactionResponse>builder()
-                .result(walletService.releaseHold(request))
+                .result(idempotencyKeyService.execute(
+                        idempotencyKey, "release", null, request, () -> walletService.releaseHold(request)))
                 .build();
     }
 
     @PostMapping("/charge")
-    ApiResponse<TransactionResponse> chargeCredits(@RequestBody @Valid ChargeRequest request) {
+    ApiResponse<TransactionResponse> chargeCredits(
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @RequestBody @Valid ChargeRequest request) {
         log.info("Charge credits request for user: {}", request.getUserId());
         return ApiResponse.<TransactionResponse>builder()
-                .result(walletService.charge(request))
+                .result(idempotencyKeyService.execute(
+                        idempotencyKey, "charge", request.getUserId(), request, () -> walletService.charge(request)))
                 .build();
     }
 
     @PostMapping("/refund")
-    ApiResponse<TransactionResponse> refundCredits(@RequestBody @Valid RefundRequest request) {
+    ApiResponse<TransactionResponse> refundCredits(
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @RequestBody @Valid RefundRequest request) {
         log.info("Refund credits request for user: {}", request.getUserId());
         return ApiResponse.<TransactionResponse>builder()
-                .result(walletService.refund(request))
+                .result(idempotencyKeyService.execute(
+                        idempotencyKey, "refund", request.getUserId(), request, () -> walletService.refund(request)))
                 .build();
     }
 
     @PostMapping("/top-up")
-    ApiResponse<TransactionResponse> topUp(@RequestBody @Valid TopUpRequest request) {
+    ApiResponse<TransactionResponse> topUp(
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @RequestBody @Valid TopUpRequest request) {
         log.info("Top-up request for user: {}", request.getUserId());
         return ApiResponse.<TransactionResponse>builder()
-                .result(walletService.topUp(request))
+                .result(idempotencyKeyService.execute(
+                        idempotencyKey, "top-up", request.getUserId(), request, () -> walletService.topUp(request)))
+                .build();
+    }
+
+    @PostMapping("/holds:batch")
+    ApiResponse<BatchResponse<TransactionResponse>> holdCreditsBatch(
+            @RequestBody @Valid BatchRequest<HoldRequest> request) {
+        log.info("Batch hold request: {} operations", request.getOperations().size());
+        return ApiResponse.<BatchResponse<TransactionResponse>>builder()
+                .result(walletBatchService.holdCredits(request.getOperations()))
+                .build();
+    }
+
+    @PostMapping("/charges:batch")
+    ApiResponse<BatchResponse<TransactionResponse>> chargeCreditsBatch(
+            @RequestBody @Valid BatchRequest<ChargeRequest> request) {
+        log.info("Batch charge request: {} operations", request.getOperations().size());
+        return ApiResponse.<BatchResponse<TransactionResponse>>builder()
+                .result(walletBatchService.charge(request.getOperations()))
+                .build();
+    }
+
+    @PostMapping("/refunds:batch")
+    ApiResponse<BatchResponse<TransactionResponse>> refundCreditsBatch(
+            @RequestBody @Valid BatchRequest<RefundRequest> request) {
+        log.info("Batch refund request: {} operations", request.getOperations().size());
+        return ApiResponse.<BatchResponse<TransactionResponse>>builder()
+                .result(walletBatchService.refund(request.getOperations()))
+                .build();
+    }
+
+    /**
+     * Usage logs are buffered and written in bulk; 202 once they are in the buffer
+     */
+    @PostMapping("/usage-logs")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    ApiResponse<Integer> logUsage(@RequestBody @Valid UsageLogRequest request) {
+        return ApiResponse.<Integer>builder()
+                .result(usageLogIngestService.submit(List.of(request)))
+                .build();
+    }
+
+    @PostMapping("/usage-logs:batch")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    ApiResponse<Integer> logUsageBatch(@RequestBody @Valid BatchRequest<UsageLogRequest> request) {
+        return ApiResponse.<Integer>builder()
+                .result(usageLogIngestService.submit(request.getOperations()))
                 .build();
     }
 
@@ -1,17 +1,29 @@
 package com.wallet_svc.wallet.controller;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import com.wallet_svc.wallet.dto.response.*;
+import com.wallet_svc.wallet.service.CreditPackageService;
+import com.wallet_svc.wallet.service.SpendSummaryService;
 import com.wallet_svc.wallet.service.TransactionService;
 import com.wallet_svc.wallet.service.WalletService;
 
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
 import lombok.extern.slf4j.Slf4j;
 
 @RestController
@@ -22,6 +34,12 @@ import lombok.extern.slf4j.Slf4j;
 public class WalletController {
     WalletService walletService;
     TransactionService transactionService;
+    SpendSummaryService spendSummaryService;
+    CreditPackageService creditPackageService;
+
+    @NonFinal
+    @Value("${wallet.packages.max-age-seconds:60}")
+    long packagesMaxAgeSeconds;
 
     @GetMapping("/my")
     ApiResponse<WalletResponse> getMyWallet(@RequestHeader("X-User-Id") String userId) {
@@ -51,6 +69,36 @@ public class WalletController {
                 .build();
     }
 
+    /**
+     * Keyset-paginated history: cost does not grow with depth and no total count is run
+     */
+    @GetMapping("/my/transactions/cursor")
+    ApiResponse<CursorPage<TransactionResponse>> getMyTransactionsByCursor(
+            @RequestHeader("X-User-Id") String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        log.info("Get transactions for user: {}, cursor: {}, limit: {}", userId, cursor, limit);
+        return ApiResponse.<CursorPage<TransactionResponse>>builder()
+                .result(transactionService.getMyTransactions(userId, cursor, limit))
+                .build();
+    }
+
+    /**
+     * Totals per transaction type and reference type, e.g. spent this month
+     * (default range) or top-ups this week ({@code from}=Monday, {@code type}=TOP_UP)
+     */
+    @GetMapping("/my/summary")
+    ApiResponse<SpendSummaryResponse> getMySummary(
+            @RequestHeader("X-User-Id") String userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String type) {
+        log.info("Get summary for user: {}, from: {}, to: {}, type: {}", userId, from, to, type);
+        return ApiResponse.<SpendSummaryResponse>builder()
+                .result(spendSummaryService.getSummary(userId, from, to, type))
+                .build();
+    }
+
     @GetMapping("/my/transactions/{id}")
     ApiResponse<TransactionResponse> getTransactionById(
             @RequestHeader("X-User-Id") String userId, @PathVariable("id") Long id) {
@@ -59,4 +107,42 @@ public class WalletController {
                 .result(transactionService.getTransactionById(id))
                 .build();
     }
+
+    /**
+     * Pricing page. Public and conditional: a matching If-None-Match or If-Modified-Since
+     * gets 304 without a body, and caches may keep the list for max-age-seconds.
+     */
+    @GetMapping("/packages")
+    ResponseEntity<ApiResponse<List<CreditPackageResponse>>> getPackages(WebRequest request) {
+        CreditPackageService.Catalog catalog = creditPackageService.getActiveCatalog();
+        if (request.checkNotModified(catalog.etag(), catalog.lastModified())) {
+            return null;
+        }
+        return cacheable(catalog)
+                .body(ApiResponse.<List<CreditPackageResponse>>builder()
+                        .result(catalog.packages())
+                        .build());
+    }
+
+    @GetMapping("/packages/{id}")
+    ResponseEntity<ApiResponse<CreditPackageResponse>> getPackageById(@PathVariable("id") Long id, WebRequest request) {
+        // Validated against the whole catalog: any package change revalidates every item
+        CreditPackageService.Catalog catalog = creditPackageService.getActiveCatalog();
+        CreditPackageResponse creditPackage = creditPackageService.getPackageById(id);
+        if (request.checkNotModified(catalog.etag(), catalog.lastModified())) {
+            return null;
+        }
+        return cacheable(catalog)
+                .body(ApiResponse.<CreditPackageResponse>builder()
+                        .result(creditPackage)
+                        .build());
+    }
+
+    private ResponseEntity.BodyBuilder cacheable(CreditPackageService.Catalog catalog) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(packagesMaxAgeSeconds))
+                        .cachePublic())
+                .eTag(catalog.etag())
+                .lastModified(catalog.lastModified());
+    }
 }
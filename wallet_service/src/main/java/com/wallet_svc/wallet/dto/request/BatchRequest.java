@@ -0,0 +1,25 @@
+package com.wallet_svc.wallet.dto.request;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Body of the internal {@code :batch} endpoints: independent operations, each validated
+ * like its single-operation counterpart
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BatchRequest<T> {
+    @NotEmpty(message = "Operations are required")
+    @Valid
+    List<T> operations;
+}
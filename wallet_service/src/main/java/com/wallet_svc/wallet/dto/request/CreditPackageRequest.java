@@ -0,0 +1,65 @@
+package com.wallet_svc.wallet.dto.request;
+
+import java.time.LocalDate;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Admin create or full update of a credit package
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class CreditPackageRequest {
+    @NotBlank(message = "Code is required")
+    String code;
+
+    @NotBlank(message = "Name is required")
+    String name;
+
+    @JsonProperty("name_en")
+    String nameEn;
+
+    String description;
+
+    @NotNull(message = "Credits amount is required")
+    @Positive(message = "Credits amount must be positive")
+    @JsonProperty("credits_amount")
+    Integer creditsAmount;
+
+    @PositiveOrZero(message = "Bonus credits must not be negative")
+    @JsonProperty("bonus_credits")
+    @Builder.Default
+    Integer bonusCredits = 0;
+
+    @JsonProperty("is_popular")
+    @Builder.Default
+    Boolean isPopular = false;
+
+    @JsonProperty("is_active")
+    @Builder.Default
+    Boolean isActive = true;
+
+    @JsonProperty("display_order")
+    @Builder.Default
+    Integer displayOrder = 0;
+
+    @JsonProperty("valid_from")
+    LocalDate validFrom;
+
+    @JsonProperty("valid_to")
+    LocalDate validTo;
+
+    String metadata;
+}
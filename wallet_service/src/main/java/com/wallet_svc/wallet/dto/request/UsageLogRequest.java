@@ -17,7 +17,7 @@ import lombok.experimental.FieldDefaults;
 public class UsageLogRequest {
     @NotNull(message = "User ID is required")
     @JsonProperty("user_id")
-    Integer userId;
+    String userId;
 
     @JsonProperty("wallet_transaction_id")
     Long walletTransactionId;
@@ -0,0 +1,24 @@
+package com.wallet_svc.wallet.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Outcome of one operation of a batch; {@code index} is its position in the request
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResult<T> {
+    int index;
+    boolean success;
+    T result;
+    Integer code;
+    String message;
+}
@@ -0,0 +1,18 @@
+package com.wallet_svc.wallet.dto.response;
+
+import java.util.List;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BatchResponse<T> {
+    int succeeded;
+    int failed;
+    List<BatchItemResult<T>> results;
+}
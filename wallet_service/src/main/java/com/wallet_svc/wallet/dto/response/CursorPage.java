@@ -0,0 +1,28 @@
+package com.wallet_svc.wallet.dto.response;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * One page of a keyset-paginated list. Pass {@code next_cursor} back as {@code cursor}
+ * to get the following page; it is null on the last page.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class CursorPage<T> {
+    List<T> items;
+
+    @JsonProperty("next_cursor")
+    String nextCursor;
+
+    @JsonProperty("has_more")
+    boolean hasMore;
+}
@@ -0,0 +1,49 @@
+package com.wallet_svc.wallet.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Totals of a wallet's successful transactions between {@code from} and {@code to}
+ * (inclusive), per transaction type and reference type
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class SpendSummaryResponse {
+    @JsonProperty("user_id")
+    String userId;
+
+    LocalDate from;
+    LocalDate to;
+
+    List<SpendSummaryItem> items;
+
+    @Getter
+    @Setter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class SpendSummaryItem {
+        @JsonProperty("transaction_type")
+        String transactionType;
+
+        @JsonProperty("reference_type")
+        String referenceType;
+
+        @JsonProperty("total_amount")
+        BigDecimal totalAmount;
+
+        long count;
+    }
+}
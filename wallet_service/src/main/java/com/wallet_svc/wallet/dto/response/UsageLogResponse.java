@@ -17,7 +17,7 @@ public class UsageLogResponse {
     Long id;
 
     @JsonProperty("user_id")
-    Integer userId;
+    String userId;
 
     @JsonProperty("wallet_transaction_id")
     Long walletTransactionId;
@@ -0,0 +1,80 @@
+package com.wallet_svc.wallet.entity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(name = "credit_packages")
+public class CreditPackage {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Long id;
+
+    @Column(length = 50, nullable = false, unique = true)
+    String code;
+
+    @Column(length = 100, nullable = false)
+    String name;
+
+    @Column(name = "name_en", length = 100)
+    String nameEn;
+
+    @Column(columnDefinition = "TEXT")
+    String description;
+
+    @Column(name = "credits_amount", nullable = false)
+    Integer creditsAmount;
+
+    @Column(name = "bonus_credits", nullable = false)
+    @Builder.Default
+    Integer bonusCredits = 0;
+
+    @Column(name = "is_popular", nullable = false)
+    @Builder.Default
+    Boolean isPopular = false;
+
+    @Column(name = "is_active", nullable = false)
+    @Builder.Default
+    Boolean isActive = true;
+
+    @Column(name = "display_order", nullable = false)
+    @Builder.Default
+    Integer displayOrder = 0;
+
+    @Column(name = "valid_from")
+    LocalDate validFrom; // null: no start
+
+    @Column(name = "valid_to")
+    LocalDate validTo; // inclusive; null: no end
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb")
+    String metadata;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @Builder.Default
+    LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "updated_at", nullable = false)
+    @Builder.Default
+    LocalDateTime updatedAt = LocalDateTime.now();
+
+    @PreUpdate
+    public void preUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
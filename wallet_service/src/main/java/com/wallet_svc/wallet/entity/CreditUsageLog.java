@@ -0,0 +1,53 @@
+package com.wallet_svc.wallet.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * One metered use of a paid service. Append-only and written in bulk by
+ * UsageLogIngestService, never through the EntityManager, so the id is left to the
+ * column default.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(
+        name = "credit_usage_logs",
+        indexes = {@Index(name = "idx_usage_logs_user_created", columnList = "user_id, created_at")})
+public class CreditUsageLog {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Long id;
+
+    @Column(name = "user_id", length = 100, nullable = false)
+    String userId;
+
+    @Column(name = "wallet_transaction_id")
+    Long walletTransactionId;
+
+    @Column(name = "service_type", length = 50, nullable = false)
+    String serviceType; // AI_SLIDE / AI_QUIZ / AI_WORKSHEET / STORAGE
+
+    @Column(length = 100)
+    String action;
+
+    @Column(name = "resource_id", length = 100)
+    String resourceId;
+
+    @Column(name = "credits_used", nullable = false)
+    Integer creditsUsed;
+
+    @Column(columnDefinition = "TEXT")
+    String metadata;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    LocalDateTime createdAt;
+}
@@ -0,0 +1,50 @@
+package com.wallet_svc.wallet.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Completed result of an internal mutation, replayed when the caller retries with the same
+ * Idempotency-Key header. Kept until {@code expires_at}.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(
+        name = "idempotency_keys",
+        indexes = {@Index(name = "idx_idempotency_keys_expires", columnList = "expires_at")})
+public class IdempotencyKey {
+
+    @Id
+    @Column(name = "idempotency_key", length = 100)
+    String key;
+
+    @Column(nullable = false, length = 30)
+    String operation; // hold / release / charge / refund / top-up
+
+    @Column(name = "request_hash", nullable = false, length = 64)
+    String requestHash; // SHA-256 of operation + request body, detects a key reused for another request
+
+    @Column(name = "wallet_id")
+    Long walletId;
+
+    @Column(name = "transaction_id")
+    Long transactionId;
+
+    @Column(name = "response", nullable = false, columnDefinition = "TEXT")
+    String response; // Serialized TransactionResponse
+
+    @Column(name = "created_at", nullable = false)
+    LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    LocalDateTime expiresAt;
+}
@@ -27,7 +27,8 @@ import lombok.experimental.FieldDefaults;
 public class OutboxEvent {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_id_seq", allocationSize = 50)
     Long id;
 
     @Column(name = "aggregate_id", nullable = false, length = 100)
@@ -42,6 +43,13 @@ public class OutboxEvent {
     @Column(name = "payload", columnDefinition = "TEXT", nullable = false)
     String payload;
 
+    // Avro body of the same event, set only when wallet.events.format=avro (WalletEventCodec)
+    @Column(name = "payload_avro")
+    byte[] payloadAvro;
+
+    @Column(name = "payload_avro_version")
+    Integer payloadAvroVersion;
+
     @Column(name = "status", length = 20, nullable = false)
     @Builder.Default
     String status = "PENDING";
@@ -74,13 +82,10 @@ public class OutboxEvent {
         }
     }
 
-    public void scheduleNextRetry() {
-        this.retryCount++;
-        long secondsDelay = (long) Math.pow(2, this.retryCount);
-        this.nextRetryAt = LocalDateTime.now().plusSeconds(secondsDelay);
-    }
-
-    public boolean canRetry() {
-        return this.retryCount < this.maxRetry;
+    /**
+     * Exponential backoff: 2^attempts seconds after {@code now}
+     */
+    public static LocalDateTime nextRetryAt(int attempts, LocalDateTime now) {
+        return now.plusSeconds((long) Math.pow(2, attempts));
     }
 }
@@ -0,0 +1,47 @@
+package com.wallet_svc.wallet.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Progress of an unfinished retention run: every id up to {@code last_id} has been swept.
+ * Written in the same transaction as each deleted chunk and removed when the run completes,
+ * so a run interrupted by a restart resumes after the last committed chunk. The row is also
+ * the job's lease across nodes (see RetentionEngine).
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(name = "retention_checkpoints")
+public class RetentionCheckpoint {
+
+    @Id
+    @Column(name = "job_name", length = 50)
+    String jobName;
+
+    @Column(name = "locked_by", nullable = false, length = 36)
+    String lockedBy; // Node running the job
+
+    @Column(name = "last_id")
+    Long lastId; // Null until the first chunk commits
+
+    @Column(name = "high_watermark")
+    Long highWatermark; // Last id of the run, for the remaining backlog
+
+    @Column(name = "deleted_rows", nullable = false)
+    Long deletedRows; // Rows deleted so far by this run
+
+    @Column(name = "started_at", nullable = false)
+    LocalDateTime startedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    LocalDateTime updatedAt;
+}
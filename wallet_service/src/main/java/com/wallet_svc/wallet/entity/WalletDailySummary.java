@@ -0,0 +1,66 @@
+package com.wallet_svc.wallet.entity;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Daily per-wallet totals of successful ledger rows, one row per
+ * (wallet, day, transaction type, reference type).
+ *
+ * Maintained by SpendSummaryService in the same transaction as every wallet_transactions
+ * insert, so summaries never disagree with the ledger. A missing reference type is stored
+ * as an empty string since it is part of the key.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(name = "wallet_daily_summaries")
+@IdClass(WalletDailySummary.Key.class)
+public class WalletDailySummary {
+
+    @Id
+    @Column(name = "wallet_id")
+    Long walletId;
+
+    @Id
+    @Column(name = "summary_date")
+    LocalDate summaryDate;
+
+    @Id
+    @Column(name = "transaction_type", length = 50)
+    String transactionType;
+
+    @Id
+    @Column(name = "reference_type", length = 50)
+    String referenceType;
+
+    @Column(name = "total_amount", precision = 19, scale = 2, nullable = false)
+    BigDecimal totalAmount;
+
+    @Column(name = "tx_count", nullable = false)
+    Long txCount;
+
+    @Column(name = "updated_at", nullable = false)
+    LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        Long walletId;
+        LocalDate summaryDate;
+        String transactionType;
+        String referenceType;
+    }
+}
@@ -15,10 +15,13 @@ import lombok.experimental.FieldDefaults;
 @AllArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
 @Entity
-@Table(name = "wallet_holds")
+@Table(
+        name = "wallet_holds",
+        indexes = {@Index(name = "idx_wallet_holds_status_expires", columnList = "status,expires_at")})
 public class WalletHold {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "wallet_holds_seq")
+    @SequenceGenerator(name = "wallet_holds_seq", sequenceName = "wallet_holds_id_seq", allocationSize = 50)
     Long id;
 
     @Column(name = "wallet_id", nullable = false)
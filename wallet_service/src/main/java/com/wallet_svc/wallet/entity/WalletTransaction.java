@@ -18,10 +18,19 @@ import lombok.experimental.FieldDefaults;
 @AllArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
 @Entity
-@Table(name = "wallet_transactions")
+@Table(
+        name = "wallet_transactions",
+        indexes = {
+            @Index(name = "idx_wallet_tx_wallet_created_id", columnList = "wallet_id, created_at DESC, id DESC"),
+            @Index(name = "idx_wallet_tx_created_id", columnList = "created_at DESC, id DESC")
+        })
 public class WalletTransaction {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "wallet_transactions_seq")
+    @SequenceGenerator(
+            name = "wallet_transactions_seq",
+            sequenceName = "wallet_transactions_id_seq",
+            allocationSize = 50)
     Long id;
 
     @Column(name = "wallet_id", nullable = false)
@@ -71,7 +80,7 @@ public class WalletTransaction {
     @Column(name = "processed_at")
     LocalDateTime processedAt;
 
-    @Column(name = "created_at", updatable = false)
+    @Column(name = "created_at", nullable = false, updatable = false)
     @Builder.Default
     LocalDateTime createdAt = LocalDateTime.now();
 
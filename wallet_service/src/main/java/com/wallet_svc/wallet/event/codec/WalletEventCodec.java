@@ -0,0 +1,265 @@
+package com.wallet_svc.wallet.event.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.avro.Schema;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.avro.AvroMapper;
+import com.fasterxml.jackson.dataformat.avro.AvroSchema;
+import com.fasterxml.jackson.dataformat.avro.jsr310.AvroJavaTimeModule;
+import com.wallet_svc.wallet.entity.OutboxEvent;
+import com.wallet_svc.wallet.event.payload.BalanceLowEvent;
+import com.wallet_svc.wallet.event.payload.BalanceUpdatedEvent;
+import com.wallet_svc.wallet.event.payload.BonusGrantedEvent;
+import com.wallet_svc.wallet.event.payload.CreditsChargedEvent;
+import com.wallet_svc.wallet.event.payload.CreditsHeldEvent;
+import com.wallet_svc.wallet.event.payload.CreditsRefundedEvent;
+import com.wallet_svc.wallet.event.payload.CreditsUsedEvent;
+import com.wallet_svc.wallet.event.payload.HoldExpiredEvent;
+import com.wallet_svc.wallet.event.payload.LedgerEvent;
+import com.wallet_svc.wallet.event.payload.PaymentCompletedEvent;
+import com.wallet_svc.wallet.event.payload.SlideGenerationCompletedEvent;
+import com.wallet_svc.wallet.event.payload.SlideGenerationFailedEvent;
+import com.wallet_svc.wallet.event.payload.SlideGenerationRequestedEvent;
+import com.wallet_svc.wallet.event.payload.TransactionCreatedEvent;
+import com.wallet_svc.wallet.event.payload.UserRegisteredEvent;
+import com.wallet_svc.wallet.event.payload.WalletCreatedEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Wire format of the event.payload classes: JSON or Avro binary, chosen per record.
+ *
+ * Avro schemas ship in the jar as avro/{PayloadClass}.v{n}.avsc, so no schema registry is
+ * involved. Every record carries a content-type header and, for Avro, the writer's schema
+ * version; a reader resolves an older version against the latest schema it ships (added
+ * fields must be nullable). Records without a content-type header are JSON, so producers
+ * that predate the headers keep working. Amounts stay decimal strings in both formats;
+ * Avro carries timestamps to the millisecond.
+ *
+ * Producing Avro is opt-in with wallet.events.format=avro; every consumer decodes both
+ * formats (WalletEventDeserializer) and should be deployed first. In Avro mode the outbox
+ * row carries the Avro body encoded from the event object (WalletEventProducer), so the
+ * publisher sends it without parsing the JSON payload back. Consumers get Avro records as
+ * the decoded payload object and JSON records as the raw string; listeners accept either
+ * through read().
+ */
+@Component
+@Slf4j
+public class WalletEventCodec {
+
+    public static final String CONTENT_TYPE_HEADER = "content-type";
+    public static final String SCHEMA_VERSION_HEADER = "wallet-schema-version";
+    public static final String JSON = "application/json";
+    public static final String AVRO = "application/avro";
+
+    private static final Map<String, Class<?>> PAYLOAD_TYPES = Map.ofEntries(
+            Map.entry("wallet.created", WalletCreatedEvent.class),
+            Map.entry("wallet.balance_updated", BalanceUpdatedEvent.class),
+            Map.entry("wallet.balance_low", BalanceLowEvent.class),
+            Map.entry("wallet.transaction_created", TransactionCreatedEvent.class),
+            Map.entry("wallet.credits_held", CreditsHeldEvent.class),
+            Map.entry("wallet.credits_charged", CreditsChargedEvent.class),
+            Map.entry("wallet.credits_refunded", CreditsRefundedEvent.class),
+            Map.entry("wallet.hold_expired", HoldExpiredEvent.class),
+            Map.entry("wallet.credits_used", CreditsUsedEvent.class),
+            Map.entry("wallet.ledger", LedgerEvent.class),
+            Map.entry("payment.completed", PaymentCompletedEvent.class),
+            Map.entry("payment.bonus_granted", BonusGrantedEvent.class),
+            Map.entry("slide.generation_requested", SlideGenerationRequestedEvent.class),
+            Map.entry("slide.generation_completed", SlideGenerationCompletedEvent.class),
+            Map.entry("slide.generation_failed", SlideGenerationFailedEvent.class),
+            Map.entry("user.registered", UserRegisteredEvent.class));
+
+    private final ObjectMapper objectMapper;
+    private final AvroMapper avroMapper;
+    private final boolean produceAvro;
+    private final Map<Class<?>, List<AvroSchema>> schemas;
+
+    public WalletEventCodec(ObjectMapper objectMapper, @Value("${wallet.events.format:json}") String format) {
+        this.objectMapper = objectMapper;
+        this.avroMapper =
+                AvroMapper.builder().addModule(new AvroJavaTimeModule()).build();
+        this.produceAvro = "avro".equalsIgnoreCase(format);
+        this.schemas = new HashMap<>();
+        for (Class<?> type : PAYLOAD_TYPES.values()) {
+            schemas.put(type, loadSchemas(type));
+        }
+        log.info("Wallet event wire format: {}", produceAvro ? "avro" : "json");
+    }
+
+    /**
+     * Record for an outbox row: its stored Avro body when it has one, otherwise the JSON
+     * payload in the configured format
+     */
+    public ProducerRecord<String, Object> toRecord(OutboxEvent event) throws IOException {
+        if (event.getPayloadAvro() == null) {
+            return toRecord(event.getEventType(), event.getAggregateId(), event.getPayload());
+        }
+        return avroRecord(
+                event.getEventType(), event.getAggregateId(), event.getPayloadAvro(), event.getPayloadAvroVersion());
+    }
+
+    /**
+     * Record for a JSON payload, encoded in the configured format with its headers.
+     * Topics without a payload class are always sent as JSON.
+     */
+    public ProducerRecord<String, Object> toRecord(String topic, String key, String json) throws IOException {
+        Class<?> type = PAYLOAD_TYPES.get(topic);
+        if (produceAvro && type != null) {
+            // Rows written before the switch to Avro carry only JSON
+            return avroRecord(topic, key, encode(type, objectMapper.readValue(json, type)), latestVersion(type));
+        }
+        ProducerRecord<String, Object> record =
+                new ProducerRecord<>(topic, key, objectMapper.readValue(json, Object.class));
+        record.headers().add(CONTENT_TYPE_HEADER, JSON.getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+
+    private static ProducerRecord<String, Object> avroRecord(String topic, String key, byte[] body, int version) {
+        ProducerRecord<String, Object> record = new ProducerRecord<>(topic, key, body);
+        record.headers().add(CONTENT_TYPE_HEADER, AVRO.getBytes(StandardCharsets.UTF_8));
+        record.headers().add(SCHEMA_VERSION_HEADER, Integer.toString(version).getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+
+    /**
+     * Whether events on {@code topic} are produced as Avro, so the outbox row should carry
+     * the Avro body
+     */
+    public boolean producesAvro(String topic) {
+        return produceAvro && PAYLOAD_TYPES.containsKey(topic);
+    }
+
+    /**
+     * Value of a consumed record: the raw JSON string, or for an Avro record the payload
+     * object of its topic
+     */
+    public Object decodeValue(String topic, Headers headers, byte[] data) throws IOException {
+        if (data == null || !AVRO.equals(header(headers, CONTENT_TYPE_HEADER))) {
+            return data == null ? null : new String(data, StandardCharsets.UTF_8);
+        }
+        Class<?> type = PAYLOAD_TYPES.get(topic);
+        if (type == null) {
+            throw new IOException("No Avro schema for topic " + topic);
+        }
+        String version = header(headers, SCHEMA_VERSION_HEADER);
+        if (version == null) {
+            throw new IOException("Avro record on " + topic + " without " + SCHEMA_VERSION_HEADER);
+        }
+        return decode(type, Integer.parseInt(version), data);
+    }
+
+    /**
+     * A consumed value as {@code type}: Avro records already are, JSON strings are parsed
+     */
+    public <T> T read(Object value, Class<T> type) throws IOException {
+        if (type.isInstance(value)) {
+            return type.cast(value);
+        }
+        if (value instanceof String json) {
+            return objectMapper.readValue(json, type);
+        }
+        throw new IOException("Cannot read " + type.getSimpleName() + " from "
+                + (value == null ? "null" : value.getClass().getSimpleName()));
+    }
+
+    /**
+     * A consumed value as a JSON tree, for listeners that only pick a field or two
+     */
+    public JsonNode readTree(Object value) throws IOException {
+        return value instanceof String json ? objectMapper.readTree(json) : objectMapper.valueToTree(value);
+    }
+
+    /**
+     * A consumed value as JSON text, where it has to be stored or hashed
+     */
+    public String toJson(Object value) throws IOException {
+        return value instanceof String json ? json : objectMapper.writeValueAsString(value);
+    }
+
+    /**
+     * Avro body of {@code payload} with the latest shipped schema of its class
+     */
+    public byte[] encode(Class<?> type, Object payload) throws IOException {
+        return avroMapper.writer(latest(type)).writeValueAsBytes(payload);
+    }
+
+    /**
+     * Read an Avro body written with schema {@code version} of {@code type}
+     */
+    public <T> T decode(Class<T> type, int version, byte[] data) throws IOException {
+        List<AvroSchema> versions = schemas.get(type);
+        if (versions == null || version < 1 || version > versions.size()) {
+            throw new IOException("Unknown schema version " + version + " for " + type.getSimpleName());
+        }
+        AvroSchema latest = versions.get(versions.size() - 1);
+        AvroSchema writer = versions.get(version - 1);
+        AvroSchema schema = writer == latest ? latest : writer.withReaderSchema(latest);
+        return avroMapper.readerFor(type).with(schema).readValue(data);
+    }
+
+    /**
+     * Version number of the latest shipped schema of {@code type}, sent as
+     * SCHEMA_VERSION_HEADER
+     */
+    public int latestVersion(Class<?> type) {
+        List<AvroSchema> versions = schemas.get(type);
+        if (versions == null) {
+            throw new IllegalArgumentException("No Avro schema for " + type.getName());
+        }
+        return versions.size();
+    }
+
+    public AvroSchema latest(Class<?> type) {
+        List<AvroSchema> versions = schemas.get(type);
+        if (versions == null) {
+            throw new IllegalArgumentException("No Avro schema for " + type.getName());
+        }
+        return versions.get(versions.size() - 1);
+    }
+
+    static Collection<Class<?>> payloadTypes() {
+        return PAYLOAD_TYPES.values();
+    }
+
+    private static List<AvroSchema> loadSchemas(Class<?> type) {
+        List<AvroSchema> versions = new ArrayList<>();
+        for (int version = 1; ; version++) {
+            ClassPathResource resource =
+                    new ClassPathResource("avro/" + type.getSimpleName() + ".v" + version + ".avsc");
+            if (!resource.exists()) {
+                break;
+            }
+            try (InputStream in = resource.getInputStream()) {
+                versions.add(new AvroSchema(new Schema.Parser().parse(in)));
+            } catch (IOException e) {
+                throw new IllegalStateException("Unreadable Avro schema " + resource.getPath(), e);
+            }
+        }
+        if (versions.isEmpty()) {
+            throw new IllegalStateException("No Avro schema shipped for " + type.getName());
+        }
+        return versions;
+    }
+
+    private static String header(Headers headers, String name) {
+        Header header = headers == null ? null : headers.lastHeader(name);
+        return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+}
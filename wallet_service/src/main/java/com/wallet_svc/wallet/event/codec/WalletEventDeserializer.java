@@ -0,0 +1,36 @@
+package com.wallet_svc.wallet.event.codec;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Value deserializer of every listener: JSON records reach the listener as the raw string,
+ * Avro records (by their content-type header) as the decoded payload object, without a
+ * round trip through JSON (see WalletEventCodec.decodeValue and read)
+ */
+public class WalletEventDeserializer implements Deserializer<Object> {
+
+    private final WalletEventCodec codec;
+
+    public WalletEventDeserializer(WalletEventCodec codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return data == null ? null : new String(data, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        try {
+            return codec.decodeValue(topic, headers, data);
+        } catch (IOException e) {
+            throw new SerializationException("Failed to decode record from " + topic, e);
+        }
+    }
+}
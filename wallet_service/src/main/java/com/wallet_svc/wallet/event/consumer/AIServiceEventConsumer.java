@@ -1,12 +1,14 @@
 package com.wallet_svc.wallet.event.consumer;
 
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.wallet_svc.wallet.dto.request.ChargeRequest;
 import com.wallet_svc.wallet.dto.request.HoldRequest;
 import com.wallet_svc.wallet.dto.request.ReleaseHoldRequest;
+import com.wallet_svc.wallet.event.codec.WalletEventCodec;
 import com.wallet_svc.wallet.event.payload.SlideGenerationCompletedEvent;
 import com.wallet_svc.wallet.event.payload.SlideGenerationFailedEvent;
 import com.wallet_svc.wallet.event.payload.SlideGenerationRequestedEvent;
@@ -23,17 +25,18 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class AIServiceEventConsumer {
     WalletService walletService;
-    ObjectMapper objectMapper;
+    WalletEventCodec eventCodec;
+    KeyOrderedDispatcher keyOrderedDispatcher;
 
     @KafkaListener(
             topics = "slide.generation_requested",
             groupId = "${spring.kafka.consumer.group-id}",
-            containerFactory = "kafkaListenerContainerFactory")
-    public void handleSlideGenerationRequested(String eventJson) {
+            containerFactory = "kafkaListenerContainerFactory",
+            autoStartup = "#{!${wallet.kafka.key-ordered.enabled:false}}")
+    public void handleSlideGenerationRequested(Object value) {
         try {
-            // Deserialize JSON string to SlideGenerationRequestedEvent
-            SlideGenerationRequestedEvent event =
-                    objectMapper.readValue(eventJson, SlideGenerationRequestedEvent.class);
+            // JSON string or, for Avro records, the decoded event
+            SlideGenerationRequestedEvent event = eventCodec.read(value, SlideGenerationRequestedEvent.class);
 
             log.info(
                     "Received slide.generation_requested event for user: {} - credits: {}",
@@ -64,12 +67,12 @@ public class AIServiceEventConsumer {
     @KafkaListener(
             topics = "slide.generation_completed",
             groupId = "${spring.kafka.consumer.group-id}",
-            containerFactory = "kafkaListenerContainerFactory")
-    public void handleSlideGenerationCompleted(String eventJson) {
+            containerFactory = "kafkaListenerContainerFactory",
+            autoStartup = "#{!${wallet.kafka.key-ordered.enabled:false}}")
+    public void handleSlideGenerationCompleted(Object value) {
         try {
-            // Deserialize JSON string to SlideGenerationCompletedEvent
-            SlideGenerationCompletedEvent event =
-                    objectMapper.readValue(eventJson, SlideGenerationCompletedEvent.class);
+            // JSON string or, for Avro records, the decoded event
+            SlideGenerationCompletedEvent event = eventCodec.read(value, SlideGenerationCompletedEvent.class);
 
             log.info(
                     "Received slide.generation_completed event for user: {} - credits: {}",
@@ -101,11 +104,12 @@ public class AIServiceEventConsumer {
     @KafkaListener(
             topics = "slide.generation_failed",
             groupId = "${spring.kafka.consumer.group-id}",
-            containerFactory = "kafkaListenerContainerFactory")
-    public void handleSlideGenerationFailed(String eventJson) {
+            containerFactory = "kafkaListenerContainerFactory",
+            autoStartup = "#{!${wallet.kafka.key-ordered.enabled:false}}")
+    public void handleSlideGenerationFailed(Object value) {
         try {
-            // Deserialize JSON string to SlideGenerationFailedEvent
-            SlideGenerationFailedEvent event = objectMapper.readValue(eventJson, SlideGenerationFailedEvent.class);
+            // JSON string or, for Avro records, the decoded event
+            SlideGenerationFailedEvent event = eventCodec.read(value, SlideGenerationFailedEvent.class);
 
             log.info(
                     "Received slide.generation_failed event for user: {} - hold: {}",
@@ -126,4 +130,25 @@ public class AIServiceEventConsumer {
             // In production, implement retry logic or dead letter queue
         }
     }
+
+    /**
+     * Key-ordered variant of the three listeners above, enabled with
+     * wallet.kafka.key-ordered.enabled=true: one user's events are handled in order, different
+     * users in parallel (see KeyOrderedDispatcher)
+     */
+    @KafkaListener(
+            topics = {"slide.generation_requested", "slide.generation_completed", "slide.generation_failed"},
+            groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "keyOrderedKafkaListenerContainerFactory",
+            autoStartup = "${wallet.kafka.key-ordered.enabled:false}")
+    public void handleKeyOrdered(ConsumerRecord<String, Object> record, Acknowledgment ack) {
+        keyOrderedDispatcher.dispatch(record, ack, () -> {
+            switch (record.topic()) {
+                case "slide.generation_requested" -> handleSlideGenerationRequested(record.value());
+                case "slide.generation_completed" -> handleSlideGenerationCompleted(record.value());
+                case "slide.generation_failed" -> handleSlideGenerationFailed(record.value());
+                default -> log.warn("Unexpected topic for key-ordered AI service listener: {}", record.topic());
+            }
+        });
+    }
 }
@@ -0,0 +1,215 @@
+package com.wallet_svc.wallet.event.consumer;
+
+import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fans Kafka records out to a fixed set of worker lanes keyed by the event's user_id.
+ *
+ * Each lane is a single thread draining a FIFO queue, so records of one user are handled in
+ * partition order while different users run on different lanes in parallel. Every record is
+ * acknowledged when its handler finishes; with the keyOrderedKafkaListenerContainerFactory
+ * (manual, out-of-order acks) the container only commits up to the lowest record not yet
+ * handled and pauses fetching until the previous poll is done. Throughput therefore scales
+ * with wallet.kafka.key-ordered.workers rather than with the number of partitions.
+ *
+ * On a rebalance the revoked partitions are drained before their offsets are committed.
+ *
+ * Metrics:
+ * - wallet.kafka.key-ordered.in-flight: records dispatched and not yet handled
+ * - wallet.kafka.key-ordered.handled: records handled
+ * - wallet.kafka.consume{topic, outcome}: handler time on the lane, the same timer the
+ *   other listeners record through KafkaConsumerMetricsAspect (which skips the hand-off)
+ */
+@Component
+@Slf4j
+public class KeyOrderedDispatcher implements SmartLifecycle, ConsumerAwareRebalanceListener {
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int workers;
+    private final long drainTimeoutMs;
+    private final boolean virtualThreads;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter handledCounter;
+
+    private volatile ExecutorService[] lanes;
+
+    public KeyOrderedDispatcher(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${wallet.kafka.key-ordered.enabled:false}") boolean enabled,
+            @Value("${wallet.kafka.key-ordered.workers:16}") int workers,
+            @Value("${wallet.kafka.key-ordered.drain-timeout-ms:30000}") long drainTimeoutMs,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.workers = workers;
+        this.drainTimeoutMs = drainTimeoutMs;
+        this.virtualThreads = virtualThreads;
+        this.handledCounter = Counter.builder("wallet.kafka.key-ordered.handled")
+                .description("Records handled by the key-ordered worker lanes")
+                .register(meterRegistry);
+        Gauge.builder("wallet.kafka.key-ordered.in-flight", inFlight, AtomicInteger::get)
+                .description("Records dispatched to a worker lane and not yet handled")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queue {@code handler} on the lane owning the record's user and acknowledge the record
+     * once it has run. Handlers are expected to deal with their own failures; anything they
+     * throw is logged and the record still counts as handled.
+     */
+    public void dispatch(ConsumerRecord<String, ?> record, Acknowledgment ack, Runnable handler) {
+        ExecutorService[] current = lanes;
+        if (current == null) {
+            throw new IllegalStateException("Key-ordered dispatcher is not running");
+        }
+        inFlight.incrementAndGet();
+        current[laneFor(keyOf(record))].execute(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String outcome = "success";
+            try {
+                handler.run();
+            } catch (Exception e) {
+                outcome = e.getClass().getSimpleName();
+                log.error("Unhandled failure for {}-{}@{}", record.topic(), record.partition(), record.offset(), e);
+            } finally {
+                sample.stop(Timer.builder("wallet.kafka.consume")
+                        .description("Kafka listener processing time per topic")
+                        .tag("topic", record.topic())
+                        .tag("outcome", outcome)
+                        .register(meterRegistry));
+                ack.acknowledge();
+                inFlight.decrementAndGet();
+                handledCounter.increment();
+            }
+        });
+    }
+
+    /**
+     * The event's user_id, falling back to the record key and then to the partition, so
+     * records without a user keep their partition order
+     */
+    String keyOf(ConsumerRecord<String, ?> record) {
+        try {
+            // JSON string, or the decoded payload of an Avro record
+            JsonNode userId = record.value() instanceof String json
+                    ? objectMapper.readTree(json).get("user_id")
+                    : objectMapper.valueToTree(record.value()).get("user_id");
+            if (userId != null && !userId.isNull()) {
+                return userId.asText();
+            }
+        } catch (Exception e) {
+            // Unparseable payloads are routed by key/partition; the handler reports them
+        }
+        return record.key() != null ? record.key() : record.topic() + "-" + record.partition();
+    }
+
+    int laneFor(String key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return (h & 0x7fffffff) % workers;
+    }
+
+    /**
+     * Let in-flight records finish so their acknowledgements are committed with the revoked
+     * partitions instead of being redelivered to the new owner
+     */
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        if (!awaitIdle(drainTimeoutMs)) {
+            log.warn(
+                    "{} records still in flight after {} ms while partitions {} were revoked; they may be redelivered",
+                    inFlight.get(),
+                    drainTimeoutMs,
+                    partitions);
+        }
+    }
+
+    boolean awaitIdle(long timeoutMs) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        while (inFlight.get() > 0) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || lanes != null) {
+            return;
+        }
+        ExecutorService[] created = new ExecutorService[workers];
+        for (int i = 0; i < workers; i++) {
+            created[i] = Executors.newSingleThreadExecutor(laneThreadFactory(i));
+        }
+        lanes = created;
+        log.info("Key-ordered dispatcher started ({} lanes, virtual threads: {})", workers, virtualThreads);
+    }
+
+    private ThreadFactory laneThreadFactory(int lane) {
+        String name = "key-ordered-" + lane;
+        return virtualThreads
+                ? Thread.ofVirtual().name(name).factory()
+                : Thread.ofPlatform().name(name).daemon(true).factory();
+    }
+
+    @Override
+    public void stop() {
+        ExecutorService[] current = lanes;
+        if (current == null) {
+            return;
+        }
+        awaitIdle(drainTimeoutMs);
+        lanes = null;
+        for (ExecutorService lane : current) {
+            lane.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return lanes != null;
+    }
+
+    /**
+     * Start before and stop after the listener containers (phase Integer.MAX_VALUE - 100)
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 200;
+    }
+}
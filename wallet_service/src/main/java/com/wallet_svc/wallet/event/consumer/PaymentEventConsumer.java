@@ -1,14 +1,22 @@
 package com.wallet_svc.wallet.event.consumer;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.wallet_svc.wallet.dto.request.TopUpRequest;
+import com.wallet_svc.wallet.event.codec.WalletEventCodec;
 import com.wallet_svc.wallet.event.payload.BonusGrantedEvent;
 import com.wallet_svc.wallet.event.payload.PaymentCompletedEvent;
 import com.wallet_svc.wallet.service.IdempotentEventService;
-import com.wallet_svc.wallet.service.WalletService;
+import com.wallet_svc.wallet.service.PaymentTopUpBatchService;
 
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -28,30 +36,35 @@ import lombok.extern.slf4j.Slf4j;
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 @Slf4j
 public class PaymentEventConsumer {
-    WalletService walletService;
-    ObjectMapper objectMapper;
+    WalletEventCodec eventCodec;
     IdempotentEventService idempotentEventService;
+    PaymentTopUpBatchService paymentTopUpBatchService;
+    KeyOrderedDispatcher keyOrderedDispatcher;
 
     /**
      * Handle Payment Completed Event with Idempotency
      * This prevents duplicate topups if Kafka redelivers the same event
+     * Disabled when wallet.kafka.payment-batch.enabled=true (see handlePaymentCompletedBatch)
+     * or wallet.kafka.key-ordered.enabled=true (see handleKeyOrdered)
      */
     @KafkaListener(
             topics = "payment.completed",
             groupId = "${spring.kafka.consumer.group-id}",
-            containerFactory = "kafkaListenerContainerFactory")
-    public void handlePaymentCompleted(String eventJson) {
+            containerFactory = "kafkaListenerContainerFactory",
+            autoStartup =
+                    "#{!${wallet.kafka.payment-batch.enabled:false} and !${wallet.kafka.key-ordered.enabled:false}}")
+    public void handlePaymentCompleted(Object value) {
         String eventId = null;
+        String eventJson = null;
         try {
-            // Deserialize JSON string to PaymentCompletedEvent
-            PaymentCompletedEvent event = objectMapper.readValue(eventJson, PaymentCompletedEvent.class);
+            // JSON string or, for Avro records, the decoded event
+            PaymentCompletedEvent event = eventCodec.read(value, PaymentCompletedEvent.class);
 
             // Use paymentId as unique event identifier (convert Long to String)
             eventId = "payment-" + event.getPaymentId();
 
-            // ===== IDEMPOTENCY CHECK =====
-            if (idempotentEventService.isEventProcessed(eventId, "payment.completed")) {
-                log.warn("Event already processed, skipping: {}", eventId);
+            // ===== IDEMPOTENCY CHECK (memory only) =====
+            if (idempotentEventService.isRecentlyProcessed(eventId, "payment.completed")) {
                 return; // Skip duplicate event
             }
 
@@ -61,22 +74,16 @@ public class PaymentEventConsumer {
                     event.getAmount(),
                     event.getPaymentId());
 
-            // Process the event
-            TopUpRequest request = TopUpRequest.builder()
-                    .userId(event.getUserId())
-                    .amount(event.getAmount())
-                    .referenceType("PAYMENT")
-                    .referenceId(String.valueOf(event.getPaymentId())) // Convert Long to String
-                    .description("Payment top-up via " + event.getPaymentMethod())
-                    .metadata("{\"currency\":\"" + event.getCurrency() + "\",\"method\":\"" + event.getPaymentMethod()
-                            + "\",\"orderId\":\"" + event.getOrderId() + "\"}")
-                    .tokens(event.getCredits())
-                    .build();
-
-            walletService.topUp(request);
-
-            // Mark as successfully processed
-            idempotentEventService.markEventAsSuccess(eventId, "payment.completed", "payment-service", eventJson);
+            // Claim and top up in one transaction
+            eventJson = eventCodec.toJson(value);
+            boolean applied = paymentTopUpBatchService.applyTopUp(
+                    new PaymentTopUpBatchService.Item(eventId, eventJson, toTopUpRequest(event)),
+                    "payment.completed",
+                    "payment-service");
+            if (!applied) {
+                log.warn("Event already processed, skipping: {}", eventId);
+                return;
+            }
 
             log.info("✅ Wallet topped up for user: {} - amount: {}", event.getUserId(), event.getAmount());
 
@@ -94,25 +101,124 @@ public class PaymentEventConsumer {
         }
     }
 
+    /**
+     * Batch variant of handlePaymentCompleted, enabled with wallet.kafka.payment-batch.enabled=true
+     *
+     * - Resolves duplicates for the whole poll from memory and one event_id IN (...) query
+     * - Applies all top-ups and processed-event claims in one transaction
+     * - Falls back to per-record handling if the batch transaction fails
+     */
+    @KafkaListener(
+            topics = "payment.completed",
+            groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "batchKafkaListenerContainerFactory",
+            autoStartup =
+                    "#{${wallet.kafka.payment-batch.enabled:false} and !${wallet.kafka.key-ordered.enabled:false}}")
+    public void handlePaymentCompletedBatch(List<Object> values) {
+        // Parse and de-duplicate within the poll (first occurrence wins)
+        Map<String, PaymentTopUpBatchService.Item> itemsByEventId = new LinkedHashMap<>();
+        for (Object value : values) {
+            try {
+                PaymentCompletedEvent event = eventCodec.read(value, PaymentCompletedEvent.class);
+                String eventId = "payment-" + event.getPaymentId();
+                if (!itemsByEventId.containsKey(eventId)) {
+                    itemsByEventId.put(
+                            eventId,
+                            new PaymentTopUpBatchService.Item(
+                                    eventId, eventCodec.toJson(value), toTopUpRequest(event)));
+                }
+            } catch (Exception e) {
+                log.error("❌ Failed to parse payment.completed event, skipping: {}", value, e);
+            }
+        }
+
+        // ===== BULK IDEMPOTENCY CHECK =====
+        Set<String> processed =
+                idempotentEventService.findProcessedEventIds(itemsByEventId.keySet(), "payment.completed");
+        List<PaymentTopUpBatchService.Item> pending = new ArrayList<>(itemsByEventId.size());
+        for (PaymentTopUpBatchService.Item item : itemsByEventId.values()) {
+            if (!processed.contains(item.getEventId())) {
+                pending.add(item);
+            }
+        }
+
+        log.info(
+                "Received {} payment.completed events: {} pending, {} duplicates",
+                values.size(),
+                pending.size(),
+                values.size() - pending.size());
+
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        try {
+            paymentTopUpBatchService.applyTopUps(pending, "payment.completed", "payment-service");
+        } catch (Exception e) {
+            log.warn(
+                    "Batch of {} payment top-ups failed, falling back to per-record handling: {}",
+                    pending.size(),
+                    e.getMessage());
+            for (PaymentTopUpBatchService.Item item : pending) {
+                handlePaymentCompleted(item.getPayload());
+            }
+        }
+    }
+
+    /**
+     * Key-ordered variant of handlePaymentCompleted and handleBonusGranted, enabled with
+     * wallet.kafka.key-ordered.enabled=true (takes precedence over the batch listener): one
+     * user's payments are applied in order, different users in parallel (see
+     * KeyOrderedDispatcher)
+     */
+    @KafkaListener(
+            topics = {"payment.completed", "payment.bonus_granted"},
+            groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "keyOrderedKafkaListenerContainerFactory",
+            autoStartup = "${wallet.kafka.key-ordered.enabled:false}")
+    public void handleKeyOrdered(ConsumerRecord<String, Object> record, Acknowledgment ack) {
+        keyOrderedDispatcher.dispatch(record, ack, () -> {
+            switch (record.topic()) {
+                case "payment.completed" -> handlePaymentCompleted(record.value());
+                case "payment.bonus_granted" -> handleBonusGranted(record.value());
+                default -> log.warn("Unexpected topic for key-ordered payment listener: {}", record.topic());
+            }
+        });
+    }
+
+    private TopUpRequest toTopUpRequest(PaymentCompletedEvent event) {
+        return TopUpRequest.builder()
+                .userId(event.getUserId())
+                .amount(event.getAmount())
+                .referenceType("PAYMENT")
+                .referenceId(String.valueOf(event.getPaymentId())) // Convert Long to String
+                .description("Payment top-up via " + event.getPaymentMethod())
+                .metadata("{\"currency\":\"" + event.getCurrency() + "\",\"method\":\"" + event.getPaymentMethod()
+                        + "\",\"orderId\":\"" + event.getOrderId() + "\"}")
+                .tokens(event.getCredits())
+                .build();
+    }
+
     /**
      * Handle Bonus Granted Event with Idempotency
      */
     @KafkaListener(
             topics = "payment.bonus_granted",
             groupId = "${spring.kafka.consumer.group-id}",
-            containerFactory = "kafkaListenerContainerFactory")
-    public void handleBonusGranted(String eventJson) {
+            containerFactory = "kafkaListenerContainerFactory",
+            autoStartup = "#{!${wallet.kafka.key-ordered.enabled:false}}")
+    public void handleBonusGranted(Object value) {
         String eventId = null;
+        String eventJson = null;
         try {
-            // Deserialize JSON string to BonusGrantedEvent
-            BonusGrantedEvent event = objectMapper.readValue(eventJson, BonusGrantedEvent.class);
+            // JSON string or, for Avro records, the decoded event
+            BonusGrantedEvent event = eventCodec.read(value, BonusGrantedEvent.class);
 
             // Use referenceId as unique event identifier
             eventId = "bonus-" + event.getReferenceId();
 
-            // ===== IDEMPOTENCY CHECK =====
-            if (idempotentEventService.isEventProcessed(eventId, "payment.bonus_granted")) {
-                log.warn("Event already processed, skipping: {}", eventId);
+            // ===== IDEMPOTENCY CHECK (memory only) =====
+            if (idempotentEventService.isRecentlyProcessed(eventId, "payment.bonus_granted")) {
                 return;
             }
 
@@ -130,10 +236,16 @@ public class PaymentEventConsumer {
                     .metadata("{\"reason\":\"" + event.getReason() + "\"}")
                     .build();
 
-            walletService.topUp(request);
-
-            // Mark as successfully processed
-            idempotentEventService.markEventAsSuccess(eventId, "payment.bonus_granted", "payment-service", eventJson);
+            // Claim and top up in one transaction
+            eventJson = eventCodec.toJson(value);
+            boolean applied = paymentTopUpBatchService.applyTopUp(
+                    new PaymentTopUpBatchService.Item(eventId, eventJson, request),
+                    "payment.bonus_granted",
+                    "payment-service");
+            if (!applied) {
+                log.warn("Event already processed, skipping: {}", eventId);
+                return;
+            }
 
             log.info("✅ Bonus credits added for user: {} - amount: {}", event.getUserId(), event.getAmount());
 
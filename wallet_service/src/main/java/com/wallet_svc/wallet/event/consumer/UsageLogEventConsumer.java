@@ -0,0 +1,59 @@
+package com.wallet_svc.wallet.event.consumer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wallet_svc.wallet.dto.request.UsageLogRequest;
+import com.wallet_svc.wallet.service.UsageLogIngestService;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Usage Log Consumer
+ *
+ * Writes each poll of usage.logged (UsageLogRequest JSON) in one transaction through
+ * UsageLogIngestService before returning, so the container commits the offsets only after
+ * the rows. A failed write is retried with the consumer paused (see
+ * usageLogKafkaListenerContainerFactory), leaving the backlog in the topic.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class UsageLogEventConsumer {
+    ObjectMapper objectMapper;
+    UsageLogIngestService usageLogIngestService;
+
+    @KafkaListener(
+            topics = "usage.logged",
+            groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "usageLogKafkaListenerContainerFactory",
+            autoStartup = "${wallet.usage-log.enabled:true}")
+    public void handleUsageLogged(List<String> eventJsons) {
+        List<UsageLogRequest> requests = new ArrayList<>(eventJsons.size());
+        for (String eventJson : eventJsons) {
+            try {
+                UsageLogRequest request = objectMapper.readValue(eventJson, UsageLogRequest.class);
+                if (UsageLogIngestService.isValid(request)) {
+                    requests.add(request);
+                } else {
+                    log.error("Invalid usage.logged event, skipping: {}", eventJson);
+                }
+            } catch (Exception e) {
+                log.error("Failed to parse usage.logged event, skipping: {}", eventJson, e);
+            }
+        }
+
+        if (!requests.isEmpty()) {
+            usageLogIngestService.writeNow(requests);
+        }
+        log.debug("Wrote {} of {} usage.logged events", requests.size(), eventJsons.size());
+    }
+}
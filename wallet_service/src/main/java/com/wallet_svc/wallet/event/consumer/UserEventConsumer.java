@@ -3,7 +3,7 @@ package com.wallet_svc.wallet.event.consumer;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wallet_svc.wallet.event.codec.WalletEventCodec;
 import com.wallet_svc.wallet.event.payload.UserRegisteredEvent;
 import com.wallet_svc.wallet.service.WalletService;
 
@@ -18,19 +18,19 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class UserEventConsumer {
     WalletService walletService;
-    ObjectMapper objectMapper;
+    WalletEventCodec eventCodec;
 
     @KafkaListener(
             topics = "user.registered",
             groupId = "${spring.kafka.consumer.group-id}",
             containerFactory = "kafkaListenerContainerFactory")
-    public void handleUserRegistered(String eventJson) {
+    public void handleUserRegistered(Object value) {
         log.info("=== RECEIVED MESSAGE FROM user.registered TOPIC ===");
-        log.info("Raw JSON: {}", eventJson);
+        log.info("Raw event: {}", value);
 
         try {
-            // Deserialize JSON string to UserRegisteredEvent
-            UserRegisteredEvent event = objectMapper.readValue(eventJson, UserRegisteredEvent.class);
+            // JSON string or, for Avro records, the decoded event
+            UserRegisteredEvent event = eventCodec.read(value, UserRegisteredEvent.class);
 
             log.info("Received user.registered event for user: {}", event.getUserId());
             log.debug(
@@ -0,0 +1,53 @@
+package com.wallet_svc.wallet.event.consumer;
+
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.wallet_svc.wallet.event.codec.WalletEventCodec;
+import com.wallet_svc.wallet.service.ReadReplicaRouter;
+import com.wallet_svc.wallet.service.WalletSnapshotCache;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cross-node invalidation of the wallet snapshot cache.
+ *
+ * Every instance joins its own consumer group (random suffix) so each node sees every
+ * wallet event, and starts from the latest offset since older events are irrelevant.
+ * Every operation that changes a wallet row publishes on one of the subscribed topics:
+ * balance_updated (also sent for releases, adjustments and token deductions), credits_held,
+ * hold_expired, or the ledger envelope that carries all of them.
+ * The same events pin the user's reads to the primary (ReadReplicaRouter), so a write on
+ * another node is not followed by a stale replica read here.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class WalletCacheInvalidationConsumer {
+    WalletSnapshotCache walletSnapshotCache;
+    ReadReplicaRouter readReplicaRouter;
+    WalletEventCodec eventCodec;
+
+    @KafkaListener(
+            topics = {"wallet.balance_updated", "wallet.credits_held", "wallet.hold_expired", "wallet.ledger"},
+            groupId = "${spring.application.name}-cache-${random.uuid}",
+            containerFactory = "kafkaListenerContainerFactory",
+            autoStartup = "#{${wallet.cache.enabled:true} or ${wallet.db.replica.enabled:false}}",
+            properties = {"auto.offset.reset=latest"})
+    public void handleWalletChanged(Object value) {
+        try {
+            JsonNode userId = eventCodec.readTree(value).get("user_id");
+            if (userId != null && !userId.isNull()) {
+                walletSnapshotCache.evict(userId.asText());
+                readReplicaRouter.recordWrite(userId.asText());
+            }
+        } catch (Exception e) {
+            log.warn("Failed to read wallet event for cache invalidation: {}", e.getMessage());
+        }
+    }
+}
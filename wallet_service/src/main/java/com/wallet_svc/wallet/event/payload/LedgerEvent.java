@@ -0,0 +1,92 @@
+package com.wallet_svc.wallet.event.payload;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One committed wallet operation on the wallet.ledger topic (envelope mode).
+ *
+ * {@code flags} lists the legacy events the operation stands for, e.g. credits_charged,
+ * balance_updated, transaction_created, so consumers can derive the per-event topics; only
+ * the fields of those events are set.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LedgerEvent {
+    @JsonProperty("user_id")
+    private String userId;
+
+    @JsonProperty("wallet_id")
+    private Long walletId;
+
+    @JsonProperty("flags")
+    @Builder.Default
+    private List<String> flags = new ArrayList<>();
+
+    @JsonProperty("balance_before")
+    private BigDecimal balanceBefore;
+
+    @JsonProperty("balance_after")
+    private BigDecimal balanceAfter;
+
+    @JsonProperty("balance_delta")
+    private BigDecimal balanceDelta;
+
+    @JsonProperty("transaction_id")
+    private Long transactionId;
+
+    @JsonProperty("transaction_type")
+    private String transactionType;
+
+    @JsonProperty("amount")
+    private BigDecimal amount;
+
+    @JsonProperty("reference_type")
+    private String referenceType;
+
+    @JsonProperty("reference_id")
+    private String referenceId;
+
+    @JsonProperty("hold_id")
+    private Long holdId;
+
+    @JsonProperty("expires_at")
+    private LocalDateTime expiresAt;
+
+    @JsonProperty("reason")
+    private String reason;
+
+    @JsonProperty("original_transaction_id")
+    private Long originalTransactionId;
+
+    @JsonProperty("low_balance_threshold")
+    private BigDecimal lowBalanceThreshold;
+
+    @JsonProperty("service_type")
+    private String serviceType;
+
+    @JsonProperty("resource_id")
+    private String resourceId;
+
+    @JsonProperty("credits")
+    private BigDecimal credits;
+
+    @JsonProperty("metadata")
+    private String metadata;
+
+    @JsonProperty("timestamp")
+    private LocalDateTime timestamp;
+}
@@ -1,42 +1,126 @@
 package com.wallet_svc.wallet.event.producer;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wallet_svc.wallet.entity.OutboxEvent;
+import com.wallet_svc.wallet.event.codec.WalletEventCodec;
 import com.wallet_svc.wallet.event.payload.*;
+import com.wallet_svc.wallet.repository.OutboxEventRepository;
+import com.wallet_svc.wallet.service.OutboxDispatcher;
 
 import lombok.AccessLevel;
-import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Wallet event producer backed by the transactional outbox.
+ *
+ * Events are written to outbox_events in the caller's transaction instead of being sent to
+ * Kafka inline, so a wallet transaction never waits for the broker and an event exists if
+ * and only if the wallet change committed. The OutboxDispatcher is woken right after commit
+ * and publishes the rows within milliseconds.
+ *
+ * With wallet.events.envelope.enabled=true the events of one operation (e.g. credits_charged,
+ * balance_updated and transaction_created for a charge) are merged into a single LedgerEvent
+ * on wallet.ledger, written just before the transaction commits: one serialization, one
+ * outbox row and one broker write per operation instead of three or four.
+ */
 @Component
-@RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 @Slf4j
 public class WalletEventProducer {
-    KafkaTemplate<String, Object> kafkaTemplate;
+    public static final String LEDGER_TOPIC = "wallet.ledger";
 
     private static final BigDecimal LOW_BALANCE_THRESHOLD = new BigDecimal("10.00");
+    private static final String TRANSACTION_CREATED = "transaction_created";
+
+    OutboxEventRepository outboxEventRepository;
+    ObjectMapper objectMapper;
+    WalletEventCodec eventCodec;
+    OutboxDispatcher outboxDispatcher;
+    boolean envelopeEnabled;
+    Object pendingLedgerKey = new Object();
+
+    public WalletEventProducer(
+            OutboxEventRepository outboxEventRepository,
+            ObjectMapper objectMapper,
+            WalletEventCodec eventCodec,
+            OutboxDispatcher outboxDispatcher,
+            @Value("${wallet.events.envelope.enabled:false}") boolean envelopeEnabled) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.eventCodec = eventCodec;
+        this.outboxDispatcher = outboxDispatcher;
+        this.envelopeEnabled = envelopeEnabled;
+    }
 
     // ============ Balance Events ============
 
     public void publishWalletCreatedEvent(Long walletId, String userId) {
+        if (envelopeEnabled) {
+            record(userId, walletId, "wallet_created", event -> {});
+            return;
+        }
+
         WalletCreatedEvent event = WalletCreatedEvent.builder()
                 .walletId(walletId)
                 .userId(userId)
                 .timestamp(LocalDateTime.now())
                 .build();
 
-        kafkaTemplate.send("wallet.created", event);
-        log.info("Published wallet.created event for user: {}", userId);
+        enqueue("wallet.created", userId, event);
+        log.info("Queued wallet.created event for user: {}", userId);
     }
 
     public void publishBalanceUpdatedEvent(
             String userId, Long walletId, BigDecimal oldBalance, BigDecimal newBalance, String transactionType) {
+        publishBalanceUpdatedEvent(userId, walletId, oldBalance, newBalance, transactionType, true);
+    }
+
+    /**
+     * balance_updated for an operation that left the balance as it was (hold release, token
+     * deduction), so other nodes drop their cached locked balance and token count; never
+     * raises balance_low
+     */
+    public void publishBalanceUnchangedEvent(String userId, Long walletId, BigDecimal balance, String transactionType) {
+        publishBalanceUpdatedEvent(userId, walletId, balance, balance, transactionType, false);
+    }
+
+    private void publishBalanceUpdatedEvent(
+            String userId,
+            Long walletId,
+            BigDecimal oldBalance,
+            BigDecimal newBalance,
+            String transactionType,
+            boolean checkLow) {
+        if (envelopeEnabled) {
+            record(userId, walletId, "balance_updated", event -> {
+                event.setBalanceBefore(oldBalance);
+                event.setBalanceAfter(newBalance);
+                event.setBalanceDelta(newBalance.subtract(oldBalance));
+                if (event.getTransactionType() == null) {
+                    event.setTransactionType(transactionType);
+                }
+            });
+            if (checkLow && newBalance.compareTo(LOW_BALANCE_THRESHOLD) <= 0) {
+                publishBalanceLowEvent(userId, walletId, newBalance);
+            }
+            return;
+        }
+
         BalanceUpdatedEvent event = BalanceUpdatedEvent.builder()
                 .userId(userId)
                 .walletId(walletId)
@@ -46,16 +130,24 @@ public class WalletEventProducer {
                 .timestamp(LocalDateTime.now())
                 .build();
 
-        kafkaTemplate.send("wallet.balance_updated", event);
-        log.info("Published wallet.balance_updated event for user: {} - {} to {}", userId, oldBalance, newBalance);
+        enqueue("wallet.balance_updated", userId, event);
+        log.info("Queued wallet.balance_updated event for user: {} - {} to {}", userId, oldBalance, newBalance);
 
         // Check if balance is low
-        if (newBalance.compareTo(LOW_BALANCE_THRESHOLD) <= 0) {
+        if (checkLow && newBalance.compareTo(LOW_BALANCE_THRESHOLD) <= 0) {
             publishBalanceLowEvent(userId, walletId, newBalance);
         }
     }
 
     public void publishBalanceLowEvent(String userId, Long walletId, BigDecimal balance) {
+        if (envelopeEnabled) {
+            record(userId, walletId, "balance_low", event -> {
+                event.setBalanceAfter(balance);
+                event.setLowBalanceThreshold(LOW_BALANCE_THRESHOLD);
+            });
+            return;
+        }
+
         BalanceLowEvent event = BalanceLowEvent.builder()
                 .userId(userId)
                 .walletId(walletId)
@@ -64,8 +156,8 @@ public class WalletEventProducer {
                 .timestamp(LocalDateTime.now())
                 .build();
 
-        kafkaTemplate.send("wallet.balance_low", event);
-        log.warn("Published wallet.balance_low event for user: {} - balance: {}", userId, balance);
+        enqueue("wallet.balance_low", userId, event);
+        log.warn("Queued wallet.balance_low event for user: {} - balance: {}", userId, balance);
     }
 
     // ============ Transaction Events ============
@@ -78,6 +170,17 @@ public class WalletEventProducer {
             BigDecimal amount,
             String referenceType,
             String referenceId) {
+        if (envelopeEnabled) {
+            record(userId, walletId, TRANSACTION_CREATED, event -> {
+                event.setTransactionId(transactionId);
+                event.setTransactionType(type);
+                event.setAmount(amount);
+                event.setReferenceType(referenceType);
+                event.setReferenceId(referenceId);
+            });
+            return;
+        }
+
         TransactionCreatedEvent event = TransactionCreatedEvent.builder()
                 .transactionId(transactionId)
                 .userId(userId)
@@ -89,8 +192,8 @@ public class WalletEventProducer {
                 .timestamp(LocalDateTime.now())
                 .build();
 
-        kafkaTemplate.send("wallet.transaction_created", event);
-        log.info("Published wallet.transaction_created event - transaction: {}, type: {}", transactionId, type);
+        enqueue("wallet.transaction_created", userId, event);
+        log.info("Queued wallet.transaction_created event - transaction: {}, type: {}", transactionId, type);
     }
 
     public void publishCreditsHeldEvent(
@@ -101,6 +204,17 @@ public class WalletEventProducer {
             String referenceType,
             Long holdId,
             LocalDateTime expiresAt) {
+        if (envelopeEnabled) {
+            record(userId, walletId, "credits_held", event -> {
+                event.setAmount(amount);
+                event.setReferenceId(referenceId);
+                event.setReferenceType(referenceType);
+                event.setHoldId(holdId);
+                event.setExpiresAt(expiresAt);
+            });
+            return;
+        }
+
         CreditsHeldEvent event = CreditsHeldEvent.builder()
                 .userId(userId)
                 .walletId(walletId)
@@ -112,8 +226,8 @@ public class WalletEventProducer {
                 .timestamp(LocalDateTime.now())
                 .build();
 
-        kafkaTemplate.send("wallet.credits_held", event);
-        log.info("Published wallet.credits_held event for user: {} - amount: {}, hold: {}", userId, amount, holdId);
+        enqueue("wallet.credits_held", userId, event);
+        log.info("Queued wallet.credits_held event for user: {} - amount: {}, hold: {}", userId, amount, holdId);
     }
 
     public void publishCreditsChargedEvent(
@@ -124,6 +238,17 @@ public class WalletEventProducer {
             String referenceType,
             BigDecimal balanceAfter,
             Long holdId) {
+        if (envelopeEnabled) {
+            record(userId, walletId, "credits_charged", event -> {
+                event.setAmount(amount);
+                event.setReferenceId(referenceId);
+                event.setReferenceType(referenceType);
+                event.setBalanceAfter(balanceAfter);
+                event.setHoldId(holdId);
+            });
+            return;
+        }
+
         CreditsChargedEvent event = CreditsChargedEvent.builder()
                 .userId(userId)
                 .walletId(walletId)
@@ -135,9 +260,9 @@ public class WalletEventProducer {
                 .timestamp(LocalDateTime.now())
                 .build();
 
-        kafkaTemplate.send("wallet.credits_charged", event);
+        enqueue("wallet.credits_charged", userId, event);
         log.info(
-                "Published wallet.credits_charged event for user: {} - amount: {}, balance: {}",
+                "Queued wallet.credits_charged event for user: {} - amount: {}, balance: {}",
                 userId,
                 amount,
                 balanceAfter);
@@ -151,6 +276,17 @@ public class WalletEventProducer {
             String referenceType,
             String reason,
             Long originalTransactionId) {
+        if (envelopeEnabled) {
+            record(userId, walletId, "credits_refunded", event -> {
+                event.setAmount(amount);
+                event.setReferenceId(referenceId);
+                event.setReferenceType(referenceType);
+                event.setReason(reason);
+                event.setOriginalTransactionId(originalTransactionId);
+            });
+            return;
+        }
+
         CreditsRefundedEvent event = CreditsRefundedEvent.builder()
                 .userId(userId)
                 .walletId(walletId)
@@ -162,12 +298,21 @@ public class WalletEventProducer {
                 .timestamp(LocalDateTime.now())
                 .build();
 
-        kafkaTemplate.send("wallet.credits_refunded", event);
-        log.info("Published wallet.credits_refunded event for user: {} - amount: {}", userId, amount);
+        enqueue("wallet.credits_refunded", userId, event);
+        log.info("Queued wallet.credits_refunded event for user: {} - amount: {}", userId, amount);
     }
 
     public void publishHoldExpiredEvent(
             String userId, Long walletId, Long holdId, BigDecimal amount, String referenceId) {
+        if (envelopeEnabled) {
+            record(userId, walletId, "hold_expired", event -> {
+                event.setHoldId(holdId);
+                event.setAmount(amount);
+                event.setReferenceId(referenceId);
+            });
+            return;
+        }
+
         HoldExpiredEvent event = HoldExpiredEvent.builder()
                 .userId(userId)
                 .walletId(walletId)
@@ -177,14 +322,24 @@ public class WalletEventProducer {
                 .timestamp(LocalDateTime.now())
                 .build();
 
-        kafkaTemplate.send("wallet.hold_expired", event);
-        log.warn("Published wallet.hold_expired event for user: {} - hold: {}, amount: {}", userId, holdId, amount);
+        enqueue("wallet.hold_expired", userId, event);
+        log.warn("Queued wallet.hold_expired event for user: {} - hold: {}, amount: {}", userId, holdId, amount);
     }
 
     // ============ Usage Events ============
 
     public void publishCreditsUsedEvent(
             String userId, String serviceType, BigDecimal credits, String resourceId, String metadata) {
+        if (envelopeEnabled) {
+            record(userId, null, "credits_used", event -> {
+                event.setServiceType(serviceType);
+                event.setCredits(credits);
+                event.setResourceId(resourceId);
+                event.setMetadata(metadata);
+            });
+            return;
+        }
+
         CreditsUsedEvent event = CreditsUsedEvent.builder()
                 .userId(userId)
                 .serviceType(serviceType)
@@ -194,11 +349,150 @@ public class WalletEventProducer {
                 .timestamp(LocalDateTime.now())
                 .build();
 
-        kafkaTemplate.send("wallet.credits_used", event);
+        enqueue("wallet.credits_used", userId, event);
         log.info(
-                "Published wallet.credits_used event for user: {} - service: {}, credits: {}",
+                "Queued wallet.credits_used event for user: {} - service: {}, credits: {}",
                 userId,
                 serviceType,
                 credits);
     }
+
+    // ============ Ledger envelope ============
+
+    /**
+     * Add {@code flag} to the user's open envelope in the current transaction, or emit a
+     * one-flag envelope right away outside a transaction
+     */
+    private void record(String userId, Long walletId, String flag, Consumer<LedgerEvent> fill) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            LedgerEvent event = newLedgerEvent(userId, walletId);
+            event.getFlags().add(flag);
+            fill.accept(event);
+            enqueue(LEDGER_TOPIC, userId, event);
+            return;
+        }
+
+        LedgerEvent event = pendingLedger().envelopeFor(userId, walletId, flag);
+        event.getFlags().add(flag);
+        fill.accept(event);
+    }
+
+    private PendingLedger pendingLedger() {
+        PendingLedger pending = (PendingLedger) TransactionSynchronizationManager.getResource(pendingLedgerKey);
+        if (pending != null) {
+            return pending;
+        }
+
+        PendingLedger created = new PendingLedger();
+        TransactionSynchronizationManager.bindResource(pendingLedgerKey, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResource(pendingLedgerKey);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(pendingLedgerKey, created);
+            }
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                for (LedgerEvent event : created.events) {
+                    save(LEDGER_TOPIC, event.getUserId(), event);
+                }
+                log.debug("Queued {} wallet.ledger events", created.events.size());
+            }
+
+            @Override
+            public void afterCommit() {
+                if (!created.events.isEmpty()) {
+                    outboxDispatcher.wakeUp();
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(pendingLedgerKey);
+            }
+        });
+        return created;
+    }
+
+    private static LedgerEvent newLedgerEvent(String userId, Long walletId) {
+        return LedgerEvent.builder()
+                .userId(userId)
+                .walletId(walletId)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Envelopes of one transaction in creation order. A user's envelope stays open until its
+     * operation is complete (transaction_created) or an event repeats, e.g. the second of two
+     * holds expiring in the same transaction.
+     */
+    private static class PendingLedger {
+        final List<LedgerEvent> events = new ArrayList<>();
+        final Map<String, LedgerEvent> open = new HashMap<>();
+
+        LedgerEvent envelopeFor(String userId, Long walletId, String flag) {
+            LedgerEvent current = open.get(userId);
+            if (current == null
+                    || current.getFlags().contains(flag)
+                    || current.getFlags().contains(TRANSACTION_CREATED)) {
+                current = newLedgerEvent(userId, walletId);
+                open.put(userId, current);
+                events.add(current);
+            } else if (current.getWalletId() == null) {
+                current.setWalletId(walletId);
+            }
+            return current;
+        }
+    }
+
+    // ============ Outbox ============
+
+    private void enqueue(String topic, String userId, Object event) {
+        save(topic, userId, event);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    outboxDispatcher.wakeUp();
+                }
+            });
+        } else {
+            outboxDispatcher.wakeUp();
+        }
+    }
+
+    /**
+     * The JSON payload is always stored; in Avro mode the Avro body is encoded here too,
+     * while the event object is at hand, so the publisher does not parse the JSON back
+     */
+    private void save(String topic, String userId, Object event) {
+        String payload;
+        byte[] payloadAvro = null;
+        Integer payloadAvroVersion = null;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+            if (eventCodec.producesAvro(topic)) {
+                payloadAvro = eventCodec.encode(event.getClass(), event);
+                payloadAvroVersion = eventCodec.latestVersion(event.getClass());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to serialize " + topic + " event", e);
+        }
+
+        outboxEventRepository.save(OutboxEvent.builder()
+                .aggregateId(userId)
+                .aggregateType("WALLET")
+                .eventType(topic)
+                .payload(payload)
+                .payloadAvro(payloadAvro)
+                .payloadAvroVersion(payloadAvroVersion)
+                .build());
+    }
 }
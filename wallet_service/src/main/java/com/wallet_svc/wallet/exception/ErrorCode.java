@@ -11,15 +11,28 @@ public enum ErrorCode {
     INSUFFICIENT_BALANCE(2003, "Insufficient balance"),
     WALLET_SUSPENDED(2004, "Wallet is suspended"),
     WALLET_CLOSED(2005, "Wallet is closed"),
+    WALLET_BUSY(2006, "Wallet is busy, please retry"),
     TRANSACTION_NOT_FOUND(2101, "Transaction not found"),
     INVALID_TRANSACTION_TYPE(2102, "Invalid transaction type"),
     TRANSACTION_FAILED(2103, "Transaction failed"),
+    INVALID_CURSOR(2104, "Invalid pagination cursor"),
+    INVALID_SUMMARY_RANGE(2105, "Summary range must be at most 366 days with from before to"),
+    INVALID_EXPORT_RANGE(2106, "Export range must have from before to"),
+    INVALID_EXPORT_FORMAT(2107, "Export format must be ndjson or csv"),
+    EXPORT_BUSY(2108, "Too many exports running, retry later"),
     HOLD_NOT_FOUND(2201, "Hold not found"),
     HOLD_EXPIRED(2202, "Hold has expired"),
     HOLD_ALREADY_RELEASED(2203, "Hold has already been released"),
     PACKAGE_NOT_FOUND(2301, "Credit package not found"),
+    PACKAGE_CODE_EXISTS(2302, "Credit package code already exists"),
+    INVALID_PACKAGE_VALIDITY(2303, "Credit package valid_from must not be after valid_to"),
     INVALID_AMOUNT(2401, "Invalid amount"),
-    INSUFFICIENT_TOKEN(2501, "Insufficient token balance");
+    BATCH_TOO_LARGE(2402, "Too many operations in one batch"),
+    INSUFFICIENT_TOKEN(2501, "Insufficient token balance"),
+    INVALID_IDEMPOTENCY_KEY(2601, "Idempotency key must be 1 to 100 characters"),
+    IDEMPOTENCY_KEY_REUSED(2602, "Idempotency key was already used for a different request"),
+    USAGE_LOG_BUFFER_FULL(2701, "Usage log buffer is full, retry later"),
+    INVALID_USAGE_LOG(2702, "Usage log needs a user, a service type and positive credits");
 
     ErrorCode(int code, String message) {
         this.code = code;
@@ -0,0 +1,24 @@
+package com.wallet_svc.wallet.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+
+import com.wallet_svc.wallet.dto.request.CreditPackageRequest;
+import com.wallet_svc.wallet.dto.response.CreditPackageResponse;
+import com.wallet_svc.wallet.entity.CreditPackage;
+
+@Mapper(componentModel = "spring")
+public interface CreditPackageMapper {
+    CreditPackageResponse toCreditPackageResponse(CreditPackage creditPackage);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    CreditPackage toCreditPackage(CreditPackageRequest request);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    void updateCreditPackage(@MappingTarget CreditPackage creditPackage, CreditPackageRequest request);
+}
@@ -0,0 +1,50 @@
+package com.wallet_svc.wallet.metrics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Times every @KafkaListener invocation in the wallet consumers.
+ *
+ * wallet.kafka.consume{topic, outcome}: processing time per delivery (or per batch for
+ * batch listeners). Consumers that swallow their own errors are reported as success.
+ *
+ * Key-ordered listeners (handleKeyOrdered) only hand the record to a worker lane, so they
+ * are skipped here; KeyOrderedDispatcher records the same timer around the lane task.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class KafkaConsumerMetricsAspect {
+    MeterRegistry meterRegistry;
+
+    @Around("execution(* com.wallet_svc.wallet.event.consumer..*(..))"
+            + " && !execution(* com.wallet_svc.wallet.event.consumer..*.handleKeyOrdered(..))"
+            + " && @annotation(listener)")
+    public Object timeListener(ProceedingJoinPoint joinPoint, KafkaListener listener) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("wallet.kafka.consume")
+                    .description("Kafka listener processing time per topic")
+                    .tag("topic", String.join(",", listener.topics()))
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.wallet_svc.wallet.metrics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.wallet_svc.wallet.exception.AppException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Times every public WalletServiceImpl method.
+ *
+ * wallet.operation{operation, outcome}: outcome is "success", the ErrorCode name of an
+ * AppException (e.g. INSUFFICIENT_BALANCE) or the exception class. Ordered outside the
+ * transaction advice so commit time is included.
+ */
+@Aspect
+@Component
+@Order(0)
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class WalletOperationMetricsAspect {
+    MeterRegistry meterRegistry;
+
+    @Around("execution(public * com.wallet_svc.wallet.service.impl.WalletServiceImpl.*(..))")
+    public Object timeOperation(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (AppException e) {
+            outcome = e.getErrorCode().name();
+            throw e;
+        } catch (Throwable e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("wallet.operation")
+                    .description("WalletService operation latency by outcome")
+                    .tag("operation", joinPoint.getSignature().getName())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.wallet_svc.wallet.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.wallet_svc.wallet.entity.CreditPackage;
+
+@Repository
+public interface CreditPackageRepository extends JpaRepository<CreditPackage, Long> {
+
+    List<CreditPackage> findAllByOrderByDisplayOrderAscIdAsc();
+
+    boolean existsByCode(String code);
+
+    boolean existsByCodeAndIdNot(String code, Long id);
+
+    /**
+     * Cheap change probe for the package snapshot: row count and latest update
+     */
+    @Query("SELECT COUNT(p) AS count, MAX(p.updatedAt) AS lastUpdatedAt FROM CreditPackage p")
+    Version findVersion();
+
+    interface Version {
+        Long getCount();
+
+        LocalDateTime getLastUpdatedAt();
+    }
+}
@@ -0,0 +1,17 @@
+package com.wallet_svc.wallet.repository;
+
+import java.util.List;
+
+import com.wallet_svc.wallet.entity.CreditUsageLog;
+
+/**
+ * Bulk appends to credit_usage_logs.
+ */
+public interface CreditUsageLogBulkRepository {
+
+    /**
+     * Insert all rows with JDBC batches instead of one persist and round trip each; ids are
+     * not read back
+     */
+    void insertAll(List<CreditUsageLog> logs);
+}
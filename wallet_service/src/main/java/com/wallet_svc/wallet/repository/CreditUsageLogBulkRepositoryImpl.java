@@ -0,0 +1,49 @@
+package com.wallet_svc.wallet.repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.wallet_svc.wallet.entity.CreditUsageLog;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * One prepared INSERT executed as a JDBC batch. On PostgreSQL the driver's
+ * reWriteBatchedInserts (see application.properties) folds the batch into multi-row
+ * INSERTs, so a flush of thousands of rows takes a handful of round trips.
+ */
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class CreditUsageLogBulkRepositoryImpl implements CreditUsageLogBulkRepository {
+    JdbcTemplate jdbcTemplate;
+
+    private static final String INSERT = "INSERT INTO credit_usage_logs"
+            + " (user_id, wallet_transaction_id, service_type, action, resource_id, credits_used, metadata, created_at)"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Override
+    public void insertAll(List<CreditUsageLog> logs) {
+        if (logs.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT, logs, logs.size(), (ps, usage) -> {
+            ps.setString(1, usage.getUserId());
+            if (usage.getWalletTransactionId() != null) {
+                ps.setLong(2, usage.getWalletTransactionId());
+            } else {
+                ps.setNull(2, Types.BIGINT);
+            }
+            ps.setString(3, usage.getServiceType());
+            ps.setString(4, usage.getAction());
+            ps.setString(5, usage.getResourceId());
+            ps.setInt(6, usage.getCreditsUsed());
+            ps.setString(7, usage.getMetadata());
+            ps.setTimestamp(8, Timestamp.valueOf(usage.getCreatedAt()));
+        });
+    }
+}
@@ -0,0 +1,14 @@
+package com.wallet_svc.wallet.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.wallet_svc.wallet.entity.CreditUsageLog;
+
+@Repository
+public interface CreditUsageLogRepository extends JpaRepository<CreditUsageLog, Long>, CreditUsageLogBulkRepository {
+
+    List<CreditUsageLog> findByUserIdOrderByCreatedAtAscIdAsc(String userId);
+}
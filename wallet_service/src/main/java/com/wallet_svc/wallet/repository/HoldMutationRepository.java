@@ -0,0 +1,31 @@
+package com.wallet_svc.wallet.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Atomic hold status transitions
+ */
+public interface HoldMutationRepository {
+
+    /**
+     * Move a hold from {@code fromStatus} to {@code toStatus} in one conditional UPDATE.
+     * Empty when the hold does not exist or is no longer in {@code fromStatus}, so two
+     * concurrent charges/releases of the same hold can never both succeed.
+     */
+    Optional<HoldSnapshot> transition(Long holdId, String fromStatus, String toStatus, LocalDateTime releasedAt);
+
+    /**
+     * Expire the given holds in one set-based UPDATE. Only holds that are still ACTIVE and
+     * past {@code expires_at} are touched, so holds released or charged in the meantime
+     * are skipped and two nodes expiring the same hold never both get it back.
+     */
+    List<HoldSnapshot> expire(Collection<Long> holdIds, LocalDateTime now);
+
+    /**
+     * Expire up to {@code limit} overdue holds, oldest first (catch-up sweep)
+     */
+    List<HoldSnapshot> expireDue(LocalDateTime now, int limit);
+}
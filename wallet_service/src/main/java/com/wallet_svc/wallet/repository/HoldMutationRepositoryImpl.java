@@ -0,0 +1,86 @@
+package com.wallet_svc.wallet.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class HoldMutationRepositoryImpl implements HoldMutationRepository {
+    ReturningStatementExecutor executor;
+
+    private static final String RETURNING = "id, wallet_id, amount, reference_type, reference_id";
+
+    @Override
+    public Optional<HoldSnapshot> transition(
+            Long holdId, String fromStatus, String toStatus, LocalDateTime releasedAt) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("holdId", holdId);
+        params.put("fromStatus", fromStatus);
+        params.put("toStatus", toStatus);
+        params.put("releasedAt", releasedAt);
+
+        List<Object[]> rows = executor.execute(
+                "UPDATE wallet_holds SET status = :toStatus, released_at = :releasedAt"
+                        + " WHERE id = :holdId AND status = :fromStatus",
+                RETURNING,
+                params);
+        return rows.stream().findFirst().map(HoldMutationRepositoryImpl::toSnapshot);
+    }
+
+    @Override
+    public List<HoldSnapshot> expire(Collection<Long> holdIds, LocalDateTime now) {
+        if (holdIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("holdIds", holdIds);
+        params.put("now", now);
+        return executor
+                .execute(
+                        "UPDATE wallet_holds SET status = 'EXPIRED', released_at = :now"
+                                + " WHERE id IN (:holdIds) AND status = 'ACTIVE' AND expires_at <= :now",
+                        RETURNING,
+                        params)
+                .stream()
+                .map(HoldMutationRepositoryImpl::toSnapshot)
+                .toList();
+    }
+
+    @Override
+    public List<HoldSnapshot> expireDue(LocalDateTime now, int limit) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("now", now);
+        params.put("limit", limit);
+        return executor
+                .execute(
+                        "UPDATE wallet_holds SET status = 'EXPIRED', released_at = :now"
+                                + " WHERE status = 'ACTIVE' AND expires_at <= :now AND id IN ("
+                                + "SELECT id FROM wallet_holds WHERE status = 'ACTIVE' AND expires_at <= :now"
+                                + " ORDER BY expires_at LIMIT :limit)",
+                        RETURNING,
+                        params)
+                .stream()
+                .map(HoldMutationRepositoryImpl::toSnapshot)
+                .toList();
+    }
+
+    private static HoldSnapshot toSnapshot(Object[] row) {
+        return HoldSnapshot.builder()
+                .id(((Number) row[0]).longValue())
+                .walletId(((Number) row[1]).longValue())
+                .amount((BigDecimal) row[2])
+                .referenceType((String) row[3])
+                .referenceId((String) row[4])
+                .build();
+    }
+}
@@ -0,0 +1,21 @@
+package com.wallet_svc.wallet.repository;
+
+import java.math.BigDecimal;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Post-update state of a hold row as returned by a guarded status transition
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class HoldSnapshot {
+    Long id;
+    Long walletId;
+    BigDecimal amount;
+    String referenceType;
+    String referenceId;
+}
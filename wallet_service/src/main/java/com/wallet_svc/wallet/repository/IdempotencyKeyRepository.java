@@ -0,0 +1,26 @@
+package com.wallet_svc.wallet.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.wallet_svc.wallet.entity.IdempotencyKey;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    /**
+     * Delete up to {@code limit} keys that expired before {@code now}, along the expires_at index
+     */
+    @Transactional
+    @Modifying
+    @Query(
+            value = "DELETE FROM idempotency_keys WHERE idempotency_key IN (SELECT idempotency_key"
+                    + " FROM idempotency_keys WHERE expires_at < :now ORDER BY expires_at LIMIT :limit)",
+            nativeQuery = true)
+    int deleteExpired(LocalDateTime now, int limit);
+}
@@ -0,0 +1,18 @@
+package com.wallet_svc.wallet.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Bulk outcome updates for claimed outbox rows.
+ */
+public interface OutboxEventBulkRepository {
+
+    /**
+     * Record failed sends with one JDBC batch: FAILED, the new retry count, the next retry
+     * time and the error of each row
+     */
+    void markFailed(List<Failure> failures);
+
+    record Failure(Long id, int retryCount, LocalDateTime nextRetryAt, String error) {}
+}
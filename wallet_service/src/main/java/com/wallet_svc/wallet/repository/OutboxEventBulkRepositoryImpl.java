@@ -0,0 +1,36 @@
+package com.wallet_svc.wallet.repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Each failed row has its own retry count, backoff and error, so failures are one
+ * prepared UPDATE executed as a JDBC batch rather than a single set-based statement.
+ */
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class OutboxEventBulkRepositoryImpl implements OutboxEventBulkRepository {
+    JdbcTemplate jdbcTemplate;
+
+    private static final String MARK_FAILED = "UPDATE outbox_events SET status = 'FAILED',"
+            + " retry_count = ?, next_retry_at = ?, last_error = ? WHERE id = ?";
+
+    @Override
+    public void markFailed(List<Failure> failures) {
+        if (failures.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(MARK_FAILED, failures, failures.size(), (ps, failure) -> {
+            ps.setInt(1, failure.retryCount());
+            ps.setTimestamp(2, Timestamp.valueOf(failure.nextRetryAt()));
+            ps.setString(3, failure.error());
+            ps.setLong(4, failure.id());
+        });
+    }
+}
@@ -1,16 +1,19 @@
 package com.wallet_svc.wallet.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.wallet_svc.wallet.entity.OutboxEvent;
 
 @Repository
-public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long>, OutboxEventBulkRepository {
 
     @Query("SELECT e FROM OutboxEvent e WHERE "
             + "(e.status = 'PENDING' OR (e.status = 'FAILED' AND e.nextRetryAt <= :now)) "
@@ -18,8 +21,32 @@ public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long>
             + "ORDER BY e.createdAt ASC")
     List<OutboxEvent> findPendingEvents(LocalDateTime now);
 
-    @Query("SELECT e FROM OutboxEvent e WHERE " + "e.status = 'PUBLISHED' AND e.publishedAt < :cutoffDate")
-    List<OutboxEvent> findOldPublishedEvents(LocalDateTime cutoffDate);
+    /**
+     * Claim the next chunk of due events: SELECT ... FOR UPDATE SKIP LOCKED LIMIT n.
+     * Rows already claimed by another instance are skipped instead of waited on, so
+     * replicas drain disjoint chunks in parallel. The claim lasts until the caller commits.
+     */
+    @Query(
+            value = "SELECT * FROM outbox_events e WHERE "
+                    + "(e.status = 'PENDING' OR (e.status = 'FAILED' AND e.next_retry_at <= :now)) "
+                    + "AND e.retry_count < e.max_retry "
+                    + "ORDER BY e.created_at ASC "
+                    + "LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<OutboxEvent> claimPendingEvents(LocalDateTime now, int limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE OutboxEvent e SET e.status = 'PUBLISHED', e.publishedAt = :publishedAt, e.lastError = NULL "
+            + "WHERE e.id IN :ids")
+    int markPublished(Collection<Long> ids, LocalDateTime publishedAt);
+
+    @Query("SELECT COUNT(e) FROM OutboxEvent e WHERE "
+            + "e.status IN ('PENDING', 'FAILED') AND e.retryCount < e.maxRetry")
+    long countBacklog();
+
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e WHERE "
+            + "e.status IN ('PENDING', 'FAILED') AND e.retryCount < e.maxRetry")
+    Optional<LocalDateTime> findOldestBacklogCreatedAt();
 
     List<OutboxEvent> findByAggregateIdAndAggregateType(String aggregateId, String aggregateType);
 }
@@ -0,0 +1,26 @@
+package com.wallet_svc.wallet.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Insert-first idempotency claims on processed_events.
+ */
+public interface ProcessedEventClaimRepository {
+
+    /**
+     * Record the event unless (event_id, event_type) is already there with a result other
+     * than FAILED, in one statement: a FAILED row is taken over, so a failed event stays
+     * retryable. A concurrent claim of the same event waits on the unique index until the
+     * other transaction ends.
+     *
+     * @return true when this caller won the claim, false for a duplicate
+     */
+    boolean claim(
+            String eventId,
+            String eventType,
+            String sourceService,
+            String payloadHash,
+            LocalDateTime processedAt,
+            String processingResult,
+            String resultDetails);
+}
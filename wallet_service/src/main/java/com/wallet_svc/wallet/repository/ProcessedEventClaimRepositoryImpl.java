@@ -0,0 +1,64 @@
+package com.wallet_svc.wallet.repository;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * PostgreSQL uses {@code INSERT ... ON CONFLICT DO UPDATE ... WHERE processing_result =
+ * 'FAILED'}; H2 (tests and benchmarks) uses the equivalent {@code MERGE ... WHEN MATCHED AND
+ * ... THEN UPDATE WHEN NOT MATCHED THEN INSERT}. Either way a SUCCESS row is left alone and
+ * the statement reports no row changed.
+ */
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ProcessedEventClaimRepositoryImpl implements ProcessedEventClaimRepository {
+    EntityManager entityManager;
+    ReturningStatementExecutor executor;
+
+    private static final String COLUMNS =
+            "event_id, event_type, source_service, payload_hash, processed_at, processing_result, result_details";
+    private static final String VALUES =
+            ":eventId, :eventType, :sourceService, :payloadHash, :processedAt, :processingResult, :resultDetails";
+    private static final String TAKE_OVER_FROM_EXCLUDED = "source_service = EXCLUDED.source_service,"
+            + " payload_hash = EXCLUDED.payload_hash, processed_at = EXCLUDED.processed_at,"
+            + " processing_result = EXCLUDED.processing_result, result_details = EXCLUDED.result_details";
+    private static final String TAKE_OVER_FROM_SOURCE = "source_service = s.source_service,"
+            + " payload_hash = s.payload_hash, processed_at = s.processed_at,"
+            + " processing_result = s.processing_result, result_details = s.result_details";
+
+    @Override
+    public boolean claim(
+            String eventId,
+            String eventType,
+            String sourceService,
+            String payloadHash,
+            LocalDateTime processedAt,
+            String processingResult,
+            String resultDetails) {
+        String sql = executor.isPostgres()
+                ? "INSERT INTO processed_events (" + COLUMNS + ") VALUES (" + VALUES + ")"
+                        + " ON CONFLICT (event_id, event_type) DO UPDATE SET " + TAKE_OVER_FROM_EXCLUDED
+                        + " WHERE processed_events.processing_result = 'FAILED'"
+                : "MERGE INTO processed_events t USING (VALUES (" + VALUES + ")) s (" + COLUMNS + ")"
+                        + " ON t.event_id = s.event_id AND t.event_type = s.event_type"
+                        + " WHEN MATCHED AND t.processing_result = 'FAILED' THEN UPDATE SET " + TAKE_OVER_FROM_SOURCE
+                        + " WHEN NOT MATCHED THEN INSERT (" + COLUMNS + ") VALUES (s.event_id, s.event_type,"
+                        + " s.source_service, s.payload_hash, s.processed_at, s.processing_result, s.result_details)";
+
+        Query query = entityManager.createNativeQuery(sql);
+        query.setParameter("eventId", eventId);
+        query.setParameter("eventType", eventType);
+        query.setParameter("sourceService", sourceService);
+        query.setParameter("payloadHash", payloadHash);
+        query.setParameter("processedAt", processedAt);
+        query.setParameter("processingResult", processingResult);
+        query.setParameter("resultDetails", resultDetails);
+        return query.executeUpdate() == 1;
+    }
+}
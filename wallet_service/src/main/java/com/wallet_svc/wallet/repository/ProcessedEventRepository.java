@@ -1,6 +1,7 @@
 package com.wallet_svc.wallet.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,23 +12,27 @@ import org.springframework.stereotype.Repository;
 import com.wallet_svc.wallet.entity.ProcessedEvent;
 
 @Repository
-public interface ProcessedEventRepository extends JpaRepository<ProcessedEvent, Long> {
+public interface ProcessedEventRepository extends JpaRepository<ProcessedEvent, Long>, ProcessedEventClaimRepository {
 
     /**
-     * Check if an event has already been processed (idempotency check)
+     * Check if an event has already been processed (idempotency check); a FAILED event may
+     * still be retried
      */
-    boolean existsByEventIdAndEventType(String eventId, String eventType);
+    @Query("SELECT COUNT(e) > 0 FROM ProcessedEvent e WHERE e.eventId = :eventId AND e.eventType = :eventType "
+            + "AND e.processingResult <> 'FAILED'")
+    boolean isProcessed(String eventId, String eventType);
 
     /**
-     * Get processed event details
+     * Bulk idempotency check: which of the given event ids were already processed (not FAILED)
      */
-    Optional<ProcessedEvent> findByEventIdAndEventType(String eventId, String eventType);
+    @Query("SELECT e.eventId FROM ProcessedEvent e WHERE e.eventType = :eventType AND e.eventId IN :eventIds "
+            + "AND e.processingResult <> 'FAILED'")
+    List<String> findProcessedEventIds(String eventType, Collection<String> eventIds);
 
     /**
-     * Find old processed events for cleanup (after 30 days)
+     * Get processed event details
      */
-    @Query("SELECT e FROM ProcessedEvent e WHERE e.processedAt < :cutoffDate")
-    List<ProcessedEvent> findOldProcessedEvents(LocalDateTime cutoffDate);
+    Optional<ProcessedEvent> findByEventIdAndEventType(String eventId, String eventType);
 
     /**
      * Find recent processing failures for monitoring
@@ -0,0 +1,9 @@
+package com.wallet_svc.wallet.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.wallet_svc.wallet.entity.RetentionCheckpoint;
+
+@Repository
+public interface RetentionCheckpointRepository extends JpaRepository<RetentionCheckpoint, String> {}
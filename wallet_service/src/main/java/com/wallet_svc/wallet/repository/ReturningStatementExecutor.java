@@ -0,0 +1,53 @@
+package com.wallet_svc.wallet.repository;
+
+import java.util.List;
+import java.util.Map;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Executes a guarded UPDATE and returns the affected rows in a single round trip.
+ *
+ * PostgreSQL uses {@code UPDATE ... RETURNING}; H2 (tests and benchmarks) uses the
+ * equivalent {@code SELECT ... FROM FINAL TABLE (UPDATE ...)} data change delta table.
+ */
+@Component
+public class ReturningStatementExecutor {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Boolean postgres;
+
+    @SuppressWarnings("unchecked")
+    public List<Object[]> execute(String updateSql, String returningColumns, Map<String, Object> params) {
+        String sql = isPostgres()
+                ? updateSql + " RETURNING " + returningColumns
+                : "SELECT " + returningColumns + " FROM FINAL TABLE (" + updateSql + ")";
+
+        Query query = entityManager.createNativeQuery(sql);
+        params.forEach(query::setParameter);
+        return query.getResultList();
+    }
+
+    public boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            Dialect dialect = entityManager
+                    .getEntityManagerFactory()
+                    .unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices()
+                    .getDialect();
+            result = dialect instanceof PostgreSQLDialect;
+            postgres = result;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,19 @@
+package com.wallet_svc.wallet.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.wallet_svc.wallet.entity.WalletDailySummary;
+
+@Repository
+public interface WalletDailySummaryRepository
+        extends JpaRepository<WalletDailySummary, WalletDailySummary.Key>, WalletDailySummaryUpsertRepository {
+
+    /**
+     * At most (days x transaction types x reference types) rows, whatever the history size
+     */
+    List<WalletDailySummary> findByWalletIdAndSummaryDateBetween(Long walletId, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,23 @@
+package com.wallet_svc.wallet.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Incremental maintenance of wallet_daily_summaries.
+ */
+public interface WalletDailySummaryUpsertRepository {
+
+    /**
+     * Add {@code amount} and {@code count} rows to the (wallet, day, type, reference type)
+     * bucket, creating it when missing, in one statement. Concurrent writers of the same
+     * wallet are already serialized by the wallet row lock.
+     */
+    void add(
+            Long walletId,
+            LocalDate summaryDate,
+            String transactionType,
+            String referenceType,
+            BigDecimal amount,
+            long count);
+}
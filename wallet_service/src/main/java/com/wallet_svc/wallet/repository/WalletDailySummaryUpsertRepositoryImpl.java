@@ -0,0 +1,61 @@
+package com.wallet_svc.wallet.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * PostgreSQL uses {@code INSERT ... ON CONFLICT DO UPDATE}; H2 (tests and benchmarks) uses
+ * the equivalent {@code MERGE ... WHEN MATCHED THEN UPDATE WHEN NOT MATCHED THEN INSERT}.
+ */
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class WalletDailySummaryUpsertRepositoryImpl implements WalletDailySummaryUpsertRepository {
+    EntityManager entityManager;
+    ReturningStatementExecutor executor;
+
+    private static final String COLUMNS =
+            "wallet_id, summary_date, transaction_type, reference_type, total_amount, tx_count, updated_at";
+    private static final String VALUES =
+            ":walletId, :summaryDate, :transactionType, :referenceType, :amount, :count, :now";
+
+    @Override
+    public void add(
+            Long walletId,
+            LocalDate summaryDate,
+            String transactionType,
+            String referenceType,
+            BigDecimal amount,
+            long count) {
+        String sql = executor.isPostgres()
+                ? "INSERT INTO wallet_daily_summaries (" + COLUMNS + ") VALUES (" + VALUES + ")"
+                        + " ON CONFLICT (wallet_id, summary_date, transaction_type, reference_type) DO UPDATE SET"
+                        + " total_amount = wallet_daily_summaries.total_amount + EXCLUDED.total_amount,"
+                        + " tx_count = wallet_daily_summaries.tx_count + EXCLUDED.tx_count,"
+                        + " updated_at = EXCLUDED.updated_at"
+                : "MERGE INTO wallet_daily_summaries t USING (VALUES (" + VALUES + ")) s (" + COLUMNS + ")"
+                        + " ON t.wallet_id = s.wallet_id AND t.summary_date = s.summary_date"
+                        + " AND t.transaction_type = s.transaction_type AND t.reference_type = s.reference_type"
+                        + " WHEN MATCHED THEN UPDATE SET total_amount = t.total_amount + s.total_amount,"
+                        + " tx_count = t.tx_count + s.tx_count, updated_at = s.updated_at"
+                        + " WHEN NOT MATCHED THEN INSERT (" + COLUMNS + ") VALUES (s.wallet_id, s.summary_date,"
+                        + " s.transaction_type, s.reference_type, s.total_amount, s.tx_count, s.updated_at)";
+
+        Query query = entityManager.createNativeQuery(sql);
+        query.setParameter("walletId", walletId);
+        query.setParameter("summaryDate", summaryDate);
+        query.setParameter("transactionType", transactionType);
+        query.setParameter("referenceType", referenceType);
+        query.setParameter("amount", amount);
+        query.setParameter("count", count);
+        query.setParameter("now", LocalDateTime.now());
+        query.executeUpdate();
+    }
+}
@@ -1,15 +1,38 @@
 package com.wallet_svc.wallet.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.wallet_svc.wallet.entity.WalletHold;
 
 @Repository
-public interface WalletHoldRepository extends JpaRepository<WalletHold, Long> {
+public interface WalletHoldRepository extends JpaRepository<WalletHold, Long>, HoldMutationRepository {
     List<WalletHold> findByWalletIdAndStatus(Long walletId, String status);
 
+    long countByStatus(String status);
+
     List<WalletHold> findByReferenceTypeAndReferenceId(String referenceType, String referenceId);
+
+    @Query("SELECT w.userId FROM WalletHold h, Wallet w WHERE h.id = :holdId AND w.id = h.walletId")
+    Optional<String> findOwnerUserIdByHoldId(Long holdId);
+
+    /**
+     * Keyset page of active holds that have not expired yet, used to rebuild the in-memory
+     * expiry schedule at startup without loading whole entities
+     */
+    @Query("SELECT h.id AS id, h.expiresAt AS expiresAt FROM WalletHold h "
+            + "WHERE h.status = 'ACTIVE' AND h.expiresAt > :now AND h.id > :afterId ORDER BY h.id")
+    List<HoldExpiry> findActiveHoldExpiries(LocalDateTime now, Long afterId, Limit limit);
+
+    interface HoldExpiry {
+        Long getId();
+
+        LocalDateTime getExpiresAt();
+    }
 }
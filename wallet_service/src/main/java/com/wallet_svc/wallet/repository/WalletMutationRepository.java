@@ -0,0 +1,56 @@
+package com.wallet_svc.wallet.repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Atomic wallet mutations.
+ *
+ * Every method is a single conditional UPDATE: the business guard (wallet status,
+ * available balance, token balance) is evaluated by the database under the row lock,
+ * so concurrent writers can never lose an update or overdraw a wallet.
+ * An empty result means the guard did not match (missing wallet, suspended/closed
+ * wallet or insufficient funds) and nothing was changed.
+ */
+public interface WalletMutationRepository {
+
+    /**
+     * Lock {@code amount} of the available balance (balance - locked_balance)
+     */
+    Optional<WalletSnapshot> lockAvailable(String userId, BigDecimal amount);
+
+    /**
+     * Give back {@code amount} of locked balance, e.g. when a hold is released
+     */
+    Optional<WalletSnapshot> unlock(Long walletId, BigDecimal amount);
+
+    /**
+     * Give back the locked balance of many holds at once: each wallet in {@code walletIds}
+     * is unlocked by the sum of its holds in {@code holdIds}, in a single UPDATE
+     */
+    List<WalletSnapshot> unlockHolds(Collection<Long> walletIds, Collection<Long> holdIds);
+
+    /**
+     * Direct charge against the available balance
+     */
+    Optional<WalletSnapshot> debitAvailable(String userId, BigDecimal amount);
+
+    /**
+     * Charge that consumes a hold: unlocks {@code heldAmount} and debits {@code amount}, as
+     * long as {@code amount} is covered by the hold plus the rest of the available balance
+     */
+    Optional<WalletSnapshot> debitHeld(Long walletId, String userId, BigDecimal heldAmount, BigDecimal amount);
+
+    Optional<WalletSnapshot> creditRefund(String userId, BigDecimal amount);
+
+    Optional<WalletSnapshot> creditTopUp(String userId, BigDecimal amount, Integer tokens);
+
+    /**
+     * Admin adjustment; a negative amount counts as spent, a positive one as earned
+     */
+    Optional<WalletSnapshot> adjust(String userId, BigDecimal amount);
+
+    Optional<WalletSnapshot> deductTokens(String userId, Integer tokens);
+}
@@ -0,0 +1,163 @@
+package com.wallet_svc.wallet.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.wallet_svc.wallet.constant.WalletStatus;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class WalletMutationRepositoryImpl implements WalletMutationRepository {
+    ReturningStatementExecutor executor;
+
+    private static final String RETURNING = "id, user_id, balance, locked_balance, token, status";
+
+    private static final String STATUS_GUARD =
+            "status NOT IN ('" + WalletStatus.SUSPENDED + "', '" + WalletStatus.CLOSED + "')";
+
+    private static final String AVAILABLE_GUARD = "balance - COALESCE(locked_balance, 0) >= :amount";
+
+    // Available balance once the hold is given back; a charge above the hold may not overdraw
+    private static final String HELD_GUARD = "balance - (COALESCE(locked_balance, 0) - :heldAmount) >= :amount";
+
+    @Override
+    public Optional<WalletSnapshot> lockAvailable(String userId, BigDecimal amount) {
+        return update(
+                "UPDATE wallets SET locked_balance = COALESCE(locked_balance, 0) + :amount, updated_at = :now"
+                        + " WHERE user_id = :userId AND " + STATUS_GUARD + " AND " + AVAILABLE_GUARD,
+                params("userId", userId, "amount", amount));
+    }
+
+    @Override
+    public Optional<WalletSnapshot> unlock(Long walletId, BigDecimal amount) {
+        return update(
+                "UPDATE wallets SET locked_balance = COALESCE(locked_balance, 0) - :amount, updated_at = :now"
+                        + " WHERE id = :walletId",
+                params("walletId", walletId, "amount", amount));
+    }
+
+    @Override
+    public List<WalletSnapshot> unlockHolds(Collection<Long> walletIds, Collection<Long> holdIds) {
+        if (walletIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("walletIds", walletIds);
+        params.put("holdIds", holdIds);
+        params.put("now", LocalDateTime.now());
+        return executor
+                .execute(
+                        "UPDATE wallets SET locked_balance = COALESCE(locked_balance, 0) - ("
+                                + "SELECT COALESCE(SUM(h.amount), 0) FROM wallet_holds h"
+                                + " WHERE h.wallet_id = wallets.id AND h.id IN (:holdIds)),"
+                                + " updated_at = :now WHERE id IN (:walletIds)",
+                        RETURNING,
+                        params)
+                .stream()
+                .map(WalletMutationRepositoryImpl::toSnapshot)
+                .toList();
+    }
+
+    @Override
+    public Optional<WalletSnapshot> debitAvailable(String userId, BigDecimal amount) {
+        return update(
+                "UPDATE wallets SET balance = balance - :amount,"
+                        + " total_spent = COALESCE(total_spent, 0) + :amount, updated_at = :now"
+                        + " WHERE user_id = :userId AND " + STATUS_GUARD + " AND " + AVAILABLE_GUARD,
+                params("userId", userId, "amount", amount));
+    }
+
+    @Override
+    public Optional<WalletSnapshot> debitHeld(Long walletId, String userId, BigDecimal heldAmount, BigDecimal amount) {
+        Map<String, Object> params = params("userId", userId, "amount", amount);
+        params.put("walletId", walletId);
+        params.put("heldAmount", heldAmount);
+        return update(
+                "UPDATE wallets SET locked_balance = COALESCE(locked_balance, 0) - :heldAmount,"
+                        + " balance = balance - :amount, total_spent = COALESCE(total_spent, 0) + :amount,"
+                        + " updated_at = :now"
+                        + " WHERE id = :walletId AND user_id = :userId AND " + STATUS_GUARD
+                        + " AND " + HELD_GUARD,
+                params);
+    }
+
+    @Override
+    public Optional<WalletSnapshot> creditRefund(String userId, BigDecimal amount) {
+        return update(
+                "UPDATE wallets SET balance = balance + :amount,"
+                        + " total_refunded = COALESCE(total_refunded, 0) + :amount, updated_at = :now"
+                        + " WHERE user_id = :userId AND " + STATUS_GUARD,
+                params("userId", userId, "amount", amount));
+    }
+
+    @Override
+    public Optional<WalletSnapshot> creditTopUp(String userId, BigDecimal amount, Integer tokens) {
+        Map<String, Object> params = params("userId", userId, "amount", amount);
+        params.put("tokens", tokens != null ? tokens : 0);
+        return update(
+                "UPDATE wallets SET balance = balance + :amount,"
+                        + " total_earned = COALESCE(total_earned, 0) + :amount,"
+                        + " token = COALESCE(token, 0) + :tokens, updated_at = :now"
+                        + " WHERE user_id = :userId AND " + STATUS_GUARD,
+                params);
+    }
+
+    @Override
+    public Optional<WalletSnapshot> adjust(String userId, BigDecimal amount) {
+        Map<String, Object> params = params("userId", userId, "amount", amount);
+        params.put("earned", amount.max(BigDecimal.ZERO));
+        params.put("spent", amount.min(BigDecimal.ZERO).negate());
+        return update(
+                "UPDATE wallets SET balance = balance + :amount,"
+                        + " total_earned = COALESCE(total_earned, 0) + :earned,"
+                        + " total_spent = COALESCE(total_spent, 0) + :spent, updated_at = :now"
+                        + " WHERE user_id = :userId",
+                params);
+    }
+
+    @Override
+    public Optional<WalletSnapshot> deductTokens(String userId, Integer tokens) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("userId", userId);
+        params.put("tokens", tokens);
+        return update(
+                "UPDATE wallets SET token = COALESCE(token, 0) - :tokens, updated_at = :now"
+                        + " WHERE user_id = :userId AND " + STATUS_GUARD + " AND COALESCE(token, 0) >= :tokens",
+                params);
+    }
+
+    private Optional<WalletSnapshot> update(String updateSql, Map<String, Object> params) {
+        params.put("now", LocalDateTime.now());
+        return executor.execute(updateSql, RETURNING, params).stream()
+                .findFirst()
+                .map(WalletMutationRepositoryImpl::toSnapshot);
+    }
+
+    private static WalletSnapshot toSnapshot(Object[] row) {
+        return WalletSnapshot.builder()
+                .id(((Number) row[0]).longValue())
+                .userId((String) row[1])
+                .balance((BigDecimal) row[2])
+                .lockedBalance(row[3] != null ? (BigDecimal) row[3] : BigDecimal.ZERO)
+                .token(row[4] != null ? ((Number) row[4]).intValue() : 0)
+                .status((String) row[5])
+                .build();
+    }
+
+    private static Map<String, Object> params(String key, Object value, String amountKey, BigDecimal amount) {
+        Map<String, Object> params = new HashMap<>();
+        params.put(key, value);
+        params.put(amountKey, amount);
+        return params;
+    }
+}
@@ -1,15 +1,20 @@
 package com.wallet_svc.wallet.repository;
 
+import java.math.BigDecimal;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.wallet_svc.wallet.entity.Wallet;
 
 @Repository
-public interface WalletRepository extends JpaRepository<Wallet, Long> {
+public interface WalletRepository extends JpaRepository<Wallet, Long>, WalletMutationRepository {
     Optional<Wallet> findByUserId(String userId);
 
     boolean existsByUserId(String userId);
+
+    @Query("SELECT COALESCE(SUM(w.lockedBalance), 0) FROM Wallet w")
+    BigDecimal sumLockedBalance();
 }
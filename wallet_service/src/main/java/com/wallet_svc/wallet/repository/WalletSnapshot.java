@@ -0,0 +1,22 @@
+package com.wallet_svc.wallet.repository;
+
+import java.math.BigDecimal;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Post-update state of a wallet row as returned by a guarded mutation
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class WalletSnapshot {
+    Long id;
+    String userId;
+    BigDecimal balance;
+    BigDecimal lockedBalance;
+    Integer token;
+    String status;
+}
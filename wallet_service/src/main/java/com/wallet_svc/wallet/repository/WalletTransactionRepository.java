@@ -1,10 +1,13 @@
 package com.wallet_svc.wallet.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.wallet_svc.wallet.entity.WalletTransaction;
@@ -18,4 +21,19 @@ public interface WalletTransactionRepository extends JpaRepository<WalletTransac
     List<WalletTransaction> findByReferenceTypeAndReferenceId(String referenceType, String referenceId);
 
     Page<WalletTransaction> findByStatusOrderByCreatedAtDesc(String status, Pageable pageable);
+
+    // Keyset (seek) pagination: newest first, (created_at, id) as the cursor, no count query
+
+    List<WalletTransaction> findByWalletIdOrderByCreatedAtDescIdDesc(Long walletId, Limit limit);
+
+    @Query("SELECT t FROM WalletTransaction t WHERE t.walletId = :walletId "
+            + "AND (t.createdAt, t.id) < (:createdAt, :id) "
+            + "ORDER BY t.createdAt DESC, t.id DESC")
+    List<WalletTransaction> findByWalletIdBefore(Long walletId, LocalDateTime createdAt, Long id, Limit limit);
+
+    List<WalletTransaction> findAllByOrderByCreatedAtDescIdDesc(Limit limit);
+
+    @Query("SELECT t FROM WalletTransaction t WHERE (t.createdAt, t.id) < (:createdAt, :id) "
+            + "ORDER BY t.createdAt DESC, t.id DESC")
+    List<WalletTransaction> findAllBefore(LocalDateTime createdAt, Long id, Limit limit);
 }
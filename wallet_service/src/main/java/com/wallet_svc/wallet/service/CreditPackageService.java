@@ -2,10 +2,32 @@ package com.wallet_svc.wallet.service;
 
 import java.util.List;
 
+import com.wallet_svc.wallet.dto.request.CreditPackageRequest;
 import com.wallet_svc.wallet.dto.response.CreditPackageResponse;
 
 public interface CreditPackageService {
     List<CreditPackageResponse> getAllActivePackages();
 
     CreditPackageResponse getPackageById(Long packageId);
+
+    /**
+     * Packages on sale today, with the validators for conditional requests
+     */
+    Catalog getActiveCatalog();
+
+    /**
+     * Every package, including inactive and expired ones, for the admin screens
+     */
+    List<CreditPackageResponse> getAllPackages();
+
+    CreditPackageResponse createPackage(CreditPackageRequest request);
+
+    CreditPackageResponse updatePackage(Long packageId, CreditPackageRequest request);
+
+    /**
+     * @param packages read-only, in display order
+     * @param etag weak entity tag of {@code packages}
+     * @param lastModified epoch millis (whole seconds) of the last change to {@code packages}
+     */
+    record Catalog(List<CreditPackageResponse> packages, String etag, long lastModified) {}
 }
@@ -0,0 +1,179 @@
+package com.wallet_svc.wallet.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.wallet_svc.wallet.repository.WalletHoldRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Expires holds on time.
+ *
+ * Active holds are loaded into a HoldTimingWheel at startup and new holds are added when
+ * their transaction commits. A single ticker thread advances the wheel every tick and
+ * expires whatever came due in batches. A periodic sweep over the (status, expires_at)
+ * index catches holds missed while the service was down or beyond the wheel horizon.
+ *
+ * Every node runs its own wheel; the guarded expiry UPDATE makes sure each hold is
+ * expired exactly once.
+ */
+@Component
+@Slf4j
+public class HoldExpiryScheduler implements SmartLifecycle {
+
+    private static final int LOAD_PAGE_SIZE = 5000;
+
+    private final HoldExpiryService holdExpiryService;
+    private final WalletHoldRepository holdRepository;
+    private final boolean enabled;
+    private final long tickMs;
+    private final int batchSize;
+    private final HoldTimingWheel wheel;
+
+    private volatile boolean running;
+    private ScheduledExecutorService ticker;
+
+    public HoldExpiryScheduler(
+            HoldExpiryService holdExpiryService,
+            WalletHoldRepository holdRepository,
+            MeterRegistry meterRegistry,
+            @Value("${wallet.hold-expiry.enabled:true}") boolean enabled,
+            @Value("${wallet.hold-expiry.tick-ms:1000}") long tickMs,
+            @Value("${wallet.hold-expiry.wheel-size:64}") int wheelSize,
+            @Value("${wallet.hold-expiry.wheel-levels:4}") int wheelLevels,
+            @Value("${wallet.hold-expiry.batch-size:500}") int batchSize) {
+        this.holdExpiryService = holdExpiryService;
+        this.holdRepository = holdRepository;
+        this.enabled = enabled;
+        this.tickMs = tickMs;
+        this.batchSize = batchSize;
+        this.wheel = new HoldTimingWheel(tickMs, wheelSize, wheelLevels, System.currentTimeMillis());
+
+        Gauge.builder("wallet.holds.scheduled", wheel, HoldTimingWheel::size)
+                .description("Holds waiting in the in-memory expiry wheel")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Add a new hold to the wheel once the surrounding transaction commits
+     */
+    public void scheduleAfterCommit(Long holdId, LocalDateTime expiresAt) {
+        if (!enabled || holdId == null || expiresAt == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wheel.schedule(holdId, toEpochMs(expiresAt));
+                }
+            });
+        } else {
+            wheel.schedule(holdId, toEpochMs(expiresAt));
+        }
+    }
+
+    /**
+     * Catch-up sweep: expire overdue holds straight from the index, batch by batch
+     */
+    @Scheduled(
+            fixedDelayString = "${wallet.hold-expiry.sweep-interval-ms:60000}",
+            initialDelayString = "${wallet.hold-expiry.sweep-initial-delay-ms:5000}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int total = 0;
+            int expired;
+            do {
+                expired = holdExpiryService.expireDueHolds(batchSize);
+                total += expired;
+            } while (expired == batchSize);
+
+            if (total > 0) {
+                log.info("Hold expiry sweep expired {} overdue holds", total);
+            }
+        } catch (Exception e) {
+            log.error("Error in hold expiry sweep", e);
+        }
+    }
+
+    private void tick() {
+        try {
+            List<Long> due = wheel.advanceTo(System.currentTimeMillis());
+            for (int from = 0; from < due.size(); from += batchSize) {
+                holdExpiryService.expireHolds(due.subList(from, Math.min(from + batchSize, due.size())));
+            }
+        } catch (Exception e) {
+            // Anything not expired here is picked up by the next sweep
+            log.error("Error expiring due holds", e);
+        }
+    }
+
+    private void loadActiveHolds() {
+        LocalDateTime now = LocalDateTime.now();
+        long afterId = 0;
+        int loaded = 0;
+        List<WalletHoldRepository.HoldExpiry> page;
+        do {
+            page = holdRepository.findActiveHoldExpiries(now, afterId, Limit.of(LOAD_PAGE_SIZE));
+            for (WalletHoldRepository.HoldExpiry hold : page) {
+                if (wheel.schedule(hold.getId(), toEpochMs(hold.getExpiresAt()))) {
+                    loaded++;
+                }
+                afterId = hold.getId();
+            }
+        } while (page.size() == LOAD_PAGE_SIZE);
+        log.info("Loaded {} active holds into the expiry wheel", loaded);
+    }
+
+    private static long toEpochMs(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        loadActiveHolds();
+        running = true;
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hold-expiry-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+        log.info("Hold expiry wheel started (tick: {} ms, batch size: {})", tickMs, batchSize);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,124 @@
+package com.wallet_svc.wallet.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.wallet_svc.wallet.constant.TransactionStatus;
+import com.wallet_svc.wallet.constant.TransactionType;
+import com.wallet_svc.wallet.entity.WalletTransaction;
+import com.wallet_svc.wallet.event.producer.WalletEventProducer;
+import com.wallet_svc.wallet.repository.HoldSnapshot;
+import com.wallet_svc.wallet.repository.WalletHoldRepository;
+import com.wallet_svc.wallet.repository.WalletRepository;
+import com.wallet_svc.wallet.repository.WalletSnapshot;
+import com.wallet_svc.wallet.repository.WalletTransactionRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Expires holds in bulk: one UPDATE flips the holds to EXPIRED, one UPDATE gives their
+ * locked balance back to the wallets, then the RELEASE ledger rows and wallet.hold_expired
+ * events are written in the same transaction.
+ *
+ * Runs outside the wallet mutation serializer. The wallets are only known once the expiring
+ * UPDATE returns and a sweep can touch hundreds of them, so taking their stripes would mean
+ * holding many at once. Nor is it needed: the ACTIVE -> EXPIRED transition decides between
+ * expiry and a concurrent release or charge of the same hold, and the unlock is a relative
+ * decrement, so other writers to those wallets only wait on the row lock, never lose an update.
+ */
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class HoldExpiryService {
+    WalletHoldRepository holdRepository;
+    WalletRepository walletRepository;
+    WalletTransactionRepository transactionRepository;
+    WalletEventProducer walletEventProducer;
+    WalletSnapshotCache walletSnapshotCache;
+    ReadReplicaRouter readReplicaRouter;
+    SpendSummaryService spendSummaryService;
+    MeterRegistry meterRegistry;
+
+    /**
+     * Expire the given holds if they are still active and due (timing wheel path)
+     *
+     * @return number of holds expired
+     */
+    @Transactional
+    public int expireHolds(Collection<Long> holdIds) {
+        return settle(holdRepository.expire(holdIds, LocalDateTime.now()), "wheel");
+    }
+
+    /**
+     * Expire up to {@code limit} overdue holds (catch-up sweep after downtime or missed ticks)
+     *
+     * @return number of holds expired
+     */
+    @Transactional
+    public int expireDueHolds(int limit) {
+        return settle(holdRepository.expireDue(LocalDateTime.now(), limit), "sweep");
+    }
+
+    private int settle(List<HoldSnapshot> holds, String source) {
+        if (holds.isEmpty()) {
+            return 0;
+        }
+
+        Set<Long> walletIds = new LinkedHashSet<>();
+        List<Long> holdIds = new ArrayList<>(holds.size());
+        for (HoldSnapshot hold : holds) {
+            walletIds.add(hold.getWalletId());
+            holdIds.add(hold.getId());
+        }
+
+        Map<Long, WalletSnapshot> wallets = walletRepository.unlockHolds(walletIds, holdIds).stream()
+                .collect(Collectors.toMap(WalletSnapshot::getId, Function.identity()));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<WalletTransaction> transactions = new ArrayList<>(holds.size());
+        for (HoldSnapshot hold : holds) {
+            WalletSnapshot wallet = wallets.get(hold.getWalletId());
+            transactions.add(WalletTransaction.builder()
+                    .walletId(hold.getWalletId())
+                    .transactionType(TransactionType.RELEASE)
+                    .amount(hold.getAmount())
+                    .referenceType(hold.getReferenceType())
+                    .referenceId(hold.getReferenceId())
+                    .description("Hold expired")
+                    .status(TransactionStatus.SUCCESS)
+                    .balanceBefore(wallet.getBalance())
+                    .balanceAfter(wallet.getBalance())
+                    .metadata("{\"hold_id\":" + hold.getId() + "}")
+                    .processedAt(now)
+                    .build());
+
+            walletEventProducer.publishHoldExpiredEvent(
+                    wallet.getUserId(), wallet.getId(), hold.getId(), hold.getAmount(), hold.getReferenceId());
+        }
+        transactionRepository.saveAll(transactions);
+        spendSummaryService.recordAll(transactions);
+        wallets.values().forEach(wallet -> {
+            walletSnapshotCache.evictAfterCommit(wallet.getUserId());
+            readReplicaRouter.recordWriteAfterCommit(wallet.getUserId());
+        });
+
+        meterRegistry.counter("wallet.holds.expired", "source", source).increment(holds.size());
+        log.info("Expired {} holds across {} wallets ({})", holds.size(), wallets.size(), source);
+        return holds.size();
+    }
+}
@@ -0,0 +1,126 @@
+package com.wallet_svc.wallet.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel of hold ids.
+ *
+ * Level 0 has {@code wheelSize} slots of one tick each; every level above covers
+ * {@code wheelSize} times the span of the one below. Scheduling and firing are O(1) per
+ * hold, and an entry is moved down a level at most once per level on its way to firing,
+ * so hundreds of thousands of pending holds cost a few list appends per tick.
+ *
+ * Entries are never cancelled: a hold that was released or charged before it fires is
+ * filtered out by the guarded expiry UPDATE. Deadlines beyond the wheel horizon (at least
+ * (wheelSize - 1) top-level slots ahead) are not scheduled and are left to the catch-up sweep.
+ */
+public class HoldTimingWheel {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long[] unitTicks;
+    private final List<Entry>[][] slots;
+
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public HoldTimingWheel(long tickMs, int wheelSize, int levels, long startMs) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.unitTicks = new long[levels];
+        this.slots = new List[levels][wheelSize];
+        this.currentTick = Math.floorDiv(startMs, tickMs);
+
+        long unit = 1;
+        for (int level = 0; level < levels; level++) {
+            unitTicks[level] = unit;
+            unit = Math.multiplyExact(unit, wheelSize);
+        }
+    }
+
+    /**
+     * Schedule {@code holdId} to fire at {@code deadlineMs}.
+     *
+     * @return false when the deadline is already due or beyond the wheel horizon
+     */
+    public synchronized boolean schedule(long holdId, long deadlineMs) {
+        // Round up: firing before expires_at would make the guarded expiry UPDATE skip the hold
+        if (!place(new Entry(holdId, Math.ceilDiv(deadlineMs, tickMs)))) {
+            return false;
+        }
+        size++;
+        return true;
+    }
+
+    /**
+     * Advance the wheel to {@code nowMs} and return the ids of every hold that came due
+     */
+    public synchronized List<Long> advanceTo(long nowMs) {
+        List<Long> due = new ArrayList<>();
+        long targetTick = Math.floorDiv(nowMs, tickMs);
+
+        while (currentTick < targetTick) {
+            currentTick++;
+
+            // Cascade higher levels first, so entries landing in this tick's level-0 slot fire now
+            for (int level = unitTicks.length - 1; level > 0; level--) {
+                if (currentTick % unitTicks[level] == 0) {
+                    for (Entry entry : drain(level, slotIndex(currentTick, level))) {
+                        if (!place(entry)) {
+                            due.add(entry.holdId());
+                        }
+                    }
+                }
+            }
+
+            for (Entry entry : drain(0, slotIndex(currentTick, 0))) {
+                due.add(entry.holdId());
+            }
+        }
+
+        size -= due.size();
+        return due;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private boolean place(Entry entry) {
+        if (entry.deadlineTick() <= currentTick) {
+            return false;
+        }
+
+        for (int level = 0; level < unitTicks.length; level++) {
+            long unit = unitTicks[level];
+            if (entry.deadlineTick() / unit - currentTick / unit < wheelSize) {
+                int index = slotIndex(entry.deadlineTick(), level);
+                List<Entry> slot = slots[level][index];
+                if (slot == null) {
+                    slot = new ArrayList<>();
+                    slots[level][index] = slot;
+                }
+                slot.add(entry);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<Entry> drain(int level, int index) {
+        List<Entry> slot = slots[level][index];
+        if (slot == null) {
+            return List.of();
+        }
+        slots[level][index] = null;
+        return slot;
+    }
+
+    private int slotIndex(long tick, int level) {
+        return (int) ((tick / unitTicks[level]) % wheelSize);
+    }
+
+    private record Entry(long holdId, long deadlineTick) {}
+}
@@ -0,0 +1,235 @@
+package com.wallet_svc.wallet.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wallet_svc.wallet.dto.response.TransactionResponse;
+import com.wallet_svc.wallet.entity.IdempotencyKey;
+import com.wallet_svc.wallet.exception.AppException;
+import com.wallet_svc.wallet.exception.ErrorCode;
+import com.wallet_svc.wallet.repository.IdempotencyKeyRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Idempotency-Key support for the internal mutation endpoints.
+ *
+ * A retried request is answered from a bounded in-memory tier, then from the
+ * idempotency_keys table, without touching the wallet. A first request takes the wallet
+ * stripe, runs the mutation and stores its result in the same transaction, so a result is
+ * stored exactly when the mutation committed. Two nodes racing on the same key collide on
+ * the primary key; the loser rolls back and replays the winner's result.
+ *
+ * Only successful results are stored: a rejected mutation (e.g. insufficient balance) is
+ * attempted again on retry.
+ */
+@Service
+@Slf4j
+public class IdempotencyKeyService {
+
+    public static final String CACHE_NAME = "idempotency.keys";
+
+    private static final int MAX_KEY_LENGTH = 100;
+    private static final int CLEANUP_CHUNK_SIZE = 5000;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final WalletMutationSerializer serializer;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration keyTtl;
+    private final Cache<String, StoredResult> cache;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public IdempotencyKeyService(
+            IdempotencyKeyRepository idempotencyKeyRepository,
+            WalletMutationSerializer serializer,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            PlatformTransactionManager transactionManager,
+            @Value("${wallet.idempotency.key-ttl-hours:24}") long keyTtlHours,
+            @Value("${wallet.idempotency.cache.maximum-size:50000}") long cacheMaximumSize,
+            @Value("${wallet.idempotency.cache.ttl-minutes:10}") long cacheTtlMinutes) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.serializer = serializer;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.keyTtl = Duration.ofHours(keyTtlHours);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfterWrite(Duration.ofMinutes(cacheTtlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Run {@code mutation} once per {@code key}; retries get the stored result back.
+     * Without a key the mutation simply runs.
+     *
+     * @param userId wallet owner used to pick the serializer stripe, or null when unknown
+     */
+    public TransactionResponse execute(
+            String key, String operation, String userId, Object request, Supplier<TransactionResponse> mutation) {
+        if (key == null) {
+            return mutation.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new AppException(ErrorCode.INVALID_IDEMPOTENCY_KEY);
+        }
+
+        String requestHash = hash(operation, request);
+
+        StoredResult cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return replay(key, cached, requestHash, "memory");
+        }
+
+        Optional<StoredResult> stored = load(key);
+        if (stored.isPresent()) {
+            cache.put(key, stored.get());
+            return replay(key, stored.get(), requestHash, "database");
+        }
+
+        try {
+            return serializer.execute(
+                    userId,
+                    () -> transactionTemplate.execute(status -> {
+                        // Re-check under the stripe: a concurrent retry may have just completed
+                        IdempotencyKey existing = entityManager.find(IdempotencyKey.class, key);
+                        if (existing != null) {
+                            if (existing.getExpiresAt().isAfter(LocalDateTime.now())) {
+                                return replay(key, toStoredResult(existing), requestHash, "database");
+                            }
+                            entityManager.remove(existing);
+                            entityManager.flush();
+                        }
+
+                        TransactionResponse response = mutation.get();
+                        store(key, operation, requestHash, response);
+                        return response;
+                    }));
+        } catch (DataIntegrityViolationException e) {
+            // Another node stored this key first and our mutation was rolled back
+            StoredResult winner = load(key).orElseThrow(() -> e);
+            return replay(key, winner, requestHash, "database");
+        }
+    }
+
+    /**
+     * Delete expired keys hourly, in short chunks along the expires_at index
+     */
+    @Scheduled(cron = "0 15 * * * *")
+    public void cleanupExpiredKeys() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            int total = 0;
+            int deleted;
+            do {
+                deleted = idempotencyKeyRepository.deleteExpired(now, CLEANUP_CHUNK_SIZE);
+                total += deleted;
+            } while (deleted == CLEANUP_CHUNK_SIZE);
+
+            if (total > 0) {
+                log.info("Cleaned up {} expired idempotency keys", total);
+            }
+        } catch (Exception e) {
+            log.error("Error cleaning up expired idempotency keys", e);
+        }
+    }
+
+    private void store(String key, String operation, String requestHash, TransactionResponse response) {
+        LocalDateTime now = LocalDateTime.now();
+        entityManager.persist(IdempotencyKey.builder()
+                .key(key)
+                .operation(operation)
+                .requestHash(requestHash)
+                .walletId(response.getWalletId())
+                .transactionId(response.getId())
+                .response(serialize(response))
+                .createdAt(now)
+                .expiresAt(now.plus(keyTtl))
+                .build());
+
+        StoredResult result = new StoredResult(requestHash, response);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.put(key, result);
+            }
+        });
+    }
+
+    private Optional<StoredResult> load(String key) {
+        return idempotencyKeyRepository
+                .findById(key)
+                .filter(record -> record.getExpiresAt().isAfter(LocalDateTime.now()))
+                .map(this::toStoredResult);
+    }
+
+    private TransactionResponse replay(String key, StoredResult result, String requestHash, String tier) {
+        if (!result.requestHash().equals(requestHash)) {
+            throw new AppException(ErrorCode.IDEMPOTENCY_KEY_REUSED);
+        }
+        meterRegistry.counter("wallet.idempotency.replays", "tier", tier).increment();
+        log.info("Replaying stored result for idempotency key {} ({})", key, tier);
+        return result.response();
+    }
+
+    private StoredResult toStoredResult(IdempotencyKey record) {
+        try {
+            return new StoredResult(
+                    record.getRequestHash(), objectMapper.readValue(record.getResponse(), TransactionResponse.class));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable stored response for idempotency key " + record.getKey(), e);
+        }
+    }
+
+    private String serialize(TransactionResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize transaction response", e);
+        }
+    }
+
+    private String hash(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Failed to hash request", e);
+        }
+    }
+
+    private record StoredResult(String requestHash, TransactionResponse response) {}
+}
@@ -3,7 +3,12 @@ package com.wallet_svc.wallet.service;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Set;
 
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
@@ -12,6 +17,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.wallet_svc.wallet.entity.ProcessedEvent;
 import com.wallet_svc.wallet.repository.ProcessedEventRepository;
+import com.wallet_svc.wallet.service.RetentionEngine.RetentionJob;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,7 +26,8 @@ import lombok.extern.slf4j.Slf4j;
  * Idempotent Event Processing Service
  *
  * Provides idempotency guarantees for event processing:
- * - Deduplicates events based on event ID
+ * - Deduplicates events based on event ID with an insert-first claim (ON CONFLICT DO NOTHING)
+ * - Rejects recent duplicates from memory (RecentEventFilter) without a database round trip
  * - Uses SHA-256 hash for additional payload verification
  * - Tracks processing history
  *
@@ -34,41 +41,102 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class IdempotentEventService {
 
+    private static final RetentionJob RETENTION_JOB =
+            new RetentionJob("processed_events", "processed_events", "processed_at", "processed_at < :cutoff");
+
     private final ProcessedEventRepository processedEventRepository;
+    private final RecentEventFilter recentEventFilter;
+    private final RetentionEngine retentionEngine;
+
+    /**
+     * Memory-only duplicate check, safe to call before any transaction is opened.
+     * false does not mean the event is new: claimEvent decides that.
+     */
+    public boolean isRecentlyProcessed(String eventId, String eventType) {
+        boolean seen = recentEventFilter.contains(eventId, eventType);
+        if (seen) {
+            log.info("Event recently processed: {} (type: {}), skipping", eventId, eventType);
+        }
+        return seen;
+    }
 
     /**
      * Check if event has already been processed
-     * This is the idempotency check
      */
     @Transactional(readOnly = true)
     public boolean isEventProcessed(String eventId, String eventType) {
-        boolean exists = processedEventRepository.existsByEventIdAndEventType(eventId, eventType);
+        if (isRecentlyProcessed(eventId, eventType)) {
+            return true;
+        }
+        boolean exists = processedEventRepository.isProcessed(eventId, eventType);
         if (exists) {
+            recentEventFilter.rememberAfterCommit(eventId, eventType);
             log.info("Event already processed: {} (type: {}), skipping", eventId, eventType);
         }
         return exists;
     }
 
+    /**
+     * Bulk idempotency check: the recent-event filter first, then one IN query for the rest
+     */
+    @Transactional(readOnly = true)
+    public Set<String> findProcessedEventIds(Collection<String> eventIds, String eventType) {
+        Set<String> processed = new HashSet<>();
+        List<String> unknown = new ArrayList<>(eventIds.size());
+        for (String eventId : eventIds) {
+            if (recentEventFilter.contains(eventId, eventType)) {
+                processed.add(eventId);
+            } else {
+                unknown.add(eventId);
+            }
+        }
+
+        if (!unknown.isEmpty()) {
+            for (String eventId : processedEventRepository.findProcessedEventIds(eventType, unknown)) {
+                recentEventFilter.rememberAfterCommit(eventId, eventType);
+                processed.add(eventId);
+            }
+        }
+        return processed;
+    }
+
+    /**
+     * Claim an event inside the caller's transaction, so the processed marker commits or
+     * rolls back together with the business changes.
+     *
+     * @return true when this caller won the claim and must process the event, false for a
+     *     duplicate
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean claimEvent(String eventId, String eventType, String sourceService, String payload) {
+        boolean claimed = processedEventRepository.claim(
+                eventId, eventType, sourceService, generateHash(payload), LocalDateTime.now(), "SUCCESS", null);
+
+        // Either way the pair is (or, after commit, will be) in processed_events
+        recentEventFilter.rememberAfterCommit(eventId, eventType);
+        if (!claimed) {
+            log.info("Event already processed: {} (type: {}), skipping", eventId, eventType);
+            return false;
+        }
+        return true;
+    }
+
     /**
      * Record event as processed
      * Use REQUIRES_NEW to ensure this commits even if parent transaction fails
+     *
+     * A FAILED result is kept for monitoring only: it is not remembered as processed, and
+     * the next delivery's claimEvent takes the row over, so the event can be retried.
      */
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void markEventAsProcessed(
             String eventId, String eventType, String sourceService, String payload, String result, String details) {
         try {
-            String payloadHash = generateHash(payload);
-
-            ProcessedEvent processedEvent = ProcessedEvent.builder()
-                    .eventId(eventId)
-                    .eventType(eventType)
-                    .sourceService(sourceService)
-                    .payloadHash(payloadHash)
-                    .processingResult(result)
-                    .resultDetails(details)
-                    .build();
-
-            processedEventRepository.save(processedEvent);
+            processedEventRepository.claim(
+                    eventId, eventType, sourceService, generateHash(payload), LocalDateTime.now(), result, details);
+            if (!"FAILED".equals(result)) {
+                recentEventFilter.rememberAfterCommit(eventId, eventType);
+            }
             log.debug("Marked event as processed: {} (type: {})", eventId, eventType);
 
         } catch (Exception e) {
@@ -86,7 +154,7 @@ public class IdempotentEventService {
     }
 
     /**
-     * Convenience method for failed processing
+     * Convenience method for failed processing; the event stays retryable
      */
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void markEventAsFailed(
@@ -100,14 +168,7 @@ public class IdempotentEventService {
     private String generateHash(String payload) {
         try {
             MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(payload.getBytes(StandardCharsets.UTF_8));
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) hexString.append('0');
-                hexString.append(hex);
-            }
-            return hexString.toString();
+            return HexFormat.of().formatHex(digest.digest(payload.getBytes(StandardCharsets.UTF_8)));
         } catch (Exception e) {
             log.error("Error generating hash", e);
             return null;
@@ -116,19 +177,12 @@ public class IdempotentEventService {
 
     /**
      * Cleanup old processed events (keep for 30 days for audit)
-     * Run daily at 3 AM
+     * Run daily at 3 AM, deleting in throttled chunks (RetentionEngine)
      */
     @Scheduled(cron = "0 0 3 * * *")
-    @Transactional
     public void cleanupOldProcessedEvents() {
         try {
-            LocalDateTime cutoffDate = LocalDateTime.now().minusDays(30);
-            List<ProcessedEvent> oldEvents = processedEventRepository.findOldProcessedEvents(cutoffDate);
-
-            if (!oldEvents.isEmpty()) {
-                processedEventRepository.deleteAll(oldEvents);
-                log.info("Cleaned up {} old processed events", oldEvents.size());
-            }
+            retentionEngine.purge(RETENTION_JOB, LocalDateTime.now().minusDays(30));
         } catch (Exception e) {
             log.error("Error cleaning up old processed events", e);
         }
@@ -0,0 +1,95 @@
+package com.wallet_svc.wallet.service;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Low-latency driver for the outbox publisher.
+ *
+ * A single dispatcher thread sleeps until a wallet transaction that wrote outbox rows
+ * commits (see WalletEventProducer), then drains the outbox immediately. If nothing wakes
+ * it, it still polls every outbox.dispatcher.max-idle-ms to pick up retries and rows left
+ * behind by a crash.
+ */
+@Component
+@Slf4j
+public class OutboxDispatcher implements SmartLifecycle {
+
+    private final OutboxPublisherService outboxPublisherService;
+    private final boolean enabled;
+    private final long maxIdleMs;
+    private final Semaphore signal = new Semaphore(0);
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public OutboxDispatcher(
+            OutboxPublisherService outboxPublisherService,
+            @Value("${outbox.dispatcher.enabled:true}") boolean enabled,
+            @Value("${outbox.dispatcher.max-idle-ms:1000}") long maxIdleMs) {
+        this.outboxPublisherService = outboxPublisherService;
+        this.enabled = enabled;
+        this.maxIdleMs = maxIdleMs;
+    }
+
+    /**
+     * Signal that new outbox rows were committed. Cheap and non-blocking; repeated
+     * signals before the dispatcher wakes up collapse into one drain.
+     */
+    public void wakeUp() {
+        if (signal.availablePermits() == 0) {
+            signal.release();
+        }
+    }
+
+    private void runLoop() {
+        while (running) {
+            try {
+                signal.tryAcquire(maxIdleMs, TimeUnit.MILLISECONDS);
+                signal.drainPermits();
+
+                // Keep draining while there is work; failed rows are rescheduled into the future
+                while (running && outboxPublisherService.publishPendingEvents() > 0) {
+                    signal.drainPermits();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Error in outbox dispatcher loop", e);
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::runLoop, "outbox-dispatcher");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("Outbox dispatcher started (max idle: {} ms)", maxIdleMs);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -1,115 +1,222 @@
 package com.wallet_svc.wallet.service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.wallet_svc.wallet.entity.OutboxEvent;
+import com.wallet_svc.wallet.event.codec.WalletEventCodec;
+import com.wallet_svc.wallet.repository.OutboxEventBulkRepository.Failure;
 import com.wallet_svc.wallet.repository.OutboxEventRepository;
+import com.wallet_svc.wallet.service.RetentionEngine.RetentionJob;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Outbox Event Publisher for Wallet Service
  * Ensures reliable event publishing with retry mechanism
+ *
+ * Each call claims one chunk with FOR UPDATE SKIP LOCKED, so every replica can run a
+ * dispatcher and they drain disjoint chunks in parallel without double-publishing.
+ *
+ * Metrics:
+ * - outbox.events.published / outbox.events.failed: publish throughput
+ * - outbox.publish.lag: time from outbox insert to broker acknowledgement
+ * - outbox.chunk.oldest.age.seconds: age of the oldest row in the last claimed chunk
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class OutboxPublisherService {
 
+    private static final RetentionJob RETENTION_JOB = new RetentionJob(
+            "outbox_events", "outbox_events", "created_at", "status = 'PUBLISHED' AND created_at < :cutoff");
+
     private final OutboxEventRepository outboxRepository;
+    private final RetentionEngine retentionEngine;
+    private final PartitionMaintenanceService partitionMaintenance;
     private final KafkaTemplate<String, Object> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private final WalletEventCodec eventCodec;
+    private final int chunkSize;
+    private final long sendTimeoutMs;
+    private final int retentionDays;
+
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Timer chunkTimer;
+    private final Timer lagTimer;
+    private final AtomicLong oldestAgeSeconds = new AtomicLong();
+
+    public OutboxPublisherService(
+            OutboxEventRepository outboxRepository,
+            RetentionEngine retentionEngine,
+            PartitionMaintenanceService partitionMaintenance,
+            KafkaTemplate<String, Object> kafkaTemplate,
+            WalletEventCodec eventCodec,
+            MeterRegistry meterRegistry,
+            @Value("${outbox.publisher.chunk-size:200}") int chunkSize,
+            @Value("${outbox.publisher.send-timeout-ms:10000}") long sendTimeoutMs,
+            @Value("${outbox.retention-days:7}") int retentionDays) {
+        this.outboxRepository = outboxRepository;
+        this.retentionEngine = retentionEngine;
+        this.partitionMaintenance = partitionMaintenance;
+        this.kafkaTemplate = kafkaTemplate;
+        this.eventCodec = eventCodec;
+        this.chunkSize = chunkSize;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.retentionDays = retentionDays;
+
+        this.publishedCounter = Counter.builder("outbox.events.published")
+                .description("Outbox events acknowledged by the broker")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("outbox.events.failed")
+                .description("Outbox events that failed to publish")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("outbox.publish.chunk")
+                .description("Time to claim, send and acknowledge one outbox chunk")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("outbox.publish.lag")
+                .description("Time from outbox insert to broker acknowledgement")
+                .register(meterRegistry);
+        Gauge.builder("outbox.chunk.oldest.age.seconds", oldestAgeSeconds, AtomicLong::get)
+                .description("Age of the oldest event in the last claimed outbox chunk")
+                .register(meterRegistry);
+    }
 
-    @Scheduled(
-            fixedDelayString = "${outbox.publisher.fixed-delay:30000}",
-            initialDelayString = "${outbox.publisher.initial-delay:10000}")
+    /**
+     * Claim and publish one chunk of due outbox rows. Driven by the OutboxDispatcher;
+     * sends the whole chunk first, then awaits the broker acknowledgements under a single
+     * deadline and records the outcome in this transaction with one batched update for the
+     * published rows and one for the failed ones, so a row is never left PENDING after a
+     * successful send and is never claimed by two instances.
+     *
+     * @return number of rows claimed
+     */
     @Transactional
-    public void publishPendingEvents() {
+    public int publishPendingEvents() {
         try {
-            List<OutboxEvent> pendingEvents = outboxRepository.findPendingEvents(LocalDateTime.now());
+            return chunkTimer.recordCallable(this::publishChunk);
+        } catch (Exception e) {
+            log.error("Error in outbox publisher job", e);
+            return 0;
+        }
+    }
 
-            if (pendingEvents.isEmpty()) {
-                return;
-            }
+    private int publishChunk() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> claimed = outboxRepository.claimPendingEvents(now, chunkSize);
 
-            log.info("Found {} pending outbox events to publish", pendingEvents.size());
+        if (claimed.isEmpty()) {
+            oldestAgeSeconds.set(0);
+            return 0;
+        }
+
+        oldestAgeSeconds.set(
+                Math.max(0, Duration.between(claimed.get(0).getCreatedAt(), now).toSeconds()));
+        log.debug("Claimed {} outbox events to publish", claimed.size());
 
-            for (OutboxEvent event : pendingEvents) {
-                try {
-                    publishEvent(event);
-                } catch (Exception e) {
-                    handlePublishFailure(event, e);
-                }
+        List<CompletableFuture<?>> sends = new ArrayList<>(claimed.size());
+        for (OutboxEvent event : claimed) {
+            try {
+                sends.add(publishEvent(event));
+            } catch (Exception e) {
+                sends.add(CompletableFuture.failedFuture(e));
             }
-        } catch (Exception e) {
-            log.error("Error in outbox publisher job", e);
         }
-    }
 
-    private void publishEvent(OutboxEvent event) {
-        try {
-            Object payload = objectMapper.readValue(event.getPayload(), Object.class);
-
-            kafkaTemplate
-                    .send(event.getEventType(), event.getAggregateId(), payload)
-                    .whenComplete((result, ex) -> {
-                        if (ex == null) {
-                            markAsPublished(event);
-                            log.info("Published outbox event {} to topic {}", event.getId(), event.getEventType());
-                        } else {
-                            log.error("Failed to publish outbox event {}: {}", event.getId(), ex.getMessage());
-                            throw new RuntimeException("Kafka publish failed", ex);
-                        }
-                    });
+        awaitAll(sends);
+
+        // Read each send's outcome; anything not acknowledged by the deadline counts as failed
+        LocalDateTime completedAt = LocalDateTime.now();
+        List<Long> publishedIds = new ArrayList<>(claimed.size());
+        List<Failure> failures = new ArrayList<>();
+        for (int i = 0; i < claimed.size(); i++) {
+            OutboxEvent event = claimed.get(i);
+            CompletableFuture<?> send = sends.get(i);
+            if (send.isDone() && !send.isCompletedExceptionally()) {
+                publishedIds.add(event.getId());
+                lagTimer.record(Duration.between(event.getCreatedAt(), completedAt));
+            } else {
+                failures.add(toFailure(event, send, completedAt));
+            }
+        }
 
-        } catch (Exception e) {
-            log.error("Error publishing outbox event {}: {}", event.getId(), e.getMessage(), e);
-            throw new RuntimeException("Failed to publish event", e);
+        outboxRepository.markFailed(failures);
+        if (!publishedIds.isEmpty()) {
+            outboxRepository.markPublished(publishedIds, completedAt);
         }
+        publishedCounter.increment(publishedIds.size());
+        failedCounter.increment(failures.size());
+        log.debug("Published {} of {} claimed outbox events", publishedIds.size(), claimed.size());
+        return claimed.size();
     }
 
-    @Transactional
-    public void markAsPublished(OutboxEvent event) {
-        event.setStatus("PUBLISHED");
-        event.setPublishedAt(LocalDateTime.now());
-        outboxRepository.save(event);
+    private CompletableFuture<?> publishEvent(OutboxEvent event) throws Exception {
+        return kafkaTemplate.send(eventCodec.toRecord(event));
     }
 
-    @Transactional
-    public void handlePublishFailure(OutboxEvent event, Exception e) {
-        event.setLastError(e.getMessage());
+    /**
+     * Wait for the whole chunk under one deadline, so an unreachable broker holds the claim
+     * (a connection and the row locks) for outbox.publisher.send-timeout-ms at most
+     */
+    private void awaitAll(List<CompletableFuture<?>> sends) {
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Outbox chunk not fully acknowledged within {} ms", sendTimeoutMs);
+        } catch (ExecutionException e) {
+            // Individual failures are read from each future
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 
-        if (event.canRetry()) {
-            event.setStatus("FAILED");
-            event.scheduleNextRetry();
-            log.warn("Outbox event {} failed, will retry at {}", event.getId(), event.getNextRetryAt());
+    private static Failure toFailure(OutboxEvent event, CompletableFuture<?> send, LocalDateTime now) {
+        String error;
+        if (send.isDone() && !send.isCancelled()) {
+            Throwable cause = send.exceptionNow();
+            error = (cause.getCause() != null ? cause.getCause() : cause).getMessage();
         } else {
-            event.setStatus("FAILED");
-            log.error("Outbox event {} exceeded max retries, marking as FAILED permanently", event.getId());
+            error = "Not acknowledged within the send timeout";
         }
 
-        outboxRepository.save(event);
+        int attempts = event.getRetryCount() + 1;
+        if (attempts < event.getMaxRetry()) {
+            log.warn("Outbox event {} failed, will retry: {}", event.getId(), error);
+        } else {
+            log.error("Outbox event {} exceeded max retries, marking as FAILED permanently", event.getId());
+        }
+        return new Failure(event.getId(), attempts, OutboxEvent.nextRetryAt(attempts, now), error);
     }
 
+    /**
+     * Delete published events older than the retention in throttled chunks (RetentionEngine).
+     * Skipped once outbox_events is partitioned (V3): PartitionMaintenanceService then drops
+     * whole expired days, and deleting the same rows one by one first would only add load.
+     */
     @Scheduled(cron = "0 0 2 * * *")
-    @Transactional
     public void cleanupOldEvents() {
         try {
-            LocalDateTime cutoffDate = LocalDateTime.now().minusDays(7);
-            List<OutboxEvent> oldEvents = outboxRepository.findOldPublishedEvents(cutoffDate);
-
-            if (!oldEvents.isEmpty()) {
-                outboxRepository.deleteAll(oldEvents);
-                log.info("Cleaned up {} old outbox events", oldEvents.size());
+            if (partitionMaintenance.dropsExpiredPartitions(RETENTION_JOB.table())) {
+                log.debug("outbox_events is partitioned, expired partitions are dropped instead");
+                return;
             }
+            retentionEngine.purge(RETENTION_JOB, LocalDateTime.now().minusDays(retentionDays));
         } catch (Exception e) {
             log.error("Error cleaning up old outbox events", e);
         }
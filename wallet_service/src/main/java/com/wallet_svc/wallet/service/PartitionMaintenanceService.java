@@ -0,0 +1,303 @@
+package com.wallet_svc.wallet.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.wallet_svc.wallet.repository.ReturningStatementExecutor;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the range-partitioned history tables (db/migration/V3) ahead of time and trims them.
+ *
+ * - wallet_transactions: monthly partitions on created_at, kept forever unless a retention
+ *   is configured
+ * - outbox_events: daily partitions on created_at, dropped once older than the retention,
+ *   but only when every row in them has been published
+ *
+ * Retention is a DROP TABLE per expired partition instead of a DELETE per row. Does nothing
+ * on H2 or while a table has not been partitioned yet.
+ *
+ * There is no DEFAULT partition (see V3), so an insert past the last partition fails. Several
+ * nodes run this at once; creates and drops are idempotent and each partition is handled on
+ * its own, so losing a race to another node costs nothing.
+ *
+ * Metrics:
+ * - wallet.partitions.created / wallet.partitions.dropped, per table
+ * - wallet.partitions.ahead.days, per table: how far ahead the partitions reach, evaluated at
+ *   scrape time so it keeps falling if maintenance stops. Alert well before it reaches 0,
+ *   e.g. wallet_partitions_ahead_days{table="outbox_events"} < 2
+ */
+@Service
+@Slf4j
+public class PartitionMaintenanceService {
+
+    private static final Pattern RANGE_BOUND = Pattern.compile("FROM \\((.+?)\\) TO \\((.+?)\\)");
+    private static final DateTimeFormatter BOUND_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReturningStatementExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final List<PartitionedTable> tables;
+    private final Map<String, LocalDateTime> coverage = new ConcurrentHashMap<>();
+
+    public PartitionMaintenanceService(
+            JdbcTemplate jdbcTemplate,
+            ReturningStatementExecutor executor,
+            MeterRegistry meterRegistry,
+            @Value("${wallet.partitions.enabled:true}") boolean enabled,
+            @Value("${wallet.partitions.transactions.premake-months:3}") int transactionPremakeMonths,
+            @Value("${wallet.partitions.transactions.retention-months:0}") int transactionRetentionMonths,
+            @Value("${wallet.partitions.outbox.premake-days:7}") int outboxPremakeDays,
+            @Value("${wallet.partitions.outbox.retention-days:7}") int outboxRetentionDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.tables = List.of(
+                new PartitionedTable(
+                        "wallet_transactions",
+                        ChronoUnit.MONTHS,
+                        transactionPremakeMonths,
+                        transactionRetentionMonths,
+                        null),
+                new PartitionedTable(
+                        "outbox_events",
+                        ChronoUnit.DAYS,
+                        outboxPremakeDays,
+                        outboxRetentionDays,
+                        "status <> 'PUBLISHED'"));
+    }
+
+    /**
+     * Run at startup and daily, so partitions always exist well before rows arrive
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 30 0 * * *")
+    public void maintain() {
+        if (!enabled || !executor.isPostgres()) {
+            return;
+        }
+        for (PartitionedTable table : tables) {
+            List<Partition> partitions;
+            try {
+                if (!isPartitioned(table.name())) {
+                    log.debug("{} is not partitioned, skipping maintenance", table.name());
+                    continue;
+                }
+                partitions = listPartitions(table.name());
+            } catch (Exception e) {
+                log.error("Partition maintenance failed for {}", table.name(), e);
+                continue;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            createUpcoming(table, partitions, now);
+            dropExpired(table, partitions, now);
+            recordCoverage(table, now);
+        }
+    }
+
+    /**
+     * Whether expired rows of {@code table} go away with their partition, making a row-level
+     * retention job for it redundant
+     */
+    public boolean dropsExpiredPartitions(String table) {
+        return enabled
+                && executor.isPostgres()
+                && tables.stream().anyMatch(t -> t.name().equals(table) && t.retention() > 0)
+                && isPartitioned(table);
+    }
+
+    /**
+     * Each partition on its own: one that another node created first, or one that fails,
+     * does not stop the rest or the drop step
+     */
+    private void createUpcoming(PartitionedTable table, List<Partition> partitions, LocalDateTime now) {
+        for (Partition planned : plan(table, partitions, now)) {
+            try {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + planned.name() + " PARTITION OF "
+                        + table.name() + " FOR VALUES FROM ('" + planned.from().format(BOUND_FORMAT) + "') TO ('"
+                        + planned.to().format(BOUND_FORMAT) + "')");
+                meterRegistry
+                        .counter("wallet.partitions.created", "table", table.name())
+                        .increment();
+                log.info("Created partition {} [{}, {})", planned.name(), planned.from(), planned.to());
+            } catch (Exception e) {
+                log.error("Could not create partition {}", planned.name(), e);
+            }
+        }
+    }
+
+    private void dropExpired(PartitionedTable table, List<Partition> partitions, LocalDateTime now) {
+        for (Partition partition : expired(table, partitions, now)) {
+            try {
+                if (table.dropGuard() != null
+                        && Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                                "SELECT EXISTS (SELECT 1 FROM " + partition.name() + " WHERE " + table.dropGuard()
+                                        + ")",
+                                Boolean.class))) {
+                    log.warn(
+                            "Keeping expired partition {}: it still has rows matching {}",
+                            partition.name(),
+                            table.dropGuard());
+                    continue;
+                }
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition.name());
+                meterRegistry
+                        .counter("wallet.partitions.dropped", "table", table.name())
+                        .increment();
+                log.info("Dropped expired partition {} [{}, {})", partition.name(), partition.from(), partition.to());
+            } catch (Exception e) {
+                log.error("Could not drop expired partition {}", partition.name(), e);
+            }
+        }
+    }
+
+    /**
+     * Re-read the partitions, whoever created them, and publish how far ahead they reach
+     */
+    private void recordCoverage(PartitionedTable table, LocalDateTime now) {
+        try {
+            LocalDateTime until = coveredUntil(listPartitions(table.name()), now);
+            if (coverage.put(table.name(), until) == null) {
+                Gauge.builder(
+                                "wallet.partitions.ahead.days",
+                                coverage,
+                                covered -> daysAhead(covered.get(table.name()), LocalDateTime.now()))
+                        .tag("table", table.name())
+                        .description("Days until inserts into the table fail for want of a partition")
+                        .register(meterRegistry);
+            }
+        } catch (Exception e) {
+            log.error("Could not read the partitions of {}", table.name(), e);
+        }
+    }
+
+    private boolean isPartitioned(String table) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_partitioned_table WHERE partrelid = to_regclass(?)", Integer.class, table);
+        return count != null && count > 0;
+    }
+
+    private List<Partition> listPartitions(String table) {
+        return jdbcTemplate.query(
+                "SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) FROM pg_inherits i"
+                        + " JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = to_regclass(?)",
+                (rs, rowNum) -> parsePartition(rs.getString(1), rs.getString(2)),
+                table);
+    }
+
+    /**
+     * Partitions to create so that the current period and the next {@code premake} periods
+     * are covered; periods overlapping an existing partition (e.g. the legacy one) are skipped
+     */
+    static List<Partition> plan(PartitionedTable table, List<Partition> existing, LocalDateTime now) {
+        List<Partition> planned = new ArrayList<>();
+        LocalDateTime start = truncate(now, table.period());
+        for (int i = 0; i <= table.premake(); i++) {
+            LocalDateTime from = start.plus(i, table.period());
+            LocalDateTime to = from.plus(1, table.period());
+            boolean covered = existing.stream().anyMatch(p -> p.from().isBefore(to) && from.isBefore(p.to()));
+            if (!covered) {
+                planned.add(new Partition(partitionName(table, from), from, to));
+            }
+        }
+        return planned;
+    }
+
+    /**
+     * Partitions whose whole range is older than the retention
+     */
+    static List<Partition> expired(PartitionedTable table, List<Partition> existing, LocalDateTime now) {
+        if (table.retention() <= 0) {
+            return List.of();
+        }
+        LocalDateTime cutoff = truncate(now, table.period()).minus(table.retention(), table.period());
+        return existing.stream().filter(p -> !p.to().isAfter(cutoff)).toList();
+    }
+
+    /**
+     * End of the unbroken run of partitions starting at {@code now}; {@code now} itself when
+     * no partition accepts a row created now
+     */
+    static LocalDateTime coveredUntil(List<Partition> existing, LocalDateTime now) {
+        LocalDateTime until = now;
+        while (true) {
+            LocalDateTime at = until;
+            Optional<LocalDateTime> next = existing.stream()
+                    .filter(p -> !p.from().isAfter(at) && p.to().isAfter(at))
+                    .map(Partition::to)
+                    .findFirst();
+            if (next.isEmpty() || next.get().equals(LocalDateTime.MAX)) {
+                return next.orElse(until);
+            }
+            until = next.get();
+        }
+    }
+
+    static double daysAhead(LocalDateTime coveredUntil, LocalDateTime now) {
+        if (coveredUntil.equals(LocalDateTime.MAX)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return Math.max(0, Duration.between(now, coveredUntil).toMinutes() / (24.0 * 60));
+    }
+
+    static Partition parsePartition(String name, String boundExpression) {
+        Matcher matcher = RANGE_BOUND.matcher(boundExpression);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Not a range partition bound: " + boundExpression);
+        }
+        return new Partition(name, parseBound(matcher.group(1)), parseBound(matcher.group(2)));
+    }
+
+    private static LocalDateTime parseBound(String bound) {
+        if ("MINVALUE".equals(bound)) {
+            return LocalDateTime.MIN;
+        }
+        if ("MAXVALUE".equals(bound)) {
+            return LocalDateTime.MAX;
+        }
+        // e.g. '2026-11-01 00:00:00' or '2026-11-01 00:00:00.5'
+        String value = bound.substring(1, bound.length() - 1);
+        return LocalDateTime.parse(value.substring(0, 19), BOUND_FORMAT);
+    }
+
+    private static String partitionName(PartitionedTable table, LocalDateTime from) {
+        String suffix = table.period() == ChronoUnit.MONTHS
+                ? from.format(DateTimeFormatter.ofPattern("yyyyMM"))
+                : from.format(DateTimeFormatter.ofPattern("yyyyMMdd"));
+        return table.name() + "_p" + suffix;
+    }
+
+    private static LocalDateTime truncate(LocalDateTime time, ChronoUnit period) {
+        LocalDateTime day = time.truncatedTo(ChronoUnit.DAYS);
+        return period == ChronoUnit.MONTHS ? day.withDayOfMonth(1) : day;
+    }
+
+    /**
+     * @param retention periods to keep; 0 keeps every partition
+     * @param dropGuard SQL condition that must match no row before a partition is dropped
+     */
+    record PartitionedTable(String name, ChronoUnit period, int premake, int retention, String dropGuard) {}
+
+    record Partition(String name, LocalDateTime from, LocalDateTime to) {}
+}
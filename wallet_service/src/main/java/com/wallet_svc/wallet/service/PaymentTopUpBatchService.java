@@ -0,0 +1,84 @@
+package com.wallet_svc.wallet.service;
+
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.wallet_svc.wallet.dto.request.TopUpRequest;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Applies payment top-ups together with their processed-event claims, one record or a whole
+ * batch per transaction. A top-up only runs if its claim was won, and a failure rolls back
+ * both, so the event can be retried. For a batch the caller then falls back to per-record
+ * handling.
+ *
+ * Calls the transactional WalletServiceImpl directly rather than the serialized front door:
+ * the guarded UPDATEs already make concurrent top-ups safe, and taking wallet stripes while
+ * holding this transaction's row locks could stall other writers.
+ */
+@Service
+@Slf4j
+public class PaymentTopUpBatchService {
+    private final WalletService walletService;
+    private final IdempotentEventService idempotentEventService;
+
+    public PaymentTopUpBatchService(
+            @Qualifier("walletServiceImpl") WalletService walletService,
+            IdempotentEventService idempotentEventService) {
+        this.walletService = walletService;
+        this.idempotentEventService = idempotentEventService;
+    }
+
+    /**
+     * @return false when the event was already processed and nothing was applied
+     */
+    @Transactional
+    public boolean applyTopUp(Item item, String eventType, String sourceService) {
+        if (!idempotentEventService.claimEvent(item.getEventId(), eventType, sourceService, item.getPayload())) {
+            return false;
+        }
+        walletService.topUp(item.getRequest());
+        return true;
+    }
+
+    /**
+     * Wallets are touched in userId order (stable, so one user's top-ups keep their order):
+     * concurrent batches then take the row locks in the same order and cannot deadlock on
+     * each other
+     *
+     * @return number of top-ups applied; items already claimed elsewhere are skipped
+     */
+    @Transactional
+    public int applyTopUps(List<Item> items, String eventType, String sourceService) {
+        List<Item> ordered = items.stream()
+                .sorted(Comparator.comparing(
+                        item -> item.getRequest().getUserId(), Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+
+        int applied = 0;
+        for (Item item : ordered) {
+            if (idempotentEventService.claimEvent(item.getEventId(), eventType, sourceService, item.getPayload())) {
+                walletService.topUp(item.getRequest());
+                applied++;
+            }
+        }
+
+        log.info("Applied {} of {} top-ups from {} in one transaction", applied, items.size(), eventType);
+        return applied;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Item {
+        private final String eventId;
+        private final String payload;
+        private final TopUpRequest request;
+    }
+}
@@ -0,0 +1,168 @@
+package com.wallet_svc.wallet.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wallet_svc.wallet.configuration.ReadReplicaConfig;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Decides whether a read may run on the read replica (see ReadReplicaConfig) and runs it
+ * there in a read-only transaction.
+ *
+ * Staleness guard: a user's reads stay on the primary for wallet.db.replica.read-your-writes-ms
+ * after that user's wallet changed, locally (on commit) or on another node (through the
+ * wallet.* events), so a client never sees its own write undone. All reads fall back to the
+ * primary while the measured replica lag exceeds wallet.db.replica.max-lag-ms, or while the
+ * lag cannot be measured at all. Reads inside an existing transaction always join it.
+ *
+ * Metrics:
+ * - wallet.db.reads: reads by target (primary, replica)
+ * - wallet.db.replica.lag.ms: replay lag of the replica at the last probe (PostgreSQL only)
+ */
+@Component
+@Slf4j
+public class ReadReplicaRouter {
+
+    private final boolean enabled;
+    private final long maxLagMs;
+    private final TransactionTemplate readOnlyTemplate;
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final Cache<String, Boolean> recentWriters;
+    private final AtomicLong lagMs = new AtomicLong();
+    private final Counter primaryReads;
+    private final Counter replicaReads;
+
+    private volatile boolean replicaFresh = true;
+
+    public ReadReplicaRouter(
+            PlatformTransactionManager transactionManager,
+            @Qualifier(ReadReplicaConfig.REPLICA_DATA_SOURCE) ObjectProvider<DataSource> replicaDataSource,
+            MeterRegistry meterRegistry,
+            @Value("${wallet.db.replica.enabled:false}") boolean enabled,
+            @Value("${wallet.db.replica.read-your-writes-ms:5000}") long readYourWritesMs,
+            @Value("${wallet.db.replica.max-lag-ms:2000}") long maxLagMs,
+            @Value("${wallet.db.replica.guard.maximum-size:100000}") long maximumSize) {
+        this.enabled = enabled;
+        this.maxLagMs = maxLagMs;
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        DataSource replica = replicaDataSource.getIfAvailable();
+        this.replicaJdbcTemplate = replica != null ? new JdbcTemplate(replica) : null;
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(readYourWritesMs))
+                .build();
+        this.primaryReads = Counter.builder("wallet.db.reads")
+                .tag("target", "primary")
+                .description("Routed reads by target pool")
+                .register(meterRegistry);
+        this.replicaReads = Counter.builder("wallet.db.reads")
+                .tag("target", "replica")
+                .description("Routed reads by target pool")
+                .register(meterRegistry);
+        Gauge.builder("wallet.db.replica.lag.ms", lagMs, AtomicLong::get)
+                .description("Replica replay lag at the last probe")
+                .register(meterRegistry);
+        log.info(
+                "Read replica routing enabled: {}, read-your-writes: {}ms, max lag: {}ms",
+                enabled,
+                readYourWritesMs,
+                maxLagMs);
+    }
+
+    /**
+     * Run {@code query} on the replica unless {@code userId} wrote recently, the replica is
+     * lagging or a transaction is already active
+     *
+     * @param userId user whose data is read, or null for reads not tied to one user
+     */
+    public <T> T read(String userId, Supplier<T> query) {
+        if (!enabled || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return query.get();
+        }
+        if (!replicaFresh || (userId != null && recentWriters.getIfPresent(userId) != null)) {
+            primaryReads.increment();
+            return query.get();
+        }
+        replicaReads.increment();
+        return readOnlyTemplate.execute(status -> query.get());
+    }
+
+    /**
+     * Pin the user's reads to the primary once the surrounding transaction commits
+     */
+    public void recordWriteAfterCommit(String userId) {
+        if (!enabled || userId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recentWriters.put(userId, Boolean.TRUE);
+                }
+            });
+        } else {
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Pin the user's reads to the primary, e.g. after another node's write was observed
+     */
+    public void recordWrite(String userId) {
+        if (enabled && userId != null) {
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${wallet.db.replica.lag-probe-ms:5000}")
+    public void probeLag() {
+        if (!enabled || replicaJdbcTemplate == null) {
+            return;
+        }
+        try {
+            // 0 when everything received has been replayed (no new WAL is not lag);
+            // NULL when the target is not a standby
+            Long lag = replicaJdbcTemplate.queryForObject(
+                    "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0"
+                            + " ELSE CAST(EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000 AS BIGINT)"
+                            + " END",
+                    Long.class);
+            updateLag(lag == null ? 0 : lag);
+        } catch (Exception e) {
+            // Lag unknown, so the replica may be arbitrarily stale or gone: use the primary
+            replicaFresh = false;
+            log.warn("Replica lag probe failed, routing reads to the primary: {}", e.getMessage());
+        }
+    }
+
+    void updateLag(long lagMs) {
+        this.lagMs.set(lagMs);
+        boolean fresh = lagMs <= maxLagMs;
+        if (fresh != replicaFresh) {
+            log.warn("Replica lag {}ms, routing reads to the {}", lagMs, fresh ? "replica" : "primary");
+        }
+        replicaFresh = fresh;
+    }
+}
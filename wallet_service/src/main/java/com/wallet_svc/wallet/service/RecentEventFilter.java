@@ -0,0 +1,77 @@
+package com.wallet_svc.wallet.service;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded LRU of (eventType, eventId) pairs this node has recently seen committed in
+ * processed_events.
+ *
+ * A hit is always a true duplicate, so redeliveries inside the window are rejected without
+ * a database round trip. A miss proves nothing and falls through to the insert-first claim.
+ * Pairs are only remembered once the claim has committed, never for a claim that may still
+ * roll back. Exposed as the cache.* meters with cache=events.recent.
+ */
+@Component
+@Slf4j
+public class RecentEventFilter {
+
+    public static final String CACHE_NAME = "events.recent";
+
+    private final boolean enabled;
+    private final Cache<String, Boolean> cache;
+
+    public RecentEventFilter(
+            MeterRegistry meterRegistry,
+            @Value("${wallet.idempotency.recent-filter.enabled:true}") boolean enabled,
+            @Value("${wallet.idempotency.recent-filter.maximum-size:100000}") long maximumSize,
+            @Value("${wallet.idempotency.recent-filter.ttl-minutes:60}") long ttlMinutes) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        log.info("Recent event filter enabled: {}, max size: {}, ttl: {}m", enabled, maximumSize, ttlMinutes);
+    }
+
+    public boolean contains(String eventId, String eventType) {
+        return enabled && cache.getIfPresent(key(eventId, eventType)) != null;
+    }
+
+    /**
+     * Remember the pair once the surrounding transaction commits; immediately outside one
+     */
+    public void rememberAfterCommit(String eventId, String eventType) {
+        if (!enabled) {
+            return;
+        }
+        String key = key(eventId, eventType);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.put(key, Boolean.TRUE);
+                }
+            });
+        } else {
+            cache.put(key, Boolean.TRUE);
+        }
+    }
+
+    private static String key(String eventId, String eventType) {
+        return eventType + '|' + eventId;
+    }
+}
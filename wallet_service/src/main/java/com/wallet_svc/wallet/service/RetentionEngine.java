@@ -0,0 +1,279 @@
+package com.wallet_svc.wallet.service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.wallet_svc.wallet.entity.RetentionCheckpoint;
+import com.wallet_svc.wallet.repository.RetentionCheckpointRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Deletes expired rows of an append-mostly table in bounded id-range chunks.
+ *
+ * A run fixes its high watermark (the id of the newest expired row), then walks the primary
+ * key from the lowest id up to it, {@code chunk-size} ids at a time. Each chunk is one
+ * set-based DELETE that re-checks the job's condition, committed together with a checkpoint,
+ * so no transaction holds more than one chunk of row locks and a run interrupted by a
+ * restart resumes after the last committed chunk. Runs pause between chunks to cap the load
+ * on the database. Rows that expire later, or whose ids land above the watermark, are left
+ * for the next run.
+ *
+ * Every node runs the same schedule, so the checkpoint row doubles as the job's lease: the
+ * first node to create it (or to take it over once lease-ms passed without progress) runs
+ * the job, the others skip it. Each chunk re-reads the checkpoint FOR UPDATE and stops if the
+ * lease moved to another node. A row lock per transaction rather than a session advisory
+ * lock, since connections may come through a transaction-mode pooler.
+ *
+ * Metrics (tag job):
+ * - wallet.retention.deleted: rows deleted
+ * - wallet.retention.rows.per.second: throughput of the last run
+ * - wallet.retention.backlog.ids: ids left to sweep in the current run
+ */
+@Service
+@Slf4j
+public class RetentionEngine {
+
+    private final RetentionCheckpointRepository checkpointRepository;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final long pauseMs;
+    private final long leaseMs;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, AtomicLong> backlogIds = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> rowsPerSecond = new ConcurrentHashMap<>();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public RetentionEngine(
+            RetentionCheckpointRepository checkpointRepository,
+            MeterRegistry meterRegistry,
+            PlatformTransactionManager transactionManager,
+            @Value("${wallet.retention.chunk-size:5000}") int chunkSize,
+            @Value("${wallet.retention.pause-ms:200}") long pauseMs,
+            @Value("${wallet.retention.lease-ms:600000}") long leaseMs) {
+        this.checkpointRepository = checkpointRepository;
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.pauseMs = pauseMs;
+        this.leaseMs = leaseMs;
+    }
+
+    /**
+     * Delete every row of {@code job} matching its condition for {@code cutoff}, up to the
+     * current high watermark
+     *
+     * @return rows deleted by this call; 0 when another node holds the job's lease
+     */
+    public long purge(RetentionJob job, LocalDateTime cutoff) {
+        RetentionCheckpoint checkpoint = claim(job);
+        if (checkpoint == null) {
+            log.info("{} retention is running on another node, skipping", job.name());
+            return 0;
+        }
+
+        Long highWatermark = transactionTemplate.execute(status -> highWatermark(job, cutoff));
+        if (highWatermark == null) {
+            release(job);
+            backlog(job).set(0);
+            return 0;
+        }
+
+        long from;
+        if (checkpoint.getLastId() != null) {
+            from = checkpoint.getLastId();
+            log.info(
+                    "Resuming {} retention after id {} ({} rows already deleted)",
+                    job.name(),
+                    from,
+                    checkpoint.getDeletedRows());
+        } else {
+            from = transactionTemplate.execute(status -> minId(job)) - 1;
+        }
+
+        long startedNanos = System.nanoTime();
+        long total = 0;
+        boolean leaseLost = false;
+        while (from < highWatermark) {
+            long lower = from;
+            long upper = Math.min(from + chunkSize, highWatermark);
+            Integer deleted = transactionTemplate.execute(status -> {
+                RetentionCheckpoint progress = lockOwned(job);
+                if (progress == null) {
+                    return null;
+                }
+                int rows = entityManager
+                        .createNativeQuery("DELETE FROM " + job.table() + " WHERE id > :lower AND id <= :upper AND "
+                                + job.condition())
+                        .setParameter("lower", lower)
+                        .setParameter("upper", upper)
+                        .setParameter("cutoff", cutoff)
+                        .executeUpdate();
+                progress.setLastId(upper);
+                progress.setHighWatermark(highWatermark);
+                progress.setDeletedRows(progress.getDeletedRows() + rows);
+                progress.setUpdatedAt(LocalDateTime.now());
+                return rows;
+            });
+            if (deleted == null) {
+                log.warn("{} retention lost its lease at id {}, another node took over", job.name(), from);
+                leaseLost = true;
+                break;
+            }
+
+            total += deleted;
+            from = upper;
+            meterRegistry.counter("wallet.retention.deleted", "job", job.name()).increment(deleted);
+            backlog(job).set(highWatermark - from);
+
+            if (from < highWatermark && !pause()) {
+                log.warn("{} retention interrupted at id {}, will resume on the next run", job.name(), from);
+                break;
+            }
+        }
+
+        if (from >= highWatermark && !leaseLost) {
+            release(job);
+        }
+
+        long elapsedMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos));
+        long rate = total * 1000 / elapsedMs;
+        throughput(job).set(rate);
+        if (total > 0) {
+            log.info(
+                    "{} retention deleted {} rows in {} ms ({} rows/s), {} ids left",
+                    job.name(),
+                    total,
+                    elapsedMs,
+                    rate,
+                    highWatermark - from);
+        }
+        return total;
+    }
+
+    /**
+     * Take the job's lease: its checkpoint row, created here for a fresh run or taken over
+     * when its holder stopped renewing it for lease-ms (crashed, or this node restarted)
+     *
+     * @return the checkpoint, without {@code lastId} for a fresh run; null while another
+     *     node holds the lease
+     */
+    private RetentionCheckpoint claim(RetentionJob job) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            return transactionTemplate.execute(status -> {
+                RetentionCheckpoint checkpoint =
+                        entityManager.find(RetentionCheckpoint.class, job.name(), LockModeType.PESSIMISTIC_WRITE);
+                if (checkpoint == null) {
+                    return checkpointRepository.saveAndFlush(RetentionCheckpoint.builder()
+                            .jobName(job.name())
+                            .lockedBy(nodeId)
+                            .deletedRows(0L)
+                            .startedAt(now)
+                            .updatedAt(now)
+                            .build());
+                }
+                if (!nodeId.equals(checkpoint.getLockedBy())
+                        && checkpoint.getUpdatedAt().isAfter(now.minus(leaseMs, ChronoUnit.MILLIS))) {
+                    return null;
+                }
+                checkpoint.setLockedBy(nodeId);
+                checkpoint.setUpdatedAt(now);
+                return checkpoint;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the checkpoint first and is running the job
+            return null;
+        }
+    }
+
+    /**
+     * The job's checkpoint, row-locked for this transaction, if this node still holds the lease
+     */
+    private RetentionCheckpoint lockOwned(RetentionJob job) {
+        RetentionCheckpoint checkpoint =
+                entityManager.find(RetentionCheckpoint.class, job.name(), LockModeType.PESSIMISTIC_WRITE);
+        return checkpoint != null && nodeId.equals(checkpoint.getLockedBy()) ? checkpoint : null;
+    }
+
+    private void release(RetentionJob job) {
+        transactionTemplate.executeWithoutResult(status -> {
+            RetentionCheckpoint checkpoint = lockOwned(job);
+            if (checkpoint != null) {
+                entityManager.remove(checkpoint);
+            }
+        });
+    }
+
+    private Long highWatermark(RetentionJob job, LocalDateTime cutoff) {
+        Object id = entityManager
+                .createNativeQuery("SELECT id FROM " + job.table() + " WHERE " + job.condition() + " ORDER BY "
+                        + job.timeColumn() + " DESC, id DESC LIMIT 1")
+                .setParameter("cutoff", cutoff)
+                .getResultStream()
+                .findFirst()
+                .orElse(null);
+        return id == null ? null : ((Number) id).longValue();
+    }
+
+    private long minId(RetentionJob job) {
+        return ((Number) entityManager
+                        .createNativeQuery("SELECT MIN(id) FROM " + job.table())
+                        .getSingleResult())
+                .longValue();
+    }
+
+    private boolean pause() {
+        if (pauseMs <= 0) {
+            return !Thread.currentThread().isInterrupted();
+        }
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private AtomicLong backlog(RetentionJob job) {
+        return backlogIds.computeIfAbsent(job.name(), name -> gauge("wallet.retention.backlog.ids", name));
+    }
+
+    private AtomicLong throughput(RetentionJob job) {
+        return rowsPerSecond.computeIfAbsent(job.name(), name -> gauge("wallet.retention.rows.per.second", name));
+    }
+
+    private AtomicLong gauge(String meter, String job) {
+        AtomicLong value = new AtomicLong();
+        Gauge.builder(meter, value, AtomicLong::get).tag("job", job).register(meterRegistry);
+        return value;
+    }
+
+    /**
+     * @param table table with a numeric, roughly time-ordered {@code id} primary key
+     * @param timeColumn column the condition bounds, ordered on to find the high watermark
+     * @param condition SQL condition selecting expired rows, with a {@code :cutoff} parameter
+     */
+    public record RetentionJob(String name, String table, String timeColumn, String condition) {}
+}
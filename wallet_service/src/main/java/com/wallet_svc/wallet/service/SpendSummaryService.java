@@ -0,0 +1,144 @@
+package com.wallet_svc.wallet.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+
+import com.wallet_svc.wallet.constant.TransactionStatus;
+import com.wallet_svc.wallet.dto.response.SpendSummaryResponse;
+import com.wallet_svc.wallet.dto.response.SpendSummaryResponse.SpendSummaryItem;
+import com.wallet_svc.wallet.entity.Wallet;
+import com.wallet_svc.wallet.entity.WalletDailySummary;
+import com.wallet_svc.wallet.entity.WalletTransaction;
+import com.wallet_svc.wallet.exception.AppException;
+import com.wallet_svc.wallet.exception.ErrorCode;
+import com.wallet_svc.wallet.repository.WalletDailySummaryRepository;
+import com.wallet_svc.wallet.repository.WalletRepository;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-wallet spend summaries ("spent this month by reference type", "top-ups this week")
+ * read from wallet_daily_summaries instead of paging through wallet_transactions.
+ *
+ * Every successful ledger row is added to its daily bucket in the transaction that inserts
+ * it, so a summary is exact as of the last commit and costs at most one row per
+ * (day, transaction type, reference type) in the range, whatever the history size.
+ */
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class SpendSummaryService {
+    WalletDailySummaryRepository summaryRepository;
+    WalletRepository walletRepository;
+    ReadReplicaRouter readReplicaRouter;
+
+    private static final int MAX_RANGE_DAYS = 366;
+
+    /**
+     * Add a just-saved ledger row to its daily bucket; must run in the inserting transaction
+     */
+    public void record(WalletTransaction transaction) {
+        if (TransactionStatus.SUCCESS.equals(transaction.getStatus())) {
+            summaryRepository.add(
+                    transaction.getWalletId(),
+                    transaction.getCreatedAt().toLocalDate(),
+                    transaction.getTransactionType(),
+                    referenceType(transaction.getReferenceType()),
+                    transaction.getAmount(),
+                    1);
+        }
+    }
+
+    /**
+     * Same as {@link #record} for many rows, with one upsert per bucket
+     */
+    public void recordAll(Collection<WalletTransaction> transactions) {
+        Map<WalletDailySummary.Key, WalletDailySummary> buckets = new LinkedHashMap<>();
+        for (WalletTransaction transaction : transactions) {
+            if (!TransactionStatus.SUCCESS.equals(transaction.getStatus())) {
+                continue;
+            }
+            WalletDailySummary.Key key = new WalletDailySummary.Key(
+                    transaction.getWalletId(),
+                    transaction.getCreatedAt().toLocalDate(),
+                    transaction.getTransactionType(),
+                    referenceType(transaction.getReferenceType()));
+            WalletDailySummary bucket = buckets.computeIfAbsent(key, k -> WalletDailySummary.builder()
+                    .totalAmount(BigDecimal.ZERO)
+                    .txCount(0L)
+                    .build());
+            bucket.setTotalAmount(bucket.getTotalAmount().add(transaction.getAmount()));
+            bucket.setTxCount(bucket.getTxCount() + 1);
+        }
+        buckets.forEach((key, bucket) -> summaryRepository.add(
+                key.getWalletId(),
+                key.getSummaryDate(),
+                key.getTransactionType(),
+                key.getReferenceType(),
+                bucket.getTotalAmount(),
+                bucket.getTxCount()));
+    }
+
+    /**
+     * Totals per transaction type and reference type over [from, to]
+     *
+     * @param from first day, defaults to the first day of the current month
+     * @param to last day, defaults to today
+     * @param transactionType only this type (e.g. CHARGE, TOP_UP), or null for all
+     */
+    public SpendSummaryResponse getSummary(String userId, LocalDate from, LocalDate to, String transactionType) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.withDayOfMonth(1);
+        if (start.isAfter(end) || ChronoUnit.DAYS.between(start, end) >= MAX_RANGE_DAYS) {
+            throw new AppException(ErrorCode.INVALID_SUMMARY_RANGE);
+        }
+
+        List<WalletDailySummary> rows = readReplicaRouter.read(userId, () -> {
+            Wallet wallet = walletRepository
+                    .findByUserId(userId)
+                    .orElseThrow(() -> new AppException(ErrorCode.WALLET_NOT_FOUND));
+            return summaryRepository.findByWalletIdAndSummaryDateBetween(wallet.getId(), start, end);
+        });
+
+        Map<String, SpendSummaryItem> items = new LinkedHashMap<>();
+        for (WalletDailySummary row : rows) {
+            if (transactionType != null && !transactionType.equals(row.getTransactionType())) {
+                continue;
+            }
+            SpendSummaryItem item = items.computeIfAbsent(
+                    row.getTransactionType() + '|' + row.getReferenceType(), k -> SpendSummaryItem.builder()
+                            .transactionType(row.getTransactionType())
+                            .referenceType(row.getReferenceType().isEmpty() ? null : row.getReferenceType())
+                            .totalAmount(BigDecimal.ZERO)
+                            .build());
+            item.setTotalAmount(item.getTotalAmount().add(row.getTotalAmount()));
+            item.setCount(item.getCount() + row.getTxCount());
+        }
+
+        return SpendSummaryResponse.builder()
+                .userId(userId)
+                .from(start)
+                .to(end)
+                .items(items.values().stream()
+                        .sorted(Comparator.comparing(SpendSummaryItem::getTransactionType)
+                                .thenComparing(SpendSummaryItem::getTotalAmount, Comparator.reverseOrder()))
+                        .toList())
+                .build();
+    }
+
+    private static String referenceType(String referenceType) {
+        return referenceType != null ? referenceType : "";
+    }
+}
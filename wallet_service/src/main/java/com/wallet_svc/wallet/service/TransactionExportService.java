@@ -0,0 +1,359 @@
+package com.wallet_svc.wallet.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wallet_svc.wallet.entity.Wallet;
+import com.wallet_svc.wallet.exception.AppException;
+import com.wallet_svc.wallet.exception.ErrorCode;
+import com.wallet_svc.wallet.repository.WalletRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Streaming export of wallet_transactions as NDJSON or CSV for reconciliation.
+ *
+ * Rows are read with a forward-only JDBC cursor (fetch size wallet.export.fetch-size) in a
+ * read-only transaction, so PostgreSQL streams them instead of materializing the result,
+ * and the export runs on the read replica when one is configured. Each row is written
+ * straight from the ResultSet to the response: no entities, DTOs or lists, so memory stays
+ * flat whatever the row count. At most wallet.export.max-concurrent exports run at once,
+ * each holding one connection for its whole duration.
+ *
+ * Memory does not bound the export size, time does: the response is an async request and
+ * is cut off after spring.mvc.async.request-timeout (30m), so a fifty-million-row export
+ * has to sustain about 28k rows/s. Larger exports are split by date range; cut-off ones are
+ * logged and counted.
+ *
+ * Metrics:
+ * - wallet.export.rows: rows written, by format
+ * - wallet.export.aborted: exports that failed part-way, by format and reason (timeout when
+ *   they ran into the async request timeout, error otherwise, e.g. the client went away)
+ */
+@Service
+@Slf4j
+public class TransactionExportService {
+
+    private static final String[] COLUMNS = {
+        "id",
+        "wallet_id",
+        "transaction_type",
+        "amount",
+        "token_before",
+        "token_after",
+        "reference_type",
+        "reference_id",
+        "description",
+        "status",
+        "balance_before",
+        "balance_after",
+        "related_transaction_id",
+        "processed_at",
+        "created_at"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTemplate;
+    private final WalletRepository walletRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final int fetchSize;
+    private final Duration requestTimeout;
+    private final Semaphore slots;
+
+    public TransactionExportService(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            WalletRepository walletRepository,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${wallet.export.fetch-size:1000}") int fetchSize,
+            @Value("${wallet.export.max-concurrent:2}") int maxConcurrent,
+            @Value("${spring.mvc.async.request-timeout:0}") Duration requestTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        this.walletRepository = walletRepository;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.fetchSize = fetchSize;
+        this.requestTimeout = requestTimeout;
+        this.slots = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Validate the request and reserve an export slot; the returned body streams the rows
+     * when the response is written and frees the slot at the end.
+     */
+    public StreamingResponseBody export(Filter filter, Format format) {
+        if (filter.from() != null && filter.to() != null && filter.from().isAfter(filter.to())) {
+            throw new AppException(ErrorCode.INVALID_EXPORT_RANGE);
+        }
+        Long walletId = null;
+        if (filter.userId() != null) {
+            walletId = walletRepository
+                    .findByUserId(filter.userId())
+                    .map(Wallet::getId)
+                    .orElseThrow(() -> new AppException(ErrorCode.WALLET_NOT_FOUND));
+        }
+        if (!slots.tryAcquire()) {
+            throw new AppException(ErrorCode.EXPORT_BUSY);
+        }
+
+        Long exportWalletId = walletId;
+        return out -> {
+            try {
+                long rows = write(exportWalletId, filter, format, out);
+                log.info("Exported {} transactions as {} ({})", rows, format, filter);
+            } finally {
+                slots.release();
+            }
+        };
+    }
+
+    /**
+     * @return number of rows written
+     */
+    long write(Long walletId, Filter filter, Format format, OutputStream out) throws IOException {
+        StringBuilder sql = new StringBuilder("SELECT " + String.join(", ", COLUMNS) + " FROM wallet_transactions");
+        List<Object> args = new ArrayList<>();
+        List<String> conditions = new ArrayList<>();
+        if (walletId != null) {
+            conditions.add("wallet_id = ?");
+            args.add(walletId);
+        }
+        if (filter.from() != null) {
+            conditions.add("created_at >= ?");
+            args.add(filter.from().atStartOfDay());
+        }
+        if (filter.to() != null) {
+            conditions.add("created_at < ?");
+            args.add(filter.to().plusDays(1).atStartOfDay());
+        }
+        if (filter.type() != null) {
+            conditions.add("transaction_type = ?");
+            args.add(filter.type());
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        sql.append(" ORDER BY created_at, id");
+
+        long startedNanos = System.nanoTime();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        RowWriter rowWriter = format == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+        long[] rows = {0};
+        try {
+            // Before the query, so an empty export still has its header
+            rowWriter.begin();
+            readOnlyTemplate.executeWithoutResult(status -> jdbcTemplate.query(
+                    con -> {
+                        PreparedStatement statement = con.prepareStatement(
+                                sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                        statement.setFetchSize(fetchSize);
+                        for (int i = 0; i < args.size(); i++) {
+                            statement.setObject(i + 1, args.get(i));
+                        }
+                        return statement;
+                    },
+                    rs -> {
+                        try {
+                            rowWriter.write(rs);
+                            rows[0]++;
+                        } catch (IOException e) {
+                            // Client went away: abort the query instead of reading the rest
+                            throw new UncheckedIOException(e);
+                        }
+                    }));
+            writer.flush();
+        } catch (UncheckedIOException e) {
+            recordAbort(format, rows[0], startedNanos, e.getCause());
+            throw e.getCause();
+        } catch (IOException | RuntimeException e) {
+            recordAbort(format, rows[0], startedNanos, e);
+            throw e;
+        } finally {
+            meterRegistry
+                    .counter("wallet.export.rows", "format", format.name().toLowerCase(Locale.ROOT))
+                    .increment(rows[0]);
+        }
+        return rows[0];
+    }
+
+    private void recordAbort(Format format, long rows, long startedNanos, Exception cause) {
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startedNanos);
+        boolean timedOut = requestTimeout.isPositive() && elapsed.compareTo(requestTimeout) >= 0;
+        meterRegistry
+                .counter(
+                        "wallet.export.aborted",
+                        "format",
+                        format.name().toLowerCase(Locale.ROOT),
+                        "reason",
+                        timedOut ? "timeout" : "error")
+                .increment();
+        if (timedOut) {
+            log.warn(
+                    "{} export cut off by the {} async request timeout after {} rows; split it by date range",
+                    format,
+                    requestTimeout,
+                    rows);
+        } else {
+            log.warn("{} export aborted after {} rows and {}: {}", format, rows, elapsed, cause.toString());
+        }
+    }
+
+    private interface RowWriter {
+        default void begin() throws IOException {}
+
+        void write(ResultSet rs) throws SQLException, IOException;
+    }
+
+    /**
+     * One JSON object per line, keys as in TransactionResponse
+     */
+    private class NdjsonRowWriter implements RowWriter {
+        private final Writer writer;
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            this.generator = objectMapper.getFactory().createGenerator(writer);
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < COLUMNS.length; i++) {
+                Object value = value(rs, i + 1);
+                generator.writeFieldName(COLUMNS[i]);
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof BigDecimal decimal) {
+                    generator.writeNumber(decimal);
+                } else if (value instanceof Number number) {
+                    generator.writeNumber(number.longValue());
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.flush();
+            writer.write('\n');
+        }
+    }
+
+    /**
+     * RFC 4180: header line, fields quoted only when they contain a separator, quote or
+     * line break
+     */
+    private static class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void begin() throws IOException {
+            writer.write(String.join(",", COLUMNS));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            for (int i = 0; i < COLUMNS.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = value(rs, i + 1);
+                if (value != null) {
+                    writer.write(
+                            escape(value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString()));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        static String escape(String field) {
+            if (field.indexOf(',') < 0
+                    && field.indexOf('"') < 0
+                    && field.indexOf('\n') < 0
+                    && field.indexOf('\r') < 0) {
+                return field;
+            }
+            return '"' + field.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    private static Object value(ResultSet rs, int column) throws SQLException {
+        String name = COLUMNS[column - 1];
+        if (name.endsWith("_at")) {
+            return rs.getObject(column, LocalDateTime.class);
+        }
+        return rs.getObject(column);
+    }
+
+    /**
+     * @param userId only this user's wallet, or null for every wallet
+     * @param from first day (inclusive), or null for no lower bound
+     * @param to last day (inclusive), or null for no upper bound
+     * @param type only this transaction type, or null for all
+     */
+    public record Filter(String userId, LocalDate from, LocalDate to, String type) {}
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format parse(String format) {
+            for (Format candidate : values()) {
+                if (candidate.extension.equalsIgnoreCase(format)) {
+                    return candidate;
+                }
+            }
+            throw new AppException(ErrorCode.INVALID_EXPORT_FORMAT);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.wallet_svc.wallet.service;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import com.wallet_svc.wallet.dto.response.CursorPage;
 import com.wallet_svc.wallet.dto.response.TransactionResponse;
 
 public interface TransactionService {
@@ -11,4 +12,11 @@ public interface TransactionService {
     TransactionResponse getTransactionById(Long transactionId);
 
     Page<TransactionResponse> getAllTransactions(Pageable pageable);
+
+    /**
+     * Keyset-paginated history of the user's wallet, newest first; {@code cursor} is null for the first page
+     */
+    CursorPage<TransactionResponse> getMyTransactions(String userId, String cursor, int limit);
+
+    CursorPage<TransactionResponse> getAllTransactions(String cursor, int limit);
 }
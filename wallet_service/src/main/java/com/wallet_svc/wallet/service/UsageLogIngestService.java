@@ -0,0 +1,342 @@
+package com.wallet_svc.wallet.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.wallet_svc.wallet.dto.request.UsageLogRequest;
+import com.wallet_svc.wallet.entity.CreditUsageLog;
+import com.wallet_svc.wallet.event.producer.WalletEventProducer;
+import com.wallet_svc.wallet.exception.AppException;
+import com.wallet_svc.wallet.exception.ErrorCode;
+import com.wallet_svc.wallet.repository.CreditUsageLogRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Buffered ingestion of credit usage logs.
+ *
+ * Records from the internal endpoint go into an in-memory queue bounded by
+ * wallet.usage-log.buffer-capacity. Flusher threads take up to
+ * wallet.usage-log.batch-size records, or whatever arrived within
+ * wallet.usage-log.flush-interval-ms of the first one, and write them in one transaction:
+ * a batched INSERT into credit_usage_logs plus one wallet.credits_used event per user and
+ * service type in the batch (through the outbox). A failed flush is retried with the same
+ * records until it succeeds, so a database outage fills the buffer instead of losing data.
+ *
+ * Backpressure: buffer space is taken for a whole request at once and given back only when
+ * its records are written. HTTP callers wait up to wallet.usage-log.offer-timeout-ms and
+ * then get USAGE_LOG_BUFFER_FULL. Records acknowledged to a caller are lost only if the
+ * process dies before their flush; a graceful shutdown writes the buffer out first.
+ *
+ * The usage.logged topic bypasses the buffer: each poll is already a batch, and writing it
+ * before returning (writeNow) lets the offsets be committed only once the rows are, so a
+ * crash redelivers instead of losing records.
+ *
+ * Metrics:
+ * - wallet.usage.records: records by result (accepted, rejected, written)
+ * - wallet.usage.buffered: records waiting to be written
+ * - wallet.usage.flush: flush latency
+ */
+@Service
+@Slf4j
+public class UsageLogIngestService implements SmartLifecycle {
+
+    private final CreditUsageLogRepository creditUsageLogRepository;
+    private final WalletEventProducer walletEventProducer;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long offerTimeoutMs;
+    private final long retryBackoffMs;
+    private final int flushThreads;
+    private final LinkedBlockingQueue<CreditUsageLog> queue = new LinkedBlockingQueue<>();
+    private final Semaphore space;
+    private final Counter accepted;
+    private final Counter rejected;
+    private final Counter written;
+    private final Timer flushTimer;
+    private final List<Thread> threads = new ArrayList<>();
+
+    private volatile boolean running;
+
+    public UsageLogIngestService(
+            CreditUsageLogRepository creditUsageLogRepository,
+            WalletEventProducer walletEventProducer,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${wallet.usage-log.enabled:true}") boolean enabled,
+            @Value("${wallet.usage-log.buffer-capacity:50000}") int capacity,
+            @Value("${wallet.usage-log.batch-size:2000}") int batchSize,
+            @Value("${wallet.usage-log.flush-interval-ms:200}") long flushIntervalMs,
+            @Value("${wallet.usage-log.offer-timeout-ms:100}") long offerTimeoutMs,
+            @Value("${wallet.usage-log.retry-backoff-ms:1000}") long retryBackoffMs,
+            @Value("${wallet.usage-log.flush-threads:2}") int flushThreads) {
+        this.creditUsageLogRepository = creditUsageLogRepository;
+        this.walletEventProducer = walletEventProducer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.retryBackoffMs = retryBackoffMs;
+        this.flushThreads = flushThreads;
+        this.space = new Semaphore(capacity);
+        this.accepted = meterRegistry.counter("wallet.usage.records", "result", "accepted");
+        this.rejected = meterRegistry.counter("wallet.usage.records", "result", "rejected");
+        this.written = meterRegistry.counter("wallet.usage.records", "result", "written");
+        this.flushTimer = meterRegistry.timer("wallet.usage.flush");
+        Gauge.builder("wallet.usage.buffered", queue, LinkedBlockingQueue::size)
+                .description("Usage logs waiting to be written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Buffer all records or none, waiting at most wallet.usage-log.offer-timeout-ms for space
+     *
+     * @return number of records accepted
+     */
+    public int submit(List<UsageLogRequest> requests) {
+        List<CreditUsageLog> logs = toLogs(requests);
+        boolean reserved;
+        try {
+            reserved = space.tryAcquire(logs.size(), offerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reserved = false;
+        }
+        if (!reserved) {
+            rejected.increment(logs.size());
+            throw new AppException(ErrorCode.USAGE_LOG_BUFFER_FULL);
+        }
+        enqueue(logs);
+        return logs.size();
+    }
+
+    /**
+     * Write all records in one transaction before returning, without the buffer
+     */
+    public void writeNow(List<UsageLogRequest> requests) {
+        List<CreditUsageLog> logs = toLogs(requests);
+        accepted.increment(logs.size());
+        flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> write(logs)));
+        written.increment(logs.size());
+    }
+
+    public static boolean isValid(UsageLogRequest request) {
+        return request.getUserId() != null
+                && !request.getUserId().isBlank()
+                && request.getServiceType() != null
+                && !request.getServiceType().isBlank()
+                && request.getCreditsUsed() != null
+                && request.getCreditsUsed() > 0;
+    }
+
+    private List<CreditUsageLog> toLogs(List<UsageLogRequest> requests) {
+        if (requests.size() > capacity) {
+            throw new AppException(ErrorCode.BATCH_TOO_LARGE);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<CreditUsageLog> logs = new ArrayList<>(requests.size());
+        for (UsageLogRequest request : requests) {
+            if (!isValid(request)) {
+                throw new AppException(ErrorCode.INVALID_USAGE_LOG);
+            }
+            logs.add(CreditUsageLog.builder()
+                    .userId(request.getUserId())
+                    .walletTransactionId(request.getWalletTransactionId())
+                    .serviceType(request.getServiceType())
+                    .action(request.getAction())
+                    .resourceId(request.getResourceId())
+                    .creditsUsed(request.getCreditsUsed())
+                    .metadata(request.getMetadata())
+                    .createdAt(now)
+                    .build());
+        }
+        return logs;
+    }
+
+    private void enqueue(List<CreditUsageLog> logs) {
+        queue.addAll(logs);
+        accepted.increment(logs.size());
+    }
+
+    /**
+     * Take and write one batch, waiting up to {@code waitMs} for its first record
+     *
+     * @return number of records written
+     */
+    int flushOnce(long waitMs) throws InterruptedException {
+        List<CreditUsageLog> batch = nextBatch(waitMs);
+        if (!batch.isEmpty()) {
+            writeWithRetry(batch);
+        }
+        return batch.size();
+    }
+
+    private List<CreditUsageLog> nextBatch(long waitMs) throws InterruptedException {
+        List<CreditUsageLog> batch = new ArrayList<>(batchSize);
+        CreditUsageLog first = queue.poll(waitMs, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return batch;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                break;
+            }
+            CreditUsageLog next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    private void writeWithRetry(List<CreditUsageLog> batch) throws InterruptedException {
+        while (true) {
+            try {
+                flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> write(batch)));
+                space.release(batch.size());
+                written.increment(batch.size());
+                return;
+            } catch (Exception e) {
+                if (!running) {
+                    space.release(batch.size());
+                    log.error("Dropping {} usage logs: final flush failed", batch.size(), e);
+                    return;
+                }
+                log.warn("Flushing {} usage logs failed, retrying: {}", batch.size(), e.getMessage());
+                Thread.sleep(retryBackoffMs);
+            }
+        }
+    }
+
+    private void write(List<CreditUsageLog> batch) {
+        creditUsageLogRepository.insertAll(batch);
+
+        Map<List<String>, Usage> usageByUserAndService = new LinkedHashMap<>();
+        for (CreditUsageLog usageLog : batch) {
+            usageByUserAndService
+                    .computeIfAbsent(List.of(usageLog.getUserId(), usageLog.getServiceType()), key -> new Usage())
+                    .add(usageLog);
+        }
+        usageByUserAndService.forEach((key, usage) -> walletEventProducer.publishCreditsUsedEvent(
+                key.get(0),
+                key.get(1),
+                BigDecimal.valueOf(usage.credits),
+                usage.resourceId,
+                "{\"records\":" + usage.records + "}"));
+        log.debug("Wrote {} usage logs, {} credits_used events", batch.size(), usageByUserAndService.size());
+    }
+
+    private void runLoop() {
+        while (running) {
+            try {
+                flushOnce(flushIntervalMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Error in usage log flusher", e);
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < flushThreads; i++) {
+            Thread thread = new Thread(this::runLoop, "usage-log-flusher-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+        log.info(
+                "Usage log ingestion started (capacity: {}, batch: {}, interval: {} ms, threads: {})",
+                capacity,
+                batchSize,
+                flushIntervalMs,
+                flushThreads);
+    }
+
+    /**
+     * Let the flushers finish their batch, then write out whatever is still buffered
+     */
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            for (Thread thread : threads) {
+                thread.join(flushIntervalMs + retryBackoffMs + 10_000);
+            }
+            threads.clear();
+            while (flushOnce(0) > 0) {
+                // drain
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return enabled;
+    }
+
+    /**
+     * Start before and stop after the web server and the Kafka listeners, so no accepted
+     * record is left behind on shutdown
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private static class Usage {
+        long credits;
+        int records;
+        String resourceId;
+
+        void add(CreditUsageLog usageLog) {
+            credits += usageLog.getCreditsUsed();
+            // Only meaningful when every record in the group is about the same resource
+            resourceId = records == 0 || Objects.equals(resourceId, usageLog.getResourceId())
+                    ? usageLog.getResourceId()
+                    : null;
+            records++;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.wallet_svc.wallet.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.FlushModeType;
+import jakarta.persistence.PersistenceContext;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.wallet_svc.wallet.dto.request.ChargeRequest;
+import com.wallet_svc.wallet.dto.request.HoldRequest;
+import com.wallet_svc.wallet.dto.request.RefundRequest;
+import com.wallet_svc.wallet.dto.response.BatchItemResult;
+import com.wallet_svc.wallet.dto.response.BatchResponse;
+import com.wallet_svc.wallet.dto.response.TransactionResponse;
+import com.wallet_svc.wallet.exception.AppException;
+import com.wallet_svc.wallet.exception.ErrorCode;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Applies batches of holds, charges and refunds from the internal API.
+ *
+ * Operations are grouped by wallet. Each group takes its wallet stripe once and runs in a
+ * single transaction flushed only at commit, so its ledger, hold and outbox rows go out as
+ * JDBC batches instead of one round trip per row. When an operation fails, the group is
+ * rolled back, the operation is reported as failed and the rest of the group is applied
+ * again, so every item ends up either fully applied or not applied at all.
+ */
+@Service
+@Slf4j
+public class WalletBatchService {
+    private final WalletService walletService;
+    private final WalletMutationSerializer serializer;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxOperations;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public WalletBatchService(
+            @Qualifier("walletServiceImpl") WalletService walletService,
+            WalletMutationSerializer serializer,
+            PlatformTransactionManager transactionManager,
+            @Value("${wallet.batch.max-operations:500}") int maxOperations) {
+        this.walletService = walletService;
+        this.serializer = serializer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxOperations = maxOperations;
+    }
+
+    public BatchResponse<TransactionResponse> holdCredits(List<HoldRequest> requests) {
+        return execute(requests, HoldRequest::getUserId, walletService::holdCredits);
+    }
+
+    public BatchResponse<TransactionResponse> charge(List<ChargeRequest> requests) {
+        return execute(requests, ChargeRequest::getUserId, walletService::charge);
+    }
+
+    public BatchResponse<TransactionResponse> refund(List<RefundRequest> requests) {
+        return execute(requests, RefundRequest::getUserId, walletService::refund);
+    }
+
+    private <R> BatchResponse<TransactionResponse> execute(
+            List<R> requests, Function<R, String> userIdOf, Function<R, TransactionResponse> operation) {
+        if (requests.size() > maxOperations) {
+            throw new AppException(ErrorCode.BATCH_TOO_LARGE);
+        }
+
+        Map<String, List<Integer>> groups = new LinkedHashMap<>();
+        for (int index = 0; index < requests.size(); index++) {
+            groups.computeIfAbsent(userIdOf.apply(requests.get(index)), userId -> new ArrayList<>())
+                    .add(index);
+        }
+
+        List<BatchItemResult<TransactionResponse>> results =
+                new ArrayList<>(Collections.nCopies(requests.size(), null));
+        groups.forEach((userId, indexes) -> {
+            try {
+                serializer.execute(userId, () -> {
+                    applyGroup(requests, indexes, operation, results);
+                    return null;
+                });
+            } catch (AppException e) {
+                // Stripe wait timed out: nothing of this group was attempted
+                indexes.forEach(index -> results.set(index, failure(index, e.getErrorCode())));
+            }
+        });
+
+        int succeeded =
+                (int) results.stream().filter(BatchItemResult::isSuccess).count();
+        log.info(
+                "Applied batch of {} operations across {} wallets: {} succeeded, {} failed",
+                requests.size(),
+                groups.size(),
+                succeeded,
+                requests.size() - succeeded);
+
+        return BatchResponse.<TransactionResponse>builder()
+                .succeeded(succeeded)
+                .failed(requests.size() - succeeded)
+                .results(results)
+                .build();
+    }
+
+    private <R> void applyGroup(
+            List<R> requests,
+            List<Integer> indexes,
+            Function<R, TransactionResponse> operation,
+            List<BatchItemResult<TransactionResponse>> results) {
+        List<Integer> pending = new ArrayList<>(indexes);
+
+        while (!pending.isEmpty()) {
+            List<TransactionResponse> applied = new ArrayList<>(pending.size());
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    // Ids come from pooled sequences, so nothing needs to be written before commit
+                    entityManager.setFlushMode(FlushModeType.COMMIT);
+                    for (Integer index : pending) {
+                        try {
+                            applied.add(operation.apply(requests.get(index)));
+                        } catch (RuntimeException e) {
+                            throw new ItemFailure(index, e);
+                        }
+                    }
+                });
+            } catch (ItemFailure failure) {
+                results.set(failure.index, failure(failure.index, errorCodeOf(failure.getCause())));
+                pending.remove(Integer.valueOf(failure.index));
+                continue;
+            } catch (RuntimeException e) {
+                log.error("Failed to commit batch group of {} operations", pending.size(), e);
+                pending.forEach(index -> results.set(index, failure(index, ErrorCode.TRANSACTION_FAILED)));
+                return;
+            }
+
+            for (int i = 0; i < pending.size(); i++) {
+                int index = pending.get(i);
+                results.set(
+                        index,
+                        BatchItemResult.<TransactionResponse>builder()
+                                .index(index)
+                                .success(true)
+                                .result(applied.get(i))
+                                .build());
+            }
+            return;
+        }
+    }
+
+    private static ErrorCode errorCodeOf(Throwable cause) {
+        if (cause instanceof AppException appException) {
+            return appException.getErrorCode();
+        }
+        log.error("Batch operation failed", cause);
+        return ErrorCode.TRANSACTION_FAILED;
+    }
+
+    private static BatchItemResult<TransactionResponse> failure(int index, ErrorCode errorCode) {
+        return BatchItemResult.<TransactionResponse>builder()
+                .index(index)
+                .success(false)
+                .code(errorCode.getCode())
+                .message(errorCode.getMessage())
+                .build();
+    }
+
+    private static class ItemFailure extends RuntimeException {
+        private final int index;
+
+        ItemFailure(int index, RuntimeException cause) {
+            super(cause);
+            this.index = index;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.wallet_svc.wallet.service;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wallet_svc.wallet.dto.response.WalletResponse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded read-through cache of wallet snapshots keyed by userId.
+ *
+ * Entries are evicted by size and TTL, invalidated locally once a mutating transaction
+ * commits, and invalidated on other nodes through the wallet.* Kafka events
+ * (see WalletCacheInvalidationConsumer). Hit/miss/eviction counts are exposed as the
+ * cache.* meters with cache=wallet.snapshots on /actuator/metrics.
+ */
+@Component
+@Slf4j
+public class WalletSnapshotCache {
+
+    public static final String CACHE_NAME = "wallet.snapshots";
+
+    private final boolean enabled;
+    private final Cache<String, WalletResponse> cache;
+
+    public WalletSnapshotCache(
+            MeterRegistry meterRegistry,
+            @Value("${wallet.cache.enabled:true}") boolean enabled,
+            @Value("${wallet.cache.maximum-size:100000}") long maximumSize,
+            @Value("${wallet.cache.ttl-seconds:30}") long ttlSeconds) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        log.info("Wallet snapshot cache enabled: {}, max size: {}, ttl: {}s", enabled, maximumSize, ttlSeconds);
+    }
+
+    public WalletResponse get(String userId, Supplier<WalletResponse> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        return cache.get(userId, key -> loader.get());
+    }
+
+    /**
+     * Invalidate once the surrounding transaction commits, so readers can never re-cache
+     * the pre-commit state. Outside a transaction the entry is dropped immediately.
+     */
+    public void evictAfterCommit(String userId) {
+        if (!enabled || userId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(userId);
+                }
+            });
+        } else {
+            cache.invalidate(userId);
+        }
+    }
+
+    public void evict(String userId) {
+        if (enabled && userId != null) {
+            cache.invalidate(userId);
+        }
+    }
+}
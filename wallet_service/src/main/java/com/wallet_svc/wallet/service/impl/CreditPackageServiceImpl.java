@@ -0,0 +1,263 @@
+package com.wallet_svc.wallet.service.impl;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wallet_svc.wallet.dto.request.CreditPackageRequest;
+import com.wallet_svc.wallet.dto.response.CreditPackageResponse;
+import com.wallet_svc.wallet.entity.CreditPackage;
+import com.wallet_svc.wallet.exception.AppException;
+import com.wallet_svc.wallet.exception.ErrorCode;
+import com.wallet_svc.wallet.mapper.CreditPackageMapper;
+import com.wallet_svc.wallet.repository.CreditPackageRepository;
+import com.wallet_svc.wallet.service.CreditPackageService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Credit packages served from an immutable in-memory snapshot of the whole table.
+ *
+ * The snapshot is replaced after an admin edit commits on this node, and within
+ * wallet.packages.refresh-ms after an edit on another node: a scheduled probe compares
+ * COUNT(*) and MAX(updated_at) with the snapshot and reloads only when they moved.
+ * is_active, valid_from/valid_to and display_order are evaluated against the snapshot, so
+ * reads never touch the database; the evaluated list and its ETag are computed once per
+ * snapshot and day.
+ *
+ * Metrics:
+ * - wallet.packages.reloads: snapshot loads
+ */
+@Service
+@Slf4j
+public class CreditPackageServiceImpl implements CreditPackageService {
+
+    private static final Comparator<CreditPackageResponse> DISPLAY_ORDER = Comparator.comparing(
+                    CreditPackageResponse::getDisplayOrder, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(CreditPackageResponse::getId);
+
+    private final CreditPackageRepository creditPackageRepository;
+    private final CreditPackageMapper creditPackageMapper;
+    private final ObjectMapper objectMapper;
+    private final Counter reloads;
+
+    private volatile Snapshot snapshot;
+    private volatile View view;
+
+    public CreditPackageServiceImpl(
+            CreditPackageRepository creditPackageRepository,
+            CreditPackageMapper creditPackageMapper,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.creditPackageRepository = creditPackageRepository;
+        this.creditPackageMapper = creditPackageMapper;
+        this.objectMapper = objectMapper;
+        this.reloads = meterRegistry.counter("wallet.packages.reloads");
+    }
+
+    @Override
+    public List<CreditPackageResponse> getAllActivePackages() {
+        return getActiveCatalog().packages();
+    }
+
+    @Override
+    public CreditPackageResponse getPackageById(Long packageId) {
+        return getActiveCatalog().packages().stream()
+                .filter(p -> p.getId().equals(packageId))
+                .findFirst()
+                .orElseThrow(() -> new AppException(ErrorCode.PACKAGE_NOT_FOUND));
+    }
+
+    @Override
+    public Catalog getActiveCatalog() {
+        return view(LocalDate.now()).catalog();
+    }
+
+    @Override
+    public List<CreditPackageResponse> getAllPackages() {
+        return snapshot().packages();
+    }
+
+    @Override
+    @Transactional
+    public CreditPackageResponse createPackage(CreditPackageRequest request) {
+        validate(request);
+        if (creditPackageRepository.existsByCode(request.getCode())) {
+            throw new AppException(ErrorCode.PACKAGE_CODE_EXISTS);
+        }
+        CreditPackage creditPackage = creditPackageRepository.save(creditPackageMapper.toCreditPackage(request));
+        log.info("Created credit package {} ({})", creditPackage.getId(), creditPackage.getCode());
+        reloadAfterCommit();
+        return creditPackageMapper.toCreditPackageResponse(creditPackage);
+    }
+
+    @Override
+    @Transactional
+    public CreditPackageResponse updatePackage(Long packageId, CreditPackageRequest request) {
+        validate(request);
+        CreditPackage creditPackage = creditPackageRepository
+                .findById(packageId)
+                .orElseThrow(() -> new AppException(ErrorCode.PACKAGE_NOT_FOUND));
+        if (creditPackageRepository.existsByCodeAndIdNot(request.getCode(), packageId)) {
+            throw new AppException(ErrorCode.PACKAGE_CODE_EXISTS);
+        }
+        creditPackageMapper.updateCreditPackage(creditPackage, request);
+        // Set here rather than in @PreUpdate alone: the snapshot probe relies on it moving
+        creditPackage.setUpdatedAt(LocalDateTime.now());
+        creditPackage = creditPackageRepository.save(creditPackage);
+        log.info("Updated credit package {} ({})", creditPackage.getId(), creditPackage.getCode());
+        reloadAfterCommit();
+        return creditPackageMapper.toCreditPackageResponse(creditPackage);
+    }
+
+    /**
+     * Reload when another node changed the table since the snapshot was taken
+     */
+    @Scheduled(fixedDelayString = "${wallet.packages.refresh-ms:30000}")
+    public void refreshIfChanged() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return; // loaded on first use
+        }
+        try {
+            CreditPackageRepository.Version version = creditPackageRepository.findVersion();
+            if (version.getCount() != current.count()
+                    || !Objects.equals(version.getLastUpdatedAt(), current.lastUpdatedAt())) {
+                reload();
+            }
+        } catch (Exception e) {
+            log.warn("Credit package refresh failed, keeping the current snapshot: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Evaluate validity and order for {@code today}; memoized per snapshot and day
+     */
+    View view(LocalDate today) {
+        Snapshot current = snapshot();
+        View cached = view;
+        if (cached != null && cached.snapshot() == current && cached.date().equals(today)) {
+            return cached;
+        }
+
+        List<CreditPackageResponse> active = current.packages().stream()
+                .filter(p -> isOnSale(p, today))
+                .sorted(DISPLAY_ORDER)
+                .toList();
+        View evaluated = new View(current, today, new Catalog(active, etag(active), lastModified(current, today)));
+        view = evaluated;
+        return evaluated;
+    }
+
+    synchronized void reload() {
+        // Version first: a change racing with the load is picked up by the next probe
+        CreditPackageRepository.Version version = creditPackageRepository.findVersion();
+        List<CreditPackageResponse> packages = creditPackageRepository.findAllByOrderByDisplayOrderAscIdAsc().stream()
+                .map(creditPackageMapper::toCreditPackageResponse)
+                .toList();
+        snapshot = new Snapshot(packages, version.getCount(), version.getLastUpdatedAt());
+        reloads.increment();
+        log.info("Loaded {} credit packages", packages.size());
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    reload();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private void reloadAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reload();
+                }
+            });
+        } else {
+            reload();
+        }
+    }
+
+    static boolean isOnSale(CreditPackageResponse creditPackage, LocalDate today) {
+        return Boolean.TRUE.equals(creditPackage.getIsActive())
+                && (creditPackage.getValidFrom() == null || !today.isBefore(creditPackage.getValidFrom()))
+                && (creditPackage.getValidTo() == null || !today.isAfter(creditPackage.getValidTo()));
+    }
+
+    /**
+     * Latest of the last edit and the last validity boundary crossed on or before
+     * {@code today}, since either can change the list
+     */
+    private static long lastModified(Snapshot snapshot, LocalDate today) {
+        LocalDateTime latest = snapshot.lastUpdatedAt() != null ? snapshot.lastUpdatedAt() : LocalDateTime.MIN;
+        for (CreditPackageResponse p : snapshot.packages()) {
+            for (LocalDate boundary : Arrays.asList(
+                    p.getValidFrom(),
+                    p.getValidTo() == null ? null : p.getValidTo().plusDays(1))) {
+                if (boundary != null
+                        && !boundary.isAfter(today)
+                        && boundary.atStartOfDay().isAfter(latest)) {
+                    latest = boundary.atStartOfDay();
+                }
+            }
+        }
+        if (latest == LocalDateTime.MIN) {
+            return 0;
+        }
+        return latest.truncatedTo(ChronoUnit.SECONDS)
+                .atZone(ZoneId.systemDefault())
+                .toInstant()
+                .toEpochMilli();
+    }
+
+    private String etag(List<CreditPackageResponse> packages) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(packages));
+            return "W/\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16)) + "\"";
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            // Still a valid validator, just never matches across snapshots
+            return "W/\"" + Integer.toHexString(System.identityHashCode(packages)) + "\"";
+        }
+    }
+
+    private static void validate(CreditPackageRequest request) {
+        if (request.getValidFrom() != null
+                && request.getValidTo() != null
+                && request.getValidFrom().isAfter(request.getValidTo())) {
+            throw new AppException(ErrorCode.INVALID_PACKAGE_VALIDITY);
+        }
+    }
+
+    /**
+     * @param packages every row, unfiltered
+     */
+    record Snapshot(List<CreditPackageResponse> packages, long count, LocalDateTime lastUpdatedAt) {}
+
+    record View(Snapshot snapshot, LocalDate date, Catalog catalog) {}
+}
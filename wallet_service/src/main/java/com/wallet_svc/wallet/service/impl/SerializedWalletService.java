@@ -0,0 +1,93 @@
+package com.wallet_svc.wallet.service.impl;
+
+import java.math.BigDecimal;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import com.wallet_svc.wallet.dto.request.*;
+import com.wallet_svc.wallet.dto.response.*;
+import com.wallet_svc.wallet.repository.WalletHoldRepository;
+import com.wallet_svc.wallet.service.WalletMutationSerializer;
+import com.wallet_svc.wallet.service.WalletService;
+
+/**
+ * Front door for {@link WalletService}: queues mutations of the same wallet through the
+ * {@link WalletMutationSerializer} before the transactional {@link WalletServiceImpl} is
+ * entered, so waiting never holds a database connection. Reads pass straight through.
+ */
+@Service
+@Primary
+public class SerializedWalletService implements WalletService {
+    private final WalletService delegate;
+    private final WalletMutationSerializer serializer;
+    private final WalletHoldRepository holdRepository;
+
+    public SerializedWalletService(
+            @Qualifier("walletServiceImpl") WalletService delegate,
+            WalletMutationSerializer serializer,
+            WalletHoldRepository holdRepository) {
+        this.delegate = delegate;
+        this.serializer = serializer;
+        this.holdRepository = holdRepository;
+    }
+
+    @Override
+    public WalletResponse createWallet(String userId) {
+        return serializer.execute(userId, () -> delegate.createWallet(userId));
+    }
+
+    @Override
+    public WalletResponse getWalletByUserId(String userId) {
+        return delegate.getWalletByUserId(userId);
+    }
+
+    @Override
+    public BalanceResponse getBalance(String userId) {
+        return delegate.getBalance(userId);
+    }
+
+    @Override
+    public TransactionResponse holdCredits(HoldRequest request) {
+        return serializer.execute(request.getUserId(), () -> delegate.holdCredits(request));
+    }
+
+    @Override
+    public TransactionResponse releaseHold(ReleaseHoldRequest request) {
+        // Release requests only carry the hold id; resolve the owning wallet to pick the stripe
+        String userId =
+                holdRepository.findOwnerUserIdByHoldId(request.getHoldId()).orElse(null);
+        return serializer.execute(userId, () -> delegate.releaseHold(request));
+    }
+
+    @Override
+    public TransactionResponse charge(ChargeRequest request) {
+        return serializer.execute(request.getUserId(), () -> delegate.charge(request));
+    }
+
+    @Override
+    public TransactionResponse refund(RefundRequest request) {
+        return serializer.execute(request.getUserId(), () -> delegate.refund(request));
+    }
+
+    @Override
+    public TransactionResponse topUp(TopUpRequest request) {
+        return serializer.execute(request.getUserId(), () -> delegate.topUp(request));
+    }
+
+    @Override
+    public TransactionResponse adjustment(AdjustmentRequest request) {
+        return serializer.execute(request.getUserId(), () -> delegate.adjustment(request));
+    }
+
+    @Override
+    public boolean validateBalance(String userId, BigDecimal amount) {
+        return delegate.validateBalance(userId, amount);
+    }
+
+    @Override
+    public TokenResponse deductToken(DeductTokenRequest request) {
+        return serializer.execute(request.getUserId(), () -> delegate.deductToken(request));
+    }
+}
@@ -1,9 +1,16 @@
 package com.wallet_svc.wallet.service.impl;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import com.wallet_svc.wallet.dto.response.CursorPage;
 import com.wallet_svc.wallet.dto.response.TransactionResponse;
 import com.wallet_svc.wallet.entity.Wallet;
 import com.wallet_svc.wallet.entity.WalletTransaction;
@@ -12,6 +19,7 @@ import com.wallet_svc.wallet.exception.ErrorCode;
 import com.wallet_svc.wallet.mapper.WalletMapper;
 import com.wallet_svc.wallet.repository.WalletRepository;
 import com.wallet_svc.wallet.repository.WalletTransactionRepository;
+import com.wallet_svc.wallet.service.ReadReplicaRouter;
 import com.wallet_svc.wallet.service.TransactionService;
 
 import lombok.AccessLevel;
@@ -27,16 +35,22 @@ public class TransactionServiceImpl implements TransactionService {
     WalletRepository walletRepository;
     WalletTransactionRepository transactionRepository;
     WalletMapper walletMapper;
+    ReadReplicaRouter readReplicaRouter;
+
+    private static final int MAX_PAGE_SIZE = 100;
 
     @Override
     public Page<TransactionResponse> getMyTransactions(String userId, Pageable pageable) {
-        Wallet wallet =
-                walletRepository.findByUserId(userId).orElseThrow(() -> new AppException(ErrorCode.WALLET_NOT_FOUND));
+        return readReplicaRouter.read(userId, () -> {
+            Wallet wallet = walletRepository
+                    .findByUserId(userId)
+                    .orElseThrow(() -> new AppException(ErrorCode.WALLET_NOT_FOUND));
 
-        Page<WalletTransaction> transactions =
-                transactionRepository.findByWalletIdOrderByCreatedAtDesc(wallet.getId(), pageable);
+            Page<WalletTransaction> transactions =
+                    transactionRepository.findByWalletIdOrderByCreatedAtDesc(wallet.getId(), pageable);
 
-        return transactions.map(walletMapper::toTransactionResponse);
+            return transactions.map(walletMapper::toTransactionResponse);
+        });
     }
 
     @Override
@@ -50,7 +64,87 @@ public class TransactionServiceImpl implements TransactionService {
 
     @Override
     public Page<TransactionResponse> getAllTransactions(Pageable pageable) {
-        Page<WalletTransaction> transactions = transactionRepository.findAll(pageable);
-        return transactions.map(walletMapper::toTransactionResponse);
+        return readReplicaRouter.read(null, () -> {
+            Page<WalletTransaction> transactions = transactionRepository.findAll(pageable);
+            return transactions.map(walletMapper::toTransactionResponse);
+        });
+    }
+
+    @Override
+    public CursorPage<TransactionResponse> getMyTransactions(String userId, String cursor, int limit) {
+        int size = pageSize(limit);
+        Limit fetch = Limit.of(size + 1);
+        Cursor position = cursor == null || cursor.isBlank() ? null : Cursor.decode(cursor);
+
+        return readReplicaRouter.read(userId, () -> {
+            Wallet wallet = walletRepository
+                    .findByUserId(userId)
+                    .orElseThrow(() -> new AppException(ErrorCode.WALLET_NOT_FOUND));
+
+            List<WalletTransaction> rows = position == null
+                    ? transactionRepository.findByWalletIdOrderByCreatedAtDescIdDesc(wallet.getId(), fetch)
+                    : transactionRepository.findByWalletIdBefore(
+                            wallet.getId(), position.createdAt(), position.id(), fetch);
+            return toCursorPage(rows, size);
+        });
+    }
+
+    @Override
+    public CursorPage<TransactionResponse> getAllTransactions(String cursor, int limit) {
+        int size = pageSize(limit);
+        Limit fetch = Limit.of(size + 1);
+        Cursor position = cursor == null || cursor.isBlank() ? null : Cursor.decode(cursor);
+
+        return readReplicaRouter.read(null, () -> {
+            List<WalletTransaction> rows = position == null
+                    ? transactionRepository.findAllByOrderByCreatedAtDescIdDesc(fetch)
+                    : transactionRepository.findAllBefore(position.createdAt(), position.id(), fetch);
+            return toCursorPage(rows, size);
+        });
+    }
+
+    /**
+     * Rows were fetched with one extra element: its presence means there is a next page
+     */
+    private CursorPage<TransactionResponse> toCursorPage(List<WalletTransaction> rows, int size) {
+        boolean hasMore = rows.size() > size;
+        List<WalletTransaction> page = hasMore ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            WalletTransaction last = page.get(page.size() - 1);
+            nextCursor = new Cursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return CursorPage.<TransactionResponse>builder()
+                .items(page.stream().map(walletMapper::toTransactionResponse).toList())
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Opaque cursor: base64url of "created_at|id" of the last row on the previous page
+     */
+    private record Cursor(LocalDateTime createdAt, Long id) {
+        String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('|');
+                return new Cursor(
+                        LocalDateTime.parse(raw.substring(0, separator)), Long.valueOf(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new AppException(ErrorCode.INVALID_CURSOR);
+            }
+        }
     }
 }
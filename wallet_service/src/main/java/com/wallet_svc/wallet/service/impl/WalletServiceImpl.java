@@ -19,10 +19,16 @@ import com.wallet_svc.wallet.event.producer.WalletEventProducer;
 import com.wallet_svc.wallet.exception.AppException;
 import com.wallet_svc.wallet.exception.ErrorCode;
 import com.wallet_svc.wallet.mapper.WalletMapper;
+import com.wallet_svc.wallet.repository.HoldSnapshot;
 import com.wallet_svc.wallet.repository.WalletHoldRepository;
 import com.wallet_svc.wallet.repository.WalletRepository;
+import com.wallet_svc.wallet.repository.WalletSnapshot;
 import com.wallet_svc.wallet.repository.WalletTransactionRepository;
+import com.wallet_svc.wallet.service.HoldExpiryScheduler;
+import com.wallet_svc.wallet.service.ReadReplicaRouter;
+import com.wallet_svc.wallet.service.SpendSummaryService;
 import com.wallet_svc.wallet.service.WalletService;
+import com.wallet_svc.wallet.service.WalletSnapshotCache;
 
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -39,6 +45,10 @@ public class WalletServiceImpl implements WalletService {
     WalletHoldRepository holdRepository;
     WalletMapper walletMapper;
     WalletEventProducer walletEventProducer;
+    WalletSnapshotCache walletSnapshotCache;
+    HoldExpiryScheduler holdExpiryScheduler;
+    ReadReplicaRouter readReplicaRouter;
+    SpendSummaryService spendSummaryService;
 
     private final Double initialBalance = 0.00;
 
@@ -62,6 +72,7 @@ public class WalletServiceImpl implements WalletService {
                 .build();
 
         wallet = walletRepository.save(wallet);
+        walletChanged(userId);
         log.info("Created wallet for user: {}", userId);
 
         // Publish wallet created event
@@ -76,15 +87,19 @@ public class WalletServiceImpl implements WalletService {
 
     @Override
     public WalletResponse getWalletByUserId(String userId) {
-        Wallet wallet =
-                walletRepository.findByUserId(userId).orElseThrow(() -> new AppException(ErrorCode.WALLET_NOT_FOUND));
-        return walletMapper.toWalletResponse(wallet);
+        return walletSnapshotCache.get(
+                userId,
+                () -> readReplicaRouter.read(userId, () -> {
+                    Wallet wallet = walletRepository
+                            .findByUserId(userId)
+                            .orElseThrow(() -> new AppException(ErrorCode.WALLET_NOT_FOUND));
+                    return walletMapper.toWalletResponse(wallet);
+                }));
     }
 
     @Override
     public BalanceResponse getBalance(String userId) {
-        Wallet wallet =
-                walletRepository.findByUserId(userId).orElseThrow(() -> new AppException(ErrorCode.WALLET_NOT_FOUND));
+        WalletResponse wallet = getWalletByUserId(userId);
 
         BigDecimal availableBalance = wallet.getBalance().subtract(wallet.getLockedBalance());
 
@@ -101,16 +116,10 @@ public class WalletServiceImpl implements WalletService {
     @Override
     @Transactional
     public TransactionResponse holdCredits(HoldRequest request) {
-        Wallet wallet = walletRepository
-                .findByUserId(request.getUserId())
-                .orElseThrow(() -> new AppException(ErrorCode.WALLET_NOT_FOUND));
-
-        validateWalletStatus(wallet);
-
-        BigDecimal availableBalance = wallet.getBalance().subtract(wallet.getLockedBalance());
-        if (availableBalance.compareTo(request.getAmount()) < 0) {
-            throw new AppException(ErrorCode.INSUFFICIENT_BALANCE);
-        }
+        // Guarded lock of available balance: status and funds are checked by the UPDATE itself
+        WalletSnapshot wallet = walletRepository
+                .lockAvailable(request.getUserId(), request.getAmount())
+                .orElseThrow(() -> rejectMutation(request.getUserId(), ErrorCode.INSUFFICIENT_BALANCE));
 
         // Create hold
         Integer expirationMinutes =
@@ -128,10 +137,7 @@ public class WalletServiceImpl implements WalletService {
                 .build();
 
         hold = holdRepository.save(hold);
-
-        // Update wallet locked balance
-        wallet.setLockedBalance(wallet.getLockedBalance().add(request.getAmount()));
-        walletRepository.save(wallet);
+        holdExpiryScheduler.scheduleAfterCommit(hold.getId(), expiresAt);
 
         // Create transaction
         WalletTransaction transaction = WalletTransaction.builder()
@@ -148,7 +154,8 @@ public class WalletServiceImpl implements WalletService {
                 .processedAt(LocalDateTime.now())
                 .build();
 
-        transaction = transactionRepository.save(transaction);
+        transaction = saveTransaction(transaction);
+        walletChanged(request.getUserId());
         log.info("Held {} credits for user: {}", request.getAmount(), request.getUserId());
 
         // Publish events
@@ -176,30 +183,15 @@ public class WalletServiceImpl implements WalletService {
     @Override
     @Transactional
     public TransactionResponse releaseHold(ReleaseHoldRequest request) {
-        WalletHold hold = holdRepository
-                .findById(request.getHoldId())
-                .orElseThrow(() -> new AppException(ErrorCode.HOLD_NOT_FOUND));
-
-        if ("RELEASED".equals(hold.getStatus())) {
-            throw new AppException(ErrorCode.HOLD_ALREADY_RELEASED);
-        }
-
-        if ("EXPIRED".equals(hold.getStatus())) {
-            throw new AppException(ErrorCode.HOLD_EXPIRED);
-        }
-
-        Wallet wallet = walletRepository
-                .findById(hold.getWalletId())
-                .orElseThrow(() -> new AppException(ErrorCode.WALLET_NOT_FOUND));
-
-        // Update hold status
-        hold.setStatus("RELEASED");
-        hold.setReleasedAt(LocalDateTime.now());
-        holdRepository.save(hold);
+        // ACTIVE -> RELEASED in one guarded statement, so a hold can only be released once
+        HoldSnapshot hold = holdRepository
+                .transition(request.getHoldId(), "ACTIVE", "RELEASED", LocalDateTime.now())
+                .orElseThrow(() -> rejectHoldTransition(request.getHoldId()));
 
         // Release locked balance
-        wallet.setLockedBalance(wallet.getLockedBalance().subtract(hold.getAmount()));
-        walletRepository.save(wallet);
+        WalletSnapshot wallet = walletRepository
+                .unlock(hold.getWalletId(), hold.getAmount())
+                .orElseThrow(() -> new AppException(ErrorCode.WALLET_NOT_FOUND));
 
         // Create transaction
         WalletTransaction transaction = WalletTransaction.builder()
@@ -216,53 +208,41 @@ public class WalletServiceImpl implements WalletService {
                 .processedAt(LocalDateTime.now())
                 .build();
 
-        transaction = transactionRepository.save(transaction);
+        transaction = saveTransaction(transaction);
+        walletChanged(wallet.getUserId());
         log.info("Released hold {} for wallet: {}", hold.getId(), wallet.getId());
 
+        walletEventProducer.publishBalanceUnchangedEvent(
+                wallet.getUserId(), wallet.getId(), wallet.getBalance(), TransactionType.RELEASE.toLowerCase());
+
         return walletMapper.toTransactionResponse(transaction);
     }
 
     @Override
     @Transactional
     public TransactionResponse charge(ChargeRequest request) {
-        Wallet wallet = walletRepository
-                .findByUserId(request.getUserId())
-                .orElseThrow(() -> new AppException(ErrorCode.WALLET_NOT_FOUND));
-
-        validateWalletStatus(wallet);
-
-        BigDecimal balanceBefore = wallet.getBalance();
-        WalletHold hold = null;
+        WalletSnapshot wallet;
 
         // If charging from a hold
         if (request.getHoldId() != null) {
-            hold = holdRepository
-                    .findById(request.getHoldId())
-                    .orElseThrow(() -> new AppException(ErrorCode.HOLD_NOT_FOUND));
-
-            if (!"ACTIVE".equals(hold.getStatus())) {
-                throw new AppException(ErrorCode.HOLD_ALREADY_RELEASED);
-            }
+            HoldSnapshot hold = holdRepository
+                    .transition(request.getHoldId(), "ACTIVE", "RELEASED", LocalDateTime.now())
+                    .orElseThrow(() -> holdRepository.existsById(request.getHoldId())
+                            ? new AppException(ErrorCode.HOLD_ALREADY_RELEASED)
+                            : new AppException(ErrorCode.HOLD_NOT_FOUND));
 
             // Release the hold and deduct from balance
-            wallet.setLockedBalance(wallet.getLockedBalance().subtract(hold.getAmount()));
-            wallet.setBalance(wallet.getBalance().subtract(request.getAmount()));
-
-            hold.setStatus("RELEASED");
-            hold.setReleasedAt(LocalDateTime.now());
-            holdRepository.save(hold);
+            wallet = walletRepository
+                    .debitHeld(hold.getWalletId(), request.getUserId(), hold.getAmount(), request.getAmount())
+                    .orElseThrow(() -> rejectHeldCharge(request.getUserId(), hold));
         } else {
             // Direct charge
-            BigDecimal availableBalance = wallet.getBalance().subtract(wallet.getLockedBalance());
-            if (availableBalance.compareTo(request.getAmount()) < 0) {
-                throw new AppException(ErrorCode.INSUFFICIENT_BALANCE);
-            }
-
-            wallet.setBalance(wallet.getBalance().subtract(request.getAmount()));
+            wallet = walletRepository
+                    .debitAvailable(request.getUserId(), request.getAmount())
+                    .orElseThrow(() -> rejectMutation(request.getUserId(), ErrorCode.INSUFFICIENT_BALANCE));
         }
 
-        wallet.setTotalSpent(wallet.getTotalSpent().add(request.getAmount()));
-        walletRepository.save(wallet);
+        BigDecimal balanceBefore = wallet.getBalance().add(request.getAmount());
 
         // Create transaction
         WalletTransaction transaction = WalletTransaction.builder()
@@ -279,7 +259,8 @@ public class WalletServiceImpl implements WalletService {
                 .processedAt(LocalDateTime.now())
                 .build();
 
-        transaction = transactionRepository.save(transaction);
+        transaction = saveTransaction(transaction);
+        walletChanged(request.getUserId());
         log.info("Charged {} credits from user: {}", request.getAmount(), request.getUserId());
 
         // Publish events
@@ -314,16 +295,11 @@ public class WalletServiceImpl implements WalletService {
     @Override
     @Transactional
     public TransactionResponse refund(RefundRequest request) {
-        Wallet wallet = walletRepository
-                .findByUserId(request.getUserId())
-                .orElseThrow(() -> new AppException(ErrorCode.WALLET_NOT_FOUND));
+        WalletSnapshot wallet = walletRepository
+                .creditRefund(request.getUserId(), request.getAmount())
+                .orElseThrow(() -> rejectMutation(request.getUserId(), ErrorCode.TRANSACTION_FAILED));
 
-        validateWalletStatus(wallet);
-
-        BigDecimal balanceBefore = wallet.getBalance();
-        wallet.setBalance(wallet.getBalance().add(request.getAmount()));
-        wallet.setTotalRefunded(wallet.getTotalRefunded().add(request.getAmount()));
-        walletRepository.save(wallet);
+        BigDecimal balanceBefore = wallet.getBalance().subtract(request.getAmount());
 
         // Create transaction
         WalletTransaction transaction = WalletTransaction.builder()
@@ -341,7 +317,8 @@ public class WalletServiceImpl implements WalletService {
                 .processedAt(LocalDateTime.now())
                 .build();
 
-        transaction = transactionRepository.save(transaction);
+        transaction = saveTransaction(transaction);
+        walletChanged(request.getUserId());
         log.info("Refunded {} credits to user: {}", request.getAmount(), request.getUserId());
 
         // Publish events
@@ -376,18 +353,13 @@ public class WalletServiceImpl implements WalletService {
     @Override
     @Transactional
     public TransactionResponse topUp(TopUpRequest request) {
-        Wallet wallet = walletRepository
-                .findByUserId(request.getUserId())
-                .orElseThrow(() -> new AppException(ErrorCode.WALLET_NOT_FOUND));
+        int tokens = request.getTokens() != null ? request.getTokens() : 0;
+        WalletSnapshot wallet = walletRepository
+                .creditTopUp(request.getUserId(), request.getAmount(), tokens)
+                .orElseThrow(() -> rejectMutation(request.getUserId(), ErrorCode.TRANSACTION_FAILED));
 
-        validateWalletStatus(wallet);
-
-        BigDecimal balanceBefore = wallet.getBalance();
-        Integer tokensBefore = wallet.getToken();
-        wallet.setBalance(wallet.getBalance().add(request.getAmount()));
-        wallet.setTotalEarned(wallet.getTotalEarned().add(request.getAmount()));
-        wallet.setToken(tokensBefore + request.getTokens());
-        walletRepository.save(wallet);
+        BigDecimal balanceBefore = wallet.getBalance().subtract(request.getAmount());
+        Integer tokensBefore = wallet.getToken() - tokens;
 
         // Create transaction
         WalletTransaction transaction = WalletTransaction.builder()
@@ -406,7 +378,8 @@ public class WalletServiceImpl implements WalletService {
                 .processedAt(LocalDateTime.now())
                 .build();
 
-        transaction = transactionRepository.save(transaction);
+        transaction = saveTransaction(transaction);
+        walletChanged(request.getUserId());
         log.info("Topped up {} credits to user: {}", request.getAmount(), request.getUserId());
 
         // Publish events
@@ -432,20 +405,11 @@ public class WalletServiceImpl implements WalletService {
     @Override
     @Transactional
     public TransactionResponse adjustment(AdjustmentRequest request) {
-        Wallet wallet = walletRepository
-                .findByUserId(request.getUserId())
+        WalletSnapshot wallet = walletRepository
+                .adjust(request.getUserId(), request.getAmount())
                 .orElseThrow(() -> new AppException(ErrorCode.WALLET_NOT_FOUND));
 
-        BigDecimal balanceBefore = wallet.getBalance();
-        wallet.setBalance(wallet.getBalance().add(request.getAmount()));
-
-        if (request.getAmount().compareTo(BigDecimal.ZERO) > 0) {
-            wallet.setTotalEarned(wallet.getTotalEarned().add(request.getAmount()));
-        } else {
-            wallet.setTotalSpent(wallet.getTotalSpent().add(request.getAmount().abs()));
-        }
-
-        walletRepository.save(wallet);
+        BigDecimal balanceBefore = wallet.getBalance().subtract(request.getAmount());
 
         // Create transaction
         WalletTransaction transaction = WalletTransaction.builder()
@@ -461,25 +425,50 @@ public class WalletServiceImpl implements WalletService {
                 .processedAt(LocalDateTime.now())
                 .build();
 
-        transaction = transactionRepository.save(transaction);
+        transaction = saveTransaction(transaction);
+        walletChanged(request.getUserId());
         log.info(
                 "Adjusted {} credits for user: {} by admin: {}",
                 request.getAmount(),
                 request.getUserId(),
                 request.getProcessedBy());
 
+        walletEventProducer.publishBalanceUpdatedEvent(
+                request.getUserId(),
+                wallet.getId(),
+                balanceBefore,
+                wallet.getBalance(),
+                TransactionType.ADJUSTMENT.toLowerCase());
+
         return walletMapper.toTransactionResponse(transaction);
     }
 
     @Override
     public boolean validateBalance(String userId, BigDecimal amount) {
-        Wallet wallet =
-                walletRepository.findByUserId(userId).orElseThrow(() -> new AppException(ErrorCode.WALLET_NOT_FOUND));
+        WalletResponse wallet = getWalletByUserId(userId);
 
         BigDecimal availableBalance = wallet.getBalance().subtract(wallet.getLockedBalance());
         return availableBalance.compareTo(amount) >= 0;
     }
 
+    /**
+     * Insert a ledger row and add it to the daily spend summary in the same transaction
+     */
+    private WalletTransaction saveTransaction(WalletTransaction transaction) {
+        WalletTransaction saved = transactionRepository.save(transaction);
+        spendSummaryService.record(saved);
+        return saved;
+    }
+
+    /**
+     * Once this transaction commits: drop the cached snapshot and keep the user's reads on the
+     * primary until the replica has caught up
+     */
+    private void walletChanged(String userId) {
+        walletSnapshotCache.evictAfterCommit(userId);
+        readReplicaRouter.recordWriteAfterCommit(userId);
+    }
+
     private void validateWalletStatus(Wallet wallet) {
         if (WalletStatus.SUSPENDED.equals(wallet.getStatus())) {
             throw new AppException(ErrorCode.WALLET_SUSPENDED);
@@ -489,27 +478,46 @@ public class WalletServiceImpl implements WalletService {
         }
     }
 
-    @Override
-    @Transactional
-    public TokenResponse deductToken(DeductTokenRequest request) {
-        Wallet wallet = walletRepository
-                .findByUserId(request.getUserId())
-                .orElseThrow(() -> new AppException(ErrorCode.WALLET_NOT_FOUND));
-
+    /**
+     * Explain why a guarded wallet UPDATE matched no row. Only runs on the failure path,
+     * so the happy path stays a single statement.
+     */
+    private AppException rejectMutation(String userId, ErrorCode guardError) {
+        Wallet wallet =
+                walletRepository.findByUserId(userId).orElseThrow(() -> new AppException(ErrorCode.WALLET_NOT_FOUND));
         validateWalletStatus(wallet);
+        return new AppException(guardError);
+    }
 
-        // Get current token balance
-        Integer tokenBefore = wallet.getToken() != null ? wallet.getToken() : 0;
+    private AppException rejectHeldCharge(String userId, HoldSnapshot hold) {
+        Wallet wallet =
+                walletRepository.findByUserId(userId).orElseThrow(() -> new AppException(ErrorCode.WALLET_NOT_FOUND));
+        validateWalletStatus(wallet);
+        // Someone else's hold looks the same as a missing one
+        if (!wallet.getId().equals(hold.getWalletId())) {
+            return new AppException(ErrorCode.HOLD_NOT_FOUND);
+        }
+        return new AppException(ErrorCode.INSUFFICIENT_BALANCE);
+    }
 
-        // Validate sufficient tokens
-        if (tokenBefore < request.getTokens()) {
-            throw new AppException(ErrorCode.INSUFFICIENT_TOKEN);
+    private AppException rejectHoldTransition(Long holdId) {
+        WalletHold hold = holdRepository.findById(holdId).orElseThrow(() -> new AppException(ErrorCode.HOLD_NOT_FOUND));
+        if ("EXPIRED".equals(hold.getStatus())) {
+            return new AppException(ErrorCode.HOLD_EXPIRED);
         }
+        return new AppException(ErrorCode.HOLD_ALREADY_RELEASED);
+    }
+
+    @Override
+    @Transactional
+    public TokenResponse deductToken(DeductTokenRequest request) {
+        // Guarded deduction: fails without side effects when the token balance is too low
+        WalletSnapshot wallet = walletRepository
+                .deductTokens(request.getUserId(), request.getTokens())
+                .orElseThrow(() -> rejectMutation(request.getUserId(), ErrorCode.INSUFFICIENT_TOKEN));
 
-        // Deduct tokens
-        Integer tokenAfter = tokenBefore - request.getTokens();
-        wallet.setToken(tokenAfter);
-        walletRepository.save(wallet);
+        Integer tokenAfter = wallet.getToken();
+        Integer tokenBefore = tokenAfter + request.getTokens();
 
         // Create transaction record
         WalletTransaction transaction = WalletTransaction.builder()
@@ -530,9 +538,16 @@ public class WalletServiceImpl implements WalletService {
                 .processedAt(LocalDateTime.now())
                 .build();
 
-        transaction = transactionRepository.save(transaction);
+        transaction = saveTransaction(transaction);
+        walletChanged(request.getUserId());
         log.info("Deducted {} tokens from user: {}", request.getTokens(), request.getUserId());
 
+        walletEventProducer.publishBalanceUnchangedEvent(
+                request.getUserId(),
+                wallet.getId(),
+                wallet.getBalance(),
+                TransactionType.TOKEN_DEDUCTION.toLowerCase());
+
         return TokenResponse.builder()
                 .userId(request.getUserId())
                 .tokenBefore(tokenBefore)
@@ -0,0 +1,14 @@
+-- =====================================================
+-- POOLED ID SEQUENCES
+-- Wallet Service (PostgreSQL)
+-- =====================================================
+-- wallet_transactions, wallet_holds and outbox_events take their ids from the
+-- BIGSERIAL sequences through Hibernate's pooled optimizer (allocationSize = 50),
+-- so inserts no longer need a round trip each and are sent as JDBC batches.
+-- The sequences must step by the same amount; run this before deploying.
+-- Column defaults keep working: a value fetched outside Hibernate is only ever
+-- the upper bound of a block that Hibernate never hands out.
+
+ALTER SEQUENCE IF EXISTS wallet_transactions_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS wallet_holds_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS outbox_events_id_seq INCREMENT BY 50;
@@ -0,0 +1,97 @@
+-- =====================================================
+-- TIME-PARTITIONED HISTORY TABLES
+-- Wallet Service (PostgreSQL 13+)
+-- =====================================================
+-- wallet_transactions: monthly range partitions on created_at
+-- outbox_events:       daily range partitions on created_at
+--
+-- The existing table is kept as the "_legacy" partition covering everything up to the
+-- end of the current month/day, so no rows are copied. PartitionMaintenanceService
+-- pre-creates the following partitions and drops expired ones.
+--
+-- There is deliberately no DEFAULT partition: once it holds a row for some range, creating
+-- the partition for that range fails until the rows are moved out by hand, so a lapse in
+-- maintenance would turn into a stuck one. Instead the service pre-creates days/months ahead
+-- and exports wallet_partitions_ahead_days, which should be alerted on well before it hits 0.
+--
+-- processed_events stays a single table: its UNIQUE (event_id, event_type) is what the
+-- insert-first idempotency claim relies on, and a unique index on a partitioned table
+-- must include the partition key, which would let a redelivery on another day through.
+-- Its retention is a chunked delete along idx_processed_at.
+--
+-- Ids keep coming from the pooled <table>_id_seq sequences (see V2). They are detached
+-- from the column here, so dropping the legacy partition can never drop the sequence.
+-- Run in a maintenance window: ATTACH builds the (id, created_at) unique index on the
+-- legacy table.
+
+CREATE OR REPLACE FUNCTION wallet_partition_existing_table(tbl TEXT, part_col TEXT, legacy_upper TIMESTAMP)
+RETURNS VOID AS $$
+DECLARE
+    seq_name TEXT := tbl || '_id_seq';
+    next_id BIGINT;
+    idx RECORD;
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass(tbl)) THEN
+        RAISE NOTICE '% is already partitioned', tbl;
+        RETURN;
+    END IF;
+
+    -- 1. Free the id sequence from the column (identity or serial), keeping its position
+    EXECUTE format('SELECT GREATEST(COALESCE(MAX(id), 0), %s) + 1 FROM %I',
+                   COALESCE((SELECT last_value FROM pg_sequences WHERE sequencename = seq_name), 0), tbl)
+        INTO next_id;
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = tbl AND column_name = 'id' AND is_identity = 'YES') THEN
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP IDENTITY', tbl);
+    ELSE
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP DEFAULT', tbl);
+        EXECUTE format('DROP SEQUENCE IF EXISTS %I', seq_name);
+    END IF;
+    EXECUTE format('CREATE SEQUENCE %I INCREMENT BY 50 START WITH %s', seq_name, next_id);
+
+    -- 2. Move the table (and its index names) out of the way
+    EXECUTE format('ALTER TABLE %I RENAME TO %I', tbl, tbl || '_legacy');
+    FOR idx IN SELECT indexname FROM pg_indexes WHERE tablename = tbl || '_legacy' LOOP
+        EXECUTE format('ALTER INDEX %I RENAME TO %I', idx.indexname, idx.indexname || '_legacy');
+    END LOOP;
+
+    -- 3. Partitioned parent with the same columns; the key must be part of the primary key
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING STORAGE INCLUDING COMMENTS)'
+                   || ' PARTITION BY RANGE (%I)', tbl, tbl || '_legacy', part_col);
+    EXECUTE format('ALTER TABLE %I ALTER COLUMN %I SET NOT NULL', tbl, part_col);
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I PRIMARY KEY (id, %I)', tbl, tbl || '_pkey', part_col);
+
+    -- 4. Attach the old rows; the validated CHECK lets ATTACH skip its own scan
+    EXECUTE format('ALTER TABLE %I ALTER COLUMN %I SET NOT NULL', tbl || '_legacy', part_col);
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I CHECK (%I < %L)',
+                   tbl || '_legacy', tbl || '_legacy_bound', part_col, legacy_upper);
+    EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (MINVALUE) TO (%L)',
+                   tbl, tbl || '_legacy', legacy_upper);
+END;
+$$ LANGUAGE plpgsql;
+
+-- 1. Wallet Transactions (monthly)
+SELECT wallet_partition_existing_table(
+    'wallet_transactions', 'created_at', date_trunc('month', now())::TIMESTAMP + INTERVAL '1 month');
+
+CREATE INDEX IF NOT EXISTS idx_wallet_tx_wallet_created_id
+    ON wallet_transactions(wallet_id, created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_wallet_tx_created_id
+    ON wallet_transactions(created_at DESC, id DESC);
+
+-- 2. Outbox Events (daily)
+SELECT wallet_partition_existing_table(
+    'outbox_events', 'created_at', date_trunc('day', now())::TIMESTAMP + INTERVAL '1 day');
+
+CREATE INDEX IF NOT EXISTS idx_outbox_status_created
+    ON outbox_events(status, created_at);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_event_type
+    ON outbox_events(event_type);
+
+DROP FUNCTION wallet_partition_existing_table(TEXT, TEXT, TIMESTAMP);
+
+-- Partitions are listed with:
+-- SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) FROM pg_inherits i
+--   JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = 'outbox_events'::regclass;
@@ -0,0 +1,44 @@
+-- =====================================================
+-- DAILY SPEND SUMMARY READ MODEL
+-- Wallet Service (PostgreSQL 13+)
+-- =====================================================
+-- One row per (wallet, day, transaction type, reference type) with the sum and count of
+-- its successful ledger rows. SpendSummaryService adds every new ledger row to its bucket
+-- in the inserting transaction; the backfill below recomputes buckets from the ledger.
+--
+-- The backfill overwrites buckets with the ledger's totals, so it is idempotent and can be
+-- re-run to repair drift, e.g. after manual ledger corrections, but only while no ledger
+-- row is being written: an increment committed after the backfill read the ledger would
+-- be overwritten by the older total. It therefore takes a SHARE lock on wallet_transactions
+-- first, which waits for in-flight writers to commit and holds new ones until the backfill
+-- commits; expect ledger writes to stall for its duration. A missing reference type is
+-- stored as '' because it is part of the key.
+
+CREATE TABLE IF NOT EXISTS wallet_daily_summaries (
+    wallet_id        BIGINT         NOT NULL,
+    summary_date     DATE           NOT NULL,
+    transaction_type VARCHAR(50)    NOT NULL,
+    reference_type   VARCHAR(50)    NOT NULL,
+    total_amount     NUMERIC(19, 2) NOT NULL,
+    tx_count         BIGINT         NOT NULL,
+    updated_at       TIMESTAMP      NOT NULL,
+    PRIMARY KEY (wallet_id, summary_date, transaction_type, reference_type)
+);
+
+BEGIN;
+
+LOCK TABLE wallet_transactions IN SHARE MODE;
+
+INSERT INTO wallet_daily_summaries
+    (wallet_id, summary_date, transaction_type, reference_type, total_amount, tx_count, updated_at)
+SELECT wallet_id, CAST(created_at AS DATE), transaction_type, COALESCE(reference_type, ''),
+       SUM(amount), COUNT(*), now()
+FROM wallet_transactions
+WHERE status = 'SUCCESS'
+GROUP BY wallet_id, CAST(created_at AS DATE), transaction_type, COALESCE(reference_type, '')
+ON CONFLICT (wallet_id, summary_date, transaction_type, reference_type) DO UPDATE SET
+    total_amount = EXCLUDED.total_amount,
+    tx_count = EXCLUDED.tx_count,
+    updated_at = EXCLUDED.updated_at;
+
+COMMIT;
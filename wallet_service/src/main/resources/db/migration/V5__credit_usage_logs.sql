@@ -0,0 +1,21 @@
+-- =====================================================
+-- CREDIT USAGE LOGS
+-- Wallet Service (PostgreSQL)
+-- =====================================================
+-- Append-only log of metered service usage, written in bulk by UsageLogIngestService
+-- (one multi-row INSERT per flush) and never updated. Rows are looked up per user and
+-- time range only, so there is a single secondary index.
+
+CREATE TABLE IF NOT EXISTS credit_usage_logs (
+    id                    BIGSERIAL    PRIMARY KEY,
+    user_id               VARCHAR(100) NOT NULL,
+    wallet_transaction_id BIGINT,
+    service_type          VARCHAR(50)  NOT NULL,
+    action                VARCHAR(100),
+    resource_id           VARCHAR(100),
+    credits_used          INTEGER      NOT NULL,
+    metadata              TEXT,
+    created_at            TIMESTAMP    NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_usage_logs_user_created ON credit_usage_logs (user_id, created_at);
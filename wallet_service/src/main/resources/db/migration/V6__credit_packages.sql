@@ -0,0 +1,26 @@
+-- =====================================================
+-- CREDIT PACKAGES
+-- Wallet Service (PostgreSQL)
+-- =====================================================
+-- Catalog behind the pricing page. CreditPackageServiceImpl serves it from an in-memory
+-- snapshot and evaluates is_active / valid_from / valid_to there, so the table is read
+-- whole and has no index beyond the unique code. updated_at must change on every edit:
+-- the snapshot reloads when COUNT(*) or MAX(updated_at) moves.
+
+CREATE TABLE IF NOT EXISTS credit_packages (
+    id             BIGSERIAL    PRIMARY KEY,
+    code           VARCHAR(50)  NOT NULL UNIQUE,
+    name           VARCHAR(100) NOT NULL,
+    name_en        VARCHAR(100),
+    description    TEXT,
+    credits_amount INTEGER      NOT NULL,
+    bonus_credits  INTEGER      NOT NULL DEFAULT 0,
+    is_popular     BOOLEAN      NOT NULL DEFAULT FALSE,
+    is_active      BOOLEAN      NOT NULL DEFAULT TRUE,
+    display_order  INTEGER      NOT NULL DEFAULT 0,
+    valid_from     DATE,
+    valid_to       DATE,
+    metadata       JSONB,
+    created_at     TIMESTAMP    NOT NULL DEFAULT now(),
+    updated_at     TIMESTAMP    NOT NULL DEFAULT now()
+);
@@ -0,0 +1,21 @@
+-- =====================================================
+-- IDEMPOTENCY KEYS
+-- Wallet Service (PostgreSQL)
+-- =====================================================
+-- Stored results of internal mutations, replayed by IdempotencyKeyService when a caller
+-- retries with the same Idempotency-Key header. The key itself is the primary key: two
+-- nodes racing on one key collide there, and the loser replays the winner's result.
+-- Expired rows are deleted hourly in short chunks along idx_idempotency_keys_expires.
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key VARCHAR(100) PRIMARY KEY,
+    operation       VARCHAR(30)  NOT NULL,
+    request_hash    VARCHAR(64)  NOT NULL,
+    wallet_id       BIGINT,
+    transaction_id  BIGINT,
+    response        TEXT         NOT NULL,
+    created_at      TIMESTAMP    NOT NULL,
+    expires_at      TIMESTAMP    NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_expires ON idempotency_keys (expires_at);
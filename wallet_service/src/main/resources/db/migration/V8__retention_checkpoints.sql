@@ -0,0 +1,26 @@
+-- =====================================================
+-- RETENTION CHECKPOINTS
+-- Wallet Service (PostgreSQL)
+-- =====================================================
+-- One row per unfinished RetentionEngine run: the last id swept, committed with each
+-- deleted chunk. The row is also the job's lease: job_name as the primary key lets only
+-- one node start a run, and locked_by/updated_at tell the others to skip it until the
+-- holder stops renewing it for wallet.retention.lease-ms.
+--
+-- The ALTERs bring a table first created by ddl-auto (no locked_by, NOT NULL last_id)
+-- up to date; a blank locked_by reads as an expired lease.
+
+CREATE TABLE IF NOT EXISTS retention_checkpoints (
+    job_name       VARCHAR(50) PRIMARY KEY,
+    locked_by      VARCHAR(36) NOT NULL,
+    last_id        BIGINT,
+    high_watermark BIGINT,
+    deleted_rows   BIGINT      NOT NULL,
+    started_at     TIMESTAMP   NOT NULL,
+    updated_at     TIMESTAMP   NOT NULL
+);
+
+ALTER TABLE retention_checkpoints ADD COLUMN IF NOT EXISTS locked_by VARCHAR(36) NOT NULL DEFAULT '';
+ALTER TABLE retention_checkpoints ALTER COLUMN locked_by DROP DEFAULT;
+ALTER TABLE retention_checkpoints ALTER COLUMN last_id DROP NOT NULL;
+ALTER TABLE retention_checkpoints ALTER COLUMN high_watermark DROP NOT NULL;
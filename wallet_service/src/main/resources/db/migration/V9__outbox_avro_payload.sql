@@ -0,0 +1,12 @@
+-- =====================================================
+-- OUTBOX AVRO PAYLOAD
+-- Wallet Service (PostgreSQL)
+-- =====================================================
+-- With wallet.events.format=avro the producer stores the Avro body of each event next to
+-- its JSON payload, with the schema version it was written with, so the publisher sends it
+-- as-is instead of parsing the JSON back into the event class. Both stay NULL in JSON mode
+-- and for rows written before the switch, which are still encoded from the JSON.
+-- Added on the partitioned parent, the columns reach every partition.
+
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS payload_avro BYTEA;
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS payload_avro_version INTEGER;
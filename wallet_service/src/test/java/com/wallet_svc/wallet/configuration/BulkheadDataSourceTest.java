@@ -0,0 +1,53 @@
+package com.wallet_svc.wallet.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * The bulkhead hands out at most {@code permits} connections and takes a permit back exactly
+ * once per closed connection
+ */
+class BulkheadDataSourceTest {
+
+    @Test
+    void callersBeyondThePermitsWaitAndTimeOut() throws Exception {
+        BulkheadDataSource dataSource = bulkhead(1, 100);
+
+        try (Connection held = dataSource.getConnection()) {
+            assertThat(held.isValid(1)).isTrue();
+            assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        }
+
+        try (Connection next = dataSource.getConnection()) {
+            assertThat(next.isValid(1)).isTrue();
+        }
+    }
+
+    @Test
+    void closingTwiceReleasesOnePermit() throws Exception {
+        BulkheadDataSource dataSource = bulkhead(2, 100);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        dataSource.bindTo(registry);
+
+        Connection connection = dataSource.getConnection();
+        connection.close();
+        connection.close();
+
+        assertThat(registry.get("wallet.db.bulkhead.available").gauge().value()).isEqualTo(2);
+        assertThat(registry.get("wallet.db.bulkhead.wait").timer().count()).isEqualTo(1);
+    }
+
+    private static BulkheadDataSource bulkhead(int permits, long maxWaitMs) {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:bulkhead;DB_CLOSE_DELAY=-1");
+        return new BulkheadDataSource(h2, permits, maxWaitMs);
+    }
+}
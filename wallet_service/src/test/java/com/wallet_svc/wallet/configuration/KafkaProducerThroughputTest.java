@@ -0,0 +1,126 @@
+package com.wallet_svc.wallet.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wallet_svc.wallet.event.payload.BalanceUpdatedEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The tuned producer (KafkaProducerConfig) against an embedded broker: every send is
+ * acknowledged, one user's events share a partition, and messages/sec is logged next to a
+ * producer with Kafka's defaults
+ */
+@SpringJUnitConfig({KafkaProducerConfig.class, JacksonConfig.class})
+@EmbeddedKafka(partitions = 6, topics = KafkaProducerThroughputTest.TOPIC)
+@TestPropertySource(properties = "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}")
+@Slf4j
+class KafkaProducerThroughputTest {
+
+    static final String TOPIC = "wallet.balance_updated";
+
+    private static final int USERS = 500;
+    private static final int MESSAGES = 50_000;
+
+    @Autowired
+    KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    EmbeddedKafkaBroker broker;
+
+    @Test
+    void tunedProducerThroughputAndPerUserPartitions() throws Exception {
+        KafkaTemplate<String, Object> defaults = defaultTemplate();
+        try {
+            send(defaults, MESSAGES / 10);
+            send(kafkaTemplate, MESSAGES / 10);
+
+            double defaultRate = rate(defaults);
+            double tunedRate = rate(kafkaTemplate);
+            log.info(
+                    "Producer throughput: defaults {} msg/s, tuned {} msg/s ({}x)",
+                    Math.round(defaultRate),
+                    Math.round(tunedRate),
+                    String.format("%.2f", tunedRate / defaultRate));
+        } finally {
+            defaults.destroy();
+        }
+
+        Map<String, Integer> partitionByUser = new HashMap<>();
+        for (SendResult<String, Object> result : send(kafkaTemplate, USERS * 4)) {
+            String userId = result.getProducerRecord().key();
+            int partition = result.getRecordMetadata().partition();
+            assertThat(partitionByUser.computeIfAbsent(userId, key -> partition))
+                    .as("partition of %s", userId)
+                    .isEqualTo(partition);
+        }
+        assertThat(partitionByUser).hasSize(USERS);
+    }
+
+    private double rate(KafkaTemplate<String, Object> template) throws Exception {
+        long started = System.nanoTime();
+        List<SendResult<String, Object>> results = send(template, MESSAGES);
+        double seconds = (System.nanoTime() - started) / 1e9;
+        assertThat(results).hasSize(MESSAGES);
+        return MESSAGES / seconds;
+    }
+
+    private static List<SendResult<String, Object>> send(KafkaTemplate<String, Object> template, int count)
+            throws Exception {
+        List<CompletableFuture<SendResult<String, Object>>> futures = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String userId = "user-" + (i % USERS);
+            futures.add(template.send(TOPIC, userId, event(userId, i)));
+        }
+        List<SendResult<String, Object>> results = new ArrayList<>(count);
+        for (CompletableFuture<SendResult<String, Object>> future : futures) {
+            // A failed send surfaces here
+            results.add(future.get(30, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+
+    private static BalanceUpdatedEvent event(String userId, int sequence) {
+        return BalanceUpdatedEvent.builder()
+                .userId(userId)
+                .walletId((long) sequence)
+                .oldBalance(new BigDecimal("100.00"))
+                .newBalance(new BigDecimal("99.00"))
+                .transactionType("CHARGE")
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private KafkaTemplate<String, Object> defaultTemplate() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        return new KafkaTemplate<>(
+                new DefaultKafkaProducerFactory<>(config, new StringSerializer(), new JsonSerializer<>(objectMapper)));
+    }
+}
@@ -0,0 +1,147 @@
+package com.wallet_svc.wallet.event.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.avro.AvroMapper;
+import com.fasterxml.jackson.dataformat.avro.jsr310.AvroJavaTimeModule;
+import com.fasterxml.jackson.dataformat.avro.schema.AvroSchemaGenerator;
+import com.wallet_svc.wallet.configuration.JacksonConfig;
+import com.wallet_svc.wallet.entity.OutboxEvent;
+import com.wallet_svc.wallet.event.payload.CreditsChargedEvent;
+import com.wallet_svc.wallet.event.payload.LedgerEvent;
+
+/**
+ * Avro records reach listeners as the payload object they were encoded from, JSON records as
+ * the string; JSON stays the default
+ */
+class WalletEventCodecTest {
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+    private final WalletEventCodec avroCodec = new WalletEventCodec(objectMapper, "avro");
+    private final WalletEventCodec jsonCodec = new WalletEventCodec(objectMapper, "json");
+
+    private final CreditsChargedEvent charged = CreditsChargedEvent.builder()
+            .userId("user-1")
+            .walletId(7L)
+            .amount(new BigDecimal("4.00"))
+            .referenceId("ref-1")
+            .referenceType("SLIDE")
+            .balanceAfter(new BigDecimal("6.00"))
+            .timestamp(LocalDateTime.of(2026, 10, 18, 12, 30, 15, 123_000_000))
+            .build();
+
+    @Test
+    void avroRecordCarriesHeadersAndDecodesToThePayloadObject() throws IOException {
+        String json = objectMapper.writeValueAsString(charged);
+
+        ProducerRecord<String, Object> record = avroCodec.toRecord("wallet.credits_charged", "user-1", json);
+
+        assertThat(record.key()).isEqualTo("user-1");
+        assertThat(record.value()).isInstanceOf(byte[].class);
+        assertThat(header(record, WalletEventCodec.CONTENT_TYPE_HEADER)).isEqualTo(WalletEventCodec.AVRO);
+        assertThat(header(record, WalletEventCodec.SCHEMA_VERSION_HEADER)).isEqualTo("1");
+        assertThat(((byte[]) record.value()).length).isLessThan(json.length() / 2);
+
+        Object decoded = new WalletEventDeserializer(jsonCodec)
+                .deserialize(record.topic(), record.headers(), (byte[]) record.value());
+        assertThat(decoded).isEqualTo(charged);
+        assertThat(jsonCodec.read(decoded, CreditsChargedEvent.class)).isSameAs(decoded);
+        assertThat(objectMapper.readTree(jsonCodec.toJson(decoded))).isEqualTo(objectMapper.readTree(json));
+        assertThat(jsonCodec.readTree(decoded).get("user_id").asText()).isEqualTo("user-1");
+    }
+
+    @Test
+    void outboxRowWithAnAvroBodyIsSentAsStored() throws IOException {
+        byte[] body = avroCodec.encode(CreditsChargedEvent.class, charged);
+        OutboxEvent row = OutboxEvent.builder()
+                .eventType("wallet.credits_charged")
+                .aggregateId("user-1")
+                .payload("not parsed")
+                .payloadAvro(body)
+                .payloadAvroVersion(1)
+                .build();
+
+        ProducerRecord<String, Object> record = avroCodec.toRecord(row);
+
+        assertThat(record.value()).isSameAs(body);
+        assertThat(header(record, WalletEventCodec.CONTENT_TYPE_HEADER)).isEqualTo(WalletEventCodec.AVRO);
+        assertThat(header(record, WalletEventCodec.SCHEMA_VERSION_HEADER)).isEqualTo("1");
+        assertThat(avroCodec.producesAvro("wallet.credits_charged")).isTrue();
+        assertThat(jsonCodec.producesAvro("wallet.credits_charged")).isFalse();
+        assertThat(avroCodec.producesAvro("usage.logged")).isFalse();
+    }
+
+    @Test
+    void ledgerEnvelopeKeepsItsFlags() throws IOException {
+        LedgerEvent event = LedgerEvent.builder()
+                .userId("user-2")
+                .flags(List.of("credits_charged", "balance_updated"))
+                .amount(new BigDecimal("1.50"))
+                .build();
+
+        byte[] body = avroCodec.encode(LedgerEvent.class, event);
+
+        assertThat(avroCodec.decode(LedgerEvent.class, 1, body)).isEqualTo(event);
+    }
+
+    @Test
+    void jsonIsTheDefaultAndRecordsWithoutHeadersAreJson() throws IOException {
+        String json = "{\"user_id\":\"user-3\",\"balance\":1}";
+
+        ProducerRecord<String, Object> record = jsonCodec.toRecord("wallet.balance_updated", "user-3", json);
+
+        assertThat(record.value()).isNotInstanceOf(byte[].class);
+        assertThat(header(record, WalletEventCodec.CONTENT_TYPE_HEADER)).isEqualTo(WalletEventCodec.JSON);
+        assertThat(new WalletEventDeserializer(avroCodec)
+                        .deserialize(
+                                "wallet.balance_updated", new RecordHeaders(), json.getBytes(StandardCharsets.UTF_8)))
+                .isEqualTo(json);
+        assertThat(avroCodec.read(json, Map.class)).containsEntry("user_id", "user-3");
+    }
+
+    @Test
+    void unknownSchemaVersionIsRejected() {
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(WalletEventCodec.CONTENT_TYPE_HEADER, WalletEventCodec.AVRO.getBytes(StandardCharsets.UTF_8));
+        headers.add(WalletEventCodec.SCHEMA_VERSION_HEADER, "99".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> new WalletEventDeserializer(avroCodec)
+                        .deserialize("wallet.credits_charged", headers, new byte[] {0}))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    /**
+     * A payload class changed without shipping a new avro/{Class}.v{n+1}.avsc fails here
+     */
+    @Test
+    void latestShippedSchemaMatchesEachPayloadClass() throws IOException {
+        AvroMapper avroMapper =
+                AvroMapper.builder().addModule(new AvroJavaTimeModule()).build();
+        for (Class<?> type : WalletEventCodec.payloadTypes()) {
+            AvroSchemaGenerator generator = new AvroSchemaGenerator().enableLogicalTypes();
+            avroMapper.acceptJsonFormatVisitor(type, generator);
+
+            assertThat(avroCodec.latest(type).getAvroSchema())
+                    .as(type.getSimpleName())
+                    .isEqualTo(generator.getGeneratedSchema().getAvroSchema());
+        }
+    }
+
+    private static String header(ProducerRecord<String, Object> record, String name) {
+        return new String(record.headers().lastHeader(name).value(), StandardCharsets.UTF_8);
+    }
+}
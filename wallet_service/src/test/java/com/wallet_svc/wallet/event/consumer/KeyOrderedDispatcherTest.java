@@ -0,0 +1,122 @@
+package com.wallet_svc.wallet.event.consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * One user's records run in order on one lane, other users' records overtake them
+ */
+class KeyOrderedDispatcherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private KeyOrderedDispatcher dispatcher;
+    private final AtomicInteger acks = new AtomicInteger();
+    private long offset;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new KeyOrderedDispatcher(new ObjectMapper(), meterRegistry, true, 8, 5000, false);
+        dispatcher.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.stop();
+    }
+
+    @Test
+    void sameUserKeepsOrder() {
+        List<Integer> handled = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            int sequence = i;
+            dispatcher.dispatch(record("user-1"), acks::incrementAndGet, () -> handled.add(sequence));
+        }
+
+        assertThat(dispatcher.awaitIdle(5000)).isTrue();
+        assertThat(handled).hasSize(100).isSorted();
+        assertThat(acks).hasValue(100);
+    }
+
+    @Test
+    void otherUsersAreNotBlockedBehindASlowUser() throws Exception {
+        String slowUser = "user-slow";
+        String otherUser = otherLaneThan(slowUser);
+        CountDownLatch otherHandled = new CountDownLatch(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        dispatcher.dispatch(record(slowUser), acks::incrementAndGet, () -> {
+            try {
+                // Only finishes if the other user's record runs meanwhile
+                assertThat(otherHandled.await(5, TimeUnit.SECONDS)).isTrue();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            order.add(slowUser);
+        });
+        dispatcher.dispatch(record(otherUser), acks::incrementAndGet, () -> {
+            order.add(otherUser);
+            otherHandled.countDown();
+        });
+
+        assertThat(dispatcher.awaitIdle(5000)).isTrue();
+        assertThat(order).containsExactly(otherUser, slowUser);
+        assertThat(acks).hasValue(2);
+    }
+
+    @Test
+    void handlerTimeIsRecordedPerTopicOnTheLane() {
+        dispatcher.dispatch(record("user-1"), acks::incrementAndGet, () -> {});
+        dispatcher.dispatch(record("user-2"), acks::incrementAndGet, () -> {
+            throw new IllegalStateException("boom");
+        });
+
+        assertThat(dispatcher.awaitIdle(5000)).isTrue();
+        assertThat(meterRegistry
+                        .get("wallet.kafka.consume")
+                        .tags("topic", "payment.completed", "outcome", "success")
+                        .timer()
+                        .count())
+                .isEqualTo(1);
+        assertThat(meterRegistry
+                        .get("wallet.kafka.consume")
+                        .tags("topic", "payment.completed", "outcome", "IllegalStateException")
+                        .timer()
+                        .count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void recordsWithoutUserFallBackToTheirKey() {
+        ConsumerRecord<String, String> record = new ConsumerRecord<>("payment.completed", 0, 0, "key-1", "not json");
+
+        assertThat(dispatcher.keyOf(record)).isEqualTo("key-1");
+        assertThat(dispatcher.keyOf(record("user-7"))).isEqualTo("user-7");
+    }
+
+    private String otherLaneThan(String userId) {
+        for (int i = 0; ; i++) {
+            String candidate = "user-" + i;
+            if (dispatcher.laneFor(candidate) != dispatcher.laneFor(userId)) {
+                return candidate;
+            }
+        }
+    }
+
+    private ConsumerRecord<String, String> record(String userId) {
+        return new ConsumerRecord<>("payment.completed", 0, offset++, null, "{\"user_id\":\"" + userId + "\"}");
+    }
+}
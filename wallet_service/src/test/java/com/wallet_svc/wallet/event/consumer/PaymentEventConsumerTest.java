@@ -0,0 +1,200 @@
+package com.wallet_svc.wallet.event.consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wallet_svc.wallet.configuration.JacksonConfig;
+import com.wallet_svc.wallet.dto.request.TopUpRequest;
+import com.wallet_svc.wallet.entity.ProcessedEvent;
+import com.wallet_svc.wallet.entity.Wallet;
+import com.wallet_svc.wallet.event.codec.WalletEventCodec;
+import com.wallet_svc.wallet.event.payload.PaymentCompletedEvent;
+import com.wallet_svc.wallet.event.producer.WalletEventProducer;
+import com.wallet_svc.wallet.repository.ProcessedEventRepository;
+import com.wallet_svc.wallet.repository.WalletRepository;
+import com.wallet_svc.wallet.repository.WalletTransactionRepository;
+import com.wallet_svc.wallet.service.IdempotentEventService;
+import com.wallet_svc.wallet.service.PaymentTopUpBatchService;
+import com.wallet_svc.wallet.service.RecentEventFilter;
+import com.wallet_svc.wallet.service.RetentionEngine;
+import com.wallet_svc.wallet.service.impl.WalletServiceImpl;
+import com.wallet_svc.wallet.service.impl.WalletServiceSlice;
+
+/**
+ * The batch payment listener: duplicates are dropped before the batch transaction, and one
+ * bad record rolls the batch back to per-record handling without losing or doubling the
+ * good top-ups
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({
+    WalletServiceSlice.class,
+    IdempotentEventService.class,
+    RecentEventFilter.class,
+    RetentionEngine.class,
+    PaymentEventConsumer.class,
+    WalletEventCodec.class,
+    JacksonConfig.class,
+    PaymentEventConsumerTest.Config.class
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PaymentEventConsumerTest {
+
+    private static final AtomicLong PAYMENT_IDS = new AtomicLong(System.nanoTime());
+
+    /**
+     * An @Import'ed WalletServiceImpl is registered under its class name, so the
+     * "walletServiceImpl" qualifier the batch service's constructor uses does not resolve here
+     */
+    @TestConfiguration
+    static class Config {
+        @Bean
+        PaymentTopUpBatchService paymentTopUpBatchService(
+                WalletServiceImpl walletService, IdempotentEventService idempotentEventService) {
+            return new PaymentTopUpBatchService(walletService, idempotentEventService);
+        }
+    }
+
+    @Autowired
+    PaymentEventConsumer consumer;
+
+    @Autowired
+    PaymentTopUpBatchService paymentTopUpBatchService;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    WalletRepository walletRepository;
+
+    @Autowired
+    WalletTransactionRepository transactionRepository;
+
+    @Autowired
+    ProcessedEventRepository processedEventRepository;
+
+    @MockBean
+    WalletEventProducer walletEventProducer;
+
+    @MockBean
+    KeyOrderedDispatcher keyOrderedDispatcher;
+
+    @Test
+    void batchWithADuplicateAndAMissingWalletAppliesEachGoodTopUpOnce() throws Exception {
+        String alice = newWallet();
+        String bob = newWallet();
+        long alicePayment = PAYMENT_IDS.incrementAndGet();
+        long bobPayment = PAYMENT_IDS.incrementAndGet();
+        long strayPayment = PAYMENT_IDS.incrementAndGet();
+
+        String aliceEvent = event(alicePayment, alice, "10.00");
+        consumer.handlePaymentCompletedBatch(List.of(
+                aliceEvent,
+                event(bobPayment, bob, "5.00"),
+                aliceEvent,
+                event(strayPayment, "user-missing-" + UUID.randomUUID(), "7.00")));
+
+        assertThat(balance(alice)).isEqualByComparingTo("10.00");
+        assertThat(balance(bob)).isEqualByComparingTo("5.00");
+        assertThat(topUpsFor(alicePayment)).isEqualTo(1);
+        assertThat(topUpsFor(bobPayment)).isEqualTo(1);
+
+        // The batch rolled back as a whole; only the per-record fallback records a failure
+        assertThat(result(alicePayment)).isEqualTo("SUCCESS");
+        assertThat(result(bobPayment)).isEqualTo("SUCCESS");
+        assertThat(result(strayPayment)).isEqualTo("FAILED");
+        assertThat(topUpsFor(strayPayment)).isZero();
+
+        // Redelivering the same poll applies nothing twice
+        consumer.handlePaymentCompletedBatch(List.of(aliceEvent, event(bobPayment, bob, "5.00")));
+        assertThat(balance(alice)).isEqualByComparingTo("10.00");
+        assertThat(balance(bob)).isEqualByComparingTo("5.00");
+    }
+
+    @Test
+    void applyTopUpsSkipsItemsAlreadyClaimed() throws Exception {
+        String userId = newWallet();
+        long first = PAYMENT_IDS.incrementAndGet();
+        long second = PAYMENT_IDS.incrementAndGet();
+
+        assertThat(paymentTopUpBatchService.applyTopUps(List.of(item(first, userId)), "payment.completed", "test"))
+                .isEqualTo(1);
+        assertThat(paymentTopUpBatchService.applyTopUps(
+                        List.of(item(first, userId), item(second, userId)), "payment.completed", "test"))
+                .isEqualTo(1);
+
+        assertThat(balance(userId)).isEqualByComparingTo("2.00");
+        assertThat(topUpsFor(first)).isEqualTo(1);
+        assertThat(topUpsFor(second)).isEqualTo(1);
+    }
+
+    private PaymentTopUpBatchService.Item item(long paymentId, String userId) throws Exception {
+        String payload = event(paymentId, userId, "1.00");
+        return new PaymentTopUpBatchService.Item(
+                "payment-" + paymentId,
+                payload,
+                TopUpRequest.builder()
+                        .userId(userId)
+                        .amount(BigDecimal.ONE)
+                        .referenceType("PAYMENT")
+                        .referenceId(String.valueOf(paymentId))
+                        .build());
+    }
+
+    private String event(long paymentId, String userId, String amount) throws Exception {
+        return objectMapper.writeValueAsString(PaymentCompletedEvent.builder()
+                .paymentId(paymentId)
+                .orderId(paymentId)
+                .userId(userId)
+                .amount(new BigDecimal(amount))
+                .currency("USD")
+                .paymentMethod("CARD")
+                .credits(0)
+                .build());
+    }
+
+    private int topUpsFor(long paymentId) {
+        return transactionRepository
+                .findByReferenceTypeAndReferenceId("PAYMENT", String.valueOf(paymentId))
+                .size();
+    }
+
+    private String result(long paymentId) {
+        return processedEventRepository
+                .findByEventIdAndEventType("payment-" + paymentId, "payment.completed")
+                .map(ProcessedEvent::getProcessingResult)
+                .orElse(null);
+    }
+
+    private BigDecimal balance(String userId) {
+        return walletRepository.findByUserId(userId).orElseThrow().getBalance();
+    }
+
+    private String newWallet() {
+        return walletRepository
+                .save(Wallet.builder()
+                        .userId("user-" + UUID.randomUUID())
+                        .balance(new BigDecimal("0.00"))
+                        .token(0)
+                        .build())
+                .getUserId();
+    }
+}
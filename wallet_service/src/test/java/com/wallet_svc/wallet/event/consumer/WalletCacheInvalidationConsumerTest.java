@@ -0,0 +1,202 @@
+package com.wallet_svc.wallet.event.consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.wallet_svc.wallet.configuration.JacksonConfig;
+import com.wallet_svc.wallet.dto.request.AdjustmentRequest;
+import com.wallet_svc.wallet.dto.request.DeductTokenRequest;
+import com.wallet_svc.wallet.dto.request.ReleaseHoldRequest;
+import com.wallet_svc.wallet.dto.response.WalletResponse;
+import com.wallet_svc.wallet.entity.OutboxEvent;
+import com.wallet_svc.wallet.entity.Wallet;
+import com.wallet_svc.wallet.entity.WalletHold;
+import com.wallet_svc.wallet.event.codec.WalletEventCodec;
+import com.wallet_svc.wallet.event.producer.WalletEventProducer;
+import com.wallet_svc.wallet.repository.OutboxEventRepository;
+import com.wallet_svc.wallet.repository.WalletHoldRepository;
+import com.wallet_svc.wallet.repository.WalletRepository;
+import com.wallet_svc.wallet.service.HoldExpiryService;
+import com.wallet_svc.wallet.service.OutboxDispatcher;
+import com.wallet_svc.wallet.service.ReadReplicaRouter;
+import com.wallet_svc.wallet.service.WalletService;
+import com.wallet_svc.wallet.service.WalletSnapshotCache;
+import com.wallet_svc.wallet.service.impl.WalletServiceSlice;
+
+/**
+ * Operations that change only locked balance or tokens still publish on a topic the
+ * invalidation listener subscribes to, so other nodes drop their snapshot and pin reads
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({
+    WalletServiceSlice.class,
+    WalletEventProducer.class,
+    HoldExpiryService.class,
+    WalletCacheInvalidationConsumer.class,
+    WalletEventCodec.class,
+    JacksonConfig.class
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WalletCacheInvalidationConsumerTest {
+
+    @Autowired
+    WalletService walletService;
+
+    @Autowired
+    HoldExpiryService holdExpiryService;
+
+    @Autowired
+    WalletCacheInvalidationConsumer consumer;
+
+    @Autowired
+    WalletSnapshotCache walletSnapshotCache;
+
+    @Autowired
+    WalletRepository walletRepository;
+
+    @Autowired
+    WalletHoldRepository holdRepository;
+
+    @Autowired
+    OutboxEventRepository outboxEventRepository;
+
+    @SpyBean
+    ReadReplicaRouter readReplicaRouter;
+
+    @MockBean
+    OutboxDispatcher outboxDispatcher;
+
+    @Test
+    void releaseHoldInvalidatesOtherNodes() {
+        Wallet wallet = newWallet();
+        Long holdId = newHold(wallet, LocalDateTime.now().plusMinutes(10));
+
+        assertInvalidatesOtherNodes(
+                wallet.getUserId(),
+                () -> walletService.releaseHold(
+                        ReleaseHoldRequest.builder().holdId(holdId).build()));
+    }
+
+    @Test
+    void deductTokenInvalidatesOtherNodes() {
+        Wallet wallet = newWallet();
+
+        assertInvalidatesOtherNodes(
+                wallet.getUserId(),
+                () -> walletService.deductToken(DeductTokenRequest.builder()
+                        .userId(wallet.getUserId())
+                        .tokens(1)
+                        .referenceId("prompt-1")
+                        .build()));
+    }
+
+    @Test
+    void adjustmentInvalidatesOtherNodes() {
+        Wallet wallet = newWallet();
+
+        assertInvalidatesOtherNodes(
+                wallet.getUserId(),
+                () -> walletService.adjustment(AdjustmentRequest.builder()
+                        .userId(wallet.getUserId())
+                        .amount(new BigDecimal("-3.00"))
+                        .description("correction")
+                        .processedBy(1)
+                        .build()));
+    }
+
+    @Test
+    void holdExpiryInvalidatesOtherNodes() {
+        Wallet wallet = newWallet();
+        Long holdId = newHold(wallet, LocalDateTime.now().minusMinutes(1));
+
+        assertInvalidatesOtherNodes(wallet.getUserId(), () -> holdExpiryService.expireHolds(List.of(holdId)));
+    }
+
+    /**
+     * Run {@code operation}, then replay its outbox rows on the subscribed topics into the
+     * listener as another node would receive them, against a snapshot cached over there
+     */
+    private void assertInvalidatesOtherNodes(String userId, Runnable operation) {
+        List<String> topics = List.of(listenerTopics());
+        long before = outboxRows(userId).size();
+
+        operation.run();
+
+        List<OutboxEvent> delivered = outboxRows(userId).stream()
+                .skip(before)
+                .filter(row -> topics.contains(row.getEventType()))
+                .toList();
+        assertThat(delivered).isNotEmpty();
+
+        walletSnapshotCache.get(
+                userId, () -> WalletResponse.builder().userId(userId).build());
+        delivered.forEach(row -> consumer.handleWalletChanged(row.getPayload()));
+
+        AtomicBoolean reloaded = new AtomicBoolean();
+        walletSnapshotCache.get(userId, () -> {
+            reloaded.set(true);
+            return WalletResponse.builder().userId(userId).build();
+        });
+        assertThat(reloaded).isTrue();
+        verify(readReplicaRouter).recordWrite(userId);
+    }
+
+    private static String[] listenerTopics() {
+        try {
+            return WalletCacheInvalidationConsumer.class
+                    .getMethod("handleWalletChanged", Object.class)
+                    .getAnnotation(KafkaListener.class)
+                    .topics();
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<OutboxEvent> outboxRows(String userId) {
+        return outboxEventRepository.findByAggregateIdAndAggregateType(userId, "WALLET").stream()
+                .sorted((a, b) -> a.getId().compareTo(b.getId()))
+                .toList();
+    }
+
+    private Wallet newWallet() {
+        return walletRepository.save(Wallet.builder()
+                .userId("user-" + UUID.randomUUID())
+                .balance(new BigDecimal("100.00"))
+                .lockedBalance(new BigDecimal("10.00"))
+                .token(5)
+                .build());
+    }
+
+    private Long newHold(Wallet wallet, LocalDateTime expiresAt) {
+        return holdRepository
+                .save(WalletHold.builder()
+                        .walletId(wallet.getId())
+                        .amount(new BigDecimal("10.00"))
+                        .referenceType("TEST")
+                        .referenceId("ref-" + UUID.randomUUID())
+                        .status("ACTIVE")
+                        .expiresAt(expiresAt)
+                        .build())
+                .getId();
+    }
+}
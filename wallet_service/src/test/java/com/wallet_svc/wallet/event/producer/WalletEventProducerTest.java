@@ -0,0 +1,112 @@
+package com.wallet_svc.wallet.event.producer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wallet_svc.wallet.configuration.JacksonConfig;
+import com.wallet_svc.wallet.dto.request.ChargeRequest;
+import com.wallet_svc.wallet.dto.request.HoldRequest;
+import com.wallet_svc.wallet.entity.OutboxEvent;
+import com.wallet_svc.wallet.entity.Wallet;
+import com.wallet_svc.wallet.event.codec.WalletEventCodec;
+import com.wallet_svc.wallet.event.payload.LedgerEvent;
+import com.wallet_svc.wallet.exception.AppException;
+import com.wallet_svc.wallet.repository.OutboxEventRepository;
+import com.wallet_svc.wallet.repository.WalletRepository;
+import com.wallet_svc.wallet.service.OutboxDispatcher;
+import com.wallet_svc.wallet.service.WalletService;
+import com.wallet_svc.wallet.service.impl.WalletServiceSlice;
+
+/**
+ * Envelope mode: one wallet.ledger outbox row per committed operation, none for a rollback
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({WalletServiceSlice.class, WalletEventProducer.class, WalletEventCodec.class, JacksonConfig.class})
+@TestPropertySource(properties = "wallet.events.envelope.enabled=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WalletEventProducerTest {
+
+    @Autowired
+    WalletService walletService;
+
+    @Autowired
+    WalletRepository walletRepository;
+
+    @Autowired
+    OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @MockBean
+    OutboxDispatcher outboxDispatcher;
+
+    @Test
+    void chargeEmitsOneLedgerEventWithAllFlags() throws Exception {
+        String userId = newWallet(new BigDecimal("12.00"));
+
+        walletService.charge(ChargeRequest.builder()
+                .userId(userId)
+                .amount(new BigDecimal("5.00"))
+                .referenceType("TEST")
+                .referenceId("envelope-charge")
+                .build());
+
+        List<OutboxEvent> rows = outboxEventRepository.findByAggregateIdAndAggregateType(userId, "WALLET");
+        assertThat(rows).singleElement().satisfies(row -> assertThat(row.getEventType())
+                .isEqualTo(WalletEventProducer.LEDGER_TOPIC));
+
+        LedgerEvent event = objectMapper.readValue(rows.get(0).getPayload(), LedgerEvent.class);
+        assertThat(event.getFlags())
+                .containsExactly("credits_charged", "balance_updated", "balance_low", "transaction_created");
+        assertThat(event.getBalanceBefore()).isEqualByComparingTo("12.00");
+        assertThat(event.getBalanceAfter()).isEqualByComparingTo("7.00");
+        assertThat(event.getBalanceDelta()).isEqualByComparingTo("-5.00");
+        assertThat(event.getTransactionId()).isNotNull();
+        assertThat(event.getTransactionType()).isEqualTo("charge");
+        assertThat(event.getReferenceId()).isEqualTo("envelope-charge");
+    }
+
+    @Test
+    void rejectedOperationEmitsNothing() {
+        String userId = newWallet(new BigDecimal("1.00"));
+
+        try {
+            walletService.holdCredits(HoldRequest.builder()
+                    .userId(userId)
+                    .amount(new BigDecimal("5.00"))
+                    .referenceType("TEST")
+                    .referenceId("envelope-hold")
+                    .build());
+        } catch (AppException expected) {
+            // insufficient balance
+        }
+
+        assertThat(outboxEventRepository.findByAggregateIdAndAggregateType(userId, "WALLET"))
+                .isEmpty();
+    }
+
+    private String newWallet(BigDecimal balance) {
+        String userId = "user-" + UUID.randomUUID();
+        walletRepository.save(
+                Wallet.builder().userId(userId).balance(balance).token(0).build());
+        return userId;
+    }
+}
@@ -0,0 +1,166 @@
+package com.wallet_svc.wallet.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.wallet_svc.wallet.configuration.JacksonConfig;
+import com.wallet_svc.wallet.dto.request.ChargeRequest;
+import com.wallet_svc.wallet.dto.request.HoldRequest;
+import com.wallet_svc.wallet.entity.Wallet;
+import com.wallet_svc.wallet.event.codec.WalletEventCodec;
+import com.wallet_svc.wallet.event.consumer.KeyOrderedDispatcher;
+import com.wallet_svc.wallet.event.consumer.PaymentEventConsumer;
+import com.wallet_svc.wallet.event.producer.WalletEventProducer;
+import com.wallet_svc.wallet.exception.AppException;
+import com.wallet_svc.wallet.repository.WalletRepository;
+import com.wallet_svc.wallet.service.IdempotentEventService;
+import com.wallet_svc.wallet.service.PaymentTopUpBatchService;
+import com.wallet_svc.wallet.service.WalletService;
+import com.wallet_svc.wallet.service.impl.WalletServiceSlice;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * The tags dashboards and alerts rely on: wallet.operation by operation and ErrorCode,
+ * wallet.kafka.consume by topic, and the scheduled gauges
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(AopAutoConfiguration.class)
+@Import({
+    WalletServiceSlice.class,
+    WalletOperationMetricsAspect.class,
+    KafkaConsumerMetricsAspect.class,
+    WalletGaugeMetrics.class,
+    PaymentEventConsumer.class,
+    WalletEventCodec.class,
+    JacksonConfig.class
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WalletMetricsTest {
+
+    @Autowired
+    WalletService walletService;
+
+    @Autowired
+    PaymentEventConsumer paymentEventConsumer;
+
+    @Autowired
+    WalletGaugeMetrics walletGaugeMetrics;
+
+    @Autowired
+    WalletRepository walletRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @MockBean
+    WalletEventProducer walletEventProducer;
+
+    @MockBean
+    IdempotentEventService idempotentEventService;
+
+    @MockBean
+    PaymentTopUpBatchService paymentTopUpBatchService;
+
+    @MockBean
+    KeyOrderedDispatcher keyOrderedDispatcher;
+
+    @Test
+    void rejectedChargeIsTaggedWithItsErrorCode() {
+        String userId = newWallet("5.00");
+
+        assertThatThrownBy(() -> walletService.charge(ChargeRequest.builder()
+                        .userId(userId)
+                        .amount(new BigDecimal("50.00"))
+                        .referenceType("TEST")
+                        .referenceId("charge-" + userId)
+                        .build()))
+                .isInstanceOf(AppException.class);
+
+        Timer timer = meterRegistry
+                .get("wallet.operation")
+                .tags("operation", "charge", "outcome", "INSUFFICIENT_BALANCE")
+                .timer();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(timer.getId().getTags())
+                .containsExactlyInAnyOrder(Tag.of("operation", "charge"), Tag.of("outcome", "INSUFFICIENT_BALANCE"));
+    }
+
+    @Test
+    void listenerTimerIsTaggedWithItsTopic() {
+        // Unparseable payloads are logged and swallowed by the listener
+        paymentEventConsumer.handleBonusGranted("not json");
+
+        Timer timer = meterRegistry
+                .get("wallet.kafka.consume")
+                .tag("topic", "payment.bonus_granted")
+                .timer();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(timer.getId().getTags())
+                .containsExactlyInAnyOrder(Tag.of("topic", "payment.bonus_granted"), Tag.of("outcome", "success"));
+    }
+
+    @Test
+    void keyOrderedHandOffIsNotTimedByTheAspect() {
+        paymentEventConsumer.handleKeyOrdered(new ConsumerRecord<>("payment.completed", 0, 0, null, "{}"), () -> {});
+
+        assertThat(meterRegistry
+                        .find("wallet.kafka.consume")
+                        .tag("topic", "payment.completed,payment.bonus_granted")
+                        .timer())
+                .isNull();
+    }
+
+    @Test
+    void gaugesReadTheRefreshedAggregates() {
+        String userId = newWallet("10.00");
+        walletService.holdCredits(HoldRequest.builder()
+                .userId(userId)
+                .amount(new BigDecimal("4.00"))
+                .referenceType("TEST")
+                .referenceId("hold-" + userId)
+                .build());
+
+        walletGaugeMetrics.refresh();
+
+        assertThat(meterRegistry.get("wallet.holds.active").gauge().value()).isGreaterThanOrEqualTo(1);
+        assertThat(meterRegistry.get("wallet.locked.balance.total").gauge().value())
+                .isGreaterThanOrEqualTo(4.0);
+        assertThat(meterRegistry.get("outbox.backlog").gauge().value()).isGreaterThanOrEqualTo(0);
+        assertThat(meterRegistry
+                        .get("outbox.backlog.oldest.age.seconds")
+                        .gauge()
+                        .value())
+                .isGreaterThanOrEqualTo(0);
+    }
+
+    private String newWallet(String balance) {
+        return walletRepository
+                .save(Wallet.builder()
+                        .userId("user-" + UUID.randomUUID())
+                        .balance(new BigDecimal(balance))
+                        .token(0)
+                        .build())
+                .getUserId();
+    }
+}
@@ -0,0 +1,120 @@
+package com.wallet_svc.wallet.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.wallet_svc.wallet.entity.OutboxEvent;
+
+/**
+ * Two publishers claiming at the same time must get disjoint chunks
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ReturningStatementExecutor.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxEventRepositoryTest {
+
+    @Autowired
+    OutboxEventRepository outboxRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    void concurrentClaimsSkipLockedRows() throws Exception {
+        outboxRepository.deleteAll();
+        outboxRepository.saveAll(IntStream.range(0, 10)
+                .mapToObj(i -> OutboxEvent.builder()
+                        .aggregateId("user-" + i)
+                        .aggregateType("WALLET")
+                        .eventType("wallet.balance_updated")
+                        .payload("{}")
+                        .build())
+                .toList());
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        CountDownLatch firstClaimed = new CountDownLatch(1);
+        CountDownLatch secondClaimed = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<List<Long>> first = executor.submit(() -> tx.execute(status -> {
+                List<Long> ids = claimIds(6);
+                firstClaimed.countDown();
+                await(secondClaimed);
+                return ids;
+            }));
+
+            await(firstClaimed);
+            List<Long> second = tx.execute(status -> claimIds(6));
+            secondClaimed.countDown();
+
+            List<Long> firstIds = first.get(30, TimeUnit.SECONDS);
+            assertThat(firstIds).hasSize(6);
+            // Postgres hands the second claimer the 4 free rows; H2 applies LIMIT before skipping,
+            // so only disjointness is portable
+            assertThat(second).hasSizeLessThanOrEqualTo(4).noneMatch(firstIds::contains);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void markPublishedAcknowledgesChunkInOneUpdate() {
+        outboxRepository.deleteAll();
+        List<Long> ids = outboxRepository
+                .saveAll(IntStream.range(0, 3)
+                        .mapToObj(i -> OutboxEvent.builder()
+                                .aggregateId("user-" + i)
+                                .aggregateType("WALLET")
+                                .eventType("wallet.created")
+                                .payload("{}")
+                                .build())
+                        .toList())
+                .stream()
+                .map(OutboxEvent::getId)
+                .toList();
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Integer updated = tx.execute(status -> outboxRepository.markPublished(ids, LocalDateTime.now()));
+
+        assertThat(updated).isEqualTo(3);
+        assertThat(outboxRepository.findAllById(ids)).allMatch(e -> "PUBLISHED".equals(e.getStatus()));
+        List<Long> remaining = tx.execute(status -> claimIds(10));
+        assertThat(remaining).isEmpty();
+    }
+
+    private List<Long> claimIds(int limit) {
+        return outboxRepository.claimPendingEvents(LocalDateTime.now(), limit).stream()
+                .map(OutboxEvent::getId)
+                .toList();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
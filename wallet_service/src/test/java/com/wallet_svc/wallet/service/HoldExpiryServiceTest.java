@@ -0,0 +1,125 @@
+package com.wallet_svc.wallet.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.wallet_svc.wallet.entity.Wallet;
+import com.wallet_svc.wallet.entity.WalletHold;
+import com.wallet_svc.wallet.event.producer.WalletEventProducer;
+import com.wallet_svc.wallet.repository.WalletHoldRepository;
+import com.wallet_svc.wallet.repository.WalletRepository;
+import com.wallet_svc.wallet.service.impl.WalletServiceSlice;
+
+/**
+ * Bulk hold expiry against in-memory H2 (PostgreSQL mode)
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({WalletServiceSlice.class, HoldExpiryService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class HoldExpiryServiceTest {
+
+    @Autowired
+    HoldExpiryService holdExpiryService;
+
+    @Autowired
+    WalletRepository walletRepository;
+
+    @Autowired
+    WalletHoldRepository holdRepository;
+
+    @MockBean
+    WalletEventProducer walletEventProducer;
+
+    @Test
+    void expiresOnlyDueActiveHoldsAndUnlocksInBulk() {
+        Wallet first = newWallet(new BigDecimal("100.00"), new BigDecimal("30.00"));
+        Wallet second = newWallet(new BigDecimal("50.00"), new BigDecimal("5.00"));
+        LocalDateTime past = LocalDateTime.now().minusMinutes(1);
+
+        Long due1 = newHold(first, "10.00", "ACTIVE", past);
+        Long due2 = newHold(first, "15.00", "ACTIVE", past);
+        Long notDue = newHold(first, "5.00", "ACTIVE", LocalDateTime.now().plusMinutes(10));
+        Long due3 = newHold(second, "5.00", "ACTIVE", past);
+        Long released = newHold(second, "7.00", "RELEASED", past);
+
+        int expired = holdExpiryService.expireHolds(List.of(due1, due2, notDue, due3, released));
+
+        assertThat(expired).isEqualTo(3);
+        assertThat(lockedBalance(first)).isEqualByComparingTo("5.00");
+        assertThat(lockedBalance(second)).isEqualByComparingTo("0.00");
+        assertThat(holdRepository.findById(due1).orElseThrow().getStatus()).isEqualTo("EXPIRED");
+        assertThat(holdRepository.findById(notDue).orElseThrow().getStatus()).isEqualTo("ACTIVE");
+        assertThat(holdRepository.findById(released).orElseThrow().getStatus()).isEqualTo("RELEASED");
+        verify(walletEventProducer, times(3)).publishHoldExpiredEvent(any(), any(), any(), any(), any());
+
+        // A second pass (another node, or the sweep) finds nothing left to expire
+        assertThat(holdExpiryService.expireHolds(List.of(due1, due2, due3))).isZero();
+    }
+
+    @Test
+    void sweepExpiresOverdueHoldsInBatches() {
+        Wallet wallet = newWallet(new BigDecimal("100.00"), new BigDecimal("5.00"));
+        LocalDateTime past = LocalDateTime.now().minusHours(1);
+        for (int i = 0; i < 5; i++) {
+            newHold(wallet, "1.00", "ACTIVE", past);
+        }
+
+        int total = 0;
+        int expired;
+        while ((expired = holdExpiryService.expireDueHolds(2)) > 0) {
+            assertThat(expired).isLessThanOrEqualTo(2);
+            total += expired;
+        }
+
+        assertThat(total).isGreaterThanOrEqualTo(5);
+        assertThat(lockedBalance(wallet)).isEqualByComparingTo("0.00");
+        verify(walletEventProducer, times(5))
+                .publishHoldExpiredEvent(eq(wallet.getUserId()), any(), any(), any(), any());
+    }
+
+    private Wallet newWallet(BigDecimal balance, BigDecimal locked) {
+        return walletRepository.save(Wallet.builder()
+                .userId("user-" + UUID.randomUUID())
+                .balance(balance)
+                .lockedBalance(locked)
+                .token(0)
+                .build());
+    }
+
+    private Long newHold(Wallet wallet, String amount, String status, LocalDateTime expiresAt) {
+        return holdRepository
+                .save(WalletHold.builder()
+                        .walletId(wallet.getId())
+                        .amount(new BigDecimal(amount))
+                        .referenceType("TEST")
+                        .referenceId("ref-" + UUID.randomUUID())
+                        .status(status)
+                        .expiresAt(expiresAt)
+                        .build())
+                .getId();
+    }
+
+    private BigDecimal lockedBalance(Wallet wallet) {
+        return walletRepository.findById(wallet.getId()).orElseThrow().getLockedBalance();
+    }
+}
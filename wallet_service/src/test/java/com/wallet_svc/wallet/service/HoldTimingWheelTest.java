@@ -0,0 +1,64 @@
+package com.wallet_svc.wallet.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class HoldTimingWheelTest {
+
+    private static final long TICK_MS = 1000;
+
+    @Test
+    void firesEachHoldInTheTickOfItsDeadline() {
+        long start = 1_700_000_000_000L;
+        HoldTimingWheel wheel = new HoldTimingWheel(TICK_MS, 8, 4, start);
+
+        // Spread deadlines across all levels, including slot and level boundaries
+        Random random = new Random(42);
+        Map<Long, Long> deadlines = new HashMap<>();
+        for (long holdId = 1; holdId <= 5000; holdId++) {
+            long deadline = start + TICK_MS + random.nextInt(3500) * TICK_MS + random.nextInt((int) TICK_MS);
+            assertThat(wheel.schedule(holdId, deadline)).isTrue();
+            deadlines.put(holdId, deadline);
+        }
+        assertThat(wheel.size()).isEqualTo(5000);
+
+        List<Long> fired = new ArrayList<>();
+        for (long now = start; now <= start + 3600 * TICK_MS; now += TICK_MS) {
+            for (Long holdId : wheel.advanceTo(now)) {
+                long deadline = deadlines.get(holdId);
+                assertThat(now).isGreaterThanOrEqualTo(deadline).isLessThan(deadline + TICK_MS);
+                fired.add(holdId);
+            }
+        }
+
+        assertThat(fired).hasSize(5000).doesNotHaveDuplicates();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void catchesUpAfterLargeClockJump() {
+        long start = 0;
+        HoldTimingWheel wheel = new HoldTimingWheel(TICK_MS, 8, 3, start);
+        wheel.schedule(1, 5 * TICK_MS);
+        wheel.schedule(2, 300 * TICK_MS);
+
+        assertThat(wheel.advanceTo(400 * TICK_MS)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void rejectsDueAndBeyondHorizonDeadlines() {
+        HoldTimingWheel wheel = new HoldTimingWheel(TICK_MS, 8, 2, 10 * TICK_MS);
+
+        assertThat(wheel.schedule(1, 10 * TICK_MS)).isFalse();
+        assertThat(wheel.schedule(2, 1000 * TICK_MS)).isFalse();
+        assertThat(wheel.schedule(3, 60 * TICK_MS)).isTrue();
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,113 @@
+package com.wallet_svc.wallet.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.wallet_svc.wallet.configuration.JacksonConfig;
+import com.wallet_svc.wallet.dto.request.ChargeRequest;
+import com.wallet_svc.wallet.dto.response.TransactionResponse;
+import com.wallet_svc.wallet.entity.Wallet;
+import com.wallet_svc.wallet.event.producer.WalletEventProducer;
+import com.wallet_svc.wallet.exception.AppException;
+import com.wallet_svc.wallet.exception.ErrorCode;
+import com.wallet_svc.wallet.repository.IdempotencyKeyRepository;
+import com.wallet_svc.wallet.repository.WalletRepository;
+import com.wallet_svc.wallet.service.impl.WalletServiceSlice;
+
+/**
+ * Retries with the same Idempotency-Key replay the first result instead of mutating again
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({WalletServiceSlice.class, WalletMutationSerializer.class, IdempotencyKeyService.class, JacksonConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdempotencyKeyServiceTest {
+
+    @Autowired
+    IdempotencyKeyService idempotencyKeyService;
+
+    @Autowired
+    WalletService walletService;
+
+    @Autowired
+    WalletRepository walletRepository;
+
+    @Autowired
+    IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @MockBean
+    WalletEventProducer walletEventProducer;
+
+    @Test
+    void retryReplaysStoredResultWithoutChargingAgain() {
+        String userId = newWallet(new BigDecimal("10.00"));
+        String key = UUID.randomUUID().toString();
+        ChargeRequest request = charge(userId, "4.00");
+
+        TransactionResponse first = charge(key, request);
+        TransactionResponse retry = charge(key, charge(userId, "4.00"));
+
+        assertThat(retry.getId()).isEqualTo(first.getId());
+        assertThat(walletRepository.findByUserId(userId).orElseThrow().getBalance())
+                .isEqualByComparingTo("6.00");
+        assertThat(idempotencyKeyRepository.findById(key))
+                .hasValueSatisfying(
+                        record -> assertThat(record.getTransactionId()).isEqualTo(first.getId()));
+    }
+
+    @Test
+    void keyReusedForAnotherRequestIsRejected() {
+        String userId = newWallet(new BigDecimal("10.00"));
+        String key = UUID.randomUUID().toString();
+        charge(key, charge(userId, "1.00"));
+
+        assertThatThrownBy(() -> charge(key, charge(userId, "2.00")))
+                .isInstanceOfSatisfying(AppException.class, e -> assertThat(e.getErrorCode())
+                        .isEqualTo(ErrorCode.IDEMPOTENCY_KEY_REUSED));
+    }
+
+    @Test
+    void rejectedMutationIsNotStored() {
+        String userId = newWallet(new BigDecimal("1.00"));
+        String key = UUID.randomUUID().toString();
+
+        assertThatThrownBy(() -> charge(key, charge(userId, "5.00"))).isInstanceOf(AppException.class);
+
+        assertThat(idempotencyKeyRepository.findById(key)).isEmpty();
+    }
+
+    private TransactionResponse charge(String key, ChargeRequest request) {
+        return idempotencyKeyService.execute(
+                key, "charge", request.getUserId(), request, () -> walletService.charge(request));
+    }
+
+    private String newWallet(BigDecimal balance) {
+        String userId = "user-" + UUID.randomUUID();
+        walletRepository.save(
+                Wallet.builder().userId(userId).balance(balance).token(0).build());
+        return userId;
+    }
+
+    private static ChargeRequest charge(String userId, String amount) {
+        return ChargeRequest.builder()
+                .userId(userId)
+                .amount(new BigDecimal(amount))
+                .referenceType("TEST")
+                .referenceId("idempotent-charge")
+                .build();
+    }
+}
@@ -0,0 +1,142 @@
+package com.wallet_svc.wallet.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.wallet_svc.wallet.entity.ProcessedEvent;
+import com.wallet_svc.wallet.repository.ProcessedEventRepository;
+import com.wallet_svc.wallet.repository.ReturningStatementExecutor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Insert-first claims, retryable failures, the recent-event filter and chunked cleanup
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({
+    IdempotentEventService.class,
+    RecentEventFilter.class,
+    RetentionEngine.class,
+    ReturningStatementExecutor.class,
+    SimpleMeterRegistry.class
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdempotentEventServiceTest {
+
+    @Autowired
+    IdempotentEventService idempotentEventService;
+
+    @Autowired
+    ProcessedEventRepository processedEventRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    void onlyTheFirstClaimWinsAndIsRememberedAfterCommit() {
+        String eventId = "payment-" + UUID.randomUUID();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        Boolean first = tx.execute(status -> {
+            boolean claimed = idempotentEventService.claimEvent(eventId, "payment.completed", "payment-service", "{}");
+            // Not remembered before the claim commits
+            assertThat(idempotentEventService.isRecentlyProcessed(eventId, "payment.completed"))
+                    .isFalse();
+            return claimed;
+        });
+        Boolean second = tx.execute(
+                status -> idempotentEventService.claimEvent(eventId, "payment.completed", "payment-service", "{}"));
+
+        assertThat(first).isTrue();
+        assertThat(second).isFalse();
+        assertThat(idempotentEventService.isRecentlyProcessed(eventId, "payment.completed"))
+                .isTrue();
+        assertThat(idempotentEventService.isRecentlyProcessed(eventId, "payment.bonus_granted"))
+                .isFalse();
+    }
+
+    @Test
+    void rolledBackClaimCanBeClaimedAgain() {
+        String eventId = "payment-" + UUID.randomUUID();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        tx.executeWithoutResult(status -> {
+            idempotentEventService.claimEvent(eventId, "payment.completed", "payment-service", "{}");
+            status.setRollbackOnly();
+        });
+
+        assertThat(idempotentEventService.isRecentlyProcessed(eventId, "payment.completed"))
+                .isFalse();
+        Boolean retried = tx.execute(
+                status -> idempotentEventService.claimEvent(eventId, "payment.completed", "payment-service", "{}"));
+        assertThat(retried).isTrue();
+    }
+
+    @Test
+    void failedEventStaysRetryable() {
+        String eventId = "payment-" + UUID.randomUUID();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        idempotentEventService.markEventAsFailed(eventId, "payment.completed", "payment-service", "{}", "boom");
+
+        assertThat(idempotentEventService.isEventProcessed(eventId, "payment.completed"))
+                .isFalse();
+        assertThat(idempotentEventService.getRecentFailures(1))
+                .extracting(ProcessedEvent::getEventId)
+                .contains(eventId);
+
+        // The retry takes the FAILED row over; after that it is a normal duplicate
+        Boolean retried = tx.execute(
+                status -> idempotentEventService.claimEvent(eventId, "payment.completed", "payment-service", "{}"));
+        Boolean again = tx.execute(
+                status -> idempotentEventService.claimEvent(eventId, "payment.completed", "payment-service", "{}"));
+
+        assertThat(retried).isTrue();
+        assertThat(again).isFalse();
+        assertThat(processedEventRepository.findByEventIdAndEventType(eventId, "payment.completed"))
+                .get()
+                .extracting(ProcessedEvent::getProcessingResult)
+                .isEqualTo("SUCCESS");
+        assertThat(idempotentEventService.isEventProcessed(eventId, "payment.completed"))
+                .isTrue();
+    }
+
+    @Test
+    void cleanupDeletesOnlyExpiredEvents() {
+        String oldId = "old-" + UUID.randomUUID();
+        String recentId = "recent-" + UUID.randomUUID();
+        processedEventRepository.save(ProcessedEvent.builder()
+                .eventId(oldId)
+                .eventType("payment.completed")
+                .processedAt(LocalDateTime.now().minusDays(31))
+                .processingResult("SUCCESS")
+                .build());
+        processedEventRepository.save(ProcessedEvent.builder()
+                .eventId(recentId)
+                .eventType("payment.completed")
+                .processingResult("SUCCESS")
+                .build());
+
+        idempotentEventService.cleanupOldProcessedEvents();
+
+        assertThat(processedEventRepository.findByEventIdAndEventType(oldId, "payment.completed"))
+                .isEmpty();
+        assertThat(processedEventRepository.findByEventIdAndEventType(recentId, "payment.completed"))
+                .isPresent();
+    }
+}
@@ -0,0 +1,123 @@
+package com.wallet_svc.wallet.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.wallet_svc.wallet.entity.OutboxEvent;
+import com.wallet_svc.wallet.event.codec.WalletEventCodec;
+import com.wallet_svc.wallet.repository.OutboxEventRepository;
+import com.wallet_svc.wallet.repository.ReturningStatementExecutor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * A chunk is awaited under one deadline, and its outcome is written back in bulk
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({OutboxPublisherService.class, ReturningStatementExecutor.class, SimpleMeterRegistry.class})
+@TestPropertySource(properties = {"outbox.publisher.chunk-size=20", "outbox.publisher.send-timeout-ms=250"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxPublisherServiceTest {
+
+    private static final int HANGING = 8;
+
+    @Autowired
+    OutboxPublisherService outboxPublisherService;
+
+    @Autowired
+    OutboxEventRepository outboxRepository;
+
+    @MockBean
+    KafkaTemplate<String, Object> kafkaTemplate;
+
+    @MockBean
+    WalletEventCodec eventCodec;
+
+    @MockBean
+    RetentionEngine retentionEngine;
+
+    @MockBean
+    PartitionMaintenanceService partitionMaintenance;
+
+    @Test
+    void unacknowledgedSendsShareOneDeadlineAndAreMarkedFailedInBulk() throws Exception {
+        outboxRepository.deleteAll();
+        List<OutboxEvent> events = new ArrayList<>(List.of(event("user-ok"), event("user-broken")));
+        for (int i = 0; i < HANGING; i++) {
+            events.add(event("user-hang-" + i));
+        }
+        events = outboxRepository.saveAll(events);
+
+        when(eventCodec.toRecord(any(OutboxEvent.class))).thenAnswer(call -> {
+            OutboxEvent event = call.getArgument(0);
+            return new ProducerRecord<String, Object>(event.getEventType(), event.getAggregateId(), "x");
+        });
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenAnswer(call -> {
+            String key = ((ProducerRecord<?, ?>) call.getArgument(0)).key().toString();
+            if (key.equals("user-ok")) {
+                return CompletableFuture.completedFuture(null);
+            }
+            if (key.equals("user-broken")) {
+                return CompletableFuture.failedFuture(new IllegalStateException("broker said no"));
+            }
+            return new CompletableFuture<>(); // never acknowledged
+        });
+
+        long started = System.nanoTime();
+        assertThat(outboxPublisherService.publishPendingEvents()).isEqualTo(HANGING + 2);
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+
+        // The hanging sends share one 250 ms deadline; waiting on each in turn takes 2 s
+        assertThat(elapsedMs).isLessThan(HANGING * 250L);
+
+        List<OutboxEvent> after = outboxRepository.findAllById(
+                events.stream().map(OutboxEvent::getId).toList());
+        assertThat(after)
+                .filteredOn(e -> e.getAggregateId().equals("user-ok"))
+                .singleElement()
+                .satisfies(e -> assertThat(e.getStatus()).isEqualTo("PUBLISHED"));
+        assertThat(after)
+                .filteredOn(e -> !e.getAggregateId().equals("user-ok"))
+                .hasSize(HANGING + 1)
+                .allSatisfy(e -> {
+                    assertThat(e.getStatus()).isEqualTo("FAILED");
+                    assertThat(e.getRetryCount()).isEqualTo(1);
+                    assertThat(e.getNextRetryAt()).isAfter(LocalDateTime.now());
+                    assertThat(e.getLastError()).isNotBlank();
+                });
+        assertThat(after)
+                .filteredOn(e -> e.getAggregateId().equals("user-broken"))
+                .singleElement()
+                .satisfies(e -> assertThat(e.getLastError()).isEqualTo("broker said no"));
+    }
+
+    private static OutboxEvent event(String userId) {
+        return OutboxEvent.builder()
+                .aggregateId(userId)
+                .aggregateType("WALLET")
+                .eventType("wallet.balance_updated")
+                .payload("{}")
+                .build();
+    }
+}
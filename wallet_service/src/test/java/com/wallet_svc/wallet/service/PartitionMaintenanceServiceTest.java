@@ -0,0 +1,96 @@
+package com.wallet_svc.wallet.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.wallet_svc.wallet.service.PartitionMaintenanceService.Partition;
+import com.wallet_svc.wallet.service.PartitionMaintenanceService.PartitionedTable;
+
+class PartitionMaintenanceServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 18, 14, 30);
+
+    @Test
+    void parsesRangeBounds() {
+        Partition legacy = PartitionMaintenanceService.parsePartition(
+                "outbox_events_legacy", "FOR VALUES FROM (MINVALUE) TO ('2026-10-19 00:00:00')");
+        Partition daily = PartitionMaintenanceService.parsePartition(
+                "outbox_events_p20261019", "FOR VALUES FROM ('2026-10-19 00:00:00') TO ('2026-10-20 00:00:00')");
+
+        assertThat(legacy.from()).isEqualTo(LocalDateTime.MIN);
+        assertThat(legacy.to()).isEqualTo(LocalDateTime.of(2026, 10, 19, 0, 0));
+        assertThat(daily.from()).isEqualTo(LocalDateTime.of(2026, 10, 19, 0, 0));
+    }
+
+    @Test
+    void plansOnlyPeriodsNotCoveredYet() {
+        PartitionedTable outbox = new PartitionedTable("outbox_events", ChronoUnit.DAYS, 3, 7, null);
+        List<Partition> existing = List.of(
+                new Partition("outbox_events_legacy", LocalDateTime.MIN, LocalDateTime.of(2026, 10, 19, 0, 0)),
+                new Partition(
+                        "outbox_events_p20261019",
+                        LocalDateTime.of(2026, 10, 19, 0, 0),
+                        LocalDateTime.of(2026, 10, 20, 0, 0)));
+
+        assertThat(PartitionMaintenanceService.plan(outbox, existing, NOW))
+                .extracting(Partition::name)
+                .containsExactly("outbox_events_p20261020", "outbox_events_p20261021");
+
+        PartitionedTable transactions = new PartitionedTable("wallet_transactions", ChronoUnit.MONTHS, 2, 0, null);
+        assertThat(PartitionMaintenanceService.plan(transactions, List.of(), NOW))
+                .extracting(Partition::name)
+                .containsExactly(
+                        "wallet_transactions_p202610", "wallet_transactions_p202611", "wallet_transactions_p202612");
+    }
+
+    @Test
+    void expiresWholePartitionsOlderThanRetention() {
+        PartitionedTable outbox = new PartitionedTable("outbox_events", ChronoUnit.DAYS, 3, 7, null);
+        List<Partition> existing = List.of(
+                new Partition("outbox_events_legacy", LocalDateTime.MIN, LocalDateTime.of(2026, 10, 1, 0, 0)),
+                new Partition(
+                        "outbox_events_p20261010",
+                        LocalDateTime.of(2026, 10, 10, 0, 0),
+                        LocalDateTime.of(2026, 10, 11, 0, 0)),
+                new Partition(
+                        "outbox_events_p20261011",
+                        LocalDateTime.of(2026, 10, 11, 0, 0),
+                        LocalDateTime.of(2026, 10, 12, 0, 0)));
+
+        assertThat(PartitionMaintenanceService.expired(outbox, existing, NOW))
+                .extracting(Partition::name)
+                .containsExactly("outbox_events_legacy", "outbox_events_p20261010");
+
+        PartitionedTable ledger = new PartitionedTable("wallet_transactions", ChronoUnit.MONTHS, 3, 0, null);
+        assertThat(PartitionMaintenanceService.expired(ledger, existing, NOW)).isEmpty();
+    }
+
+    @Test
+    void coverageEndsAtTheFirstGap() {
+        List<Partition> existing = List.of(
+                new Partition("outbox_events_legacy", LocalDateTime.MIN, LocalDateTime.of(2026, 10, 19, 0, 0)),
+                new Partition(
+                        "outbox_events_p20261019",
+                        LocalDateTime.of(2026, 10, 19, 0, 0),
+                        LocalDateTime.of(2026, 10, 20, 0, 0)),
+                new Partition(
+                        "outbox_events_p20261022",
+                        LocalDateTime.of(2026, 10, 22, 0, 0),
+                        LocalDateTime.of(2026, 10, 23, 0, 0)));
+
+        LocalDateTime until = PartitionMaintenanceService.coveredUntil(existing, NOW);
+        assertThat(until).isEqualTo(LocalDateTime.of(2026, 10, 20, 0, 0));
+        assertThat(PartitionMaintenanceService.daysAhead(until, NOW)).isCloseTo(1.4, within(0.01));
+
+        // Nothing accepts a row created now, and a stale value never goes negative
+        assertThat(PartitionMaintenanceService.coveredUntil(existing.subList(2, 3), NOW))
+                .isEqualTo(NOW);
+        assertThat(PartitionMaintenanceService.daysAhead(NOW, NOW.plusDays(3))).isZero();
+    }
+}
@@ -0,0 +1,150 @@
+package com.wallet_svc.wallet.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.wallet_svc.wallet.configuration.ReadReplicaConfig;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Two local H2 databases stand in for the primary and the replica; each one only knows
+ * its own name, so every query reveals where it was routed
+ */
+@SpringJUnitConfig({ReadReplicaConfig.class, ReadReplicaRouter.class, ReadReplicaRouterTest.Config.class})
+@TestPropertySource(
+        properties = {
+            "wallet.db.replica.enabled=true",
+            "spring.datasource.url=" + ReadReplicaRouterTest.PRIMARY_URL,
+            "spring.datasource.username=sa",
+            "wallet.db.replica.url=" + ReadReplicaRouterTest.REPLICA_URL,
+            "wallet.db.replica.hikari.maximum-pool-size=2",
+            "wallet.db.replica.read-your-writes-ms=60000",
+            "wallet.db.replica.max-lag-ms=1000"
+        })
+class ReadReplicaRouterTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    ReadReplicaRouter router;
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @BeforeAll
+    static void createDatabases() throws SQLException {
+        for (String node : new String[] {"primary", "replica"}) {
+            try (Connection connection =
+                            DriverManager.getConnection("primary".equals(node) ? PRIMARY_URL : REPLICA_URL, "sa", "");
+                    Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+                statement.execute("DELETE FROM node");
+                statement.execute("INSERT INTO node VALUES ('" + node + "')");
+            }
+        }
+    }
+
+    @Test
+    void readsGoToTheReplicaAndEverythingElseToThePrimary() {
+        assertThat(router.read(null, this::node)).isEqualTo("replica");
+        assertThat(router.read(newUser(), this::node)).isEqualTo("replica");
+        assertThat(node()).isEqualTo("primary");
+    }
+
+    @Test
+    void userIsPinnedToThePrimaryAfterTheirOwnWriteCommits() {
+        String writer = newUser();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        tx.executeWithoutResult(status -> {
+            router.recordWriteAfterCommit(writer);
+            // Inside a read-write transaction reads join it
+            assertThat(router.read(writer, this::node)).isEqualTo("primary");
+        });
+
+        assertThat(router.read(writer, this::node)).isEqualTo("primary");
+        assertThat(router.read(newUser(), this::node)).isEqualTo("replica");
+    }
+
+    @Test
+    void rolledBackWriteDoesNotPinTheUser() {
+        String writer = newUser();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            router.recordWriteAfterCommit(writer);
+            status.setRollbackOnly();
+        });
+
+        assertThat(router.read(writer, this::node)).isEqualTo("replica");
+    }
+
+    @Test
+    void laggingReplicaSendsAllReadsToThePrimary() {
+        try {
+            router.updateLag(5000);
+            assertThat(router.read(newUser(), this::node)).isEqualTo("primary");
+        } finally {
+            router.updateLag(0);
+        }
+        assertThat(router.read(newUser(), this::node)).isEqualTo("replica");
+    }
+
+    @Test
+    void failedLagProbeSendsAllReadsToThePrimary() {
+        try {
+            // The H2 "replica" has no pg_last_wal_* functions, so the probe fails
+            router.probeLag();
+            assertThat(router.read(newUser(), this::node)).isEqualTo("primary");
+        } finally {
+            router.updateLag(0);
+        }
+        assertThat(router.read(newUser(), this::node)).isEqualTo("replica");
+    }
+
+    private String node() {
+        return new JdbcTemplate(dataSource).queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static String newUser() {
+        return "user-" + UUID.randomUUID();
+    }
+
+    @EnableConfigurationProperties(DataSourceProperties.class)
+    static class Config {
+
+        @Bean
+        PlatformTransactionManager transactionManager(DataSource dataSource) {
+            return new DataSourceTransactionManager(dataSource);
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
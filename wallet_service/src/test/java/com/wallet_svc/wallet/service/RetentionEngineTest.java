@@ -0,0 +1,157 @@
+package com.wallet_svc.wallet.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.wallet_svc.wallet.entity.ProcessedEvent;
+import com.wallet_svc.wallet.entity.RetentionCheckpoint;
+import com.wallet_svc.wallet.repository.ProcessedEventRepository;
+import com.wallet_svc.wallet.repository.RetentionCheckpointRepository;
+import com.wallet_svc.wallet.repository.ReturningStatementExecutor;
+import com.wallet_svc.wallet.service.RetentionEngine.RetentionJob;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Chunked retention deletes only expired rows, commits progress and resumes from it
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({RetentionEngine.class, ReturningStatementExecutor.class, SimpleMeterRegistry.class})
+@TestPropertySource(properties = {"wallet.retention.chunk-size=5", "wallet.retention.pause-ms=0"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RetentionEngineTest {
+
+    @Autowired
+    RetentionEngine retentionEngine;
+
+    @Autowired
+    ProcessedEventRepository processedEventRepository;
+
+    @Autowired
+    RetentionCheckpointRepository checkpointRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void purgeDeletesExpiredRowsAcrossChunks() {
+        String eventType = "retention-" + UUID.randomUUID();
+        RetentionJob job = job(eventType);
+        List<ProcessedEvent> expired = save(eventType, 12, LocalDateTime.now().minusDays(40));
+        List<ProcessedEvent> recent = save(eventType, 2, LocalDateTime.now());
+
+        long deleted = retentionEngine.purge(job, LocalDateTime.now().minusDays(30));
+
+        assertThat(deleted).isEqualTo(12);
+        assertThat(processedEventRepository.findAllById(ids(expired))).isEmpty();
+        assertThat(processedEventRepository.findAllById(ids(recent))).hasSize(2);
+        assertThat(checkpointRepository.findById(job.name())).isEmpty();
+        assertThat(meterRegistry
+                        .get("wallet.retention.deleted")
+                        .tag("job", job.name())
+                        .counter()
+                        .count())
+                .isEqualTo(12);
+        assertThat(meterRegistry
+                        .get("wallet.retention.backlog.ids")
+                        .tag("job", job.name())
+                        .gauge()
+                        .value())
+                .isZero();
+    }
+
+    @Test
+    void interruptedRunResumesAfterCheckpoint() {
+        String eventType = "retention-" + UUID.randomUUID();
+        RetentionJob job = job(eventType);
+        List<ProcessedEvent> expired = save(eventType, 10, LocalDateTime.now().minusDays(40));
+        ProcessedEvent lastSwept = expired.get(3);
+        // Left behind by a node that stopped renewing its lease an hour ago
+        checkpointRepository.save(RetentionCheckpoint.builder()
+                .jobName(job.name())
+                .lockedBy("crashed-node")
+                .lastId(lastSwept.getId())
+                .highWatermark(expired.get(9).getId())
+                .deletedRows(4L)
+                .startedAt(LocalDateTime.now().minusHours(2))
+                .updatedAt(LocalDateTime.now().minusHours(1))
+                .build());
+
+        long deleted = retentionEngine.purge(job, LocalDateTime.now().minusDays(30));
+
+        // Ids up to the checkpoint count as already swept
+        assertThat(deleted).isEqualTo(6);
+        assertThat(processedEventRepository.findAllById(ids(expired.subList(0, 4))))
+                .hasSize(4);
+        assertThat(processedEventRepository.findAllById(ids(expired.subList(4, 10))))
+                .isEmpty();
+        assertThat(checkpointRepository.findById(job.name())).isEmpty();
+    }
+
+    @Test
+    void jobLeasedByAnotherNodeIsSkipped() {
+        String eventType = "retention-" + UUID.randomUUID();
+        RetentionJob job = job(eventType);
+        List<ProcessedEvent> expired = save(eventType, 6, LocalDateTime.now().minusDays(40));
+        RetentionCheckpoint running = checkpointRepository.save(RetentionCheckpoint.builder()
+                .jobName(job.name())
+                .lockedBy("other-node")
+                .lastId(expired.get(0).getId())
+                .highWatermark(expired.get(5).getId())
+                .deletedRows(1L)
+                .startedAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build());
+
+        assertThat(retentionEngine.purge(job, LocalDateTime.now().minusDays(30)))
+                .isZero();
+
+        assertThat(processedEventRepository.findAllById(ids(expired))).hasSize(6);
+        assertThat(checkpointRepository.findById(job.name())).hasValueSatisfying(c -> {
+            assertThat(c.getLockedBy()).isEqualTo("other-node");
+            assertThat(c.getLastId()).isEqualTo(running.getLastId());
+        });
+    }
+
+    private static RetentionJob job(String eventType) {
+        return new RetentionJob(
+                eventType,
+                "processed_events",
+                "processed_at",
+                "event_type = '" + eventType + "' AND processed_at < :cutoff");
+    }
+
+    private List<ProcessedEvent> save(String eventType, int count, LocalDateTime processedAt) {
+        List<ProcessedEvent> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            events.add(processedEventRepository.save(ProcessedEvent.builder()
+                    .eventId(UUID.randomUUID().toString())
+                    .eventType(eventType)
+                    .processedAt(processedAt)
+                    .processingResult("SUCCESS")
+                    .build()));
+        }
+        return events;
+    }
+
+    private static List<Long> ids(List<ProcessedEvent> events) {
+        return events.stream().map(ProcessedEvent::getId).toList();
+    }
+}
@@ -0,0 +1,182 @@
+package com.wallet_svc.wallet.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.wallet_svc.wallet.constant.TransactionStatus;
+import com.wallet_svc.wallet.constant.TransactionType;
+import com.wallet_svc.wallet.dto.request.ChargeRequest;
+import com.wallet_svc.wallet.dto.request.TopUpRequest;
+import com.wallet_svc.wallet.dto.response.SpendSummaryResponse;
+import com.wallet_svc.wallet.dto.response.SpendSummaryResponse.SpendSummaryItem;
+import com.wallet_svc.wallet.entity.Wallet;
+import com.wallet_svc.wallet.entity.WalletTransaction;
+import com.wallet_svc.wallet.event.producer.WalletEventProducer;
+import com.wallet_svc.wallet.exception.AppException;
+import com.wallet_svc.wallet.exception.ErrorCode;
+import com.wallet_svc.wallet.repository.WalletDailySummaryRepository;
+import com.wallet_svc.wallet.repository.WalletRepository;
+import com.wallet_svc.wallet.service.impl.WalletServiceSlice;
+
+/**
+ * Ledger inserts keep the daily buckets exact, and summaries are read from the buckets only
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({WalletServiceSlice.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SpendSummaryServiceTest {
+
+    @Autowired
+    SpendSummaryService spendSummaryService;
+
+    @Autowired
+    WalletService walletService;
+
+    @Autowired
+    WalletRepository walletRepository;
+
+    @Autowired
+    WalletDailySummaryRepository summaryRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @MockBean
+    WalletEventProducer walletEventProducer;
+
+    @Test
+    void ledgerInsertsAreSummedPerTypeAndReferenceType() {
+        String userId = newWallet();
+        walletService.topUp(TopUpRequest.builder()
+                .userId(userId)
+                .amount(new BigDecimal("10.00"))
+                .referenceType("PAYMENT")
+                .referenceId("payment-1")
+                .build());
+        charge(userId, "2.00", "AI_GENERATION");
+        charge(userId, "1.50", "AI_GENERATION");
+        charge(userId, "1.00", "SUBSCRIPTION");
+
+        SpendSummaryResponse summary = spendSummaryService.getSummary(userId, null, null, null);
+
+        assertThat(summary.getFrom()).isEqualTo(LocalDate.now().withDayOfMonth(1));
+        assertThat(summary.getTo()).isEqualTo(LocalDate.now());
+        assertThat(summary.getItems())
+                .extracting(
+                        SpendSummaryItem::getTransactionType,
+                        SpendSummaryItem::getReferenceType,
+                        item -> item.getTotalAmount().stripTrailingZeros().toPlainString(),
+                        SpendSummaryItem::getCount)
+                .containsExactly(
+                        tuple(TransactionType.CHARGE, "AI_GENERATION", "3.5", 2L),
+                        tuple(TransactionType.CHARGE, "SUBSCRIPTION", "1", 1L),
+                        tuple(TransactionType.TOP_UP, "PAYMENT", "10", 1L));
+
+        // Three buckets for five operations: the summary never reads the ledger
+        Long walletId = walletRepository.findByUserId(userId).orElseThrow().getId();
+        assertThat(summaryRepository.findByWalletIdAndSummaryDateBetween(walletId, LocalDate.now(), LocalDate.now()))
+                .hasSize(3);
+
+        assertThat(spendSummaryService
+                        .getSummary(userId, null, null, TransactionType.TOP_UP)
+                        .getItems())
+                .singleElement()
+                .satisfies(item -> assertThat(item.getTotalAmount()).isEqualByComparingTo("10.00"));
+    }
+
+    @Test
+    void recordAllAddsOneBucketPerDayAndSkipsUnsuccessfulRows() {
+        String userId = newWallet();
+        Long walletId = walletRepository.findByUserId(userId).orElseThrow().getId();
+        LocalDateTime today = LocalDateTime.now();
+        LocalDateTime yesterday = today.minusDays(1);
+
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> spendSummaryService.recordAll(List.of(
+                        release(walletId, "1.00", today, TransactionStatus.SUCCESS),
+                        release(walletId, "2.00", today, TransactionStatus.SUCCESS),
+                        release(walletId, "4.00", yesterday, TransactionStatus.SUCCESS),
+                        release(walletId, "8.00", today, TransactionStatus.FAILED))));
+
+        assertThat(summaryRepository.findByWalletIdAndSummaryDateBetween(
+                        walletId, yesterday.toLocalDate(), today.toLocalDate()))
+                .extracting(
+                        row -> row.getSummaryDate(),
+                        row -> row.getTotalAmount().stripTrailingZeros().toPlainString(),
+                        row -> row.getTxCount())
+                .containsExactlyInAnyOrder(
+                        tuple(today.toLocalDate(), "3", 2L), tuple(yesterday.toLocalDate(), "4", 1L));
+
+        SpendSummaryResponse summary =
+                spendSummaryService.getSummary(userId, yesterday.toLocalDate(), today.toLocalDate(), null);
+        assertThat(summary.getItems()).singleElement().satisfies(item -> {
+            assertThat(item.getReferenceType()).isEqualTo("HOLD");
+            assertThat(item.getTotalAmount()).isEqualByComparingTo("7.00");
+            assertThat(item.getCount()).isEqualTo(3);
+        });
+    }
+
+    @Test
+    void rangeMustBeOrderedAndBounded() {
+        String userId = newWallet();
+        LocalDate today = LocalDate.now();
+
+        assertThatThrownBy(() -> spendSummaryService.getSummary(userId, today, today.minusDays(1), null))
+                .isInstanceOfSatisfying(AppException.class, e -> assertThat(e.getErrorCode())
+                        .isEqualTo(ErrorCode.INVALID_SUMMARY_RANGE));
+        assertThatThrownBy(() -> spendSummaryService.getSummary(userId, today.minusYears(2), today, null))
+                .isInstanceOfSatisfying(AppException.class, e -> assertThat(e.getErrorCode())
+                        .isEqualTo(ErrorCode.INVALID_SUMMARY_RANGE));
+    }
+
+    private void charge(String userId, String amount, String referenceType) {
+        walletService.charge(ChargeRequest.builder()
+                .userId(userId)
+                .amount(new BigDecimal(amount))
+                .referenceType(referenceType)
+                .referenceId("summary-" + UUID.randomUUID())
+                .build());
+    }
+
+    private static WalletTransaction release(Long walletId, String amount, LocalDateTime createdAt, String status) {
+        return WalletTransaction.builder()
+                .walletId(walletId)
+                .transactionType(TransactionType.RELEASE)
+                .amount(new BigDecimal(amount))
+                .referenceType("HOLD")
+                .status(status)
+                .createdAt(createdAt)
+                .build();
+    }
+
+    private String newWallet() {
+        String userId = "user-" + UUID.randomUUID();
+        walletRepository.save(Wallet.builder()
+                .userId(userId)
+                .balance(BigDecimal.ZERO)
+                .token(0)
+                .build());
+        return userId;
+    }
+}
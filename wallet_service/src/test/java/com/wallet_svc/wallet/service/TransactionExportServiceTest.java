@@ -0,0 +1,209 @@
+package com.wallet_svc.wallet.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wallet_svc.wallet.constant.TransactionStatus;
+import com.wallet_svc.wallet.constant.TransactionType;
+import com.wallet_svc.wallet.entity.Wallet;
+import com.wallet_svc.wallet.entity.WalletTransaction;
+import com.wallet_svc.wallet.exception.AppException;
+import com.wallet_svc.wallet.exception.ErrorCode;
+import com.wallet_svc.wallet.repository.ReturningStatementExecutor;
+import com.wallet_svc.wallet.repository.WalletRepository;
+import com.wallet_svc.wallet.repository.WalletTransactionRepository;
+import com.wallet_svc.wallet.service.TransactionExportService.Filter;
+import com.wallet_svc.wallet.service.TransactionExportService.Format;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Exports stream the filtered ledger rows in order, with CSV quoting, and are capped
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({
+    TransactionExportService.class,
+    ReturningStatementExecutor.class,
+    JacksonAutoConfiguration.class,
+    SimpleMeterRegistry.class
+})
+@TestPropertySource(properties = {"wallet.export.fetch-size=2", "wallet.export.max-concurrent=1"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransactionExportServiceTest {
+
+    @Autowired
+    TransactionExportService exportService;
+
+    @Autowired
+    WalletRepository walletRepository;
+
+    @Autowired
+    WalletTransactionRepository transactionRepository;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void walletExportStreamsFilteredRowsInOrderAsNdjson() throws Exception {
+        Long walletId = newWallet("user-" + UUID.randomUUID());
+        LocalDateTime day = LocalDateTime.now().minusDays(3);
+        transactionRepository.saveAll(List.of(
+                tx(walletId, TransactionType.CHARGE, "2.00", day.plusHours(2), "second"),
+                tx(walletId, TransactionType.CHARGE, "1.50", day.plusHours(1), "first"),
+                tx(walletId, TransactionType.TOP_UP, "10.00", day.plusHours(3), "top-up"),
+                tx(walletId, TransactionType.CHARGE, "9.00", day.minusDays(2), "before range")));
+        String userId = walletRepository.findById(walletId).orElseThrow().getUserId();
+
+        List<String> lines = export(
+                        new Filter(userId, day.toLocalDate(), day.toLocalDate(), TransactionType.CHARGE), Format.NDJSON)
+                .lines()
+                .toList();
+
+        assertThat(lines).hasSize(2);
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertThat(first.get("description").asText()).isEqualTo("first");
+        assertThat(first.get("amount").decimalValue()).isEqualByComparingTo("1.50");
+        assertThat(first.get("wallet_id").asLong()).isEqualTo(walletId);
+        assertThat(first.get("reference_type").isNull()).isTrue();
+        assertThat(objectMapper.readTree(lines.get(1)).get("description").asText())
+                .isEqualTo("second");
+    }
+
+    @Test
+    void globalExportWritesQuotedCsvWithHeader() throws Exception {
+        Long walletId = newWallet("user-" + UUID.randomUUID());
+        // A day no other test writes to, so the global export only sees these rows
+        LocalDateTime day = LocalDateTime.of(1999, 1, 2, 10, 0);
+        transactionRepository.saveAll(List.of(
+                tx(walletId, TransactionType.CHARGE, "1.00", day, "plain"),
+                tx(walletId, TransactionType.CHARGE, "2.00", day.plusMinutes(1), "comma, \"quote\"\nnewline")));
+
+        String csv = export(new Filter(null, day.toLocalDate(), day.toLocalDate(), null), Format.CSV);
+
+        assertThat(csv)
+                .startsWith("id,wallet_id,transaction_type,amount,token_before,token_after,reference_type,"
+                        + "reference_id,description,status,balance_before,balance_after,related_transaction_id,"
+                        + "processed_at,created_at\r\n")
+                .contains(",CHARGE,1.00,,,,,plain,SUCCESS,")
+                .contains(",\"comma, \"\"quote\"\"\nnewline\",SUCCESS,");
+        assertThat(csv.split("\r\n")).hasSize(3);
+    }
+
+    @Test
+    void emptyCsvExportStillHasItsHeader() throws Exception {
+        LocalDate nothing = LocalDate.of(1999, 12, 31);
+
+        String csv = export(new Filter(null, nothing, nothing, null), Format.CSV);
+
+        assertThat(csv).startsWith("id,wallet_id,").endsWith(",created_at\r\n");
+        assertThat(csv.split("\r\n")).hasSize(1);
+    }
+
+    @Test
+    void exportCutOffPartWayIsCounted() {
+        LocalDate nothing = LocalDate.of(1999, 12, 31);
+        OutputStream gone = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+        double before = aborted();
+
+        assertThatThrownBy(() -> exportService
+                        .export(new Filter(null, nothing, nothing, null), Format.CSV)
+                        .writeTo(gone))
+                .isInstanceOf(IOException.class);
+        assertThat(aborted()).isEqualTo(before + 1);
+    }
+
+    @Test
+    void rejectsUnknownWalletInvalidRangeAndTooManyExports() throws Exception {
+        LocalDate today = LocalDate.now();
+        assertThatThrownBy(() ->
+                        exportService.export(new Filter("missing-" + UUID.randomUUID(), null, null, null), Format.CSV))
+                .isInstanceOfSatisfying(
+                        AppException.class, e -> assertThat(e.getErrorCode()).isEqualTo(ErrorCode.WALLET_NOT_FOUND));
+        assertThatThrownBy(() -> exportService.export(new Filter(null, today, today.minusDays(1), null), Format.CSV))
+                .isInstanceOfSatisfying(AppException.class, e -> assertThat(e.getErrorCode())
+                        .isEqualTo(ErrorCode.INVALID_EXPORT_RANGE));
+        assertThatThrownBy(() -> Format.parse("xml"))
+                .isInstanceOfSatisfying(AppException.class, e -> assertThat(e.getErrorCode())
+                        .isEqualTo(ErrorCode.INVALID_EXPORT_FORMAT));
+
+        // The only slot is held until the first body has been written
+        Filter filter = new Filter(null, today.plusYears(50), today.plusYears(50), null);
+        var pending = exportService.export(filter, Format.NDJSON);
+        assertThatThrownBy(() -> exportService.export(filter, Format.NDJSON))
+                .isInstanceOfSatisfying(
+                        AppException.class, e -> assertThat(e.getErrorCode()).isEqualTo(ErrorCode.EXPORT_BUSY));
+        pending.writeTo(new ByteArrayOutputStream());
+        exportService.export(filter, Format.NDJSON).writeTo(new ByteArrayOutputStream());
+    }
+
+    private double aborted() {
+        Counter counter = meterRegistry
+                .find("wallet.export.aborted")
+                .tags("format", "csv", "reason", "error")
+                .counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private String export(Filter filter, Format format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(filter, format).writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static WalletTransaction tx(
+            Long walletId, String type, String amount, LocalDateTime createdAt, String description) {
+        return WalletTransaction.builder()
+                .walletId(walletId)
+                .transactionType(type)
+                .amount(new BigDecimal(amount))
+                .description(description)
+                .status(TransactionStatus.SUCCESS)
+                .createdAt(createdAt)
+                .build();
+    }
+
+    private Long newWallet(String userId) {
+        return walletRepository
+                .save(Wallet.builder()
+                        .userId(userId)
+                        .balance(BigDecimal.ZERO)
+                        .token(0)
+                        .build())
+                .getId();
+    }
+}
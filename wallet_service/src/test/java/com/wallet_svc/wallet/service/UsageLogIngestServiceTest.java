@@ -0,0 +1,166 @@
+package com.wallet_svc.wallet.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verify;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.wallet_svc.wallet.dto.request.UsageLogRequest;
+import com.wallet_svc.wallet.entity.CreditUsageLog;
+import com.wallet_svc.wallet.event.producer.WalletEventProducer;
+import com.wallet_svc.wallet.exception.AppException;
+import com.wallet_svc.wallet.exception.ErrorCode;
+import com.wallet_svc.wallet.repository.CreditUsageLogRepository;
+import com.wallet_svc.wallet.repository.ReturningStatementExecutor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Bounded buffering, batched flushes with one credits_used event per user and service,
+ * and draining on stop
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({UsageLogIngestService.class, ReturningStatementExecutor.class, SimpleMeterRegistry.class})
+@TestPropertySource(
+        properties = {
+            "wallet.usage-log.enabled=false",
+            "wallet.usage-log.buffer-capacity=10",
+            "wallet.usage-log.batch-size=3",
+            "wallet.usage-log.flush-interval-ms=20",
+            "wallet.usage-log.offer-timeout-ms=10"
+        })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UsageLogIngestServiceTest {
+
+    @Autowired
+    UsageLogIngestService usageLogIngestService;
+
+    @Autowired
+    CreditUsageLogRepository creditUsageLogRepository;
+
+    @MockBean
+    WalletEventProducer walletEventProducer;
+
+    @Test
+    void flushWritesOneBatchAndOneEventPerUserAndService() throws Exception {
+        String userId = "user-" + UUID.randomUUID();
+        usageLogIngestService.submit(List.of(
+                usage(userId, "AI_SLIDE", 2, "lesson-1"),
+                usage(userId, "AI_SLIDE", 3, "lesson-1"),
+                usage(userId, "AI_QUIZ", 1, "quiz-1"),
+                usage(userId, "AI_SLIDE", 4, "lesson-2")));
+
+        // Batch size 3: the fourth record waits for the next flush
+        assertThat(usageLogIngestService.flushOnce(0)).isEqualTo(3);
+        assertThat(creditUsageLogRepository.findByUserIdOrderByCreatedAtAscIdAsc(userId))
+                .extracting(CreditUsageLog::getCreditsUsed)
+                .containsExactly(2, 3, 1);
+        verify(walletEventProducer)
+                .publishCreditsUsedEvent(userId, "AI_SLIDE", BigDecimal.valueOf(5), "lesson-1", "{\"records\":2}");
+        verify(walletEventProducer)
+                .publishCreditsUsedEvent(userId, "AI_QUIZ", BigDecimal.valueOf(1), "quiz-1", "{\"records\":1}");
+
+        assertThat(usageLogIngestService.flushOnce(0)).isEqualTo(1);
+        assertThat(usageLogIngestService.flushOnce(0)).isZero();
+        assertThat(creditUsageLogRepository.findByUserIdOrderByCreatedAtAscIdAsc(userId))
+                .hasSize(4);
+    }
+
+    @Test
+    void fullBufferRejectsWholeRequestsUntilRecordsAreWritten() throws Exception {
+        String userId = "user-" + UUID.randomUUID();
+        List<UsageLogRequest> fill = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            fill.add(usage(userId, "STORAGE", 1, null));
+        }
+        usageLogIngestService.submit(fill);
+
+        // One slot left: a request of two is rejected as a whole
+        assertThatThrownBy(() -> usageLogIngestService.submit(
+                        List.of(usage(userId, "STORAGE", 1, null), usage(userId, "STORAGE", 1, null))))
+                .isInstanceOfSatisfying(AppException.class, e -> assertThat(e.getErrorCode())
+                        .isEqualTo(ErrorCode.USAGE_LOG_BUFFER_FULL));
+        assertThatThrownBy(() -> usageLogIngestService.submit(List.of(usage(userId, "STORAGE", 0, null))))
+                .isInstanceOfSatisfying(
+                        AppException.class, e -> assertThat(e.getErrorCode()).isEqualTo(ErrorCode.INVALID_USAGE_LOG));
+
+        usageLogIngestService.flushOnce(0);
+        assertThat(usageLogIngestService.submit(
+                        List.of(usage(userId, "STORAGE", 1, null), usage(userId, "STORAGE", 1, null))))
+                .isEqualTo(2);
+
+        while (usageLogIngestService.flushOnce(0) > 0) {
+            // drain
+        }
+        assertThat(creditUsageLogRepository.findByUserIdOrderByCreatedAtAscIdAsc(userId))
+                .hasSize(11);
+    }
+
+    @Test
+    void runningFlushersWriteEverythingAndStopDrainsTheRest() throws Exception {
+        String userId = "user-" + UUID.randomUUID();
+        usageLogIngestService.start();
+        try {
+            // Twice the capacity: later submits are rejected until earlier batches are written
+            for (int i = 0; i < 20; i++) {
+                List<UsageLogRequest> request = List.of(usage(userId, "AI_WORKSHEET", 1, "sheet-" + i));
+                while (true) {
+                    try {
+                        usageLogIngestService.submit(request);
+                        break;
+                    } catch (AppException e) {
+                        assertThat(e.getErrorCode()).isEqualTo(ErrorCode.USAGE_LOG_BUFFER_FULL);
+                    }
+                }
+            }
+        } finally {
+            usageLogIngestService.stop();
+        }
+
+        assertThat(usageLogIngestService.isRunning()).isFalse();
+        assertThat(creditUsageLogRepository.findByUserIdOrderByCreatedAtAscIdAsc(userId))
+                .hasSize(20);
+    }
+
+    @Test
+    void writeNowCommitsBeforeReturningWithoutTheBuffer() throws Exception {
+        String userId = "user-" + UUID.randomUUID();
+
+        usageLogIngestService.writeNow(
+                List.of(usage(userId, "AI_SLIDE", 2, "lesson-1"), usage(userId, "AI_SLIDE", 1, "lesson-1")));
+
+        assertThat(creditUsageLogRepository.findByUserIdOrderByCreatedAtAscIdAsc(userId))
+                .extracting(CreditUsageLog::getCreditsUsed)
+                .containsExactly(2, 1);
+        verify(walletEventProducer)
+                .publishCreditsUsedEvent(userId, "AI_SLIDE", BigDecimal.valueOf(3), "lesson-1", "{\"records\":2}");
+        assertThat(usageLogIngestService.flushOnce(0)).isZero();
+    }
+
+    private static UsageLogRequest usage(String userId, String serviceType, int credits, String resourceId) {
+        return UsageLogRequest.builder()
+                .userId(userId)
+                .serviceType(serviceType)
+                .action("generate")
+                .resourceId(resourceId)
+                .creditsUsed(credits)
+                .build();
+    }
+}
@@ -0,0 +1,111 @@
+package com.wallet_svc.wallet.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.wallet_svc.wallet.dto.request.ChargeRequest;
+import com.wallet_svc.wallet.dto.response.BatchItemResult;
+import com.wallet_svc.wallet.dto.response.BatchResponse;
+import com.wallet_svc.wallet.dto.response.TransactionResponse;
+import com.wallet_svc.wallet.entity.Wallet;
+import com.wallet_svc.wallet.event.producer.WalletEventProducer;
+import com.wallet_svc.wallet.exception.ErrorCode;
+import com.wallet_svc.wallet.repository.WalletRepository;
+import com.wallet_svc.wallet.repository.WalletTransactionRepository;
+import com.wallet_svc.wallet.service.impl.WalletServiceImpl;
+import com.wallet_svc.wallet.service.impl.WalletServiceSlice;
+
+/**
+ * A failing operation must only fail itself: the rest of its wallet group is still applied
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({WalletServiceSlice.class, WalletMutationSerializer.class, WalletBatchServiceTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WalletBatchServiceTest {
+
+    @Autowired
+    WalletBatchService walletBatchService;
+
+    @Autowired
+    WalletRepository walletRepository;
+
+    @Autowired
+    WalletTransactionRepository transactionRepository;
+
+    @MockBean
+    WalletEventProducer walletEventProducer;
+
+    @Test
+    void chargesAreGroupedPerWalletAndFailIndividually() {
+        String first = newWallet(new BigDecimal("3.00"));
+        String second = newWallet(new BigDecimal("10.00"));
+
+        BatchResponse<TransactionResponse> response = walletBatchService.charge(List.of(
+                charge(first, "1.00"),
+                charge(second, "2.00"),
+                charge(first, "5.00"),
+                charge(first, "1.00"),
+                charge(second, "2.00")));
+
+        assertThat(response.getSucceeded()).isEqualTo(4);
+        assertThat(response.getFailed()).isEqualTo(1);
+        assertThat(response.getResults()).extracting(BatchItemResult::getIndex).containsExactly(0, 1, 2, 3, 4);
+        assertThat(response.getResults())
+                .extracting(BatchItemResult::isSuccess)
+                .containsExactly(true, true, false, true, true);
+        assertThat(response.getResults().get(2).getCode()).isEqualTo(ErrorCode.INSUFFICIENT_BALANCE.getCode());
+
+        Wallet firstWallet = walletRepository.findByUserId(first).orElseThrow();
+        Wallet secondWallet = walletRepository.findByUserId(second).orElseThrow();
+        assertThat(firstWallet.getBalance()).isEqualByComparingTo("1.00");
+        assertThat(secondWallet.getBalance()).isEqualByComparingTo("6.00");
+        assertThat(transactionRepository.findByWalletIdOrderByCreatedAtDescIdDesc(firstWallet.getId(), Limit.of(10)))
+                .hasSize(2);
+    }
+
+    private String newWallet(BigDecimal balance) {
+        String userId = "user-" + UUID.randomUUID();
+        walletRepository.save(
+                Wallet.builder().userId(userId).balance(balance).token(0).build());
+        return userId;
+    }
+
+    private static ChargeRequest charge(String userId, String amount) {
+        return ChargeRequest.builder()
+                .userId(userId)
+                .amount(new BigDecimal(amount))
+                .referenceType("TEST")
+                .referenceId("batch-charge")
+                .build();
+    }
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        WalletBatchService walletBatchService(
+                WalletServiceImpl walletService,
+                WalletMutationSerializer serializer,
+                PlatformTransactionManager transactionManager) {
+            return new WalletBatchService(walletService, serializer, transactionManager, 500);
+        }
+    }
+}
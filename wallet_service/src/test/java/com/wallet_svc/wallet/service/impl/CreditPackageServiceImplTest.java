@@ -0,0 +1,150 @@
+package com.wallet_svc.wallet.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.wallet_svc.wallet.dto.request.CreditPackageRequest;
+import com.wallet_svc.wallet.dto.response.CreditPackageResponse;
+import com.wallet_svc.wallet.entity.CreditPackage;
+import com.wallet_svc.wallet.exception.AppException;
+import com.wallet_svc.wallet.exception.ErrorCode;
+import com.wallet_svc.wallet.mapper.CreditPackageMapperImpl;
+import com.wallet_svc.wallet.repository.CreditPackageRepository;
+import com.wallet_svc.wallet.repository.ReturningStatementExecutor;
+import com.wallet_svc.wallet.service.CreditPackageService.Catalog;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Validity and order are evaluated in memory, and the snapshot and its validators follow
+ * local edits and other nodes' writes
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({
+    CreditPackageServiceImpl.class,
+    CreditPackageMapperImpl.class,
+    ReturningStatementExecutor.class,
+    JacksonAutoConfiguration.class,
+    SimpleMeterRegistry.class
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CreditPackageServiceImplTest {
+
+    @Autowired
+    CreditPackageServiceImpl creditPackageService;
+
+    @Autowired
+    CreditPackageRepository creditPackageRepository;
+
+    @Test
+    void validityWindowAndDisplayOrderAreEvaluatedPerDay() {
+        String prefix = "p-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+        LocalDate day = LocalDate.of(2030, 6, 15);
+        creditPackageService.createPackage(request(prefix + "later", 2, null, null, true));
+        creditPackageService.createPackage(request(prefix + "first", 1, null, null, true));
+        creditPackageService.createPackage(request(prefix + "summer", 0, day, day.plusDays(1), true));
+        creditPackageService.createPackage(request(prefix + "off", 0, null, null, false));
+
+        assertThat(codes(creditPackageService.view(day.minusDays(1)).catalog(), prefix))
+                .containsExactly(prefix + "first", prefix + "later");
+        assertThat(codes(creditPackageService.view(day).catalog(), prefix))
+                .containsExactly(prefix + "summer", prefix + "first", prefix + "later");
+        assertThat(codes(creditPackageService.view(day.plusDays(2)).catalog(), prefix))
+                .containsExactly(prefix + "first", prefix + "later");
+
+        // Crossing a validity boundary changes the list, so both validators move
+        Catalog before = creditPackageService.view(day.minusDays(1)).catalog();
+        Catalog during = creditPackageService.view(day).catalog();
+        assertThat(during.etag()).isNotEqualTo(before.etag());
+        assertThat(during.lastModified()).isGreaterThanOrEqualTo(before.lastModified());
+        assertThat(creditPackageService.getAllPackages().stream()
+                        .filter(p -> p.getCode().startsWith(prefix)))
+                .hasSize(4);
+    }
+
+    @Test
+    void adminEditsReplaceTheSnapshotAndTheEtag() {
+        String code = "edit-" + UUID.randomUUID();
+        LocalDate today = LocalDate.now();
+        CreditPackageResponse created = creditPackageService.createPackage(request(code, 5, null, null, true));
+        Catalog first = creditPackageService.view(today).catalog();
+        assertThat(creditPackageService.view(today).catalog()).isSameAs(first);
+        assertThat(creditPackageService.getPackageById(created.getId()).getCode())
+                .isEqualTo(code);
+
+        CreditPackageRequest update = request(code, 5, null, null, false);
+        creditPackageService.updatePackage(created.getId(), update);
+
+        Catalog second = creditPackageService.view(today).catalog();
+        assertThat(second.etag()).isNotEqualTo(first.etag());
+        assertThatThrownBy(() -> creditPackageService.getPackageById(created.getId()))
+                .isInstanceOfSatisfying(
+                        AppException.class, e -> assertThat(e.getErrorCode()).isEqualTo(ErrorCode.PACKAGE_NOT_FOUND));
+        assertThatThrownBy(() -> creditPackageService.createPackage(request(code, 1, null, null, true)))
+                .isInstanceOfSatisfying(
+                        AppException.class, e -> assertThat(e.getErrorCode()).isEqualTo(ErrorCode.PACKAGE_CODE_EXISTS));
+        assertThatThrownBy(() ->
+                        creditPackageService.createPackage(request(code + "-x", 1, today, today.minusDays(1), true)))
+                .isInstanceOfSatisfying(AppException.class, e -> assertThat(e.getErrorCode())
+                        .isEqualTo(ErrorCode.INVALID_PACKAGE_VALIDITY));
+    }
+
+    @Test
+    void refreshPicksUpWritesFromOtherNodesOnly() {
+        LocalDate today = LocalDate.now();
+        Catalog loaded = creditPackageService.view(today).catalog();
+
+        creditPackageService.refreshIfChanged();
+        assertThat(creditPackageService.view(today).catalog()).isSameAs(loaded);
+
+        // Written behind the service's back, as another node would
+        String code = "remote-" + UUID.randomUUID();
+        creditPackageRepository.save(CreditPackage.builder()
+                .code(code)
+                .name("Remote")
+                .creditsAmount(10)
+                .updatedAt(LocalDateTime.now())
+                .build());
+        assertThat(codes(creditPackageService.view(today).catalog(), code)).isEmpty();
+
+        creditPackageService.refreshIfChanged();
+        assertThat(codes(creditPackageService.view(today).catalog(), code)).containsExactly(code);
+    }
+
+    private static List<String> codes(Catalog catalog, String prefix) {
+        return catalog.packages().stream()
+                .map(CreditPackageResponse::getCode)
+                .filter(code -> code.startsWith(prefix))
+                .toList();
+    }
+
+    private static CreditPackageRequest request(
+            String code, int displayOrder, LocalDate validFrom, LocalDate validTo, boolean active) {
+        return CreditPackageRequest.builder()
+                .code(code)
+                .name(code)
+                .creditsAmount(100)
+                .displayOrder(displayOrder)
+                .validFrom(validFrom)
+                .validTo(validTo)
+                .isActive(active)
+                .build();
+    }
+}
@@ -0,0 +1,268 @@
+package com.wallet_svc.wallet.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.wallet_svc.wallet.dto.request.HoldRequest;
+import com.wallet_svc.wallet.dto.request.ReleaseHoldRequest;
+import com.wallet_svc.wallet.dto.request.TopUpRequest;
+import com.wallet_svc.wallet.entity.Wallet;
+import com.wallet_svc.wallet.entity.WalletTransaction;
+import com.wallet_svc.wallet.event.producer.WalletEventProducer;
+import com.wallet_svc.wallet.exception.AppException;
+import com.wallet_svc.wallet.exception.ErrorCode;
+import com.wallet_svc.wallet.repository.WalletHoldRepository;
+import com.wallet_svc.wallet.repository.WalletRepository;
+import com.wallet_svc.wallet.repository.WalletTransactionRepository;
+import com.wallet_svc.wallet.service.WalletMutationSerializer;
+import com.wallet_svc.wallet.service.WalletService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * The striped lock in front of WalletServiceImpl: one thread holds a wallet's stripe while
+ * others queue behind it, time out, or run past it on another stripe
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({WalletServiceSlice.class, WalletMutationSerializer.class, SerializedWalletServiceTest.Config.class})
+@TestPropertySource(properties = {"wallet.serializer.stripes=8", "wallet.serializer.max-wait-ms=1000"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SerializedWalletServiceTest {
+
+    /**
+     * An @Import'ed WalletServiceImpl is registered under its class name, so the
+     * "walletServiceImpl" qualifier the decorator's constructor uses does not resolve here
+     */
+    @TestConfiguration
+    static class Config {
+        @Bean
+        @Primary
+        SerializedWalletService serializedWalletService(
+                WalletServiceImpl delegate, WalletMutationSerializer serializer, WalletHoldRepository holdRepository) {
+            return new SerializedWalletService(delegate, serializer, holdRepository);
+        }
+    }
+
+    @Autowired
+    WalletService walletService;
+
+    @Autowired
+    WalletMutationSerializer serializer;
+
+    @Autowired
+    WalletRepository walletRepository;
+
+    @Autowired
+    WalletTransactionRepository transactionRepository;
+
+    @Autowired
+    WalletHoldRepository holdRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @MockBean
+    WalletEventProducer walletEventProducer;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void sameWalletMutationsQueueInArrivalOrder() throws Exception {
+        String userId = newWallet();
+        String stripe = stripeOf(userId);
+        holdStripe(userId);
+
+        Future<?> first = executor.submit(() -> walletService.topUp(topUp(userId, "first-" + userId)));
+        awaitQueueDepth(stripe, 1);
+        Future<?> second = executor.submit(() -> walletService.topUp(topUp(userId, "second-" + userId)));
+        awaitQueueDepth(stripe, 2);
+        assertThat(balance(userId)).isEqualByComparingTo("0.00");
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+
+        assertThat(transactionId("first-" + userId)).isLessThan(transactionId("second-" + userId));
+        assertThat(balance(userId)).isEqualByComparingTo("2.00");
+        assertThat(queueDepth(stripe)).isZero();
+        assertThat(waitTimer(stripe).max(TimeUnit.MILLISECONDS)).isPositive();
+    }
+
+    @Test
+    void walletsOnOtherStripesDoNotWait() throws Exception {
+        String blocked = newWallet();
+        String stripe = stripeOf(blocked);
+        String other = newWallet();
+        while (stripeOf(other).equals(stripe)) {
+            other = newWallet();
+        }
+        holdStripe(blocked);
+
+        String otherUser = other;
+        executor.submit(() -> walletService.topUp(topUp(otherUser, "other-" + otherUser)))
+                .get(5, TimeUnit.SECONDS);
+
+        assertThat(balance(other)).isEqualByComparingTo("1.00");
+        assertThat(queueDepth(stripe)).isZero();
+    }
+
+    @Test
+    void waitingPastMaxWaitIsWalletBusy() throws Exception {
+        String userId = newWallet();
+        holdStripe(userId);
+
+        assertThatThrownBy(() -> walletService.topUp(topUp(userId, "late-" + userId)))
+                .isInstanceOfSatisfying(
+                        AppException.class, e -> assertThat(e.getErrorCode()).isEqualTo(ErrorCode.WALLET_BUSY));
+        assertThat(balance(userId)).isEqualByComparingTo("0.00");
+    }
+
+    @Test
+    void releaseHoldQueuesOnTheOwnersStripe() throws Exception {
+        String userId = newWallet();
+        walletService.topUp(topUp(userId, "fund-" + userId));
+        walletService.holdCredits(HoldRequest.builder()
+                .userId(userId)
+                .amount(BigDecimal.ONE)
+                .referenceType("TEST")
+                .referenceId("hold-" + userId)
+                .build());
+        Long holdId = holdRepository
+                .findByReferenceTypeAndReferenceId("TEST", "hold-" + userId)
+                .get(0)
+                .getId();
+        String stripe = stripeOf(userId);
+        holdStripe(userId);
+
+        // The request carries only the hold id; the owner is looked up to pick the stripe
+        Future<?> released = executor.submit(() -> walletService.releaseHold(
+                ReleaseHoldRequest.builder().holdId(holdId).build()));
+        awaitQueueDepth(stripe, 1);
+        assertThat(holdRepository.findById(holdId).orElseThrow().getStatus()).isEqualTo("ACTIVE");
+
+        release.countDown();
+        released.get(5, TimeUnit.SECONDS);
+        assertThat(holdRepository.findById(holdId).orElseThrow().getStatus()).isEqualTo("RELEASED");
+    }
+
+    /**
+     * Take {@code userId}'s stripe on another thread until the test releases it
+     */
+    private void holdStripe(String userId) throws InterruptedException {
+        CountDownLatch held = new CountDownLatch(1);
+        executor.submit(() -> serializer.execute(userId, () -> {
+            held.countDown();
+            try {
+                return release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }));
+        assertThat(held.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    /**
+     * The stripe whose wait timer records a pass through the serializer for {@code userId}
+     */
+    private String stripeOf(String userId) {
+        Map<String, Long> before = new HashMap<>();
+        meterRegistry
+                .find("wallet.serializer.wait")
+                .timers()
+                .forEach(t -> before.put(t.getId().getTag("stripe"), t.count()));
+        serializer.execute(userId, () -> null);
+        return meterRegistry.find("wallet.serializer.wait").timers().stream()
+                .filter(t -> t.count() > before.get(t.getId().getTag("stripe")))
+                .map(t -> t.getId().getTag("stripe"))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private void awaitQueueDepth(String stripe, int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (queueDepth(stripe) < depth) {
+            assertThat(System.nanoTime())
+                    .as("queue depth %d on stripe %s", depth, stripe)
+                    .isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private double queueDepth(String stripe) {
+        return meterRegistry
+                .get("wallet.serializer.queue.depth")
+                .tag("stripe", stripe)
+                .gauge()
+                .value();
+    }
+
+    private Timer waitTimer(String stripe) {
+        return meterRegistry.get("wallet.serializer.wait").tag("stripe", stripe).timer();
+    }
+
+    private long transactionId(String referenceId) {
+        return transactionRepository.findByReferenceTypeAndReferenceId("TEST", referenceId).stream()
+                .map(WalletTransaction::getId)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private BigDecimal balance(String userId) {
+        return walletRepository.findByUserId(userId).orElseThrow().getBalance();
+    }
+
+    private String newWallet() {
+        return walletRepository
+                .save(Wallet.builder()
+                        .userId("user-" + UUID.randomUUID())
+                        .balance(new BigDecimal("0.00"))
+                        .token(0)
+                        .build())
+                .getUserId();
+    }
+
+    private static TopUpRequest topUp(String userId, String referenceId) {
+        return TopUpRequest.builder()
+                .userId(userId)
+                .amount(BigDecimal.ONE)
+                .referenceType("TEST")
+                .referenceId(referenceId)
+                .build();
+    }
+}
@@ -0,0 +1,128 @@
+package com.wallet_svc.wallet.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.wallet_svc.wallet.constant.TransactionStatus;
+import com.wallet_svc.wallet.constant.TransactionType;
+import com.wallet_svc.wallet.dto.response.CursorPage;
+import com.wallet_svc.wallet.dto.response.TransactionResponse;
+import com.wallet_svc.wallet.entity.Wallet;
+import com.wallet_svc.wallet.entity.WalletTransaction;
+import com.wallet_svc.wallet.exception.AppException;
+import com.wallet_svc.wallet.exception.ErrorCode;
+import com.wallet_svc.wallet.mapper.WalletMapperImpl;
+import com.wallet_svc.wallet.repository.ReturningStatementExecutor;
+import com.wallet_svc.wallet.repository.WalletRepository;
+import com.wallet_svc.wallet.repository.WalletTransactionRepository;
+import com.wallet_svc.wallet.service.ReadReplicaRouter;
+import com.wallet_svc.wallet.service.TransactionService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Keyset pagination must return every row exactly once, newest first, even when
+ * several rows share the same created_at
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({
+    TransactionServiceImpl.class,
+    WalletMapperImpl.class,
+    ReturningStatementExecutor.class,
+    ReadReplicaRouter.class,
+    SimpleMeterRegistry.class
+})
+class TransactionServiceImplTest {
+
+    @Autowired
+    TransactionService transactionService;
+
+    @Autowired
+    WalletRepository walletRepository;
+
+    @Autowired
+    WalletTransactionRepository transactionRepository;
+
+    @Test
+    void cursorWalksWholeHistoryWithoutGapsOrDuplicates() {
+        String userId = "user-" + UUID.randomUUID();
+        Wallet wallet = walletRepository.save(Wallet.builder()
+                .userId(userId)
+                .balance(BigDecimal.ZERO)
+                .token(0)
+                .build());
+        Wallet other = walletRepository.save(Wallet.builder()
+                .userId("user-" + UUID.randomUUID())
+                .balance(BigDecimal.ZERO)
+                .token(0)
+                .build());
+
+        // 25 rows in 5 timestamp groups, so ties on created_at are resolved by id
+        LocalDateTime base = LocalDateTime.of(2026, 1, 1, 12, 0);
+        for (int i = 0; i < 25; i++) {
+            transactionRepository.save(transaction(wallet.getId(), base.plusMinutes(i / 5)));
+            transactionRepository.save(transaction(other.getId(), base.plusMinutes(i / 5)));
+        }
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<TransactionResponse> page = transactionService.getMyTransactions(userId, cursor, 7);
+            page.getItems().forEach(item -> seen.add(item.getId()));
+            cursor = page.getNextCursor();
+            assertThat(page.isHasMore()).isEqualTo(cursor != null);
+            pages++;
+        } while (cursor != null);
+
+        List<Long> expected = transactionRepository.findAll().stream()
+                .filter(t -> t.getWalletId().equals(wallet.getId()))
+                .sorted((a, b) -> a.getCreatedAt().equals(b.getCreatedAt())
+                        ? b.getId().compareTo(a.getId())
+                        : b.getCreatedAt().compareTo(a.getCreatedAt()))
+                .map(WalletTransaction::getId)
+                .toList();
+        assertThat(seen).containsExactlyElementsOf(expected);
+        assertThat(pages).isEqualTo(4);
+
+        CursorPage<TransactionResponse> all = transactionService.getAllTransactions(null, 30);
+        assertThat(all.getItems()).hasSize(30);
+        assertThat(transactionService
+                        .getAllTransactions(all.getNextCursor(), 30)
+                        .getItems())
+                .hasSize(20);
+    }
+
+    @Test
+    void rejectsTamperedCursor() {
+        assertThatThrownBy(() -> transactionService.getAllTransactions("not-a-cursor", 10))
+                .isInstanceOf(AppException.class)
+                .extracting(e -> ((AppException) e).getErrorCode())
+                .isEqualTo(ErrorCode.INVALID_CURSOR);
+    }
+
+    private static WalletTransaction transaction(Long walletId, LocalDateTime createdAt) {
+        return WalletTransaction.builder()
+                .walletId(walletId)
+                .transactionType(TransactionType.TOP_UP)
+                .amount(BigDecimal.ONE)
+                .status(TransactionStatus.SUCCESS)
+                .createdAt(createdAt)
+                .build();
+    }
+}
@@ -0,0 +1,295 @@
+package com.wallet_svc.wallet.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.wallet_svc.wallet.constant.TransactionStatus;
+import com.wallet_svc.wallet.constant.TransactionType;
+import com.wallet_svc.wallet.dto.request.ChargeRequest;
+import com.wallet_svc.wallet.dto.request.HoldRequest;
+import com.wallet_svc.wallet.dto.request.TopUpRequest;
+import com.wallet_svc.wallet.entity.Wallet;
+import com.wallet_svc.wallet.entity.WalletTransaction;
+import com.wallet_svc.wallet.event.producer.WalletEventProducer;
+import com.wallet_svc.wallet.exception.AppException;
+import com.wallet_svc.wallet.exception.ErrorCode;
+import com.wallet_svc.wallet.repository.WalletHoldRepository;
+import com.wallet_svc.wallet.repository.WalletRepository;
+import com.wallet_svc.wallet.repository.WalletTransactionRepository;
+import com.wallet_svc.wallet.service.SpendSummaryService;
+import com.wallet_svc.wallet.service.WalletService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Concurrency checks for the guarded single-statement mutation path.
+ * Runs against in-memory H2 (PostgreSQL mode) with Kafka stubbed out.
+ */
+@Slf4j
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({WalletServiceSlice.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WalletServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int OPS_PER_THREAD = 250;
+
+    @Autowired
+    WalletService walletService;
+
+    @Autowired
+    WalletRepository walletRepository;
+
+    @Autowired
+    WalletTransactionRepository transactionRepository;
+
+    @Autowired
+    WalletHoldRepository holdRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    SpendSummaryService spendSummaryService;
+
+    @MockBean
+    WalletEventProducer walletEventProducer;
+
+    @Test
+    void concurrentChargesAndTopUpsLoseNoUpdates() throws Exception {
+        String userId = newWallet(new BigDecimal("1000.00"));
+
+        runConcurrently(THREADS, OPS_PER_THREAD, i -> {
+            if (i % 2 == 0) {
+                walletService.charge(charge(userId, BigDecimal.ONE));
+            } else {
+                walletService.topUp(topUp(userId, BigDecimal.ONE));
+            }
+        });
+
+        Wallet wallet = walletRepository.findByUserId(userId).orElseThrow();
+        int totalOps = THREADS * OPS_PER_THREAD;
+        assertThat(wallet.getBalance()).isEqualByComparingTo("1000.00");
+        assertThat(wallet.getTotalSpent()).isEqualByComparingTo(BigDecimal.valueOf(totalOps / 2));
+        assertThat(wallet.getTotalEarned()).isEqualByComparingTo(BigDecimal.valueOf(totalOps / 2));
+        assertThat(transactionRepository.count()).isGreaterThanOrEqualTo(totalOps);
+    }
+
+    @Test
+    void concurrentChargesNeverOverdraw() throws Exception {
+        String userId = newWallet(new BigDecimal("50.00"));
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(THREADS, 25, i -> {
+            try {
+                walletService.charge(charge(userId, BigDecimal.ONE));
+            } catch (AppException e) {
+                assertThat(e.getErrorCode()).isEqualTo(ErrorCode.INSUFFICIENT_BALANCE);
+                rejected.incrementAndGet();
+            }
+        });
+
+        Wallet wallet = walletRepository.findByUserId(userId).orElseThrow();
+        assertThat(wallet.getBalance()).isEqualByComparingTo("0.00");
+        assertThat(rejected.get()).isEqualTo(THREADS * 25 - 50);
+    }
+
+    @Test
+    void concurrentHoldsNeverLockMoreThanAvailable() throws Exception {
+        String userId = newWallet(new BigDecimal("20.00"));
+
+        runConcurrently(THREADS, 10, i -> {
+            try {
+                walletService.holdCredits(HoldRequest.builder()
+                        .userId(userId)
+                        .amount(BigDecimal.ONE)
+                        .referenceType("TEST")
+                        .referenceId("hold-" + i)
+                        .build());
+            } catch (AppException e) {
+                assertThat(e.getErrorCode()).isEqualTo(ErrorCode.INSUFFICIENT_BALANCE);
+            }
+        });
+
+        Wallet wallet = walletRepository.findByUserId(userId).orElseThrow();
+        assertThat(wallet.getLockedBalance()).isEqualByComparingTo("20.00");
+        assertThat(wallet.getBalance()).isEqualByComparingTo("20.00");
+    }
+
+    @Test
+    void chargeFromHoldCannotOverdraw() {
+        String userId = newWallet(new BigDecimal("20.00"));
+        walletService.holdCredits(HoldRequest.builder()
+                .userId(userId)
+                .amount(BigDecimal.TEN)
+                .referenceType("TEST")
+                .referenceId("overdraw-" + userId)
+                .build());
+        Long holdId = holdRepository
+                .findByReferenceTypeAndReferenceId("TEST", "overdraw-" + userId)
+                .get(0)
+                .getId();
+
+        // Hold 10 plus 10 still available: 30 is rejected and the hold stays active
+        assertThatThrownBy(() -> walletService.charge(charge(userId, new BigDecimal("30.00"), holdId)))
+                .isInstanceOfSatisfying(AppException.class, e -> assertThat(e.getErrorCode())
+                        .isEqualTo(ErrorCode.INSUFFICIENT_BALANCE));
+        assertThat(holdRepository.findById(holdId).orElseThrow().getStatus()).isEqualTo("ACTIVE");
+
+        walletService.charge(charge(userId, new BigDecimal("15.00"), holdId));
+        Wallet wallet = walletRepository.findByUserId(userId).orElseThrow();
+        assertThat(wallet.getBalance()).isEqualByComparingTo("5.00");
+        assertThat(wallet.getLockedBalance()).isEqualByComparingTo("0.00");
+    }
+
+    @Test
+    void guardedUpdateLosesNoUpdatesUnderContention() throws Exception {
+        BigDecimal initial = new BigDecimal("100000.00");
+        int totalOps = THREADS * OPS_PER_THREAD;
+
+        String legacyUser = newWallet(initial);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        AtomicInteger legacyFailures = new AtomicInteger();
+        long legacyNanos = runConcurrently(THREADS, OPS_PER_THREAD, i -> {
+            try {
+                tx.executeWithoutResult(status -> readModifyWriteCharge(legacyUser, BigDecimal.ONE));
+            } catch (RuntimeException e) {
+                legacyFailures.incrementAndGet();
+            }
+        });
+        BigDecimal legacyBalance =
+                walletRepository.findByUserId(legacyUser).orElseThrow().getBalance();
+        long legacyLost = (totalOps - legacyFailures.get())
+                - initial.subtract(legacyBalance).longValue();
+
+        String atomicUser = newWallet(initial);
+        long atomicNanos =
+                runConcurrently(THREADS, OPS_PER_THREAD, i -> walletService.charge(charge(atomicUser, BigDecimal.ONE)));
+        Wallet atomicWallet = walletRepository.findByUserId(atomicUser).orElseThrow();
+
+        // Throughput is informational only; the JMH benchmarks are where it is measured
+        double legacyOpsPerSec = totalOps * 1e9 / legacyNanos;
+        double atomicOpsPerSec = totalOps * 1e9 / atomicNanos;
+        log.info(
+                "Single-wallet charge throughput: read-modify-write {} ops/s ({} lost updates, {} failures),"
+                        + " guarded update {} ops/s",
+                String.format("%.0f", legacyOpsPerSec),
+                legacyLost,
+                legacyFailures.get(),
+                String.format("%.0f", atomicOpsPerSec));
+
+        assertThat(atomicWallet.getBalance()).isEqualByComparingTo(initial.subtract(BigDecimal.valueOf(totalOps)));
+        assertThat(atomicWallet.getTotalSpent()).isEqualByComparingTo(BigDecimal.valueOf(totalOps));
+    }
+
+    /**
+     * The pre-existing mutation shape: load, check in Java, mutate, save, insert ledger row
+     * (plus its daily summary bucket, like the guarded path)
+     */
+    private void readModifyWriteCharge(String userId, BigDecimal amount) {
+        Wallet wallet = walletRepository.findByUserId(userId).orElseThrow();
+        BigDecimal balanceBefore = wallet.getBalance();
+        if (balanceBefore.subtract(wallet.getLockedBalance()).compareTo(amount) < 0) {
+            throw new AppException(ErrorCode.INSUFFICIENT_BALANCE);
+        }
+        wallet.setBalance(balanceBefore.subtract(amount));
+        wallet.setTotalSpent(wallet.getTotalSpent().add(amount));
+        walletRepository.save(wallet);
+
+        WalletTransaction transaction = transactionRepository.save(WalletTransaction.builder()
+                .walletId(wallet.getId())
+                .transactionType(TransactionType.CHARGE)
+                .amount(amount)
+                .status(TransactionStatus.SUCCESS)
+                .balanceBefore(balanceBefore)
+                .balanceAfter(wallet.getBalance())
+                .processedAt(LocalDateTime.now())
+                .build());
+        spendSummaryService.record(transaction);
+    }
+
+    private String newWallet(BigDecimal balance) {
+        String userId = "user-" + UUID.randomUUID();
+        walletRepository.save(
+                Wallet.builder().userId(userId).balance(balance).token(0).build());
+        return userId;
+    }
+
+    private static ChargeRequest charge(String userId, BigDecimal amount) {
+        return charge(userId, amount, null);
+    }
+
+    private static ChargeRequest charge(String userId, BigDecimal amount, Long holdId) {
+        return ChargeRequest.builder()
+                .userId(userId)
+                .amount(amount)
+                .holdId(holdId)
+                .referenceType("TEST")
+                .referenceId("charge")
+                .build();
+    }
+
+    private static TopUpRequest topUp(String userId, BigDecimal amount) {
+        return TopUpRequest.builder()
+                .userId(userId)
+                .amount(amount)
+                .referenceType("TEST")
+                .referenceId("top-up")
+                .build();
+    }
+
+    private interface Op {
+        void run(int index) throws Exception;
+    }
+
+    /**
+     * Runs {@code opsPerThread} operations on each of {@code threads} threads released
+     * at the same instant, returning the elapsed wall-clock time in nanoseconds.
+     */
+    private static long runConcurrently(int threads, int opsPerThread, Op op) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t * opsPerThread;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < opsPerThread; i++) {
+                    op.run(offset + i);
+                }
+                return null;
+            }));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        long elapsed = System.nanoTime() - begin;
+        executor.shutdown();
+        return elapsed;
+    }
+}
@@ -0,0 +1,33 @@
+package com.wallet_svc.wallet.service.impl;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import com.wallet_svc.wallet.mapper.WalletMapperImpl;
+import com.wallet_svc.wallet.repository.ReturningStatementExecutor;
+import com.wallet_svc.wallet.service.HoldExpiryScheduler;
+import com.wallet_svc.wallet.service.ReadReplicaRouter;
+import com.wallet_svc.wallet.service.SpendSummaryService;
+import com.wallet_svc.wallet.service.WalletSnapshotCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * WalletServiceImpl and the collaborators every mutation goes through, for @DataJpaTest
+ * slices: import this plus whatever the test adds on top. The hold expiry scheduler is
+ * mocked; WalletEventProducer is left to each test, which either mocks it or uses the real
+ * one.
+ */
+@TestConfiguration
+@Import({
+    WalletServiceImpl.class,
+    WalletMapperImpl.class,
+    ReturningStatementExecutor.class,
+    WalletSnapshotCache.class,
+    ReadReplicaRouter.class,
+    SpendSummaryService.class,
+    SimpleMeterRegistry.class
+})
+@MockBean(HoldExpiryScheduler.class)
+public class WalletServiceSlice {}